@@ -1,5 +1,6 @@
 package org.corfudb.annotations;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.squareup.javapoet.AnnotationSpec;
@@ -48,6 +49,7 @@ import org.corfudb.runtime.object.ICorfuSMRProxy;
 import org.corfudb.runtime.object.ICorfuSMRUpcallTarget;
 import org.corfudb.runtime.object.IUndoFunction;
 import org.corfudb.runtime.object.IUndoRecordFunction;
+import org.corfudb.runtime.object.SmrMethods;
 
 /** <p>The annotation processor, which takes annotated Corfu objects and
  * generates a class which can be used by the runtime instead of requiring
@@ -567,6 +569,7 @@ public class ObjectAnnotationProcessor extends AbstractProcessor {
                     }
                 });
 
+        addMethodTable(typeSpecBuilder, originalName, methodSet);
         addUpcallMap(typeSpecBuilder, originalName, interfacesToAdd, methodSet);
         addUndoRecordMap(typeSpecBuilder, originalName, interfacesToAdd, methodSet);
         addUndoMap(typeSpecBuilder, originalName, interfacesToAdd, methodSet);
@@ -698,6 +701,73 @@ public class ObjectAnnotationProcessor extends AbstractProcessor {
 
     }
 
+    /** Add the table of SMR method names, ordered by name, and the getter for the table.
+     * Methods which generate an upcall must have distinct names, and the SMR methods
+     * distinct ids, see {@link SmrMethods}, as the name and the id both identify the
+     * upcall to apply.
+     *
+     * @param typeSpecBuilder   The typespec builder to add the table to
+     * @param originalName      The name of the original base type (without $CORFUSMR)
+     * @param methodSet         The set of methods to add for instrumentation.
+     */
+    private void addMethodTable(TypeSpec.Builder typeSpecBuilder, TypeName originalName,
+                                Set<SmrMethodInfo> methodSet) {
+        methodSet.stream()
+                .filter(x -> x.method.getAnnotation(MutatorAccessor.class) != null
+                        || (x.method.getAnnotation(Mutator.class) != null
+                        && !x.method.getAnnotation(Mutator.class).noUpcall()))
+                .collect(Collectors.groupingBy(x -> getSmrFunctionName(x.method)))
+                .forEach((name, methods) -> {
+                    if (methods.size() > 1) {
+                        messager.printMessage(Diagnostic.Kind.ERROR, "Methods "
+                                + methods.stream()
+                                    .map(x -> x.method.toString())
+                                    .collect(Collectors.joining(", "))
+                                + " of " + originalName + " are all recorded as SMR method "
+                                + name + ", rename all but one of them", methods.get(1).method);
+                    }
+                });
+
+        List<String> methods = methodSet.stream()
+                .filter(x -> x.method.getAnnotation(MutatorAccessor.class) != null
+                        || x.method.getAnnotation(Mutator.class) != null)
+                .map(x -> getSmrFunctionName(x.method))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+
+        methods.stream()
+                .collect(Collectors.groupingBy(SmrMethods::idOf))
+                .forEach((id, names) -> {
+                    if (names.size() > 1) {
+                        messager.printMessage(Diagnostic.Kind.ERROR, "SMR methods "
+                                + String.join(", ", names) + " of " + originalName
+                                + " have the same id " + id + ", rename all but one of them");
+                    }
+                });
+
+        String methodString = methods.stream()
+                .map(x -> "\n.add(\"" + x + "\")")
+                .collect(Collectors.joining());
+
+        FieldSpec methodTable = FieldSpec.builder(ParameterizedTypeName.get(
+                ClassName.get(List.class), ClassName.get(String.class)),
+                "methodTable" + CORFUSMR_FIELD, Modifier.STATIC, Modifier.FINAL,
+                Modifier.PUBLIC)
+                .initializer("new $T()$L.build()",
+                        ParameterizedTypeName.get(ClassName.get(ImmutableList.Builder.class),
+                                ClassName.get(String.class)), methodString)
+                .build();
+
+        typeSpecBuilder.addField(methodTable);
+        typeSpecBuilder.addMethod(MethodSpec.methodBuilder("getCorfuSMRMethods")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class),
+                        ClassName.get(String.class)))
+                .addStatement("return $L", "methodTable" + CORFUSMR_FIELD)
+                .build());
+    }
+
     private void addUpcallMap(TypeSpec.Builder typeSpecBuilder, TypeName originalName,
                               Set<TypeName> interfacesToAdd, Set<SmrMethodInfo> methodSet) {
 
@@ -1,5 +1,6 @@
 package org.corfudb.runtime.object;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -39,6 +40,12 @@ public interface ICorfuSMR<T> {
      */
     Set<String> getCorfuResetSet();
 
+    /** Get the names of the SMR methods of this object, whose ids are
+     * distinct.
+     * @return  The names of the SMR methods, see {@link SmrMethods}.
+     */
+    List<String> getCorfuSMRMethods();
+
     /** Return the stream ID that this object belongs to.
      * @return The stream ID this object belongs to. */
     default UUID getCorfuStreamID() {
@@ -0,0 +1,32 @@
+package org.corfudb.runtime.object;
+
+/** Identifies the SMR methods of an object type by a compact id, which the
+ * log can record instead of their name.
+ *
+ * <p>The id of a method is a hash of its SMR name, which is the identity of
+ * the method in the log, so an id doesn't change as the other methods of the
+ * type are added, removed or renamed. Ids are only meaningful together with
+ * the type: the annotation processor fails the build of a type if two of its
+ * SMR methods have the same id, see {@link ICorfuSMR#getCorfuSMRMethods()}.
+ */
+public final class SmrMethods {
+
+    /** The number of distinct ids, so that an id fits in the short which
+     * records the length of a method name. */
+    public static final int MAX_METHODS = Short.MAX_VALUE + 1;
+
+    /** Prevent instantiation. */
+    private SmrMethods() {
+    }
+
+    /** Get the id of an SMR method.
+     *
+     * @param name  The SMR name of the method.
+     * @return      The id of the method, between 0 and MAX_METHODS - 1.
+     */
+    public static int idOf(final String name) {
+        // String.hashCode() is specified, so every build and JVM agree on ids.
+        final int hash = name.hashCode();
+        return (hash ^ (hash >>> Short.SIZE)) & (MAX_METHODS - 1);
+    }
+}
@@ -0,0 +1,93 @@
+package org.corfudb.infrastructure;
+
+import io.netty.buffer.Unpooled;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.corfudb.infrastructure.log.InMemoryStreamLog;
+import org.corfudb.infrastructure.log.StreamLog;
+import org.corfudb.infrastructure.log.StreamLogFiles;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the write throughput of the {@link BatchWriter} with several concurrent
+ * writers, as the log unit sees it. With a file log every write is synced, so the
+ * throughput reflects how well writes are group-committed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class BatchWriterBenchmark {
+
+    @Param({"files", "memory"})
+    String log;
+
+    @Param({"4096"})
+    int payloadSize;
+
+    String logPath;
+
+    StreamLog streamLog;
+
+    BatchWriter batchWriter;
+
+    byte[] payload;
+
+    final AtomicLong nextAddress = new AtomicLong();
+
+    /** A fresh log per iteration, so that writes never accumulate unbounded segments. */
+    @Setup(Level.Iteration)
+    public void setup() {
+        if (log.equals("files")) {
+            logPath = BenchmarkServerContexts.newTempDir();
+            streamLog = new StreamLogFiles(BenchmarkServerContexts.create(logPath), false);
+        } else {
+            streamLog = new InMemoryStreamLog();
+        }
+        batchWriter = new BatchWriter(streamLog, 0, log.equals("files"));
+        payload = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(payload);
+        nextAddress.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        batchWriter.close();
+        streamLog.close();
+        if (logPath != null) {
+            BenchmarkServerContexts.deleteTempDir(logPath);
+            logPath = null;
+        }
+    }
+
+    @Benchmark
+    public long write() {
+        long address = nextAddress.getAndIncrement();
+        LogData logData = new LogData(DataType.DATA, Unpooled.wrappedBuffer(payload));
+        logData.setGlobalAddress(address);
+        logData.setEpoch(0L);
+        batchWriter.asyncWrite(address, logData).join();
+        return address;
+    }
+}
@@ -0,0 +1,84 @@
+package org.corfudb.infrastructure;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Builds {@link ServerContext}s for servers that run inside a benchmark, without a
+ * network or a cluster.
+ */
+public final class BenchmarkServerContexts {
+
+    /** Event loops handed to every context, servers driven by benchmarks never use them. */
+    private static final EventLoopGroup EVENT_LOOPS = new DefaultEventLoopGroup(1);
+
+    private BenchmarkServerContexts() {
+        // Prevent instantiation of this utility class
+    }
+
+    /**
+     * Returns a context for a server.
+     *
+     * @param logPath directory the server persists its data in, or null to keep it in memory
+     * @return a new server context
+     */
+    public static ServerContext create(@Nullable String logPath) {
+        ImmutableMap.Builder<String, Object> builder = new ImmutableMap.Builder<String, Object>()
+                .put("--initial-token", 0L)
+                .put("--single", true)
+                .put("--memory", logPath == null)
+                .put("--no-verify", false)
+                .put("--no-sync", false)
+                .put("--mmap-reads", false)
+                .put("--max-fsync-delay", "1000")
+                .put("--sequencer-cache-size", "250000")
+                .put("--batch-size", "100")
+                .put("--cache-heap-ratio", "0.5")
+                .put("--address", "benchmark")
+                .put("--cluster-id", "auto")
+                .put("--Threads", "0")
+                .put("--HandshakeTimeout", "10")
+                .put("--Prefix", "benchmark")
+                .put("--implementation", "local")
+                .put("<port>", 9000)
+                .put("client", EVENT_LOOPS)
+                .put("boss", EVENT_LOOPS)
+                .put("worker", EVENT_LOOPS);
+        if (logPath != null) {
+            builder.put("--log-path", logPath);
+        }
+        return new ServerContext(builder.build());
+    }
+
+    /**
+     * Returns a new empty temporary directory for a benchmark to persist data in.
+     *
+     * @return the path of the directory
+     */
+    public static String newTempDir() {
+        try {
+            return Files.createTempDirectory("corfu-benchmark").toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Deletes a directory created by {@link #newTempDir()}.
+     *
+     * @param dir path of the directory
+     */
+    public static void deleteTempDir(String dir) {
+        FileUtils.deleteQuietly(new File(dir));
+    }
+}
@@ -0,0 +1,32 @@
+package org.corfudb.infrastructure;
+
+import io.netty.channel.ChannelHandlerContext;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+
+/**
+ * A router for servers driven directly by a benchmark: it only keeps the last response,
+ * so that the benchmark can consume it.
+ */
+public class BenchmarkServerRouter implements IServerRouter {
+
+    @Getter
+    private volatile CorfuMsg lastResponse;
+
+    @Getter
+    @Setter
+    private volatile long serverEpoch;
+
+    @Override
+    public void sendResponse(ChannelHandlerContext ctx, CorfuMsg inMsg, CorfuMsg outMsg) {
+        lastResponse = outMsg;
+    }
+
+    @Override
+    public void addServer(AbstractServer server) {
+        // Benchmarks invoke the servers directly
+    }
+}
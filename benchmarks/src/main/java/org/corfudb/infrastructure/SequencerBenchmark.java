@@ -0,0 +1,119 @@
+package org.corfudb.infrastructure;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.TokenRequest;
+import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast the {@link SequencerServer} issues tokens: raw tokens, tokens for a
+ * stream, and transactional tokens, which resolve conflicts with txnCanCommit first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequencerBenchmark {
+
+    /** Number of distinct streams requests are spread over. */
+    @Param({"1024"})
+    int numStreams;
+
+    /** Number of distinct conflict parameters of each stream. */
+    @Param({"1024"})
+    int numConflictParams;
+
+    /** Number of conflict parameters each transaction reads and writes. */
+    @Param({"4"})
+    int txConflictParams;
+
+    SequencerServer sequencer;
+
+    BenchmarkServerRouter router;
+
+    UUID[] streams;
+
+    byte[][] conflictParams;
+
+    @Setup
+    public void setup() {
+        sequencer = new SequencerServer(BenchmarkServerContexts.create(null));
+        router = new BenchmarkServerRouter();
+
+        streams = new UUID[numStreams];
+        for (int i = 0; i < numStreams; i++) {
+            streams[i] = UUID.randomUUID();
+        }
+        conflictParams = new byte[numConflictParams][];
+        for (int i = 0; i < numConflictParams; i++) {
+            conflictParams[i] = Integer.toString(i).getBytes();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sequencer.shutdown();
+    }
+
+    private CorfuMsg request(TokenRequest request) {
+        CorfuPayloadMsg<TokenRequest> msg = CorfuMsgType.TOKEN_REQ.payloadMsg(request);
+        sequencer.tokenRequest(msg, null, router);
+        return router.getLastResponse();
+    }
+
+    @Benchmark
+    public CorfuMsg rawToken() {
+        return request(new TokenRequest(1L, Collections.emptyList()));
+    }
+
+    @Benchmark
+    public CorfuMsg streamToken() {
+        UUID stream = streams[ThreadLocalRandom.current().nextInt(numStreams)];
+        return request(new TokenRequest(1L, Collections.singletonList(stream)));
+    }
+
+    /**
+     * A transaction over one stream, with a snapshot at the current tail, so that it only
+     * aborts if it conflicts with a transaction issued concurrently.
+     */
+    @Benchmark
+    public CorfuMsg txToken() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID stream = streams[random.nextInt(numStreams)];
+        Set<byte[]> params = new HashSet<>();
+        for (int i = 0; i < txConflictParams; i++) {
+            params.add(conflictParams[random.nextInt(numConflictParams)]);
+        }
+        Map<UUID, Set<byte[]>> conflictSet = Collections.singletonMap(stream, params);
+        List<UUID> txStreams = Collections.singletonList(stream);
+
+        UUID txId = new UUID(random.nextLong(), random.nextLong());
+        TxResolutionInfo txInfo = new TxResolutionInfo(txId,
+                sequencer.getGlobalLogTail().get() - 1, conflictSet, conflictSet);
+        return request(new TokenRequest(1L, txStreams, txInfo));
+    }
+}
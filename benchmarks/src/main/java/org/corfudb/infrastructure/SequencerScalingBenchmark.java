@@ -0,0 +1,107 @@
+package org.corfudb.infrastructure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.TokenRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how token issuance by the {@link SequencerServer} scales with the number of
+ * threads serving requests, as with --sequencer-threads. Each thread requests tokens on a
+ * stream of its own, or raw tokens.
+ *
+ * <p>Run with -t to choose the number of threads, or run {@link #main} to measure 1 thread up
+ * to the number of available processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequencerScalingBenchmark {
+
+    SequencerServer sequencer;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final BenchmarkServerRouter router = new BenchmarkServerRouter();
+
+        final List<UUID> stream = Collections.singletonList(UUID.randomUUID());
+    }
+
+    @Setup
+    public void setup() {
+        sequencer = new SequencerServer(BenchmarkServerContexts.create(null));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sequencer.shutdown();
+    }
+
+    private CorfuMsg request(ThreadState state, TokenRequest request) {
+        sequencer.tokenRequest(CorfuMsgType.TOKEN_REQ.payloadMsg(request), null, state.router);
+        return state.router.getLastResponse();
+    }
+
+    @Benchmark
+    public CorfuMsg rawToken(ThreadState state) {
+        return request(state, new TokenRequest(1L, Collections.emptyList()));
+    }
+
+    @Benchmark
+    public CorfuMsg streamToken(ThreadState state) {
+        return request(state, new TokenRequest(1L, state.stream));
+    }
+
+    /**
+     * Runs the benchmarks with 1, 2, 4... threads up to the number of available processors,
+     * and prints the throughput of each.
+     */
+    @SuppressWarnings("checkstyle:print")
+    public static void main(String[] args) throws RunnerException {
+        final int maxThreads = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        StringBuilder summary = new StringBuilder();
+        for (int threads : threadCounts) {
+            Options opts = new OptionsBuilder()
+                    .include(SequencerScalingBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            for (RunResult result : new Runner(opts).run()) {
+                summary.append(String.format("%-40s %3d threads %,15.0f ops/s%n",
+                        result.getParams().getBenchmark(), threads,
+                        result.getPrimaryResult().getScore()));
+            }
+        }
+        System.out.print(summary);
+    }
+}
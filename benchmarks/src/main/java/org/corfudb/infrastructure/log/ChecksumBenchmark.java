@@ -0,0 +1,127 @@
+package org.corfudb.infrastructure.log;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.format.Types;
+import org.corfudb.format.Types.LogEntry;
+import org.corfudb.format.Types.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares how a log entry is checksummed and serialized into a record before being
+ * appended by {@link StreamLogFiles}: the previous path, which serialized the entry twice
+ * and fed the checksum one byte at a time, against serializing once into a reused direct
+ * buffer and checksumming it in bulk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChecksumBenchmark {
+
+    @Param({"128", "4096", "65536"})
+    int payloadSize;
+
+    LogEntry entry;
+
+    byte[] serializedEntry;
+
+    ByteBuffer directEntry;
+
+    ByteBuffer recordBuffer;
+
+    @Setup
+    public void setup() {
+        byte[] payload = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(payload);
+
+        entry = LogEntry.newBuilder()
+                .setDataType(Types.DataType.DATA)
+                .setData(ByteString.copyFrom(payload))
+                .setGlobalAddress(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE))
+                .addStreams(UUID.randomUUID().toString())
+                .putBackpointers(UUID.randomUUID().toString(), 0L)
+                .build();
+
+        serializedEntry = entry.toByteArray();
+        directEntry = ByteBuffer.allocateDirect(serializedEntry.length);
+        directEntry.put(serializedEntry);
+        directEntry.flip();
+        recordBuffer = ByteBuffer.allocateDirect(StreamLogFiles.METADATA_SIZE
+                + serializedEntry.length);
+    }
+
+    /** The checksum as it used to be computed, one byte at a time. */
+    private static int perByteChecksum(byte[] bytes) {
+        Hasher hasher = Hashing.crc32c().newHasher();
+        for (byte a : bytes) {
+            hasher.putByte(a);
+        }
+        return hasher.hash().asInt();
+    }
+
+    @Benchmark
+    public int checksumPerByte() {
+        return perByteChecksum(serializedEntry);
+    }
+
+    @Benchmark
+    public int checksumGuavaBulk() {
+        return Hashing.crc32c().hashBytes(serializedEntry).asInt();
+    }
+
+    @Benchmark
+    public int checksumArray() {
+        return Crc32c.checksum(serializedEntry, 0, serializedEntry.length);
+    }
+
+    @Benchmark
+    public int checksumDirectBuffer() {
+        return Crc32c.checksum(directEntry, 0, directEntry.limit());
+    }
+
+    /** The record as it used to be built: the entry is serialized twice into a new buffer. */
+    @Benchmark
+    public ByteBuffer recordSerializedTwice() {
+        Metadata metadata = Metadata.newBuilder()
+                .setPayloadChecksum(perByteChecksum(entry.toByteArray()))
+                .setLengthChecksum(StreamLogFiles.getChecksum(entry.getSerializedSize()))
+                .setLength(entry.getSerializedSize())
+                .build();
+
+        ByteBuffer buf = ByteBuffer.allocate(metadata.getSerializedSize()
+                + entry.getSerializedSize());
+        buf.put(metadata.toByteArray());
+        buf.put(entry.toByteArray());
+        buf.flip();
+        return buf;
+    }
+
+    @Benchmark
+    public ByteBuffer recordSerializedOnce() throws IOException {
+        recordBuffer.clear();
+        StreamLogFiles.putRecord(recordBuffer, entry);
+        recordBuffer.flip();
+        return recordBuffer;
+    }
+}
@@ -0,0 +1,146 @@
+package org.corfudb.infrastructure.log;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.infrastructure.BenchmarkServerContexts;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures appending to and reading from a {@link StreamLog}, either {@link StreamLogFiles}
+ * in a temporary directory or an {@link InMemoryStreamLog}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamLogBenchmark {
+
+    /** Number of addresses written before reads are measured, one segment. */
+    static final int READ_ADDRESSES = StreamLogFiles.RECORDS_PER_LOG_FILE;
+
+    static LogData newLogData(long address, int payloadSize) {
+        byte[] payload = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(payload);
+        ByteBuf buf = Unpooled.buffer();
+        Serializers.CORFU.serialize(payload, buf);
+        LogData logData = new LogData(DataType.DATA, buf);
+        logData.setGlobalAddress(address);
+        logData.setBackpointerMap(Collections.singletonMap(UUID.randomUUID(), address - 1));
+        return logData;
+    }
+
+    @State(Scope.Benchmark)
+    public static class LogState {
+
+        @Param({"files", "memory"})
+        String log;
+
+        @Param({"128", "4096"})
+        int payloadSize;
+
+        String logPath;
+
+        StreamLog streamLog;
+
+        LogData template;
+
+        long nextAddress;
+
+        void open() {
+            if (log.equals("files")) {
+                logPath = BenchmarkServerContexts.newTempDir();
+                streamLog = new StreamLogFiles(BenchmarkServerContexts.create(logPath), false);
+            } else {
+                streamLog = new InMemoryStreamLog();
+            }
+            template = newLogData(0, payloadSize);
+            nextAddress = 0;
+        }
+
+        void close() {
+            streamLog.close();
+            if (logPath != null) {
+                BenchmarkServerContexts.deleteTempDir(logPath);
+                logPath = null;
+            }
+        }
+
+        LogData nextEntry() {
+            LogData logData = new LogData(DataType.DATA,
+                    Unpooled.wrappedBuffer(template.getData()));
+            logData.setGlobalAddress(nextAddress++);
+            logData.setBackpointerMap(template.getBackpointerMap());
+            return logData;
+        }
+    }
+
+    /** A fresh log per iteration, so that appends never accumulate unbounded segments. */
+    @State(Scope.Benchmark)
+    public static class AppendState extends LogState {
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            open();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            close();
+        }
+    }
+
+    /** A log holding one full segment to read from. */
+    @State(Scope.Benchmark)
+    public static class ReadState extends LogState {
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            open();
+            for (int i = 0; i < READ_ADDRESSES; i++) {
+                LogData logData = nextEntry();
+                streamLog.append(logData.getGlobalAddress(), logData);
+            }
+            streamLog.sync(true);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            close();
+        }
+    }
+
+    @Benchmark
+    public long append(AppendState state) {
+        LogData logData = state.nextEntry();
+        state.streamLog.append(logData.getGlobalAddress(), logData);
+        return logData.getGlobalAddress();
+    }
+
+    @Benchmark
+    public LogData read(ReadState state) {
+        return state.streamLog.read(ThreadLocalRandom.current().nextInt(READ_ADDRESSES));
+    }
+}
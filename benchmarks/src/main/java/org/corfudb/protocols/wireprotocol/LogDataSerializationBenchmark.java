@@ -0,0 +1,76 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serializing an SMR update with the {@code CorfuSerializer} into a
+ * {@link LogData}, the wire form of a log entry, and the reverse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogDataSerializationBenchmark {
+
+    @Param({"16", "1024"})
+    int valueSize;
+
+    SMREntry entry;
+
+    ByteBuf serialized;
+
+    @Setup
+    public void setup() {
+        char[] value = new char[valueSize];
+        Arrays.fill(value, 'v');
+        entry = new SMREntry("put", new Object[]{"key", new String(value)},
+                Serializers.PRIMITIVE);
+
+        serialized = serialize();
+    }
+
+    private ByteBuf serialize() {
+        LogData logData = new LogData(DataType.DATA, entry);
+        logData.setGlobalAddress(0L);
+        logData.setBackpointerMap(Collections.singletonMap(new UUID(0L, 0L), -1L));
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        logData.doSerialize(buf);
+        return buf;
+    }
+
+    @Benchmark
+    public int serializeLogData() {
+        ByteBuf buf = serialize();
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    @Benchmark
+    public Object deserializeLogData() {
+        LogData logData = new LogData(serialized.duplicate());
+        return logData.getPayload(null);
+    }
+}
@@ -0,0 +1,171 @@
+package org.corfudb.runtime.collections;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures maintaining the secondary indexes of a {@link CorfuTable} as its entries are
+ * updated, and looking entries up by index. The table is used directly, as it is when
+ * updates are applied by its version locked object.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorfuTableIndexBenchmark {
+
+    static final CorfuTable.IndexName BY_VALUE = () -> "BY_VALUE";
+
+    static final CorfuTable.IndexName BY_BUCKET = () -> "BY_BUCKET";
+
+    static final CorfuTable.IndexName SORTED_BY_VALUE = () -> "SORTED_BY_VALUE";
+
+    /** Number of distinct values of the bucket index, so that each bucket holds many keys. */
+    static final int BUCKETS = 64;
+
+    /** Number of distinct values a range query covers. */
+    static final int RANGE = 100;
+
+    /** Number of entries a caller pages through at a time. */
+    static final int PAGE = 100;
+
+    /** Indexes each entry by its value, sorted and not, and by a coarse bucket of its value. */
+    static class ValueIndexer implements CorfuTable.IndexRegistry<Integer, Integer> {
+
+        private static final CorfuTable.Index<Integer, Integer, ? extends Comparable<?>>
+                BY_VALUE_INDEX = new CorfuTable.Index<>(BY_VALUE,
+                (CorfuTable.IndexFunction<Integer, Integer, Integer>) (k, v) -> v);
+
+        private static final CorfuTable.Index<Integer, Integer, ? extends Comparable<?>>
+                BY_BUCKET_INDEX = new CorfuTable.Index<>(BY_BUCKET,
+                (CorfuTable.IndexFunction<Integer, Integer, Integer>) (k, v) -> v % BUCKETS);
+
+        private static final CorfuTable.Index<Integer, Integer, ? extends Comparable<?>>
+                SORTED_BY_VALUE_INDEX = new CorfuTable.Index<>(SORTED_BY_VALUE,
+                (CorfuTable.IndexFunction<Integer, Integer, Integer>) (k, v) -> v,
+                CorfuTable.IndexType.SORTED);
+
+        @Override
+        public Iterator<CorfuTable.Index<Integer, Integer, ? extends Comparable<?>>> iterator() {
+            return Stream.of(BY_VALUE_INDEX, BY_BUCKET_INDEX, SORTED_BY_VALUE_INDEX).iterator();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <I extends Comparable<?>> Optional<CorfuTable.Index<Integer, Integer, I>> get(
+                CorfuTable.IndexName name) {
+            String indexName = name != null ? name.get() : null;
+            if (BY_VALUE.get().equals(indexName)) {
+                return Optional.of((CorfuTable.Index<Integer, Integer, I>) BY_VALUE_INDEX);
+            } else if (BY_BUCKET.get().equals(indexName)) {
+                return Optional.of((CorfuTable.Index<Integer, Integer, I>) BY_BUCKET_INDEX);
+            } else if (SORTED_BY_VALUE.get().equals(indexName)) {
+                return Optional.of((CorfuTable.Index<Integer, Integer, I>) SORTED_BY_VALUE_INDEX);
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Param({"true", "false"})
+    boolean indexed;
+
+    @Param({"100000"})
+    int numKeys;
+
+    CorfuTable<Integer, Integer> table;
+
+    @Setup
+    public void setup() {
+        table = indexed ? new CorfuTable<>(new ValueIndexer()) : new CorfuTable<>();
+        for (int i = 0; i < numKeys; i++) {
+            table.put(i, i);
+        }
+    }
+
+    /** Replaces the value of an existing key, moving it between index entries. */
+    @Benchmark
+    public Integer put() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return table.put(random.nextInt(numKeys), random.nextInt(numKeys));
+    }
+
+    /** Looks up the entries of a bucket, a full scan when the table isn't indexed. */
+    @Benchmark
+    public Collection<Map.Entry<Integer, Integer>> getByBucket() {
+        final int bucket = ThreadLocalRandom.current().nextInt(BUCKETS);
+        return table.getByIndexAndFilter(BY_BUCKET, e -> e.getValue() % BUCKETS == bucket,
+                bucket);
+    }
+
+    /** Looks up the entries whose value is in a range, a full scan when the table isn't indexed. */
+    @Benchmark
+    public Collection<Map.Entry<Integer, Integer>> getByValueRange() {
+        final int from = ThreadLocalRandom.current().nextInt(numKeys - RANGE);
+        if (indexed) {
+            return table.getByIndexRange(SORTED_BY_VALUE, from, from + RANGE);
+        }
+        return table.scanAndFilterByEntry(e -> e.getValue() >= from
+                && e.getValue() < from + RANGE);
+    }
+
+    /** Filters the whole table, copying every match. */
+    @Benchmark
+    public Collection<Map.Entry<Integer, Integer>> scanAll() {
+        return table.scanAndFilterByEntry(e -> e.getValue() % 2 == 0);
+    }
+
+    /** Streams the first page of matches of the same filter. */
+    @Benchmark
+    public long streamFirstPage() {
+        return table.streamByEntry(e -> e.getValue() % 2 == 0, PAGE).limit(PAGE).count();
+    }
+
+    /** Streams every match of the same filter, a page at a time. */
+    @Benchmark
+    public long streamAll() {
+        return table.streamByEntry(e -> e.getValue() % 2 == 0, PAGE).count();
+    }
+
+    /** Loads a table, maintaining its indexes as each entry is put. */
+    @Benchmark
+    public CorfuTable<Integer, Integer> loadMaintainingIndexes() {
+        CorfuTable<Integer, Integer> loaded = indexed
+                ? new CorfuTable<>(new ValueIndexer()) : new CorfuTable<>();
+        for (int i = 0; i < numKeys; i++) {
+            loaded.put(i, i);
+        }
+        return loaded;
+    }
+
+    /** Loads a table, building its indexes once all entries are put. */
+    @Benchmark
+    public CorfuTable<Integer, Integer> loadDeferringIndexes() {
+        CorfuTable<Integer, Integer> loaded = indexed
+                ? new CorfuTable<>(new ValueIndexer()) : new CorfuTable<>();
+        loaded.beginBulkLoad();
+        for (int i = 0; i < numKeys; i++) {
+            loaded.put(i, i);
+        }
+        loaded.endBulkLoad();
+        return loaded;
+    }
+}
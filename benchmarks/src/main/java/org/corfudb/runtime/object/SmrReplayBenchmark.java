@@ -0,0 +1,89 @@
+package org.corfudb.runtime.object;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.corfudb.protocols.logprotocol.LogEntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures replaying SMR updates onto a {@link VersionLockedObject}: deserializing each
+ * entry and dispatching it to its upcall. Entries record their method either by id, or
+ * by name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmrReplayBenchmark {
+
+    private static final int NUM_ENTRIES = 1024;
+
+    /** The SMR methods of the object. */
+    private static final List<String> METHODS = ImmutableList.of("clear", "put", "remove");
+
+    @Param({"id", "name"})
+    String encoding;
+
+    VersionLockedObject<Map<Object, Object>> object;
+
+    ByteBuf[] entries;
+
+    int next;
+
+    @Setup
+    @SuppressWarnings("deprecation")
+    public void setup() {
+        object = new VersionLockedObject<>(HashMap::new, null,
+                ImmutableMap.<String, ICorfuSMRUpcallTarget<Map<Object, Object>>>builder()
+                        .put("put", (map, args) -> map.put(args[0], args[1]))
+                        .put("remove", (map, args) -> map.remove(args[0]))
+                        .put("clear", (map, args) -> {
+                            map.clear();
+                            return null;
+                        })
+                        .build(),
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptySet(),
+                METHODS);
+
+        entries = new ByteBuf[NUM_ENTRIES];
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            String method = i % 2 == 0 ? "put" : "remove";
+            SMREntry entry = new SMREntry(method,
+                    encoding.equals("id") ? SmrMethods.idOf(method) : SMREntry.NO_METHOD_ID,
+                    new Object[]{"key" + i % 16, "value"}, Serializers.PRIMITIVE);
+            entries[i] = Unpooled.buffer();
+            entry.serialize(entries[i]);
+        }
+    }
+
+    @Benchmark
+    public Object replay() {
+        ByteBuf buf = entries[next++ % NUM_ENTRIES];
+        SMREntry entry = (SMREntry) LogEntry.deserialize(buf.duplicate(), null);
+        return object.applyUpdateUnsafe(entry);
+    }
+}
@@ -0,0 +1,77 @@
+package org.corfudb.runtime.object;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link VersionLockedObject#access} from concurrent readers, when the object is
+ * up to date (optimistic reads) and when a fraction of the accesses have to update it
+ * under the write lock first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class VersionLockedObjectBenchmark {
+
+    private static final int MAP_SIZE = 1024;
+
+    /** Percentage of the accesses that find the object stale and have to update it. */
+    @Param({"0", "1", "10"})
+    int updatePercent;
+
+    VersionLockedObject<Map<Integer, Integer>> object;
+
+    /** The version the object would be synced to, advanced by the updates. */
+    volatile long version;
+
+    @Setup
+    @SuppressWarnings("deprecation")
+    public void setup() {
+        // The stream only reports the position of the object, which the updates advance
+        StreamViewSMRAdapter stream = new StreamViewSMRAdapter(null, null) {
+            @Override
+            public long pos() {
+                return version;
+            }
+        };
+
+        object = new VersionLockedObject<>(() -> {
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < MAP_SIZE; i++) {
+                map.put(i, i);
+            }
+            return map;
+        }, stream, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+                Collections.emptySet());
+    }
+
+    @Benchmark
+    public Integer access() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        final boolean stale = random.nextInt(100) < updatePercent;
+        final int key = random.nextInt(MAP_SIZE);
+        return object.access(o -> !stale,
+                o -> version++,
+                map -> map.get(key));
+    }
+}
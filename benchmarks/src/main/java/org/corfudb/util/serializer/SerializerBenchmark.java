@@ -0,0 +1,90 @@
+package org.corfudb.util.serializer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import lombok.AllArgsConstructor;
+
+import org.corfudb.protocols.logprotocol.LogEntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serializing an SMR update of a table, whose key is a string and whose value
+ * is a small record, and deserializing it back, with the JSON and binary serializers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    private static final byte BINARY_TYPE = (byte) 42;
+
+    private static final int RECORD_ID = BinarySerializer.FIRST_CLASS_ID;
+
+    @AllArgsConstructor
+    static class Record {
+        String name;
+        UUID owner;
+        long timestamp;
+        int count;
+    }
+
+    @Param({"json", "binary"})
+    String serializer;
+
+    SMREntry entry;
+
+    ByteBuf buf;
+
+    @Setup
+    public void setup() {
+        ISerializer binary = new BinarySerializer(BINARY_TYPE)
+                .register(RECORD_ID, Record.class,
+                    (r, b) -> {
+                        BinarySerializer.writeString(r.name, b);
+                        b.writeLong(r.owner.getMostSignificantBits());
+                        b.writeLong(r.owner.getLeastSignificantBits());
+                        BinarySerializer.writeVarLong(r.timestamp, b);
+                        BinarySerializer.writeVarInt(r.count, b);
+                    },
+                    (b, rt) -> new Record(BinarySerializer.readString(b),
+                            new UUID(b.readLong(), b.readLong()),
+                            BinarySerializer.readVarLong(b), BinarySerializer.readVarInt(b)));
+        Serializers.registerSerializer(binary);
+
+        Record value = new Record("record", new UUID(1L, 2L), System.currentTimeMillis(), 1);
+        entry = new SMREntry("put", new Object[]{"key", value},
+                serializer.equals("json") ? Serializers.JSON : binary);
+        buf = PooledByteBufAllocator.DEFAULT.buffer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        buf.clear();
+        entry.serialize(buf);
+        return LogEntry.deserialize(buf, null);
+    }
+}
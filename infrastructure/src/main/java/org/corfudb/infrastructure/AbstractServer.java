@@ -19,8 +19,17 @@ public abstract class AbstractServer {
     @Setter
     volatile boolean shutdown;
 
+    /**
+     * Writes are acknowledged from the batch writer's completions, so handler threads no
+     * longer wait for a batch to fill and sync. Handlers still block on reads that miss
+     * the log unit's cache, hence twice as many threads as processors, and at least
+     * MIN_SHARED_THREADS.
+     */
+    static final int MIN_SHARED_THREADS = 8;
+
     static final ExecutorService sharedExecutor = Executors
-            .newFixedThreadPool(BatchWriter.BATCH_SIZE + Runtime.getRuntime().availableProcessors(),
+            .newFixedThreadPool(Math.max(MIN_SHARED_THREADS,
+                    2 * Runtime.getRuntime().availableProcessors()),
                     new ServerThreadFactory("SharedServerThread-",
                             new ServerThreadFactory.ExceptionHandler()));
 
@@ -1,13 +1,16 @@
 package org.corfudb.infrastructure;
 
-import com.github.benmanes.caffeine.cache.CacheWriter;
-import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -22,22 +25,67 @@ import org.corfudb.infrastructure.log.StreamLog;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
+import org.corfudb.util.CorfuComponent;
 
 /**
- * BatchWriter is a class that will intercept write-through calls to batch and
- * sync writes.
+ * BatchWriter is a class that batches the writes to a stream log, and syncs each
+ * batch at once.
  */
 @Slf4j
-public class BatchWriter<K, V> implements CacheWriter<K, V>, AutoCloseable {
+public class BatchWriter implements AutoCloseable {
 
     static final int BATCH_SIZE = 50;
 
+    /**
+     * Maximum number of operations that are synced together.
+     */
+    static final int MAX_BATCH_OPS = 4 * BATCH_SIZE;
+
+    /**
+     * Maximum number of payload bytes that are synced together.
+     */
+    static final long MAX_BATCH_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * Maximum time in microseconds a batch waits for more operations, unless configured.
+     */
+    static final long DEFAULT_MAX_FSYNC_DELAY_MICROS = 1000;
+
+    /**
+     * Weight of the last batch in the moving average of batch sizes.
+     */
+    private static final double BATCH_SIZE_SMOOTHING = 0.25;
+
+    public static final String BATCH_SIZE_METRIC = CorfuComponent.INFRA_BATCH_WRITER + "batch-size";
+
+    public static final String BATCH_BYTES_METRIC = CorfuComponent.INFRA_BATCH_WRITER + "batch-bytes";
+
+    public static final String FSYNC_METRIC = CorfuComponent.INFRA_BATCH_WRITER + "fsync";
+
     final boolean doSync;
 
+    /**
+     * Maximum time a batch waits for more operations before it is synced.
+     */
+    private final long maxFsyncDelayNanos;
+
+    private final Histogram batchSizeHistogram = ServerContext.metrics.histogram(BATCH_SIZE_METRIC);
+
+    private final Histogram batchBytesHistogram =
+            ServerContext.metrics.histogram(BATCH_BYTES_METRIC);
+
+    private final Timer fsyncTimer = ServerContext.metrics.timer(FSYNC_METRIC);
+
     private StreamLog streamLog;
 
     private BlockingQueue<BatchWriterOperation> operationsQueue;
 
+    /**
+     * Addresses which were appended to the stream log, but whose batch hasn't been synced
+     * and acknowledged yet.
+     */
+    private final Set<Long> pendingWrites = ConcurrentHashMap.newKeySet();
+
     final ExecutorService writerService = Executors
             .newSingleThreadExecutor(new ThreadFactoryBuilder()
                     .setDaemon(false)
@@ -58,32 +106,57 @@ public class BatchWriter<K, V> implements CacheWriter<K, V>, AutoCloseable {
      * @param streamLog      stream log for writes (can be in memory or file)
      * @param epochWaterMark All operations stamped with epoch less than the epochWaterMark are
      *                       discarded.
-     * @param streamLog stream log for writes (can be in memory or file)
-     * @param doSync    If true, the batch writer will sync writes to secondary storage
+     * @param doSync         If true, the batch writer will sync writes to secondary storage
      */
     public BatchWriter(StreamLog streamLog, long epochWaterMark, boolean doSync) {
+        this(streamLog, epochWaterMark, doSync, 0);
+    }
+
+    /**
+     * Returns a new BatchWriter for a stream log.
+     *
+     * @param streamLog           stream log for writes (can be in memory or file)
+     * @param epochWaterMark      All operations stamped with epoch less than the epochWaterMark
+     *                            are discarded.
+     * @param doSync              If true, the batch writer will sync writes to secondary storage
+     * @param maxFsyncDelayMicros maximum time in microseconds a batch waits for more
+     *                            operations before it is synced
+     */
+    public BatchWriter(StreamLog streamLog, long epochWaterMark, boolean doSync,
+                       long maxFsyncDelayMicros) {
         this.epochWaterMark = epochWaterMark;
         this.doSync = doSync;
+        this.maxFsyncDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxFsyncDelayMicros);
         this.streamLog = streamLog;
         operationsQueue = new LinkedBlockingQueue<>();
         writerService.submit(this::batchWriteProcessor);
     }
 
-    @Override
-    public void write(@Nonnull K key, @Nonnull V value) {
-        try {
-            CompletableFuture<Void> cf = new CompletableFuture();
-            operationsQueue.add(new BatchWriterOperation(BatchWriterOperation.Type.WRITE,
-                    (Long) key, (LogData) value, ((LogData) value).getEpoch(), null, cf));
-            cf.get();
-        } catch (Exception e) {
-            log.trace("Write Exception {}", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new RuntimeException(e);
-            }
-        }
+    /**
+     * Returns whether an address was appended to the stream log, but isn't durable yet. The
+     * stream log must be read before this is checked, since an address is pending from before
+     * it is appended until after its batch is synced.
+     *
+     * @param address address to check
+     * @return true if the entry at the address must not be served yet
+     */
+    public boolean isPending(long address) {
+        return pendingWrites.contains(address);
+    }
+
+    /**
+     * Write a log entry without waiting for it to be persisted.
+     *
+     * @param address address to write the entry at
+     * @param logData entry to write
+     * @return a future that completes once the batch of the write has been synced, or
+     *         exceptionally with the reason the write failed
+     */
+    public CompletableFuture<Void> asyncWrite(long address, @Nonnull LogData logData) {
+        CompletableFuture<Void> cf = new CompletableFuture<>();
+        operationsQueue.add(new BatchWriterOperation(BatchWriterOperation.Type.WRITE,
+                address, logData, logData.getEpoch(), null, cf));
+        return cf;
     }
 
     public void bulkWrite(List<LogData> entries, long epoch) {
@@ -171,10 +244,6 @@ public class BatchWriter<K, V> implements CacheWriter<K, V>, AutoCloseable {
         }
     }
 
-    @Override
-    public void delete(K key, V value, RemovalCause removalCause) {
-    }
-
     private void handleOperationResults(BatchWriterOperation operation) {
         if (operation.getException() == null) {
             operation.getFuture().complete(null);
@@ -183,6 +252,108 @@ public class BatchWriter<K, V> implements CacheWriter<K, V>, AutoCloseable {
         }
     }
 
+    /**
+     * Returns the number of payload bytes an operation adds to the current batch.
+     */
+    private static long getPendingBytes(BatchWriterOperation operation) {
+        long bytes = 0;
+        if (operation.getType() == Type.WRITE) {
+            bytes = operation.getLogData().getSizeEstimate();
+        } else if (operation.getType() == Type.RANGE_WRITE) {
+            for (LogData entry : operation.getEntries()) {
+                bytes += entry.getSizeEstimate();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Applies a single operation to the stream log. The operation is completed
+     * once the batch it belongs to has been synced.
+     */
+    private void processOperation(BatchWriterOperation currOp) {
+        if (currOp.getEpoch() < epochWaterMark) {
+            currOp.setException(new WrongEpochException(epochWaterMark));
+            return;
+        }
+
+        try {
+            switch (currOp.getType()) {
+                case TRIM:
+                    streamLog.trim(currOp.getAddress());
+                    break;
+                case PREFIX_TRIM:
+                    streamLog.prefixTrim(currOp.getAddress());
+                    break;
+                case WRITE:
+                    pendingWrites.add(currOp.getAddress());
+                    streamLog.append(currOp.getAddress(), currOp.getLogData());
+                    break;
+                case RANGE_WRITE:
+                    for (LogData entry : currOp.getEntries()) {
+                        pendingWrites.add(entry.getGlobalAddress());
+                    }
+                    streamLog.append(currOp.getEntries());
+                    break;
+                case EPOCH_WATER_MARK:
+                    break;
+                case RESET:
+                    streamLog.reset();
+                    break;
+                default:
+                    log.warn("Unknown BatchWriterOperation {}", currOp);
+            }
+        } catch (Exception e) {
+            currOp.setException(e);
+        }
+    }
+
+    /**
+     * Syncs the stream log and completes all the operations of a batch. If the sync
+     * fails, the operations of the batch fail with its exception.
+     */
+    private void commitBatch(List<BatchWriterOperation> batch, long batchBytes) {
+        try {
+            long syncStart = System.nanoTime();
+            streamLog.sync(doSync);
+            fsyncTimer.update(System.nanoTime() - syncStart, TimeUnit.NANOSECONDS);
+            batchSizeHistogram.update(batch.size());
+            batchBytesHistogram.update(batchBytes);
+            log.trace("Sync'd {} operations ({} bytes)", batch.size(), batchBytes);
+        } catch (IOException e) {
+            log.error("commitBatch: failed to sync {} operations", batch.size(), e);
+            for (BatchWriterOperation operation : batch) {
+                if (operation.getException() == null) {
+                    operation.setException(e);
+                }
+            }
+        }
+
+        // The writes of the batch are durable, or failed, so they can be read before
+        // they are acknowledged.
+        for (BatchWriterOperation operation : batch) {
+            if (operation.getType() == Type.WRITE) {
+                pendingWrites.remove(operation.getAddress());
+            } else if (operation.getType() == Type.RANGE_WRITE) {
+                for (LogData entry : operation.getEntries()) {
+                    pendingWrites.remove(entry.getGlobalAddress());
+                }
+            }
+        }
+        for (BatchWriterOperation operation : batch) {
+            handleOperationResults(operation);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Group-commit loop. Every batch starts with the first operation taken from the queue and
+     * keeps absorbing queued operations until MAX_BATCH_OPS operations or MAX_BATCH_BYTES bytes
+     * are pending. When the queue drains before the batch reaches the size of recent batches,
+     * the writer waits up to maxFsyncDelay for more operations, so that concurrent writers
+     * share a sync, while a lone writer that never builds up a queue is synced right away.
+     * Control operations (epoch water marks, resets) always close the current batch.
+     */
     private void batchWriteProcessor() {
 
         if (!doSync) {
@@ -190,79 +361,55 @@ public class BatchWriter<K, V> implements CacheWriter<K, V>, AutoCloseable {
         }
 
         try {
-            BatchWriterOperation lastOp = null;
-            int processed = 0;
-            List<BatchWriterOperation> res = new LinkedList();
+            List<BatchWriterOperation> batch = new ArrayList<>();
+            // Moving average of recent batch sizes, used as the target size of the next batch
+            double batchSizeAverage = 1;
 
             while (true) {
-                BatchWriterOperation currOp;
+                BatchWriterOperation currOp = operationsQueue.take();
+                final long deadline = System.nanoTime() + maxFsyncDelayNanos;
+                final int targetSize = (int) Math.min(MAX_BATCH_OPS, Math.round(batchSizeAverage));
+                long batchBytes = 0;
+                boolean shutdown = false;
+
+                while (true) {
+                    if (currOp == BatchWriterOperation.SHUTDOWN) {
+                        shutdown = true;
+                        break;
+                    }
 
-                if (lastOp == null) {
-                    currOp = operationsQueue.take();
-                } else {
-                    currOp = operationsQueue.poll();
+                    processOperation(currOp);
+                    batch.add(currOp);
+                    batchBytes += getPendingBytes(currOp);
 
-                    if (currOp == null || processed == BATCH_SIZE
-                            || currOp == BatchWriterOperation.SHUTDOWN) {
-                        streamLog.sync(doSync);
-                        log.trace("Sync'd {} writes", processed);
+                    if (batch.size() >= MAX_BATCH_OPS || batchBytes >= MAX_BATCH_BYTES
+                            || currOp.getType() == Type.EPOCH_WATER_MARK
+                            || currOp.getType() == Type.RESET) {
+                        break;
+                    }
 
-                        for (BatchWriterOperation operation : res) {
-                            handleOperationResults(operation);
+                    currOp = operationsQueue.poll();
+                    if (currOp == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (!doSync || batch.size() >= targetSize || remaining <= 0) {
+                            break;
+                        }
+                        currOp = operationsQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (currOp == null) {
+                            break;
                         }
-                        res.clear();
-                        processed = 0;
                     }
                 }
 
-                if (currOp == null) {
-                    lastOp = null;
-                    continue;
-                } else if (currOp == BatchWriterOperation.SHUTDOWN) {
+                if (!batch.isEmpty()) {
+                    batchSizeAverage += (batch.size() - batchSizeAverage) * BATCH_SIZE_SMOOTHING;
+                    commitBatch(batch, batchBytes);
+                }
+
+                if (shutdown) {
                     log.trace("Shutting down the write processor");
                     streamLog.sync(true);
                     break;
-                } else if (currOp.getEpoch() < epochWaterMark) {
-                    currOp.setException(new WrongEpochException(epochWaterMark));
-                    res.add(currOp);
-                    processed++;
-                    lastOp = currOp;
-                } else {
-                    try {
-                        switch (currOp.getType()) {
-                            case TRIM:
-                                streamLog.trim(currOp.getAddress());
-                                res.add(currOp);
-                                break;
-                            case PREFIX_TRIM:
-                                streamLog.prefixTrim(currOp.getAddress());
-                                res.add(currOp);
-                                break;
-                            case WRITE:
-                                streamLog.append(currOp.getAddress(), currOp.getLogData());
-                                res.add(currOp);
-                                break;
-                            case RANGE_WRITE:
-                                streamLog.append(currOp.getEntries());
-                                res.add(currOp);
-                                break;
-                            case EPOCH_WATER_MARK:
-                                res.add(currOp);
-                                break;
-                            case RESET:
-                                streamLog.reset();
-                                res.add(currOp);
-                                break;
-                            default:
-                                log.warn("Unknown BatchWriterOperation {}", currOp);
-                        }
-                    } catch (Exception e) {
-                        currOp.setException(e);
-                        res.add(currOp);
-                    }
-
-                    processed++;
-                    lastOp = currOp;
                 }
             }
         } catch (Exception e) {
@@ -0,0 +1,182 @@
+package org.corfudb.infrastructure;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+import lombok.Getter;
+
+import net.openhft.hashing.LongHashFunction;
+
+import org.corfudb.runtime.view.Address;
+
+/**
+ * A bounded cache of conflict keys to the global address of their latest update, used by the
+ * sequencer to resolve transactions.
+ *
+ * <p>A conflict key, a stream ID and a conflict parameter, is reduced to a 128-bit hash, so
+ * that neither lookups nor updates allocate. Entries are kept in primitive arrays split into
+ * buckets of {@link #BUCKET_SIZE} slots, and a key may only live in the bucket its hash selects.
+ * The arrays have room for twice the maximum size, so that buckets rarely fill up before the
+ * cache does. When the cache holds its maximum size, or the bucket of a new key is full, the
+ * oldest entry of the bucket, the one with the lowest address, is evicted and reported to the
+ * eviction listener.
+ *
+ * <p>Two keys with the same hash share an entry, which then holds the latest address of
+ * either. This may abort a transaction that doesn't conflict, but never commits one that does.
+ *
+ * <p>This class is not thread safe, the sequencer accesses it under its own lock.
+ */
+public class ConflictCache {
+
+    /** Number of slots in a bucket, the entries a key competes with for a slot. */
+    static final int BUCKET_SIZE = 16;
+
+    /** Marks an empty slot in {@link #addresses}. */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private static final LongHashFunction HASH_HI = LongHashFunction.xx(0x5f3759df);
+
+    private static final LongHashFunction HASH_LO = LongHashFunction.xx(0x1b873593);
+
+    /** The high and low bits of the hash of the key in each slot. */
+    private final long[] hashHi;
+
+    private final long[] hashLo;
+
+    /** The address of the latest update of the key in each slot, or {@link #EMPTY}. */
+    private final long[] addresses;
+
+    private final int numBuckets;
+
+    private final long maxSize;
+
+    /** Called with the address of every entry which is evicted or invalidated. */
+    private final LongConsumer evictionListener;
+
+    @Getter
+    private int size = 0;
+
+    /**
+     * Returns a new ConflictCache.
+     * @param maxSize           the maximum number of entries
+     * @param evictionListener  called with the address of each entry that leaves the cache,
+     *                          other than by being updated
+     */
+    public ConflictCache(long maxSize, LongConsumer evictionListener) {
+        if (maxSize <= 0 || maxSize > Integer.MAX_VALUE / 2 - BUCKET_SIZE) {
+            throw new IllegalArgumentException("Invalid conflict cache size " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.numBuckets = (int) ((maxSize * 2 + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        this.hashHi = new long[numBuckets * BUCKET_SIZE];
+        this.hashLo = new long[numBuckets * BUCKET_SIZE];
+        this.addresses = new long[numBuckets * BUCKET_SIZE];
+        this.evictionListener = evictionListener;
+        Arrays.fill(addresses, EMPTY);
+    }
+
+    private static long hashHi(UUID streamId, byte[] conflictParam) {
+        return HASH_HI.hashBytes(conflictParam) ^ streamId.getMostSignificantBits();
+    }
+
+    private static long hashLo(UUID streamId, byte[] conflictParam) {
+        return HASH_LO.hashBytes(conflictParam) ^ streamId.getLeastSignificantBits();
+    }
+
+    /** The first slot of the bucket of a hash, mapping its upper half onto the buckets. */
+    private int bucketStart(long lo) {
+        return (int) (((lo >>> 32) * numBuckets) >>> 32) * BUCKET_SIZE;
+    }
+
+    /**
+     * Get the address of the latest update to a conflict key.
+     *
+     * @param streamId      The stream ID.
+     * @param conflictParam The conflict parameter.
+     * @return The address, or {@link Address#NOT_FOUND} if the key isn't cached.
+     */
+    public long get(UUID streamId, byte[] conflictParam) {
+        final long hi = hashHi(streamId, conflictParam);
+        final long lo = hashLo(streamId, conflictParam);
+        final int start = bucketStart(lo);
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if (addresses[i] != EMPTY && hashLo[i] == lo && hashHi[i] == hi) {
+                return addresses[i];
+            }
+        }
+        return Address.NOT_FOUND;
+    }
+
+    /**
+     * Record an update to a conflict key, evicting the oldest entry of its bucket if the
+     * key isn't cached and either the cache or the bucket is full.
+     *
+     * @param streamId      The stream ID.
+     * @param conflictParam The conflict parameter.
+     * @param address       The address of the update.
+     */
+    public void put(UUID streamId, byte[] conflictParam, long address) {
+        final long hi = hashHi(streamId, conflictParam);
+        final long lo = hashLo(streamId, conflictParam);
+        final int start = bucketStart(lo);
+        int free = -1;
+        int oldest = start;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if (addresses[i] == EMPTY) {
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (hashLo[i] == lo && hashHi[i] == hi) {
+                addresses[i] = Math.max(addresses[i], address);
+                return;
+            } else if (addresses[i] < addresses[oldest] || addresses[oldest] == EMPTY) {
+                oldest = i;
+            }
+        }
+
+        final int slot;
+        if (free >= 0 && (size < maxSize || addresses[oldest] == EMPTY)) {
+            slot = free;
+            size++;
+        } else {
+            slot = oldest;
+            evictionListener.accept(addresses[slot]);
+        }
+        hashHi[slot] = hi;
+        hashLo[slot] = lo;
+        addresses[slot] = address;
+    }
+
+    /**
+     * Invalidate all the entries whose address is below a trim mark.
+     *
+     * @param trimMark The trim mark.
+     * @return The number of entries invalidated.
+     */
+    public long invalidateUpTo(long trimMark) {
+        long entries = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != EMPTY && addresses[i] < trimMark) {
+                invalidate(i);
+                entries++;
+            }
+        }
+        return entries;
+    }
+
+    /** Invalidate all the entries. */
+    public void invalidateAll() {
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != EMPTY) {
+                invalidate(i);
+            }
+        }
+    }
+
+    private void invalidate(int slot) {
+        evictionListener.accept(addresses[slot]);
+        addresses[slot] = EMPTY;
+        size--;
+    }
+}
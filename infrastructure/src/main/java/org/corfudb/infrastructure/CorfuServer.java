@@ -80,7 +80,8 @@ public class CorfuServer {
                     + "<truststore_password_file>] [-b] [-g -o <username_file> -j <password_file>] "
                     + "[-k <seqcache>] [-T <threads>] [-B <size>] [-i <channel-implementation>] [-H <seconds>] "
                     + "[-I <cluster-id>] [-x <ciphers>] [-z <tls-protocols>]] [-P <prefix>]"
-                    + " [--agent] <port>\n"
+                    + " [--agent] [--mmap-reads] [--max-fsync-delay=<microseconds>]"
+                    + " [--sequencer-threads=<threads>] <port>\n"
                     + "\n"
                     + "Options:\n"
                     + " -l <path>, --log-path=<path>                                             "
@@ -129,6 +130,12 @@ public class CorfuServer {
                     + "                                                                          "
                     + " -k <seqcache>, --sequencer-cache-size=<seqcache>                         "
                     + "               The size of the sequencer's cache. [default: 250000].\n    "
+                    + " --sequencer-threads=<threads>                                            "
+                    + "              Number of threads serving token requests. Raw and stream\n"
+                    + "                                                                          "
+                    + "              tokens on different streams are issued in parallel, and\n"
+                    + "                                                                          "
+                    + "              transactions one at a time. [default: 1].\n"
                     + " -B <size> --batch-size=<size>"
                     + "              The read/write batch size used for data transfer operations [default: 100].\n"
                     + " -p <seconds>, --compact=<seconds>                                        "
@@ -145,6 +152,12 @@ public class CorfuServer {
                     + "              Disable checksum computation and verification.\n"
                     + " -N, --no-sync                                                          "
                     + "              Disable syncing writes to secondary storage.\n"
+                    + " --max-fsync-delay=<microseconds>                                        "
+                    + "              Maximum time a batch of writes waits for more writes before\n"
+                    + "                                                                          "
+                    + "              it is synced to secondary storage [default: 1000].\n"
+                    + " --mmap-reads                                                             "
+                    + "              Serve reads on sealed log segments from memory-mapped files.\n"
                     + " -e, --enable-tls                                                         "
                     + "              Enable TLS.\n"
                     + " -u <keystore>, --keystore=<keystore>                                     "
@@ -8,8 +8,10 @@ import com.google.common.annotations.VisibleForTesting;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import lombok.Getter;
@@ -22,19 +24,24 @@ import org.corfudb.infrastructure.log.StreamLogFiles;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.ExceptionMsg;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
+import org.corfudb.protocols.wireprotocol.MultipleWriteRequest;
+import org.corfudb.protocols.wireprotocol.MultipleWriteResponse;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
 import org.corfudb.protocols.wireprotocol.TrimRequest;
 import org.corfudb.protocols.wireprotocol.WriteRequest;
+import org.corfudb.protocols.wireprotocol.WriteResult;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.DataOutrankedException;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.exceptions.ValueAdoptedException;
+import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.util.Utils;
 
 
@@ -88,7 +95,7 @@ public class LogUnitServer extends AbstractServer {
 
     private final StreamLog streamLog;
     private final StreamLogCompaction logCleaner;
-    private final BatchWriter<Long, ILogData> batchWriter;
+    private final BatchWriter batchWriter;
 
     /**
      * Returns a new LogUnitServer.
@@ -110,22 +117,28 @@ public class LogUnitServer extends AbstractServer {
                     .convertToByteStringRepresentation(maxCacheSize));
             streamLog = new InMemoryStreamLog();
         } else {
-            streamLog = new StreamLogFiles(serverContext, (Boolean) opts.get("--no-verify"));
+            streamLog = new StreamLogFiles(serverContext, (Boolean) opts.get("--no-verify"),
+                    (Boolean) opts.get("--mmap-reads"));
         }
 
 
-        batchWriter = new BatchWriter<>(
+        long maxFsyncDelay = BatchWriter.DEFAULT_MAX_FSYNC_DELAY_MICROS;
+        if (opts.get("--max-fsync-delay") != null) {
+            maxFsyncDelay = Long.parseLong((String) opts.get("--max-fsync-delay"));
+        }
+
+        batchWriter = new BatchWriter(
                 streamLog,
                 serverContext.getLogUnitEpochWaterMark(),
-                !((Boolean) opts.get("--no-sync"))
+                !((Boolean) opts.get("--no-sync")),
+                maxFsyncDelay
         );
 
         dataCache = Caffeine.newBuilder()
-                .<Long, ILogData>weigher((k, v) -> ((LogData) v).getData() == null ? 1 : (
-                        (LogData) v).getData().length)
+                .<Long, ILogData>weigher((k, v) -> ((LogData) v).getDataBuf() == null ? 1 : (
+                        (LogData) v).getDataBuf().readableBytes())
                 .maximumWeight(maxCacheSize)
                 .removalListener(this::handleEviction)
-                .writer(batchWriter)
                 .build(this::handleRetrieval);
 
         logCleaner = new StreamLogCompaction(streamLog, 10, 45, TimeUnit.MINUTES, ServerContext.SHUTDOWN_TIMER);
@@ -148,27 +161,112 @@ public class LogUnitServer extends AbstractServer {
     }
 
     /**
-     * Service an incoming write request.
+     * Service an incoming write request. The write is handed to the batch writer and
+     * acknowledged once it has been persisted, without blocking the handler thread.
      */
     @ServerHandler(type = CorfuMsgType.WRITE)
     public void write(CorfuPayloadMsg<WriteRequest> msg, ChannelHandlerContext ctx, IServerRouter r) {
         log.debug("log write: global: {}, streams: {}, backpointers: {}", msg
                 .getPayload().getGlobalAddress(), msg.getPayload().getData().getBackpointerMap());
 
-        try {
-            LogData logData = (LogData) msg.getPayload().getData();
-            logData.setEpoch(msg.getEpoch());
-            dataCache.put(msg.getPayload().getGlobalAddress(), logData);
-            r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg());
+        final long address = msg.getPayload().getGlobalAddress();
+        LogData logData = (LogData) msg.getPayload().getData();
+        logData.setEpoch(msg.getEpoch());
+        batchWriter.asyncWrite(address, logData).whenComplete((ignored, ex) ->
+                handleWriteCompletion(address, logData, ex, msg, ctx, r));
+    }
 
-        } catch (OverwriteException ex) {
-            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_OVERWRITE.payloadMsg(ex.getOverWriteCause().getId()));
-        } catch (DataOutrankedException e) {
+    /**
+     * Respond to a write once the batch writer has completed it, and populate the cache
+     * with the written entry if the write succeeded.
+     */
+    private void handleWriteCompletion(long address, LogData logData, Throwable ex,
+                                       CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r) {
+        if (ex == null) {
+            dataCache.put(address, logData);
+            r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg());
+        } else if (ex instanceof OverwriteException) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_OVERWRITE
+                    .payloadMsg(((OverwriteException) ex).getOverWriteCause().getId()));
+        } else if (ex instanceof DataOutrankedException) {
             r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_OUTRANKED.msg());
-        } catch (ValueAdoptedException e) {
-            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_VALUE_ADOPTED.payloadMsg(e
-                    .getReadResponse()));
+        } else if (ex instanceof ValueAdoptedException) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_VALUE_ADOPTED
+                    .payloadMsg(((ValueAdoptedException) ex).getReadResponse()));
+        } else if (ex instanceof WrongEpochException) {
+            r.sendResponse(ctx, msg, new CorfuPayloadMsg<>(CorfuMsgType.WRONG_EPOCH,
+                    ((WrongEpochException) ex).getCorrectEpoch()));
+        } else {
+            log.error("handleWriteCompletion: Unhandled exception writing address {}",
+                    address, ex);
+            r.sendResponse(ctx, msg,
+                    CorfuMsgType.ERROR_SERVER_EXCEPTION.payloadMsg(new ExceptionMsg(ex)));
+        }
+    }
+
+    /**
+     * Service an incoming request to write several addresses. All the entries are handed to
+     * the batch writer at once, and a single response carrying the result of each address is
+     * sent once every write has completed. The request only fails as a whole if no address
+     * could be written, for a reason other than those reported per address.
+     */
+    @ServerHandler(type = CorfuMsgType.MULTIPLE_WRITE)
+    private void multiWrite(CorfuPayloadMsg<MultipleWriteRequest> msg, ChannelHandlerContext ctx,
+                            IServerRouter r) {
+        List<ILogData> entries = msg.getPayload().getEntries();
+        log.debug("multiWrite: {} entries, epoch {}", entries.size(), msg.getEpoch());
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>(entries.size());
+        for (ILogData entry : entries) {
+            LogData logData = (LogData) entry;
+            logData.setEpoch(msg.getEpoch());
+            writes.add(batchWriter.asyncWrite(logData.getGlobalAddress(), logData));
         }
+
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[writes.size()]))
+                .whenComplete((ignored, allEx) -> {
+                    MultipleWriteResponse response = new MultipleWriteResponse();
+                    List<LogData> written = new ArrayList<>(entries.size());
+                    Throwable serverError = null;
+                    for (int i = 0; i < entries.size(); i++) {
+                        final LogData logData = (LogData) entries.get(i);
+                        final long address = logData.getGlobalAddress();
+                        Throwable ex = writes.get(i).handle((v, e) -> e).join();
+                        if (ex == null) {
+                            written.add(logData);
+                            response.put(address, WriteResult.OK);
+                        } else if (ex instanceof OverwriteException) {
+                            response.put(address, WriteResult
+                                    .overwrite(((OverwriteException) ex).getOverWriteCause()));
+                        } else if (ex instanceof DataOutrankedException) {
+                            response.put(address, WriteResult.OUTRANKED);
+                        } else if (ex instanceof ValueAdoptedException) {
+                            response.put(address, WriteResult
+                                    .valueAdopted(((ValueAdoptedException) ex).getReadResponse()));
+                        } else if (ex instanceof WrongEpochException) {
+                            response.put(address, WriteResult
+                                    .wrongEpoch(((WrongEpochException) ex).getCorrectEpoch()));
+                        } else {
+                            log.error("multiWrite: Unhandled exception writing address {}",
+                                    address, ex);
+                            serverError = ex;
+                            response.put(address, WriteResult.SERVER_ERROR);
+                        }
+                    }
+
+                    if (serverError != null && response.getResults().values().stream()
+                            .allMatch(result -> result == WriteResult.SERVER_ERROR)) {
+                        r.sendResponse(ctx, msg, CorfuMsgType.ERROR_SERVER_EXCEPTION
+                                .payloadMsg(new ExceptionMsg(serverError)));
+                        return;
+                    }
+
+                    for (LogData logData : written) {
+                        dataCache.put(logData.getGlobalAddress(), logData);
+                    }
+                    r.sendResponse(ctx, msg,
+                            CorfuMsgType.MULTIPLE_WRITE_RESPONSE.payloadMsg(response));
+                });
     }
 
     @ServerHandler(type = CorfuMsgType.READ_REQUEST)
@@ -214,23 +312,12 @@ public class LogUnitServer extends AbstractServer {
     @ServerHandler(type = CorfuMsgType.FILL_HOLE)
     private void fillHole(CorfuPayloadMsg<TrimRequest> msg, ChannelHandlerContext ctx,
         IServerRouter r) {
-        try {
-            long address = msg.getPayload().getAddress();
-            log.debug("fillHole: filling address {}, epoch {}", address, msg.getEpoch());
-            LogData hole = LogData.getHole(address);
-            hole.setEpoch(msg.getEpoch());
-            dataCache.put(address, hole);
-            r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg());
-
-        } catch (OverwriteException e) {
-            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_OVERWRITE.payloadMsg(e.getOverWriteCause().getId()));
-        } catch (DataOutrankedException e) {
-            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_OUTRANKED.msg());
-        } catch (ValueAdoptedException e) {
-
-            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_VALUE_ADOPTED.payloadMsg(e
-                    .getReadResponse()));
-        }
+        final long address = msg.getPayload().getAddress();
+        log.debug("fillHole: filling address {}, epoch {}", address, msg.getEpoch());
+        LogData hole = LogData.getHole(address);
+        hole.setEpoch(msg.getEpoch());
+        batchWriter.asyncWrite(address, hole).whenComplete((ignored, ex) ->
+                handleWriteCompletion(address, hole, ex, msg, ctx, r));
     }
 
     @ServerHandler(type = CorfuMsgType.TRIM)
@@ -321,10 +408,15 @@ public class LogUnitServer extends AbstractServer {
      *
      *     This function should not care about trimmed addresses, as that is handled in
      *     the read() and append(). Any address that cannot be retrieved should be returned as
-     *     unwritten (null).
+     *     unwritten (null). So is an address whose write wasn't synced and acknowledged yet,
+     *     which could still be lost.
      */
     public synchronized ILogData handleRetrieval(long address) {
         LogData entry = streamLog.read(address);
+        if (entry != null && batchWriter.isPending(address)) {
+            log.trace("Retrieved[{}]: write not yet durable", address);
+            return null;
+        }
         log.trace("Retrieved[{} : {}]", address, entry);
         return entry;
     }
@@ -343,6 +435,7 @@ public class LogUnitServer extends AbstractServer {
         super.shutdown();
         logCleaner.shutdown();
         batchWriter.close();
+        streamLog.close();
     }
 
     @VisibleForTesting
@@ -2,11 +2,9 @@ package org.corfudb.infrastructure;
 
 import static org.corfudb.protocols.wireprotocol.TokenType.TX_ABORT_NEWSEQ;
 import static org.corfudb.protocols.wireprotocol.TokenType.TX_ABORT_SEQ_OVERFLOW;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Striped;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -23,6 +21,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -34,6 +35,8 @@ import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics.SequencerStatus;
 import org.corfudb.protocols.wireprotocol.SequencerTailsRecoveryMsg;
+import org.corfudb.protocols.wireprotocol.StreamAddressRequest;
+import org.corfudb.protocols.wireprotocol.StreamAddressResponse;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.TokenRequest;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
@@ -42,6 +45,8 @@ import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.util.Utils;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 /**
  * This server implements the sequencer functionality of Corfu.
@@ -112,12 +117,23 @@ public class SequencerServer extends AbstractServer {
     private final ConcurrentHashMap<UUID, Long> streamTailToGlobalTailMap = new
             ConcurrentHashMap<>();
 
+    /**
+     * - {@link SequencerServer::streamAddressMaps}:
+     * per streams set of the global-log positions issued to the stream, since
+     * {@link SequencerServer::addressMapStart} and above the trim mark. Clients
+     * resolve streams from them instead of following backpointers.
+     */
+    private final ConcurrentHashMap<UUID, Roaring64NavigableMap> streamAddressMaps = new
+            ConcurrentHashMap<>();
+
+    private long addressMapStart;
+
     /**
      * TX conflict-resolution information:
      *
      * {@link SequencerServer::conflictToGlobalTailCache}:
-     * a cache of recent conflict keys and their latest global-log
-     * position.
+     * a cache of recent conflict keys, hashed from their stream and
+     * conflict parameter, and their latest global-log position.
      *
      * {@link SequencerServer::maxConflictWildcard} :
      * a "wildcard" representing the maximal update timestamp of
@@ -129,12 +145,28 @@ public class SequencerServer extends AbstractServer {
      * the primary sequencer. This means that any snapshot timestamp below this
      * actual threshold would abort due to NEW_SEQUENCER cause.
      */
-    private final Cache<String, Long> conflictToGlobalTailCache;
+    private final ConflictCache conflictToGlobalTailCache;
 
     private long maxConflictWildcard = Address.NOT_FOUND;
 
     private long maxConflictNewSequencer = Address.NOT_FOUND;
 
+    /**
+     * Token requests may be served by several threads, see --sequencer-threads:
+     *
+     * <p>Raw and stream tokens share {@link SequencerServer::sequencerLock}, and requests on
+     * the same stream are serialized by the stripe of the stream in
+     * {@link SequencerServer::streamLocks}, so that the global tail is extended in the same
+     * order as the tail of each stream. Transactions, trims and resets hold
+     * {@link SequencerServer::sequencerLock} exclusively, so conflict resolution sees no
+     * concurrent allocation.
+     */
+    private final ReadWriteLock sequencerLock = new ReentrantReadWriteLock();
+
+    private static final int STREAM_LOCK_STRIPES = 1024;
+
+    private final Striped<Lock> streamLocks = Striped.lock(STREAM_LOCK_STRIPES);
+
     /**
      * Handler for this server.
      */
@@ -161,7 +193,7 @@ public class SequencerServer extends AbstractServer {
     ThreadFactory threadFactory = new ServerThreadFactory("sequencer-",
             new ServerThreadFactory.ExceptionHandler());
 
-    ExecutorService executor = Executors.newSingleThreadExecutor(threadFactory);
+    final ExecutorService executor;
 
     @Override
     public ExecutorService getExecutor() {
@@ -182,35 +214,25 @@ public class SequencerServer extends AbstractServer {
         } else {
             globalLogTail.set(initialToken);
         }
+        addressMapStart = globalLogTail.get();
+
+        int sequencerThreads = 1;
+        if (opts.get("--sequencer-threads") != null) {
+            sequencerThreads = Integer.parseInt((String) opts.get("--sequencer-threads"));
+        }
+        executor = sequencerThreads == 1 ? Executors.newSingleThreadExecutor(threadFactory)
+                : Executors.newFixedThreadPool(sequencerThreads, threadFactory);
 
         long cacheSize = 250_000;
         if (opts.get("--sequencer-cache-size") != null) {
             cacheSize = Long.parseLong((String) opts.get("--sequencer-cache-size"));
 
         }
-        conflictToGlobalTailCache = Caffeine.newBuilder()
-                .maximumSize(cacheSize)
-                .removalListener((String k, Long v, RemovalCause cause) -> {
-                    if (!RemovalCause.REPLACED.equals(cause)) {
-                         log.trace("Updating maxConflictWildcard. Old value = '{}', new value='{}'"
-                                        + " conflictParam = '{}'. Removal cause = '{}'",
-                                maxConflictWildcard, v, k, cause);
-                        maxConflictWildcard = Math.max(v, maxConflictWildcard);
-                    }
-                })
-                .recordStats()
-                .build();
-    }
-
-    /**
-    * Get the conflict hash code for a stream ID and conflict param.
-    *
-    * @param streamId      The stream ID.
-    * @param conflictParam The conflict parameter.
-    * @return A conflict hash code.
-    */
-    private String getConflictHashCode(UUID streamId, byte[] conflictParam) {
-        return streamId.toString() + Utils.bytesToHex(conflictParam);
+        conflictToGlobalTailCache = new ConflictCache(cacheSize, v -> {
+            log.trace("Updating maxConflictWildcard. Old value = '{}', new value='{}'",
+                    maxConflictWildcard, v);
+            maxConflictWildcard = Math.max(v, maxConflictWildcard);
+        });
     }
 
     /**
@@ -253,13 +275,11 @@ public class SequencerServer extends AbstractServer {
                 // if not present, check against the wildcard
                 for (byte[] conflictParam : conflictParamSet) {
 
-                    String conflictKeyHash = getConflictHashCode(entry.getKey(),
-                            conflictParam);
-                    Long v = conflictToGlobalTailCache.getIfPresent(conflictKeyHash);
+                    long v = conflictToGlobalTailCache.get(entry.getKey(), conflictParam);
 
                     log.trace("Commit-ck[{}] conflict-key[{}](ts={})", txInfo, conflictParam, v);
 
-                    if (v != null && v > txSnapshotTimestamp) {
+                    if (v > txSnapshotTimestamp) {
                         log.debug("ABORT[{}] conflict-key[{}](ts={})", txInfo, conflictParam, v);
                         conflictKey.set(conflictParam);
                         response.set(TokenType.TX_ABORT_CONFLICT);
@@ -349,31 +369,90 @@ public class SequencerServer extends AbstractServer {
 
 
     @ServerHandler(type = CorfuMsgType.SEQUENCER_TRIM_REQ)
-    public synchronized void trimCache(CorfuPayloadMsg<Long> msg,
-                                       ChannelHandlerContext ctx, IServerRouter r) {
-        log.info("trimCache: Starting cache eviction");
-        if (trimMark < msg.getPayload()) {
-            // Advance the trim mark, if the new trim request has a higher trim mark.
-            trimMark = msg.getPayload();
-        }
-
-        long entries = 0;
-        for (Map.Entry<String, Long> entry : conflictToGlobalTailCache.asMap().entrySet()) {
-            if (entry.getValue() < trimMark) {
-                conflictToGlobalTailCache.invalidate(entry.getKey());
-                entries++;
+    public void trimCache(CorfuPayloadMsg<Long> msg,
+                          ChannelHandlerContext ctx, IServerRouter r) {
+        sequencerLock.writeLock().lock();
+        try {
+            log.info("trimCache: Starting cache eviction");
+            if (trimMark < msg.getPayload()) {
+                // Advance the trim mark, if the new trim request has a higher trim mark.
+                trimMark = msg.getPayload();
             }
+
+            long entries = conflictToGlobalTailCache.invalidateUpTo(trimMark);
+            log.info("trimCache: Evicted {} entries", entries);
+
+            streamAddressMaps.values().forEach(addresses -> trimAddressMap(addresses, trimMark));
+            streamAddressMaps.values().removeIf(Roaring64NavigableMap::isEmpty);
+        } finally {
+            sequencerLock.writeLock().unlock();
         }
-        log.info("trimCache: Evicted {} entries", entries);
         r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
     }
 
+    /**
+     * Remove the addresses below a trim mark from an address map.
+     */
+    private static void trimAddressMap(Roaring64NavigableMap addresses, long trimMark) {
+        if (trimMark <= 0) {
+            return;
+        }
+        long[] trimmed = new long[(int) addresses.rankLong(trimMark - 1)];
+        LongIterator it = addresses.getLongIterator();
+        for (int i = 0; i < trimmed.length; i++) {
+            trimmed[i] = it.next();
+        }
+        for (long address : trimmed) {
+            addresses.removeLong(address);
+        }
+    }
+
+    /**
+     * Service a request for the addresses issued to a stream in a range of the log.
+     *
+     * <p>The addresses are collected from the tail of the stream down, as the range usually
+     * ends at the tail.
+     */
+    @ServerHandler(type = CorfuMsgType.STREAM_ADDRESS_REQUEST)
+    public void streamAddressRequest(CorfuPayloadMsg<StreamAddressRequest> msg,
+                                     ChannelHandlerContext ctx, IServerRouter r) {
+        final StreamAddressRequest req = msg.getPayload();
+        withStreamsLocked(Collections.singletonList(req.getStream()), () -> {
+            Roaring64NavigableMap addresses = new Roaring64NavigableMap();
+            Roaring64NavigableMap streamAddresses = streamAddressMaps.get(req.getStream());
+            if (streamAddresses != null) {
+                LongIterator it = streamAddresses.getReverseLongIterator();
+                while (it.hasNext()) {
+                    long address = it.next();
+                    if (address <= req.getStart()) {
+                        break;
+                    }
+                    if (address <= req.getEnd()) {
+                        addresses.addLong(address);
+                    }
+                }
+            }
+            r.sendResponse(ctx, msg, CorfuMsgType.STREAM_ADDRESS_RESPONSE.payloadMsg(
+                    new StreamAddressResponse(Math.max(addressMapStart, trimMark), addresses)));
+        });
+    }
+
     /**
      * Service an incoming request to reset the sequencer.
      */
     @ServerHandler(type = CorfuMsgType.BOOTSTRAP_SEQUENCER)
-    public synchronized void resetServer(CorfuPayloadMsg<SequencerTailsRecoveryMsg> msg,
-                                         ChannelHandlerContext ctx, IServerRouter r) {
+    public void resetServer(CorfuPayloadMsg<SequencerTailsRecoveryMsg> msg,
+                            ChannelHandlerContext ctx, IServerRouter r) {
+        sequencerLock.writeLock().lock();
+        try {
+            resetSequencer(msg, ctx, r);
+        } finally {
+            sequencerLock.writeLock().unlock();
+        }
+    }
+
+    private void resetSequencer(CorfuPayloadMsg<SequencerTailsRecoveryMsg> msg,
+                                ChannelHandlerContext ctx, IServerRouter r) {
         long initialToken = msg.getPayload().getGlobalTail();
         final Map<UUID, Long> streamTails = msg.getPayload().getStreamTails();
         final long bootstrapMsgEpoch = msg.getPayload().getSequencerEpoch();
@@ -420,6 +499,10 @@ public class SequencerServer extends AbstractServer {
             // Clear the existing map as it could have been populated by an earlier reset.
             streamTailToGlobalTailMap.clear();
             streamTailToGlobalTailMap.putAll(streamTails);
+
+            // The addresses issued by earlier sequencers are unknown
+            streamAddressMaps.clear();
+            addressMapStart = initialToken;
         }
 
         // Mark the sequencer as ready after the tails have been populated.
@@ -448,30 +531,58 @@ public class SequencerServer extends AbstractServer {
      * Service an incoming token request.
      */
     @ServerHandler(type = CorfuMsgType.TOKEN_REQ)
-    public synchronized void tokenRequest(CorfuPayloadMsg<TokenRequest> msg,
-                                          ChannelHandlerContext ctx, IServerRouter r) {
+    public void tokenRequest(CorfuPayloadMsg<TokenRequest> msg,
+                             ChannelHandlerContext ctx, IServerRouter r) {
         TokenRequest req = msg.getPayload();
 
         // dispatch request handler according to request type
         switch (req.getReqType()) {
             case TokenRequest.TK_QUERY:
-                handleTokenQuery(msg, ctx, r);
+                withStreamsLocked(req.getStreams(), () -> handleTokenQuery(msg, ctx, r));
                 return;
 
             case TokenRequest.TK_RAW:
-                handleRawToken(msg, ctx, r);
+                withStreamsLocked(Collections.emptyList(), () -> handleRawToken(msg, ctx, r));
                 return;
 
             case TokenRequest.TK_TX:
-                handleTxToken(msg, ctx, r);
+                sequencerLock.writeLock().lock();
+                try {
+                    handleTxToken(msg, ctx, r);
+                } finally {
+                    sequencerLock.writeLock().unlock();
+                }
                 return;
 
             default:
-                handleAllocation(msg, ctx, r);
+                withStreamsLocked(req.getStreams(), () -> handleAllocation(msg, ctx, r));
                 return;
         }
     }
 
+    /**
+     * Run a handler which may run concurrently with the handlers of requests on other
+     * streams, but not with transactions.
+     *
+     * @param streams the streams the handler reads or extends the tail of
+     * @param handler the request handler
+     */
+    private void withStreamsLocked(List<UUID> streams, Runnable handler) {
+        sequencerLock.readLock().lock();
+        // Stripes are returned in a fixed order, so that requests can't deadlock
+        Iterable<Lock> locks = streamLocks.bulkGet(streams);
+        try {
+            locks.forEach(Lock::lock);
+            try {
+                handler.run();
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
+        } finally {
+            sequencerLock.readLock().unlock();
+        }
+    }
+
     /**
      * this method serves log-tokens for a raw log implementation.
      * it simply extends the global log tail and returns the global-log token
@@ -555,6 +666,10 @@ public class SequencerServer extends AbstractServer {
         ImmutableMap.Builder<UUID, Long> backPointerMap = ImmutableMap.builder();
         for (UUID id : req.getStreams()) {
 
+            // record the new positions in the address map of the stream
+            streamAddressMaps.computeIfAbsent(id, k -> new Roaring64NavigableMap())
+                    .add(currentTail, newTail);
+
             // step 1. and 2. (comment above)
             streamTailToGlobalTailMap.compute(id, (k, v) -> {
                 if (v == null) {
@@ -576,12 +691,9 @@ public class SequencerServer extends AbstractServer {
                             // and for each conflict param
                             txEntry.getValue().stream().forEach(conflictParam ->
                                     // insert an entry with the new timestamp
-                                    // using the hash code based on the param
-                                    // and the stream id.
-                                    conflictToGlobalTailCache.put(
-                                            getConflictHashCode(txEntry
-                                                    .getKey(), conflictParam),
-                                            newTail - 1)));
+                                    // keyed by the param and the stream id.
+                                    conflictToGlobalTailCache.put(txEntry.getKey(),
+                                            conflictParam, newTail - 1)));
         }
 
         log.trace("token {} backpointers {}",
@@ -601,7 +713,7 @@ public class SequencerServer extends AbstractServer {
     }
 
     @VisibleForTesting
-    public Cache<String, Long> getConflictToGlobalTailCache() {
+    public ConflictCache getConflictToGlobalTailCache() {
         return conflictToGlobalTailCache;
     }
 }
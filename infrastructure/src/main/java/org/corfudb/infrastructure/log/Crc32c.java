@@ -0,0 +1,118 @@
+package org.corfudb.infrastructure.log;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Computes CRC32C (Castagnoli) checksums over whole arrays and buffers.
+ *
+ * <p>Produces the same values as {@code Hashing.crc32c()}, which is what the log has always
+ * been checksummed with, but processes eight bytes per step (slicing-by-8) and never
+ * allocates, so it can checksum a record in place in a direct buffer.
+ */
+public final class Crc32c {
+
+    /** Reflected Castagnoli polynomial. */
+    private static final int POLYNOMIAL = 0x82F63B78;
+
+    private static final int TABLE_SIZE = 256;
+
+    private static final int SLICES = 8;
+
+    /** The eight lookup tables, table {@code k} starts at {@code k * TABLE_SIZE}. */
+    private static final int[] TABLES = new int[SLICES * TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            int crc = i;
+            for (int bit = 0; bit < Byte.SIZE; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+            }
+            TABLES[i] = crc;
+        }
+        for (int k = 1; k < SLICES; k++) {
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                int prev = TABLES[(k - 1) * TABLE_SIZE + i];
+                TABLES[k * TABLE_SIZE + i] = (prev >>> Byte.SIZE) ^ TABLES[prev & 0xFF];
+            }
+        }
+    }
+
+    private Crc32c() {
+        // Prevent instantiation of this utility class
+    }
+
+    /**
+     * Returns the checksum of a range of an array.
+     *
+     * @param bytes  array to checksum
+     * @param offset offset of the first byte
+     * @param length number of bytes
+     * @return checksum of the bytes
+     */
+    public static int checksum(byte[] bytes, int offset, int length) {
+        int crc = ~0;
+        int i = offset;
+        final int end = offset + length;
+        for (; i + SLICES <= end; i += SLICES) {
+            crc ^= (bytes[i] & 0xFF)
+                    | (bytes[i + 1] & 0xFF) << 8
+                    | (bytes[i + 2] & 0xFF) << 16
+                    | (bytes[i + 3] & 0xFF) << 24;
+            crc = slice(crc, bytes[i + 4], bytes[i + 5], bytes[i + 6], bytes[i + 7]);
+        }
+        for (; i < end; i++) {
+            crc = (crc >>> Byte.SIZE) ^ TABLES[(crc ^ bytes[i]) & 0xFF];
+        }
+        return ~crc;
+    }
+
+    /**
+     * Returns the checksum of a range of a buffer, heap or direct. The position and
+     * limit of the buffer are left untouched.
+     *
+     * @param buf    buffer to checksum
+     * @param offset absolute index of the first byte
+     * @param length number of bytes
+     * @return checksum of the bytes
+     */
+    public static int checksum(ByteBuffer buf, int offset, int length) {
+        if (buf.hasArray()) {
+            return checksum(buf.array(), buf.arrayOffset() + offset, length);
+        }
+
+        final boolean bigEndian = buf.order() == ByteOrder.BIG_ENDIAN;
+        int crc = ~0;
+        int i = offset;
+        final int end = offset + length;
+        for (; i + SLICES <= end; i += SLICES) {
+            long word = buf.getLong(i);
+            if (bigEndian) {
+                word = Long.reverseBytes(word);
+            }
+            crc ^= (int) word;
+            final int high = (int) (word >>> Integer.SIZE);
+            crc = slice(crc, (byte) high, (byte) (high >>> 8), (byte) (high >>> 16),
+                    (byte) (high >>> 24));
+        }
+        for (; i < end; i++) {
+            crc = (crc >>> Byte.SIZE) ^ TABLES[(crc ^ buf.get(i)) & 0xFF];
+        }
+        return ~crc;
+    }
+
+    /**
+     * Folds eight bytes into the checksum: the first four were already xor-ed into the
+     * running checksum, the last four are given.
+     */
+    private static int slice(int crc, byte b4, byte b5, byte b6, byte b7) {
+        return TABLES[7 * TABLE_SIZE + (crc & 0xFF)]
+                ^ TABLES[6 * TABLE_SIZE + ((crc >>> 8) & 0xFF)]
+                ^ TABLES[5 * TABLE_SIZE + ((crc >>> 16) & 0xFF)]
+                ^ TABLES[4 * TABLE_SIZE + (crc >>> 24)]
+                ^ TABLES[3 * TABLE_SIZE + (b4 & 0xFF)]
+                ^ TABLES[2 * TABLE_SIZE + (b5 & 0xFF)]
+                ^ TABLES[TABLE_SIZE + (b6 & 0xFF)]
+                ^ TABLES[b7 & 0xFF];
+    }
+}
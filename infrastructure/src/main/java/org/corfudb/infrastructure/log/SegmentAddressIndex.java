@@ -0,0 +1,124 @@
+package org.corfudb.infrastructure.log;
+
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Maps the addresses of a single segment to the {@link AddressMetaData} of their
+ * records. The checksum, length and offset of each record are kept in parallel
+ * primitive arrays indexed by the offset of the address in its segment, instead
+ * of a map of boxed addresses to metadata objects.
+ *
+ * <p>Lookups are lock-free in the common case, a lookup that races with an update
+ * of the same segment (e.g. a ranked overwrite) falls back to a read lock so that it
+ * never observes a partially updated record.
+ */
+class SegmentAddressIndex {
+
+    private final SegmentAddressSet addresses;
+
+    private final int[] checksums;
+
+    private final int[] lengths;
+
+    private final long[] offsets;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Returns an empty index for the addresses of a segment.
+     *
+     * @param segment  the segment the addresses belong to
+     * @param capacity number of addresses in a segment
+     */
+    SegmentAddressIndex(long segment, int capacity) {
+        this.addresses = new SegmentAddressSet(segment, capacity);
+        this.checksums = new int[capacity];
+        this.lengths = new int[capacity];
+        this.offsets = new long[capacity];
+    }
+
+    /**
+     * Records the metadata of an address, replacing any previous metadata.
+     *
+     * @param address  address of the record
+     * @param metaData metadata of the record
+     */
+    void put(long address, AddressMetaData metaData) {
+        int slot = addresses.slot(address);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Address " + address
+                    + " doesn't belong to this segment");
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            checksums[slot] = metaData.checksum;
+            lengths[slot] = metaData.length;
+            offsets[slot] = metaData.offset;
+            addresses.add(address);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void putAll(Map<Long, AddressMetaData> records) {
+        for (Map.Entry<Long, AddressMetaData> record : records.entrySet()) {
+            put(record.getKey(), record.getValue());
+        }
+    }
+
+    /**
+     * Returns the metadata of an address.
+     *
+     * @param address address to look up
+     * @return the metadata of the address, or null if the address isn't known
+     */
+    @Nullable
+    AddressMetaData get(long address) {
+        int slot = addresses.slot(address);
+        if (slot < 0) {
+            return null;
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        boolean known = addresses.contains(address);
+        int checksum = checksums[slot];
+        int length = lengths[slot];
+        long offset = offsets[slot];
+
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                known = addresses.contains(address);
+                checksum = checksums[slot];
+                length = lengths[slot];
+                offset = offsets[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        return known ? new AddressMetaData(checksum, length, offset) : null;
+    }
+
+    boolean containsKey(long address) {
+        return addresses.contains(address);
+    }
+
+    int size() {
+        return addresses.size();
+    }
+
+    /**
+     * Applies an action to every known address, in address order.
+     *
+     * @param action action to apply
+     */
+    void forEach(LongConsumer action) {
+        addresses.forEach(action);
+    }
+}
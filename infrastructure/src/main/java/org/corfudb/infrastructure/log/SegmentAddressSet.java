@@ -0,0 +1,173 @@
+package org.corfudb.infrastructure.log;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * A compact, thread-safe set of the addresses of a single segment. Addresses are
+ * stored as bits in a bitmap indexed by the offset of the address in its segment,
+ * which avoids boxing a Long per address.
+ */
+class SegmentAddressSet {
+
+    private static final int WORD_BITS = Long.SIZE;
+
+    private final long segment;
+
+    private final long firstAddress;
+
+    private final int capacity;
+
+    private final AtomicLongArray words;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Returns an empty set for the addresses of a segment.
+     *
+     * @param segment  the segment the addresses belong to
+     * @param capacity number of addresses in a segment
+     */
+    SegmentAddressSet(long segment, int capacity) {
+        this.segment = segment;
+        this.firstAddress = segment * capacity;
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((capacity + WORD_BITS - 1) / WORD_BITS);
+    }
+
+    /**
+     * Returns the offset of an address in this segment, or -1 if the
+     * address belongs to a different segment.
+     */
+    int slot(long address) {
+        long slot = address - firstAddress;
+        if (slot < 0 || slot >= capacity) {
+            return -1;
+        }
+        return (int) slot;
+    }
+
+    /**
+     * Adds an address to the set.
+     *
+     * @param address address to add
+     * @return true if the address wasn't already in the set
+     */
+    boolean add(long address) {
+        int slot = slot(address);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Address " + address
+                    + " doesn't belong to segment " + segment);
+        }
+
+        long mask = 1L << slot;
+        int index = slot / WORD_BITS;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+
+        size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes an address from the set.
+     *
+     * @param address address to remove
+     * @return true if the address was in the set
+     */
+    boolean remove(long address) {
+        int slot = slot(address);
+        if (slot < 0) {
+            return false;
+        }
+
+        long mask = 1L << slot;
+        int index = slot / WORD_BITS;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word & ~mask));
+
+        size.decrementAndGet();
+        return true;
+    }
+
+    boolean contains(long address) {
+        int slot = slot(address);
+        return slot >= 0 && (words.get(slot / WORD_BITS) & (1L << slot)) != 0;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Removes all the addresses of another set from this set.
+     *
+     * @param other set of addresses to remove
+     */
+    void removeAll(SegmentAddressSet other) {
+        int len = Math.min(words.length(), other.words.length());
+        for (int index = 0; index < len; index++) {
+            long removeMask = other.words.get(index);
+            long word;
+            do {
+                word = words.get(index);
+            } while (!words.compareAndSet(index, word, word & ~removeMask));
+            size.addAndGet(-Long.bitCount(word & removeMask));
+        }
+    }
+
+    /**
+     * Applies an action to every address in the set, in address order.
+     *
+     * @param action action to apply
+     */
+    void forEach(LongConsumer action) {
+        for (int index = 0; index < words.length(); index++) {
+            long word = words.get(index);
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                action.accept(firstAddress + (long) index * WORD_BITS + bit);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the addresses in this set, in address order.
+     */
+    long[] toArray() {
+        long[] addresses = new long[size()];
+        int[] pos = new int[1];
+        forEach(address -> {
+            if (pos[0] < addresses.length) {
+                addresses[pos[0]++] = address;
+            }
+        });
+        return pos[0] == addresses.length ? addresses : Arrays.copyOf(addresses, pos[0]);
+    }
+
+    /**
+     * Returns a point in time copy of this set.
+     */
+    SegmentAddressSet copy() {
+        SegmentAddressSet copy = new SegmentAddressSet(segment, capacity);
+        for (int index = 0; index < words.length(); index++) {
+            long word = words.get(index);
+            copy.words.set(index, word);
+            copy.size.addAndGet(Long.bitCount(word));
+        }
+        return copy;
+    }
+}
@@ -4,13 +4,14 @@ import lombok.Data;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The global log is partition into segments, each segment contains a range of consecutive
@@ -38,11 +39,53 @@ class SegmentHandle {
     @NonNull
     String fileName;
 
-    private Map<Long, AddressMetaData> knownAddresses = new ConcurrentHashMap();
-    private Set<Long> trimmedAddresses = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private Set<Long> pendingTrims = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private SegmentAddressIndex knownAddresses;
+    private SegmentAddressSet trimmedAddresses;
+    private SegmentAddressSet pendingTrims;
     private volatile int refCount = 0;
 
+    /**
+     * Addresses that were loaded from a persisted index and whose records haven't
+     * had their checksum verified yet.
+     */
+    private SegmentAddressSet unverifiedAddresses;
+
+    /**
+     * Read-only mapping of the segment file, only set once the segment is sealed
+     * and the log is configured to serve reads from mapped segments.
+     */
+    private volatile MappedByteBuffer mappedBuffer;
+
+    /** Set once the segment is unmapped, after which it is never mapped again. */
+    private volatile boolean unmapped = false;
+
+    /**
+     * Returns a handle for a segment.
+     *
+     * @param segment            segment number
+     * @param writeChannel       channel used to append records
+     * @param readChannel        channel used to read records
+     * @param trimmedChannel     channel of the trimmed addresses file
+     * @param pendingTrimChannel channel of the pending trims file
+     * @param fileName           path of the segment file
+     */
+    SegmentHandle(long segment, @NonNull FileChannel writeChannel,
+                  @NonNull FileChannel readChannel, @NonNull FileChannel trimmedChannel,
+                  @NonNull FileChannel pendingTrimChannel, @NonNull String fileName) {
+        this.segment = segment;
+        this.writeChannel = writeChannel;
+        this.readChannel = readChannel;
+        this.trimmedChannel = trimmedChannel;
+        this.pendingTrimChannel = pendingTrimChannel;
+        this.fileName = fileName;
+        this.knownAddresses = new SegmentAddressIndex(segment,
+                StreamLogFiles.RECORDS_PER_LOG_FILE);
+        this.trimmedAddresses = new SegmentAddressSet(segment,
+                StreamLogFiles.RECORDS_PER_LOG_FILE);
+        this.pendingTrims = new SegmentAddressSet(segment, StreamLogFiles.RECORDS_PER_LOG_FILE);
+        this.unverifiedAddresses = new SegmentAddressSet(segment,
+                StreamLogFiles.RECORDS_PER_LOG_FILE);
+    }
 
     public synchronized void retain() {
         refCount++;
@@ -68,8 +111,62 @@ class SegmentHandle {
             }
         }
 
+        unmap();
         knownAddresses = null;
         trimmedAddresses = null;
         pendingTrims = null;
+        unverifiedAddresses = null;
+    }
+
+    /**
+     * Unmaps the segment file, if it is mapped, and keeps it from being mapped again.
+     * Entries read from the mapping are
+     * copied out of it, so once no reader holds the segment nothing refers to the
+     * mapped region. If a reader still holds it, the mapping is left to be released
+     * when it is garbage collected.
+     */
+    public synchronized void unmap() {
+        MappedByteBuffer mapped = mappedBuffer;
+        mappedBuffer = null;
+        unmapped = true;
+        if (mapped == null) {
+            return;
+        }
+        if (refCount != 0) {
+            log.warn("unmap: segment {} is in use, refCount {}, leaving its mapping to GC",
+                    segment, refCount);
+            return;
+        }
+        clean(mapped);
+    }
+
+    /**
+     * Releases the memory of a mapped buffer without waiting for it to be garbage
+     * collected. Uses Unsafe.invokeCleaner on Java 9 and later, and the buffer's
+     * cleaner on Java 8.
+     *
+     * @param buffer buffer to release, which must not be accessed afterwards
+     */
+    static void clean(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                Method cleaner = buffer.getClass().getMethod("cleaner");
+                cleaner.setAccessible(true);
+                Object bufferCleaner = cleaner.invoke(buffer);
+                if (bufferCleaner != null) {
+                    bufferCleaner.getClass().getMethod("clean").invoke(bufferCleaner);
+                }
+                return;
+            }
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("clean: couldn't unmap buffer, leaving it to GC", e);
+        }
     }
-}
\ No newline at end of file
+}
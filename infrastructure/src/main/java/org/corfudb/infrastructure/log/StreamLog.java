@@ -102,8 +102,9 @@ public interface StreamLog {
         if (currentEntry != null) {
             if (currentEntry.isHole()) {
                 cause = OverwriteCause.HOLE;
-            } else if (entry.getData() != null && currentEntry.getData() != null &&
-                    currentEntry.getData().length == entry.getData().length) {
+            } else if (entry.getDataBuf() != null && currentEntry.getDataBuf() != null &&
+                    currentEntry.getDataBuf().readableBytes()
+                            == entry.getDataBuf().readableBytes()) {
                 // If the entry is already present and it is not a hole, the write
                 // might have been propagated by a fast reader from part of the chain.
                 // Compare based on data length. Based on this info client will do an actual
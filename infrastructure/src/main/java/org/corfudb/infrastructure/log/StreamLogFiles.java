@@ -4,9 +4,13 @@ import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.AbstractMessage;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -19,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.FileAlreadyExistsException;
@@ -36,9 +41,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
@@ -60,6 +70,7 @@ import org.corfudb.runtime.exceptions.OverwriteCause;
 import org.corfudb.runtime.exceptions.OverwriteException;
 
 import org.corfudb.runtime.view.Address;
+import org.corfudb.util.CFUtils;
 
 
 /**
@@ -82,14 +93,29 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     public static int VERSION = 2;
     public static int RECORDS_PER_LOG_FILE = 10000;
     public static int TRIM_THRESHOLD = (int) (.25 * RECORDS_PER_LOG_FILE);
+    public static final int INDEX_VERSION = 1;
+    // address, offset, length and checksum of a record
+    static final int INDEX_RECORD_SIZE = Long.BYTES * 2 + Integer.BYTES * 2;
+    // version, covered segment file size and number of records
+    static final int INDEX_HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    // records are serialized into a per-thread direct buffer of up to this size
+    static final int MAX_POOLED_WRITE_BUFFER = 8 * 1024 * 1024;
+    private static final ThreadLocal<ByteBuffer> writeBuffers =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(0));
     public final String logDir;
     private final boolean noVerify;
+    private final boolean mmapReads;
     private final ServerContext serverContext;
     private final AtomicLong globalTail = new AtomicLong(Address.NON_ADDRESS);
     private Map<String, SegmentHandle> writeChannels;
     private Set<FileChannel> channelsToSync;
+    private final Queue<Long> sealedSegments = new ConcurrentLinkedQueue<>();
+    // persists the indexes of sealed segments off the write path
+    private final ThreadPoolExecutor indexWriter = new ThreadPoolExecutor(1, 1,
+            1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+            .setNameFormat("segment-index-writer-%d").setDaemon(true).build());
     private MultiReadWriteLock segmentLocks = new MultiReadWriteLock();
-    private long lastSegment;
+    private volatile long lastSegment;
     private volatile long startingAddress;
 
     /**
@@ -99,6 +125,18 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
      * @param noVerify       Disable checksum if true
      */
     public StreamLogFiles(ServerContext serverContext, boolean noVerify) {
+        this(serverContext, noVerify, false);
+    }
+
+    /**
+     * Returns a file-based stream log object.
+     * @param serverContext  Context object that provides server state such as epoch,
+     *                       segment and start address
+     * @param noVerify       Disable checksum if true
+     * @param mmapReads      Serve reads on sealed segments from a memory-mapped
+     *                       view of the segment file
+     */
+    public StreamLogFiles(ServerContext serverContext, boolean noVerify, boolean mmapReads) {
         logDir = serverContext.getServerConfig().get("--log-path") + File.separator + "log";
         File dir = new File(logDir);
         if (!dir.exists()) {
@@ -107,7 +145,9 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
         writeChannels = new ConcurrentHashMap();
         channelsToSync = new HashSet<>();
+        indexWriter.allowCoreThreadTimeOut(true);
         this.noVerify = noVerify;
+        this.mmapReads = mmapReads;
         this.serverContext = serverContext;
         verifyLogs();
         // Starting address initialization should happen before
@@ -130,6 +170,10 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return segmentPath + ".trimmed";
     }
 
+    public static String getIndexFilePath(String segmentPath) {
+        return segmentPath + ".idx";
+    }
+
     /**
      * Write the header for a Corfu log file.
      *
@@ -168,29 +212,93 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return buf;
     }
 
+    /**
+     * Returns a buffer holding a message preceded by its metadata.
+     *
+     * @param message message to serialize
+     * @return the record, ready to be written
+     */
     public static ByteBuffer getByteBufferWithMetaData(AbstractMessage message) {
-        Metadata metadata = getMetadata(message);
-
-        ByteBuffer buf = ByteBuffer.allocate(metadata.getSerializedSize()
-                + message.getSerializedSize());
-        buf.put(metadata.toByteArray());
-        buf.put(message.toByteArray());
+        ByteBuffer buf = ByteBuffer.allocate(METADATA_SIZE + message.getSerializedSize());
+        try {
+            putRecord(buf, message);
+        } catch (IOException e) {
+            // A heap buffer of the exact record size can't overflow
+            throw new IllegalStateException(e);
+        }
         buf.flip();
         return buf;
     }
 
+    /**
+     * Serializes a message preceded by its metadata at the position of a buffer, and
+     * advances the position past the record. The message is serialized once, straight
+     * into the buffer, and its checksum is computed over the serialized bytes in place.
+     *
+     * @param buf     buffer with at least {@code METADATA_SIZE} plus the serialized
+     *                size of the message bytes remaining
+     * @param message message to serialize
+     * @return the metadata written in front of the message
+     * @throws IOException if the buffer is too small
+     */
+    static Metadata putRecord(ByteBuffer buf, AbstractMessage message) throws IOException {
+        final int metadataPosition = buf.position();
+        final int messagePosition = metadataPosition + METADATA_SIZE;
+        final int length = message.getSerializedSize();
+
+        buf.position(messagePosition);
+        CodedOutputStream messageOut = CodedOutputStream.newInstance(buf);
+        message.writeTo(messageOut);
+        messageOut.flush();
+
+        Metadata metadata = Metadata.newBuilder()
+                .setPayloadChecksum(Crc32c.checksum(buf, messagePosition, length))
+                .setLengthChecksum(getChecksum(length))
+                .setLength(length)
+                .build();
+
+        buf.position(metadataPosition);
+        CodedOutputStream metadataOut = CodedOutputStream.newInstance(buf);
+        metadata.writeTo(metadataOut);
+        metadataOut.flush();
+        buf.position(messagePosition + length);
+        return metadata;
+    }
+
+    /**
+     * Returns an empty buffer to serialize records into before writing them. Buffers up
+     * to {@code MAX_POOLED_WRITE_BUFFER} are direct and reused by the calling thread, so
+     * writing them to a channel needs no further copy.
+     *
+     * @param size number of bytes needed
+     * @return a cleared buffer with at least size bytes remaining
+     */
+    private static ByteBuffer getWriteBuffer(int size) {
+        if (size > MAX_POOLED_WRITE_BUFFER) {
+            return ByteBuffer.allocate(size);
+        }
+
+        ByteBuffer buf = writeBuffers.get();
+        if (buf.capacity() < size) {
+            buf = ByteBuffer.allocateDirect(Math.min(MAX_POOLED_WRITE_BUFFER,
+                    Math.max(size, buf.capacity() * 2)));
+            writeBuffers.set(buf);
+        }
+        buf.clear();
+        return buf;
+    }
+
     /**
      * Returns checksum used for log.
      * @param bytes  data over which to compute the checksum
      * @return       checksum of bytes
      */
     public static int getChecksum(byte[] bytes) {
-        Hasher hasher = Hashing.crc32c().newHasher();
-        for (byte a : bytes) {
-            hasher.putByte(a);
-        }
+        return Crc32c.checksum(bytes, 0, bytes.length);
+    }
 
-        return hasher.hash().asInt();
+    static int getChecksum(byte[] bytes, int length) {
+        return Crc32c.checksum(bytes, 0, length);
     }
 
     static int getChecksum(long num) {
@@ -216,6 +324,9 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         long segment = address / RECORDS_PER_LOG_FILE;
         if (lastSegment < segment) {
             serverContext.setTailSegment(segment);
+            // The previous tail segment is now sealed, its index is
+            // persisted in the background once the current write completes
+            sealedSegments.add(lastSegment);
             lastSegment = segment;
         }
     }
@@ -255,10 +366,8 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
         try {
 
-            for (long address : sh.getKnownAddresses().keySet()) {
-                globalTail.getAndUpdate(maxTail -> address > maxTail
-                        ? address : maxTail);
-            }
+            sh.getKnownAddresses().forEach(address ->
+                    globalTail.getAndUpdate(maxTail -> address > maxTail ? address : maxTail));
 
         } finally {
             sh.release();
@@ -388,8 +497,8 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     private void spaseCompact() {
         //TODO(Maithem) Open all segment handlers?
         for (SegmentHandle sh : writeChannels.values()) {
-            Set<Long> pending = new HashSet(sh.getPendingTrims());
-            Set<Long> trimmed = sh.getTrimmedAddresses();
+            SegmentAddressSet pending = sh.getPendingTrims().copy();
+            SegmentAddressSet trimmed = sh.getTrimmedAddresses();
 
             if (sh.getKnownAddresses().size() + trimmed.size() != RECORDS_PER_LOG_FILE) {
                 log.info("Log segment still not complete, skipping");
@@ -414,7 +523,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
     }
 
-    private void trimLogFile(String filePath, Set<Long> pendingTrim) throws IOException {
+    private void trimLogFile(String filePath, SegmentAddressSet pendingTrim) throws IOException {
         try (FileChannel fc = FileChannel.open(FileSystems.getDefault().getPath(filePath + ".copy"),
                 EnumSet.of(StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
                         StandardOpenOption.CREATE, StandardOpenOption.SPARSE))) {
@@ -445,7 +554,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
                 EnumSet.of(StandardOpenOption.APPEND))) {
             try (OutputStream outputStream = Channels.newOutputStream(fc2)) {
                 // Todo(Maithem) How do we verify that the compacted file is correct?
-                for (Long address : pendingTrim) {
+                for (long address : pendingTrim.toArray()) {
                     TrimEntry entry = TrimEntry.newBuilder()
                             .setChecksum(getChecksum(address))
                             .setAddress(address)
@@ -457,15 +566,22 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             }
         }
 
+        // The persisted index refers to offsets in the file being replaced
+        Files.deleteIfExists(Paths.get(getIndexFilePath(filePath)));
+
         Files.move(Paths.get(filePath + ".copy"), Paths.get(filePath),
                 StandardCopyOption.ATOMIC_MOVE);
 
-        // Force the reload of the new segment
-        writeChannels.remove(filePath);
+        // Force the reload of the new segment, the old mapping covers the replaced file
+        SegmentHandle replaced = writeChannels.remove(filePath);
+        if (replaced != null) {
+            replaced.unmap();
+        }
     }
 
     private CompactedEntry getCompactedEntries(String filePath,
-                                               Set<Long> pendingTrim) throws IOException {
+                                               SegmentAddressSet pendingTrim)
+            throws IOException {
 
         FileChannel fc = getChannel(filePath, true);
 
@@ -521,7 +637,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     }
 
     private LogData getLogData(LogEntry entry) {
-        ByteBuf data = Unpooled.wrappedBuffer(entry.getData().toByteArray());
+        ByteBuf data = Unpooled.wrappedBuffer(entry.getData().asReadOnlyByteBuffer());
         LogData logData = new LogData(org.corfudb.protocols.wireprotocol
                 .DataType.typeMap.get((byte) entry.getDataType().getNumber()), data);
 
@@ -723,6 +839,15 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             return;
         }
 
+        // Sealed segments load their persisted index, if there is one, and only
+        // scan the records that were appended after the index was written.
+        if (sh.getSegment() < serverContext.getTailSegment()) {
+            long indexedSize = loadSegmentIndex(sh, fc.position());
+            if (indexedSize != -1) {
+                fc.position(indexedSize);
+            }
+        }
+
         while (fc.size() - fc.position() > 0) {
             long channelOffset = fc.position();
             Metadata metadata = parseMetadata(fc);
@@ -766,14 +891,250 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
 
         try {
+            MappedByteBuffer mapped = getMappedBuffer(sh);
+            if (mapped != null && metaData.offset + metaData.length <= mapped.capacity()) {
+                // Parse the entry straight out of the mapped region, without a read
+                // system call. The payload is copied out rather than aliased, so that
+                // the entry outlives the mapping, which is unmapped once the segment
+                // is closed.
+                ByteBuffer entryBuf = mapped.duplicate();
+                entryBuf.position((int) metaData.offset);
+                entryBuf.limit((int) metaData.offset + metaData.length);
+                ByteBuffer record = entryBuf.slice();
+                verifyRecord(sh, address, metaData, record);
+                return getLogData(LogEntry.parseFrom(CodedInputStream.newInstance(record)));
+            }
+
             ByteBuffer entryBuf = ByteBuffer.allocate(metaData.length);
             fc.read(entryBuf, metaData.offset);
+            entryBuf.flip();
+            verifyRecord(sh, address, metaData, entryBuf);
             return getLogData(LogEntry.parseFrom(entryBuf.array()));
         } catch (InvalidProtocolBufferException e) {
             throw new DataCorruptionException();
         }
     }
 
+    /**
+     * Verifies the checksum of a record the first time it is read, if its address
+     * was loaded from a persisted index instead of being scanned on startup.
+     *
+     * @param sh       segment of the record
+     * @param address  address of the record
+     * @param metaData metadata of the record
+     * @param record   buffer holding the record
+     */
+    private void verifyRecord(SegmentHandle sh, long address, AddressMetaData metaData,
+                              ByteBuffer record) {
+        if (!sh.getUnverifiedAddresses().contains(address)) {
+            return;
+        }
+
+        if (Crc32c.checksum(record, record.position(), record.remaining())
+                != metaData.checksum) {
+            log.error("Checksum mismatch detected while trying to read address {} in file {}",
+                    address, sh.getFileName());
+            throw new DataCorruptionException();
+        }
+        sh.getUnverifiedAddresses().remove(address);
+    }
+
+    /**
+     * Returns a read-only memory-mapped view of a sealed segment, mapping it on
+     * first use. A segment is considered sealed once the tail has moved past it, any
+     * record appended to it afterwards (i.e. hole fills or ranked writes) lies beyond
+     * the mapped region and has to be read through the file channel.
+     *
+     * @param sh segment to map
+     * @return the mapped segment, or null if reads on this segment can't be mapped
+     * @throws IOException
+     */
+    private @Nullable MappedByteBuffer getMappedBuffer(SegmentHandle sh) throws IOException {
+        if (!mmapReads || sh.getSegment() >= lastSegment) {
+            return null;
+        }
+
+        MappedByteBuffer mapped = sh.getMappedBuffer();
+        if (mapped == null) {
+            synchronized (sh) {
+                mapped = sh.getMappedBuffer();
+                if (mapped == null) {
+                    if (sh.isUnmapped()) {
+                        return null;
+                    }
+                    FileChannel fc = sh.getReadChannel();
+                    long size = fc.size();
+                    if (size > Integer.MAX_VALUE) {
+                        log.warn("getMappedBuffer: segment {} too large to map, size {}",
+                                sh.getSegment(), size);
+                        return null;
+                    }
+                    mapped = fc.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    sh.setMappedBuffer(mapped);
+                    log.debug("getMappedBuffer: mapped segment {}, size {}", sh.getSegment(), size);
+                }
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Has the indexes of the segments sealed since the last call persisted by the
+     * index writer, so that appends don't wait for them.
+     */
+    private void scheduleSealedSegmentIndexes() {
+        if (!sealedSegments.isEmpty()) {
+            indexWriter.execute(this::persistSealedSegmentIndexes);
+        }
+    }
+
+    /**
+     * Waits for the indexes scheduled so far to be persisted.
+     */
+    @VisibleForTesting
+    void awaitIndexWrites() {
+        CFUtils.getUninterruptibly(indexWriter.submit(() -> { }));
+    }
+
+    /**
+     * Persists the index of every segment that was sealed since the last call.
+     * Each segment is retained while its index is written, so that it isn't
+     * unmapped under the index writer.
+     */
+    private void persistSealedSegmentIndexes() {
+        Long segment;
+        while ((segment = sealedSegments.poll()) != null) {
+            SegmentHandle sh = writeChannels.computeIfPresent(getSegmentFilePath(segment),
+                    (path, handle) -> {
+                        handle.retain();
+                        return handle;
+                    });
+            if (sh != null) {
+                try {
+                    persistSegmentIndex(sh);
+                } finally {
+                    sh.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the address index of a segment to its index file. The index
+     * records the size of the segment file it covers, records appended after the
+     * index is written are recovered by scanning the file past that size.
+     *
+     * <p>The index file has the following layout: version, covered segment file size,
+     * number of records, a table of (address, offset, length, checksum) records and
+     * a checksum over all of the preceding bytes.
+     *
+     * <p>The segment file is synced before its index is written, so that the index
+     * never covers records that aren't durable.
+     *
+     * @param sh segment to persist the index of
+     */
+    private void persistSegmentIndex(SegmentHandle sh) {
+        ByteBuffer buf;
+
+        try (MultiReadWriteLock.AutoCloseableLock ignored =
+                     segmentLocks.acquireWriteLock(sh.getSegment())) {
+            SegmentAddressIndex index = sh.getKnownAddresses();
+            long coveredSize = sh.getWriteChannel().position();
+            int numRecords = index.size();
+            buf = ByteBuffer.allocate(INDEX_HEADER_SIZE + numRecords * INDEX_RECORD_SIZE
+                    + Integer.BYTES);
+            buf.putInt(INDEX_VERSION);
+            buf.putLong(coveredSize);
+            buf.putInt(numRecords);
+            index.forEach(address -> {
+                AddressMetaData metaData = index.get(address);
+                buf.putLong(address);
+                buf.putLong(metaData.offset);
+                buf.putInt(metaData.length);
+                buf.putInt(metaData.checksum);
+            });
+            buf.putInt(getChecksum(buf.array(), buf.position()));
+            buf.flip();
+        } catch (Exception e) {
+            log.warn("persistSegmentIndex: failed to build index for segment {}",
+                    sh.getSegment(), e);
+            return;
+        }
+
+        String indexPath = getIndexFilePath(sh.getFileName());
+        String tmpPath = indexPath + ".tmp";
+        try (FileChannel fc = FileChannel.open(Paths.get(tmpPath),
+                EnumSet.of(StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE))) {
+            sh.getWriteChannel().force(true);
+            while (buf.hasRemaining()) {
+                fc.write(buf);
+            }
+            fc.force(true);
+            Files.move(Paths.get(tmpPath), Paths.get(indexPath),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory(logDir);
+            log.debug("persistSegmentIndex: wrote index for segment {}", sh.getSegment());
+        } catch (IOException e) {
+            log.warn("persistSegmentIndex: failed to write index {}", indexPath, e);
+        }
+    }
+
+    /**
+     * Loads the persisted address index of a segment.
+     *
+     * @param sh         segment to load the index of
+     * @param headerSize size of the segment file header
+     * @return the segment file size covered by the index, or -1 if the index
+     *         is missing or can't be used.
+     */
+    private long loadSegmentIndex(SegmentHandle sh, long headerSize) throws IOException {
+        File indexFile = new File(getIndexFilePath(sh.getFileName()));
+        if (!indexFile.exists()) {
+            return -1;
+        }
+
+        byte[] bytes = Files.readAllBytes(indexFile.toPath());
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int checksumOffset = bytes.length - Integer.BYTES;
+
+        if (bytes.length < INDEX_HEADER_SIZE + Integer.BYTES
+                || buf.getInt(checksumOffset) != getChecksum(bytes, checksumOffset)) {
+            log.warn("loadSegmentIndex: corrupted index {}, scanning segment", indexFile);
+            return -1;
+        }
+
+        int version = buf.getInt();
+        long coveredSize = buf.getLong();
+        int numRecords = buf.getInt();
+
+        if (version != INDEX_VERSION
+                || checksumOffset != INDEX_HEADER_SIZE + numRecords * INDEX_RECORD_SIZE
+                || coveredSize < headerSize
+                || coveredSize > sh.getWriteChannel().size()) {
+            log.warn("loadSegmentIndex: index {} doesn't match segment, scanning segment",
+                    indexFile);
+            return -1;
+        }
+
+        SegmentAddressIndex index = sh.getKnownAddresses();
+        for (int x = 0; x < numRecords; x++) {
+            long address = buf.getLong();
+            long offset = buf.getLong();
+            int length = buf.getInt();
+            int checksum = buf.getInt();
+            index.put(address, new AddressMetaData(checksum, length, offset));
+            if (!noVerify) {
+                // The record wasn't scanned, verify it when it is first read
+                sh.getUnverifiedAddresses().add(address);
+            }
+        }
+
+        log.debug("loadSegmentIndex: loaded {} records for segment {}", numRecords,
+                sh.getSegment());
+        return coveredSize;
+    }
+
     private @Nullable FileChannel getChannel(String filePath, boolean readOnly) throws IOException {
         try {
 
@@ -816,10 +1177,8 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
      */
     @VisibleForTesting
     synchronized SegmentHandle getSegmentHandleForAddress(long address) {
-        String filePath = logDir + File.separator;
         long segment = address / RECORDS_PER_LOG_FILE;
-        filePath += segment;
-        filePath += ".log";
+        String filePath = getSegmentFilePath(segment);
 
         SegmentHandle handle = writeChannels.computeIfAbsent(filePath, a -> {
             try {
@@ -850,6 +1209,10 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return handle;
     }
 
+    private String getSegmentFilePath(long segment) {
+        return logDir + File.separator + segment + ".log";
+    }
+
     private void loadTrimAddresses(SegmentHandle sh) throws IOException {
         long trimmedSize;
         long pendingTrimSize;
@@ -923,15 +1286,14 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     }
 
     LogEntry getLogEntry(long address, LogData entry) {
-        byte[] data = new byte[0];
-
-        if (entry.getData() != null) {
-            data = entry.getData();
-        }
+        // The payload is never modified, so it is wrapped rather than copied.
+        ByteBuf dataBuf = entry.getDataBuf();
+        ByteString data = dataBuf == null ? ByteString.EMPTY
+                : UnsafeByteOperations.unsafeWrap(dataBuf.nioBuffer());
 
         LogEntry.Builder logEntryBuilder = LogEntry.newBuilder()
                 .setDataType(Types.DataType.forNumber(entry.getType().ordinal()))
-                .setData(ByteString.copyFrom(data))
+                .setData(data)
                 .setGlobalAddress(address)
                 .addAllStreams(getStrUUID(entry.getStreams()))
                 .putAllBackpointers(getStrLongMap(entry.getBackpointerMap()));
@@ -991,40 +1353,32 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     }
 
     /**
-     * Write a list of LogData entries to the log file.
+     * Write a list of LogData entries to the log file, and add the written
+     * records to the segment's address index.
      * @param sh segment handle to the logfile
      * @param entries list of LogData entries to write.
-     * @return A map of AddressMetaData for the written records
      * @throws IOException
      */
-    private Map<Long, AddressMetaData> writeRecords(SegmentHandle sh,
-                                             List<LogData> entries) throws IOException {
+    private void writeRecords(SegmentHandle sh, List<LogData> entries) throws IOException {
         Map<Long, AddressMetaData> recordsMap = new HashMap<>();
 
-        List<ByteBuffer> entryBuffs = new ArrayList<>();
+        List<LogEntry> logEntries = new ArrayList<>(entries.size());
         int totalBytes = 0;
 
-        List<Metadata> metadataList = new ArrayList<>();
-
-        for (int ind = 0; ind < entries.size(); ind++) {
-            LogData curr = entries.get(ind);
+        for (LogData curr : entries) {
             LogEntry logEntry = getLogEntry(curr.getGlobalAddress(), curr);
-            Metadata metadata = getMetadata(logEntry);
-            metadataList.add(metadata);
-            ByteBuffer record = getByteBuffer(metadata, logEntry);
-            totalBytes += record.limit();
-            entryBuffs.add(record);
+            logEntries.add(logEntry);
+            totalBytes += METADATA_SIZE + logEntry.getSerializedSize();
         }
 
-        ByteBuffer allRecordsBuf = ByteBuffer.allocate(totalBytes);
+        ByteBuffer allRecordsBuf = getWriteBuffer(totalBytes);
 
         try (MultiReadWriteLock.AutoCloseableLock ignored =
                      segmentLocks.acquireWriteLock(sh.getSegment())) {
-            for (int ind = 0; ind < entryBuffs.size(); ind++) {
+            for (int ind = 0; ind < logEntries.size(); ind++) {
                 long channelOffset = sh.getWriteChannel().position()
                         + allRecordsBuf.position() + METADATA_SIZE;
-                allRecordsBuf.put(entryBuffs.get(ind));
-                Metadata metadata = metadataList.get(ind);
+                Metadata metadata = putRecord(allRecordsBuf, logEntries.get(ind));
                 recordsMap.put(entries.get(ind).getGlobalAddress(),
                         new AddressMetaData(metadata.getPayloadChecksum(),
                                 metadata.getLength(), channelOffset));
@@ -1032,11 +1386,12 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
             allRecordsBuf.flip();
             safeWrite(sh.getWriteChannel(), allRecordsBuf);
+            // The index is updated while holding the segment lock, so that a
+            // persisted index always covers every record before the channel position
+            sh.getKnownAddresses().putAll(recordsMap);
             channelsToSync.add(sh.getWriteChannel());
             syncTailSegment(entries.get(entries.size() - 1).getGlobalAddress());
         }
-
-        return recordsMap;
     }
 
     /**
@@ -1071,30 +1426,30 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     }
 
     /**
-     * Write a log entry record to a file.
+     * Write a log entry record to a file, and add the written record to the
+     * segment's address index.
      *
      * @param fh      The file handle to use.
      * @param address The address of the entry.
      * @param entry   The LogData to append.
-     * @return Returns metadata for the written record
      */
-    private AddressMetaData writeRecord(SegmentHandle fh, long address,
-                                        LogData entry) throws IOException {
+    private void writeRecord(SegmentHandle fh, long address,
+                             LogData entry) throws IOException {
         LogEntry logEntry = getLogEntry(address, entry);
-        Metadata metadata = getMetadata(logEntry);
-
-        ByteBuffer record = getByteBuffer(metadata, logEntry);
+        ByteBuffer record = getWriteBuffer(METADATA_SIZE + logEntry.getSerializedSize());
+        Metadata metadata = putRecord(record, logEntry);
+        record.flip();
         long channelOffset;
 
         try (MultiReadWriteLock.AutoCloseableLock ignored =
                      segmentLocks.acquireWriteLock(fh.getSegment())) {
             channelOffset = fh.getWriteChannel().position() + METADATA_SIZE;
             safeWrite(fh.getWriteChannel(), record);
+            fh.getKnownAddresses().put(address, new AddressMetaData(metadata.getPayloadChecksum(),
+                    metadata.getLength(), channelOffset));
             channelsToSync.add(fh.getWriteChannel());
             syncTailSegment(address);
         }
-
-        return new AddressMetaData(metadata.getPayloadChecksum(), metadata.getLength(), channelOffset);
     }
 
     long getSegment(LogData entry) {
@@ -1202,13 +1557,11 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
         try {
             if (!segOneEntries.isEmpty()) {
-                Map<Long, AddressMetaData> firstSegAddresses = writeRecords(firstSh, segOneEntries);
-                firstSh.getKnownAddresses().putAll(firstSegAddresses);
+                writeRecords(firstSh, segOneEntries);
             }
 
             if (!segTwoEntries.isEmpty()) {
-                Map<Long, AddressMetaData> lastSegAddresses = writeRecords(lastSh, segTwoEntries);
-                lastSh.getKnownAddresses().putAll(lastSegAddresses);
+                writeRecords(lastSh, segTwoEntries);
             }
         } catch (IOException e) {
             log.error("Disk_write[{}-{}]: Exception", first.getGlobalAddress(),
@@ -1218,6 +1571,8 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             firstSh.release();
             lastSh.release();
         }
+
+        scheduleSealedSegmentIndexes();
     }
 
     @Override
@@ -1240,12 +1595,10 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
                 } else {
                     // the method below might throw DataOutrankedException or ValueAdoptedException
                     assertAppendPermittedUnsafe(address, entry);
-                    AddressMetaData addressMetaData = writeRecord(fh, address, entry);
-                    fh.getKnownAddresses().put(address, addressMetaData);
+                    writeRecord(fh, address, entry);
                 }
             } else {
-                AddressMetaData addressMetaData = writeRecord(fh, address, entry);
-                fh.getKnownAddresses().put(address, addressMetaData);
+                writeRecord(fh, address, entry);
             }
             log.trace("Disk_write[{}]: Written to disk.", address);
         } catch (IOException e) {
@@ -1254,6 +1607,8 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         } finally {
             fh.release();
         }
+
+        scheduleSealedSegmentIndexes();
     }
 
     @Override
@@ -1277,11 +1632,16 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
     @Override
     public void close() {
+        awaitIndexWrites();
         for (SegmentHandle fh : writeChannels.values()) {
+            if (fh.getSegment() < lastSegment) {
+                persistSegmentIndex(fh);
+            }
             fh.close();
         }
+        sealedSegments.clear();
 
-        writeChannels = new HashMap<>();
+        writeChannels = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -1294,6 +1654,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
      * @param endSegment The segment index of the last segment up to (including) the end segment.
      */
     private void closeSegmentHandlers(long endSegment) {
+        awaitIndexWrites();
         for (SegmentHandle sh : writeChannels.values()) {
             if (sh.getSegment() <= endSegment) {
                 if (sh.getRefCount() != 0) {
@@ -1,13 +1,13 @@
 package org.corfudb.protocols.logprotocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -24,12 +24,19 @@ import org.corfudb.util.serializer.Serializers;
  */
 @Deprecated // TODO: Add replacement method that conforms to style
 @SuppressWarnings("checkstyle:abbreviation") // Due to deprecation
-@ToString
+@ToString(exclude = "serializedUpdates")
 @Slf4j
 public class MultiSMREntry extends LogEntry implements ISMRConsumable {
 
-    @Getter
-    List<SMREntry> updates = Collections.synchronizedList(new ArrayList<>());
+    /** The updates, which are only added by the methods of this entry, so that
+     *  serializedUpdates can't get out of sync with them.
+     */
+    private List<SMREntry> updates = Collections.synchronizedList(new ArrayList<>());
+
+    /** The serialized updates, if they were all added by {@link #addSerialized(SMREntry)},
+     *  which serialize() writes out instead of serializing them again.
+     */
+    private ByteBuf serializedUpdates;
 
     public MultiSMREntry() {
         this.type = LogEntryType.MULTISMR;
@@ -37,15 +44,44 @@ public class MultiSMREntry extends LogEntry implements ISMRConsumable {
 
     public MultiSMREntry(List<SMREntry> updates) {
         this.type = LogEntryType.MULTISMR;
-        this.updates = updates;
+        this.updates = Collections.synchronizedList(new ArrayList<>(updates));
+    }
+
+    /** Get the updates, which can only be added with the methods of this entry.
+     *
+     * @return An unmodifiable view of the updates.
+     */
+    public List<SMREntry> getUpdates() {
+        return Collections.unmodifiableList(updates);
     }
 
     public void addTo(SMREntry entry) {
-        getUpdates().add(entry);
+        serializedUpdates = null;
+        updates.add(entry);
+    }
+
+    /** Add an update, and serialize it right away, so that its size is known
+     *  before this entry is serialized.
+     *
+     * @param entry The update to add.
+     * @return The serialized size of the update.
+     */
+    public int addSerialized(SMREntry entry) {
+        if (serializedUpdates == null) {
+            if (!updates.isEmpty()) {
+                throw new IllegalStateException("Can't serialize updates added by addTo");
+            }
+            serializedUpdates = Unpooled.buffer();
+        }
+        int start = serializedUpdates.writerIndex();
+        Serializers.CORFU.serialize(entry, serializedUpdates);
+        updates.add(entry);
+        return serializedUpdates.writerIndex() - start;
     }
 
     public void mergeInto(MultiSMREntry other) {
-        getUpdates().addAll(other.getUpdates());
+        serializedUpdates = null;
+        updates.addAll(other.getUpdates());
     }
 
     /**
@@ -69,8 +105,13 @@ public class MultiSMREntry extends LogEntry implements ISMRConsumable {
     public void serialize(ByteBuf b) {
         super.serialize(b);
         b.writeInt(updates.size());
-        updates.stream()
-                .forEach(x -> Serializers.CORFU.serialize(x, b));
+        ByteBuf serialized = serializedUpdates;
+        if (serialized != null) {
+            b.writeBytes(serialized, serialized.readerIndex(), serialized.readableBytes());
+        } else {
+            updates.stream()
+                    .forEach(x -> Serializers.CORFU.serialize(x, b));
+        }
     }
 
     @Override
@@ -81,6 +122,6 @@ public class MultiSMREntry extends LogEntry implements ISMRConsumable {
 
     @Override
     public List<SMREntry> getSMRUpdates(UUID id) {
-        return updates;
+        return getUpdates();
     }
 }
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.ToString;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.object.SmrMethods;
 import org.corfudb.util.serializer.ISerializer;
 import org.corfudb.util.serializer.Serializers;
 
@@ -24,14 +25,27 @@ import org.corfudb.util.serializer.Serializers;
 @NoArgsConstructor
 public class SMREntry extends LogEntry implements ISMRConsumable {
 
+    /**
+     * The method id of entries which record the name of their method only.
+     */
+    public static final int NO_METHOD_ID = -1;
+
     /**
      * The name of the SMR method. Note that this is limited to the size of a short.
+     * Null if the entry was read from the log, and records the id of its method only.
      */
     @Deprecated // TODO: Add replacement method that conforms to style
     @SuppressWarnings("checkstyle:MemberName") // Due to deprecation
     @Getter
     private String SMRMethod;
 
+    /**
+     * The id of the SMR method within its object type, see {@link SmrMethods}, or
+     * {@link #NO_METHOD_ID} if the entry records the name of its method.
+     */
+    @Getter
+    private int methodId = NO_METHOD_ID;
+
     /**
      * The arguments to the SMR method, which could be 0.
      */
@@ -85,27 +99,54 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
     }
 
 
-    /** SMREntry constructor. */
+    /** SMREntry constructor, for an entry which records the name of its method. */
     public SMREntry(String smrMethod, @NonNull Object[] smrArguments, ISerializer serializer) {
+        this(smrMethod, NO_METHOD_ID, smrArguments, serializer);
+    }
+
+    /** SMREntry constructor, for an entry which records the id of its method,
+     * unless the id is {@link #NO_METHOD_ID}. Only runtimes which know the
+     * ids of the methods of the object type can read such an entry. */
+    public SMREntry(String smrMethod, int methodId, @NonNull Object[] smrArguments,
+                    ISerializer serializer) {
         super(LogEntryType.SMR);
         this.SMRMethod = smrMethod;
+        this.methodId = methodId;
         this.SMRArguments = smrArguments;
         this.serializerType = serializer;
     }
 
+    /** Set the name of the method of an entry which was read from the log, and
+     * records the id of its method only.
+     *
+     * @param smrMethod The name of the method with the id of this entry.
+     */
+    public void resolveSMRMethod(String smrMethod) {
+        if (SMRMethod == null) {
+            SMRMethod = smrMethod;
+        }
+    }
+
     /**
      * This function provides the remaining buffer. Child entries
      * should initialize their contents based on the buffer.
      *
+     * <p>The method is either recorded by the length of its name followed by
+     * the name, or by its id encoded as a negative length.
+     *
      * @param b The remaining buffer.
      */
     @Override
     void deserializeBuffer(ByteBuf b, CorfuRuntime rt) {
         super.deserializeBuffer(b, rt);
         short methodLength = b.readShort();
-        byte[] methodBytes = new byte[methodLength];
-        b.readBytes(methodBytes, 0, methodLength);
-        SMRMethod = new String(methodBytes);
+        if (methodLength < 0) {
+            methodId = -1 - methodLength;
+        } else {
+            byte[] methodBytes = new byte[methodLength];
+            b.readBytes(methodBytes, 0, methodLength);
+            SMRMethod = new String(methodBytes);
+        }
         serializerType = Serializers.getSerializer(b.readByte());
         byte numArguments = b.readByte();
         Object[] arguments = new Object[numArguments];
@@ -121,8 +162,12 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
     @Override
     public void serialize(ByteBuf b) {
         super.serialize(b);
-        b.writeShort(SMRMethod.length());
-        b.writeBytes(SMRMethod.getBytes());
+        if (methodId == NO_METHOD_ID) {
+            b.writeShort(SMRMethod.length());
+            b.writeBytes(SMRMethod.getBytes());
+        } else {
+            b.writeShort(-1 - methodId);
+        }
         b.writeByte(serializerType.getType());
         b.writeByte(SMRArguments.length);
         Arrays.stream(SMRArguments)
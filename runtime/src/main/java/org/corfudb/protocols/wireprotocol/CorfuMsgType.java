@@ -51,12 +51,16 @@ public enum CorfuMsgType {
     SEQUENCER_TRIM_REQ(23, new TypeToken<CorfuPayloadMsg<Long>>() {}),
     SEQUENCER_METRICS_REQUEST(24, TypeToken.of(CorfuMsg.class), true),
     SEQUENCER_METRICS_RESPONSE(25, new TypeToken<CorfuPayloadMsg<SequencerMetrics>>(){}, true),
+    STREAM_ADDRESS_REQUEST(26, new TypeToken<CorfuPayloadMsg<StreamAddressRequest>>(){}),
+    STREAM_ADDRESS_RESPONSE(27, new TypeToken<CorfuPayloadMsg<StreamAddressResponse>>(){}),
 
     // Logging Unit Messages
     WRITE(30, new TypeToken<CorfuPayloadMsg<WriteRequest>>() {}),
     READ_REQUEST(31, new TypeToken<CorfuPayloadMsg<ReadRequest>>() {}),
     READ_RESPONSE(32, new TypeToken<CorfuPayloadMsg<ReadResponse>>() {}),
     MULTIPLE_READ_REQUEST(35, new TypeToken<CorfuPayloadMsg<MultipleReadRequest>>() {}),
+    MULTIPLE_WRITE(36, new TypeToken<CorfuPayloadMsg<MultipleWriteRequest>>() {}),
+    MULTIPLE_WRITE_RESPONSE(37, new TypeToken<CorfuPayloadMsg<MultipleWriteResponse>>() {}),
     TRIM(33, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
     FILL_HOLE(34, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
     PREFIX_TRIM(38, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
@@ -25,8 +25,14 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
     @Getter
     final DataType type;
 
-    @Getter
-    byte[] data;
+    /**
+     * The serialized payload, until it is deserialized. An entry which is built from a
+     * buffer keeps a retained slice of it, so that its bytes can be written to disk or
+     * sent on without being copied again. An entry which is decoded from a message
+     * copies its payload out of the message's frame instead, since the entry outlives
+     * the frame in the caches.
+     */
+    private ByteBuf data;
 
     private ByteBuf serializedCache = null;
 
@@ -64,9 +70,8 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
                     if (data == null) {
                         this.payload.set(null);
                     } else {
-                        ByteBuf copyBuf = Unpooled.wrappedBuffer(data);
                         final Object actualValue =
-                                Serializers.CORFU.deserialize(copyBuf, runtime);
+                                Serializers.CORFU.deserialize(data.duplicate(), runtime);
                         // TODO: Remove circular dependency on logentry.
                         if (actualValue instanceof LogEntry) {
                             ((LogEntry) actualValue).setEntry(this);
@@ -74,8 +79,7 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
                         }
                         value = actualValue == null ? this.payload : actualValue;
                         this.payload.set(value);
-                        copyBuf.release();
-                        lastKnownSize = data.length;
+                        lastKnownSize = data.readableBytes();
                         data = null;
                     }
                 }
@@ -85,6 +89,23 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
         return value;
     }
 
+    /**
+     * Return a copy of the serialized payload, or null if it was deserialized.
+     */
+    public byte[] getData() {
+        ByteBuf tempData = data;
+        return tempData == null ? null : byteArrayFromBuf(tempData);
+    }
+
+    /**
+     * Return a read-only view of the serialized payload, which isn't copied,
+     * or null if it was deserialized.
+     */
+    public ByteBuf getDataBuf() {
+        ByteBuf tempData = data;
+        return tempData == null ? null : tempData.asReadOnly();
+    }
+
     @Override
     public synchronized void releaseBuffer() {
         if (serializedCache != null) {
@@ -108,9 +129,9 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
 
     @Override
     public int getSizeEstimate() {
-        byte[] tempData = data;
+        ByteBuf tempData = data;
         if (tempData != null) {
-            return tempData.length;
+            return tempData.readableBytes();
         } else if (lastKnownSize != NOT_KNOWN) {
             return lastKnownSize;
         }
@@ -128,7 +149,7 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
     public LogData(ByteBuf buf) {
         type = ICorfuPayload.fromBuffer(buf, DataType.class);
         if (type == DataType.DATA) {
-            data = ICorfuPayload.fromBuffer(buf, byte[].class);
+            data = Unpooled.wrappedBuffer(ICorfuPayload.fromBuffer(buf, byte[].class));
         } else {
             data = null;
         }
@@ -161,7 +182,8 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
     public LogData(DataType type, final Object object) {
         if (object instanceof ByteBuf) {
             this.type = type;
-            this.data = byteArrayFromBuf((ByteBuf) object);
+            ByteBuf buf = (ByteBuf) object;
+            this.data = buf.retainedSlice(0, buf.writerIndex());
             this.metadataMap = new EnumMap<>(IMetadata.LogUnitMetadataType.class);
         } else {
             this.type = type;
@@ -0,0 +1,34 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A request to write (or hole fill) multiple, possibly non-contiguous, addresses.
+ * Each entry carries its own global address, hole fills are written as hole entries.
+ */
+@Data
+@AllArgsConstructor
+public class MultipleWriteRequest implements ICorfuPayload<MultipleWriteRequest> {
+
+    final List<ILogData> entries;
+
+    /**
+     * Deserialization Constructor from ByteBuf to MultipleWriteRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public MultipleWriteRequest(ByteBuf buf) {
+        entries = new ArrayList<>(ICorfuPayload.listFromBuffer(buf, LogData.class));
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, entries);
+    }
+}
@@ -0,0 +1,36 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The result of each address of a {@link MultipleWriteRequest}.
+ */
+@Data
+@AllArgsConstructor
+public class MultipleWriteResponse implements ICorfuPayload<MultipleWriteResponse> {
+
+    final Map<Long, WriteResult> results;
+
+    public MultipleWriteResponse(ByteBuf buf) {
+        results = ICorfuPayload.mapFromBuffer(buf, Long.class, WriteResult.class);
+    }
+
+    public MultipleWriteResponse() {
+        results = new HashMap<>();
+    }
+
+    public void put(Long address, WriteResult result) {
+        results.put(address, result);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, results);
+    }
+}
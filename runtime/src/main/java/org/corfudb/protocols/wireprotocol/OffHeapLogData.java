@@ -0,0 +1,93 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.nio.ByteBuffer;
+
+import org.corfudb.protocols.logprotocol.LogEntry;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.util.serializer.Serializers;
+
+/**
+ * A copy of a data entry which keeps its serialized payload off the heap, and
+ * deserializes it again on every read rather than retaining the payload.
+ *
+ * <p>Since every read deserializes a new payload, nothing set on the payload once it
+ * was read is kept, in particular the undo records of the updates applied to an
+ * object: rolling an object back past such an update fails, and the object is reset
+ * and replayed instead.
+ *
+ * <p>The payload is held in a direct buffer, which is freed once the entry is garbage
+ * collected, so that an entry stays readable after the cache evicted it, for as long as
+ * a reader holds it. Only the metadata is kept on the heap.
+ */
+public class OffHeapLogData extends LogData {
+
+    /** The serialized payload. */
+    private final ByteBuf offHeapData;
+
+    /**
+     * Copy a data entry off the heap.
+     *
+     * @param logData The entry to copy, which must be of type DATA.
+     */
+    public OffHeapLogData(LogData logData) {
+        super(DataType.DATA);
+        getMetadataMap().putAll(logData.getMetadataMap());
+
+        ByteBuf buf = logData.getDataBuf();
+        if (buf == null) {
+            // The payload was already deserialized, or never serialized.
+            buf = Unpooled.buffer();
+            Serializers.CORFU.serialize(logData.getPayload(null), buf);
+        }
+        // Unlike the direct buffers Netty allocates, a JDK direct buffer has a cleaner
+        // which frees its memory once it is garbage collected.
+        offHeapData = Unpooled.wrappedBuffer(ByteBuffer.allocateDirect(buf.readableBytes()));
+        offHeapData.clear().writeBytes(buf.duplicate());
+    }
+
+    /**
+     * Return a copy of the serialized payload.
+     */
+    @Override
+    public byte[] getData() {
+        byte[] bytes = new byte[offHeapData.readableBytes()];
+        offHeapData.getBytes(offHeapData.readerIndex(), bytes);
+        return bytes;
+    }
+
+    /**
+     * Return a copy of the serialized payload on the heap, which outlives the entry.
+     */
+    @Override
+    public ByteBuf getDataBuf() {
+        return Unpooled.wrappedBuffer(getData());
+    }
+
+    /**
+     * Deserialize the payload, which isn't retained.
+     */
+    @Override
+    public Object getPayload(CorfuRuntime runtime) {
+        final Object value = Serializers.CORFU.deserialize(getDataBuf(), runtime);
+        if (value instanceof LogEntry) {
+            ((LogEntry) value).setEntry(this);
+            ((LogEntry) value).setRuntime(runtime);
+        }
+        return value;
+    }
+
+    @Override
+    public int getSizeEstimate() {
+        return offHeapData.capacity();
+    }
+
+    @Override
+    void doSerializeInternal(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, getType());
+        ICorfuPayload.serialize(buf, getDataBuf());
+        ICorfuPayload.serialize(buf, getMetadataMap());
+    }
+}
@@ -0,0 +1,43 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Request the addresses the sequencer issued to a stream in a range of the log.
+ */
+@Data
+@AllArgsConstructor
+public class StreamAddressRequest implements ICorfuPayload<StreamAddressRequest> {
+
+    /** The stream to get the addresses of. */
+    final UUID stream;
+
+    /** The start of the range, exclusive. */
+    final long start;
+
+    /** The end of the range, inclusive. */
+    final long end;
+
+    /**
+     * Deserialization Constructor from ByteBuf to StreamAddressRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public StreamAddressRequest(ByteBuf buf) {
+        stream = ICorfuPayload.fromBuffer(buf, UUID.class);
+        start = buf.readLong();
+        end = buf.readLong();
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, stream);
+        buf.writeLong(start);
+        buf.writeLong(end);
+    }
+}
@@ -0,0 +1,66 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+/**
+ * The addresses the sequencer issued to a stream in the range of a
+ * {@link StreamAddressRequest}.
+ *
+ * <p>The sequencer only tracks the addresses it issued since it was bootstrapped, and above
+ * the trim mark, so the addresses are only complete from {@link #trackedFrom} on. Below it, the
+ * stream has to be resolved from the log.
+ */
+@Data
+@AllArgsConstructor
+public class StreamAddressResponse implements ICorfuPayload<StreamAddressResponse> {
+
+    /** The first address from which the addresses of the stream are known. */
+    final long trackedFrom;
+
+    /** The addresses of the stream in the requested range. */
+    final Roaring64NavigableMap addresses;
+
+    /**
+     * Deserialization Constructor from ByteBuf to StreamAddressResponse.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public StreamAddressResponse(ByteBuf buf) {
+        trackedFrom = buf.readLong();
+        addresses = new Roaring64NavigableMap();
+        try (ByteBufInputStream in = new ByteBufInputStream(buf)) {
+            addresses.deserialize(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Whether the addresses are complete from the given address on.
+     *
+     * @param start The start of the requested range, exclusive.
+     */
+    public boolean isCompleteFrom(long start) {
+        return start + 1 >= trackedFrom;
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        buf.writeLong(trackedFrom);
+        try (ByteBufOutputStream out = new ByteBufOutputStream(buf)) {
+            addresses.serialize(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
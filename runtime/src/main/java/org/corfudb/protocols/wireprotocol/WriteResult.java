@@ -0,0 +1,133 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+import org.corfudb.runtime.exceptions.DataOutrankedException;
+import org.corfudb.runtime.exceptions.LogUnitException;
+import org.corfudb.runtime.exceptions.OverwriteCause;
+import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.exceptions.ValueAdoptedException;
+import org.corfudb.runtime.exceptions.WrongEpochException;
+
+/**
+ * The result of writing a single address of a {@link MultipleWriteRequest}.
+ */
+@Data
+@AllArgsConstructor
+public class WriteResult implements ICorfuPayload<WriteResult> {
+
+    public static final WriteResult OK =
+            new WriteResult(WriteStatus.OK, OverwriteCause.NONE, null, 0L);
+
+    public static final WriteResult OUTRANKED =
+            new WriteResult(WriteStatus.OUTRANKED, OverwriteCause.NONE, null, 0L);
+
+    /** The write of the address failed on the server for another reason. */
+    public static final WriteResult SERVER_ERROR =
+            new WriteResult(WriteStatus.SERVER_ERROR, OverwriteCause.NONE, null, 0L);
+
+    @AllArgsConstructor
+    public enum WriteStatus implements ICorfuPayload<WriteStatus> {
+        OK(0),
+        OVERWRITE(1),
+        OUTRANKED(2),
+        VALUE_ADOPTED(3),
+        WRONG_EPOCH(4),
+        SERVER_ERROR(5);
+
+        final int val;
+
+        byte asByte() {
+            return (byte) val;
+        }
+
+        @Override
+        public void doSerialize(ByteBuf buf) {
+            buf.writeByte(asByte());
+        }
+
+        public static Map<Byte, WriteStatus> typeMap =
+                Arrays.stream(WriteStatus.values())
+                        .collect(Collectors.toMap(WriteStatus::asByte, Function.identity()));
+    }
+
+    final WriteStatus status;
+
+    /** The cause of an overwrite, NONE unless the status is OVERWRITE. */
+    final OverwriteCause overwriteCause;
+
+    /** The value to adopt, only set if the status is VALUE_ADOPTED. */
+    @Nullable
+    final ReadResponse readResponse;
+
+    /** The epoch of the server, only set if the status is WRONG_EPOCH. */
+    final long correctEpoch;
+
+    public WriteResult(ByteBuf buf) {
+        status = ICorfuPayload.fromBuffer(buf, WriteStatus.class);
+        overwriteCause = OverwriteCause.fromId(buf.readInt());
+        readResponse = status == WriteStatus.VALUE_ADOPTED ? new ReadResponse(buf) : null;
+        correctEpoch = status == WriteStatus.WRONG_EPOCH ? buf.readLong() : 0L;
+    }
+
+    public static WriteResult overwrite(@NonNull OverwriteCause cause) {
+        return new WriteResult(WriteStatus.OVERWRITE, cause, null, 0L);
+    }
+
+    public static WriteResult valueAdopted(@NonNull ReadResponse readResponse) {
+        return new WriteResult(WriteStatus.VALUE_ADOPTED, OverwriteCause.NONE, readResponse, 0L);
+    }
+
+    public static WriteResult wrongEpoch(long correctEpoch) {
+        return new WriteResult(WriteStatus.WRONG_EPOCH, OverwriteCause.NONE, null, correctEpoch);
+    }
+
+    public boolean isOk() {
+        return status == WriteStatus.OK;
+    }
+
+    /**
+     * Returns the exception a single write of this address would have failed with.
+     *
+     * @return the exception, or null if the write succeeded
+     */
+    @Nullable
+    public RuntimeException getException() {
+        switch (status) {
+            case OVERWRITE:
+                return new OverwriteException(overwriteCause);
+            case OUTRANKED:
+                return new DataOutrankedException();
+            case VALUE_ADOPTED:
+                return new ValueAdoptedException(readResponse);
+            case WRONG_EPOCH:
+                return new WrongEpochException(correctEpoch);
+            case SERVER_ERROR:
+                return new LogUnitException("Server failed to write the address");
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, status);
+        buf.writeInt(overwriteCause.getId());
+        if (status == WriteStatus.VALUE_ADOPTED) {
+            ICorfuPayload.serialize(buf, readResponse);
+        } else if (status == WriteStatus.WRONG_EPOCH) {
+            buf.writeLong(correctEpoch);
+        }
+    }
+}
@@ -8,21 +8,29 @@ import static org.corfudb.recovery.RecoveryUtils.getSnapShotAddressOfCheckPoint;
 import static org.corfudb.recovery.RecoveryUtils.getStartAddressOfCheckPoint;
 import static org.corfudb.recovery.RecoveryUtils.isCheckPointEntry;
 import static org.corfudb.runtime.view.Address.isAddress;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 
 import javax.annotation.Nonnull;
 
@@ -44,9 +52,12 @@ import org.corfudb.runtime.collections.CorfuTable.IndexRegistry;
 import org.corfudb.runtime.collections.SMRMap;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
 import org.corfudb.runtime.object.CorfuCompileProxy;
+import org.corfudb.runtime.object.ICorfuSMR;
+import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
 import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.ObjectBuilder;
 import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.Utils;
 import org.corfudb.util.serializer.ISerializer;
 import org.corfudb.util.serializer.Serializers;
@@ -64,6 +75,11 @@ import org.corfudb.util.serializer.Serializers;
  * list. In whitelist mode, only the streams present in streamsToLoad will be loaded. We make
  * sure to also include the checkpoint streams for each of them.
  *
+ * Several bulk reads may be kept in flight, and entries may be applied by several threads.
+ * Each thread then applies the entries of the streams of its own partition, in log order, so
+ * that the updates to each stream are still applied in order. Multi-object entries are split
+ * between the partitions of their streams, since streams are loaded independently.
+ *
  *
  * Created by rmichoud on 6/14/17.
  */
@@ -76,6 +92,8 @@ public class FastObjectLoader {
     static final int DEFAULT_TIMEOUT_MINUTES_FAST_LOADING = 30;
     static final int NUMBER_OF_ATTEMPT = 3;
     static final int STATUS_UPDATE_PACE = 10000;
+    static final int DEFAULT_NUMBER_OF_PENDING_READS = 1;
+    static final int DEFAULT_NUMBER_OF_THREADS = 1;
 
     private CorfuRuntime runtime;
 
@@ -101,6 +119,28 @@ public class FastObjectLoader {
     @Getter
     private int timeoutInMinutesForLoading = DEFAULT_TIMEOUT_MINUTES_FAST_LOADING;
 
+    /**
+     * The number of bulk reads kept in flight, ahead of the batch being processed.
+     */
+    @Setter
+    @Getter
+    private int numberOfPendingReads = DEFAULT_NUMBER_OF_PENDING_READS;
+
+    /**
+     * The number of threads applying entries. Streams are partitioned between them.
+     */
+    @Setter
+    @Getter
+    private int numberOfThreads = DEFAULT_NUMBER_OF_THREADS;
+
+    /**
+     * Whether the objects loaded defer work, such as maintaining the secondary indexes of
+     * a CorfuTable, until all their entries have been applied.
+     */
+    @Setter
+    @Getter
+    private boolean deferIndexBuild = false;
+
     @Setter
     @Getter
     private boolean recoverSequencerMode;
@@ -180,8 +220,15 @@ public class FastObjectLoader {
 
     private long addressProcessed;
 
-    // In charge of summoning Corfu maps back in this world
-    private ExecutorService necromancer;
+    // In charge of summoning Corfu maps back in this world, one per partition of the streams
+    private List<ExecutorService> necromancers;
+
+    // Reads the batches the necromancers process
+    private ExecutorService reader;
+
+    // Throughput of the loader
+    private final Meter addressesRead;
+    private final Meter entriesApplied;
 
     private Map<UUID, StreamMetaData> streamsMetaData;
 
@@ -201,6 +248,10 @@ public class FastObjectLoader {
         this.runtime = corfuRuntime;
         loadInCache = !corfuRuntime.getParameters().isCacheDisabled();
         streamsMetaData = new HashMap<>();
+
+        MetricRegistry metrics = corfuRuntime.getMetrics();
+        addressesRead = metrics.meter(CorfuComponent.FAST_OBJECT_LOADER + "addresses-read");
+        entriesApplied = metrics.meter(CorfuComponent.FAST_OBJECT_LOADER + "entries-applied");
     }
 
     public void addStreamToIgnore(String streamName) {
@@ -224,23 +275,39 @@ public class FastObjectLoader {
      *
      */
     private void summonNecromancer() {
-        necromancer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
-                .setNameFormat("necromancer-%d").build());
+        ThreadFactory necromancerFactory = new ThreadFactoryBuilder()
+                .setNameFormat("necromancer-%d").build();
+        necromancers = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            necromancers.add(Executors.newSingleThreadExecutor(necromancerFactory));
+        }
+        reader = Executors.newFixedThreadPool(numberOfPendingReads, new ThreadFactoryBuilder()
+                .setNameFormat("necromancer-reader-%d").setDaemon(true).build());
         futureList = new ArrayList<>();
     }
 
-    private void invokeNecromancer(Map<Long, ILogData> logDataMap, BiConsumer<Long, ILogData> resurrectionSpell) {
-        futureList.add(necromancer.submit(() -> {
-            logDataMap.forEach((address, logData) -> {
-                resurrectionSpell.accept(address, logData);
-            });
-        }));
+    /**
+     * Have each necromancer process the logData of a batch, which its spell only applies to
+     * the streams of its partition.
+     */
+    private void invokeNecromancer(Map<Long, ILogData> logDataMap,
+                                   IntFunction<BiConsumer<Long, ILogData>> resurrectionSpell,
+                                   int numberOfPartitions) {
+        for (int partition = 0; partition < numberOfPartitions; partition++) {
+            BiConsumer<Long, ILogData> spell = resurrectionSpell.apply(partition);
+            futureList.add(necromancers.get(partition).submit(() -> {
+                logDataMap.forEach(spell);
+            }));
+        }
     }
 
     private void killNecromancer() {
-        necromancer.shutdown();
+        reader.shutdownNow();
+        necromancers.forEach(ExecutorService::shutdown);
         try {
-            necromancer.awaitTermination(timeoutInMinutesForLoading, TimeUnit.MINUTES);
+            for (ExecutorService necromancer : necromancers) {
+                necromancer.awaitTermination(timeoutInMinutesForLoading, TimeUnit.MINUTES);
+            }
         } catch (InterruptedException e) {
             String msg = "Necromancer is taking too long to load the maps. Gave up.";
             log.error(msg);
@@ -252,6 +319,19 @@ public class FastObjectLoader {
         }
     }
 
+    /**
+     * Get the predicate selecting the streams of a partition.
+     *
+     * @param partition the partition of the streams
+     * @return whether a stream is in the partition
+     */
+    private Predicate<UUID> inPartition(int partition) {
+        if (numberOfThreads == 1) {
+            return streamId -> true;
+        }
+        return streamId -> Math.floorMod(streamId.hashCode(), numberOfThreads) == partition;
+    }
+
     /**
      * These two functions are called if no parameter were supplied
      * by the user.
@@ -399,7 +479,11 @@ public class FastObjectLoader {
                 createObjectIfNotExist(runtime, streamId, serializer, objectType);
             }
             CorfuCompileProxy cp = getCorfuCompileProxy(runtime, streamId, objectType);
+            if (deferIndexBuild) {
+                cp.getUnderlyingObject().beginBulkLoadUnsafe();
+            }
             cp.getUnderlyingObject().applyUpdateToStreamUnsafe(entry, globalAddress);
+            entriesApplied.mark();
         }
     }
 
@@ -409,17 +493,23 @@ public class FastObjectLoader {
     }
 
 
-    private void updateCorfuObjectWithSmrEntry(ILogData logData, LogEntry logEntry, long globalAddress) {
+    private void updateCorfuObjectWithSmrEntry(ILogData logData, LogEntry logEntry, long globalAddress,
+                                               Predicate<UUID> inPartition) {
         UUID streamId = logData.getStreams().iterator().next();
-        applySmrEntryToStream(streamId, (SMREntry) logEntry, globalAddress);
+        if (inPartition.test(streamId)) {
+            applySmrEntryToStream(streamId, (SMREntry) logEntry, globalAddress);
+        }
     }
 
-    private void updateCorfuObjectWithMultiObjSmrEntry(LogEntry logEntry, long globalAddress) {
+    private void updateCorfuObjectWithMultiObjSmrEntry(LogEntry logEntry, long globalAddress,
+                                                       Predicate<UUID> inPartition) {
         MultiObjectSMREntry multiObjectLogEntry = (MultiObjectSMREntry) logEntry;
         multiObjectLogEntry.getEntryMap().forEach((streamId, multiSmrEntry) -> {
-            multiSmrEntry.getSMRUpdates(streamId).forEach((smrEntry) -> {
-                applySmrEntryToStream(streamId, smrEntry, globalAddress);
-            });
+            if (inPartition.test(streamId)) {
+                multiSmrEntry.getSMRUpdates(streamId).forEach((smrEntry) -> {
+                    applySmrEntryToStream(streamId, smrEntry, globalAddress);
+                });
+            }
         });
     }
 
@@ -449,6 +539,17 @@ public class FastObjectLoader {
      * @param logData LogData received from Corfu server.
      */
     private void updateCorfuObject(ILogData logData) {
+        updateCorfuObject(logData, streamId -> true);
+    }
+
+    /**
+     * Extract log entries from logData and update the Corfu Objects of the streams
+     * of a partition.
+     *
+     * @param logData LogData received from Corfu server.
+     * @param inPartition whether a stream is in the partition
+     */
+    private void updateCorfuObject(ILogData logData, Predicate<UUID> inPartition) {
         LogEntry logEntry;
         try {
             logEntry = deserializeLogData(runtime, logData);
@@ -463,10 +564,10 @@ public class FastObjectLoader {
 
         switch (logEntry.getType()) {
             case SMR:
-                updateCorfuObjectWithSmrEntry(logData, logEntry, globalAddress);
+                updateCorfuObjectWithSmrEntry(logData, logEntry, globalAddress, inPartition);
                 break;
             case MULTIOBJSMR:
-                updateCorfuObjectWithMultiObjSmrEntry(logEntry, globalAddress);
+                updateCorfuObjectWithMultiObjSmrEntry(logEntry, globalAddress, inPartition);
                 break;
             case CHECKPOINT:
                 updateCorfuObjectWithCheckPointEntry(logData, logEntry);
@@ -538,13 +639,14 @@ public class FastObjectLoader {
      *
      * @param address
      * @param logData
+     * @param inPartition whether a stream is in the partition to process
      */
-    private void processLogData(long address, ILogData logData) {
+    private void processLogData(long address, ILogData logData, Predicate<UUID> inPartition) {
         switch (logData.getType()) {
             case DATA:
                 // Checkpoint should have been processed first
                 if (!isCheckPointEntry(logData) && shouldLogDataBeProcessed(logData)) {
-                    updateCorfuObject(logData);
+                    updateCorfuObject(logData, inPartition);
                 }
                 break;
             case HOLE:
@@ -680,13 +782,13 @@ public class FastObjectLoader {
         // we can just do the last step. Risky, but the flag is
         // explicit enough.
         if (logHasNoCheckPoint) {
-            applyForEachAddress(this::processLogData);
+            applyForEachAddressInPartitions(this::processLogData);
         } else {
             applyForEachAddress(this::findCheckPointsInLogAddress);
             resurrectCheckpoints();
 
             resetAddressProcessed();
-            applyForEachAddress(this::processLogData);
+            applyForEachAddressInPartitions(this::processLogData);
         }
 
     }
@@ -698,36 +800,111 @@ public class FastObjectLoader {
      */
     public void loadMaps() {
         log.info("loadMaps: Starting to resurrect maps");
+        final long startTime = System.currentTimeMillis();
+        final long startAddressesRead = addressesRead.getCount();
+        final long startEntriesApplied = entriesApplied.getCount();
         initializeHeadAndTails();
 
         if(recoverSequencerMode) {
             recoverSequencer();
         }
         else {
-            recoverRuntime();
+            try {
+                recoverRuntime();
+            } finally {
+                endBulkLoads();
+            }
         }
 
         log.info("loadMaps[startAddress: {}, stopAddress (included): {}, addressProcessed: {}]",
                 logHead, logTail, addressProcessed);
+        final long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+        final long read = addressesRead.getCount() - startAddressesRead;
+        final long applied = entriesApplied.getCount() - startEntriesApplied;
+        log.info("loadMaps: read {} addresses and applied {} entries in {} ms "
+                        + "({} addresses/s, {} entries/s)", read, applied, elapsed,
+                read * TimeUnit.SECONDS.toMillis(1) / elapsed,
+                applied * TimeUnit.SECONDS.toMillis(1) / elapsed);
         log.info("loadMaps: Loading successful, Corfu maps are alive!");
     }
 
 
+    /**
+     * Finish bulk loading the objects loaded, so that they can be accessed.
+     */
+    private void endBulkLoads() {
+        if (!deferIndexBuild) {
+            return;
+        }
+        final long startTime = System.currentTimeMillis();
+        runtime.getObjectsView().getObjectCache().values().stream()
+                .filter(object -> object instanceof ICorfuSMR)
+                .map(object -> ((ICorfuSMR<?>) object).getCorfuSMRProxy())
+                .filter(proxy -> proxy instanceof ICorfuSMRProxyInternal)
+                .forEach(proxy -> ((ICorfuSMRProxyInternal<?>) proxy).getUnderlyingObject()
+                        .update(o -> {
+                            o.endBulkLoadUnsafe();
+                            return null;
+                        }));
+        log.info("endBulkLoads: built deferred indexes in {} ms",
+                System.currentTimeMillis() - startTime);
+    }
+
     /**
      * This method will apply for each address the consumer given in parameter.
      *
-     * The Necromancer thread is used to do the heavy lifting.
+     * A single Necromancer thread is used to do the heavy lifting.
      * @param logDataProcessor
      */
     private void applyForEachAddress(BiConsumer<Long, ILogData> logDataProcessor) {
+        applyForEachAddress(partition -> logDataProcessor, 1);
+    }
+
+    /**
+     * This method will apply for each address the processor given in parameter, once for each
+     * partition of the streams, by the Necromancer thread of the partition.
+     *
+     * @param logDataProcessor processes a logData for the streams of a partition.
+     */
+    private void applyForEachAddressInPartitions(PartitionProcessor logDataProcessor) {
+        applyForEachAddress(partition -> {
+            Predicate<UUID> inPartition = inPartition(partition);
+            return (address, logData) -> logDataProcessor.process(address, logData, inPartition);
+        }, numberOfThreads);
+    }
+
+    /**
+     * Processes a logData for the streams of a partition.
+     */
+    @FunctionalInterface
+    private interface PartitionProcessor {
+        void process(long address, ILogData logData, Predicate<UUID> inPartition);
+    }
+
+    /**
+     * Read the log in batches, keeping up to numberOfPendingReads bulk reads in flight,
+     * and have the necromancers process each batch in order.
+     *
+     * @param logDataProcessor gets the processor of each partition.
+     * @param numberOfPartitions the number of partitions.
+     */
+    private void applyForEachAddress(IntFunction<BiConsumer<Long, ILogData>> logDataProcessor,
+                                     int numberOfPartitions) {
 
         summonNecromancer();
         nextRead = logHead;
-        while (nextRead <= logTail) {
-            final long start = nextRead;
-            final long stopNotIncluded = Math.min(start + batchReadSize, logTail + 1);
-            nextRead = stopNotIncluded;
-            final Map<Long, ILogData> range = getLogData(runtime, start, stopNotIncluded);
+        Deque<CompletableFuture<Map<Long, ILogData>>> pendingReads = new ArrayDeque<>();
+        while (nextRead <= logTail || !pendingReads.isEmpty()) {
+            while (nextRead <= logTail && pendingReads.size() < numberOfPendingReads) {
+                final long start = nextRead;
+                final long stopNotIncluded = Math.min(start + batchReadSize, logTail + 1);
+                nextRead = stopNotIncluded;
+                pendingReads.add(CompletableFuture.supplyAsync(() ->
+                        getLogData(runtime, start, stopNotIncluded), reader));
+            }
+            final Map<Long, ILogData> range =
+                    CFUtils.getUninterruptibly(pendingReads.remove());
+            addressesRead.mark(range.size());
 
             // Sanity
             boolean canProcessRange = true;
@@ -742,6 +919,8 @@ public class FastObjectLoader {
                 if (logData.getType() == DataType.TRIMMED) {
                     log.warn("applyForEachAddress[{}, start={}] address is trimmed", address, logHead);
                     handleRetry();
+                    // The reads in flight are from before the retry
+                    pendingReads.clear();
                     canProcessRange = false;
                     break;
                 }
@@ -751,7 +930,7 @@ public class FastObjectLoader {
                 }
             }
             if (canProcessRange) {
-                invokeNecromancer(range, logDataProcessor);
+                invokeNecromancer(range, logDataProcessor, numberOfPartitions);
             }
         }
         killNecromancer();
@@ -1,32 +1,48 @@
 package org.corfudb.runtime;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.logprotocol.MultiSMREntry;
 import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
-import org.corfudb.runtime.object.CorfuCompileProxy;
 import org.corfudb.runtime.object.ICorfuSMR;
 import org.corfudb.runtime.object.transactions.AbstractTransactionalContext;
 import org.corfudb.runtime.object.transactions.TransactionType;
 import org.corfudb.runtime.object.transactions.TransactionalContext;
 import org.corfudb.runtime.view.CacheOption;
 import org.corfudb.runtime.view.StreamsView;
+import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
+import org.corfudb.util.Utils;
 import org.corfudb.util.serializer.ISerializer;
 import org.corfudb.util.serializer.Serializers;
 
@@ -36,6 +52,7 @@ import org.corfudb.util.serializer.Serializers;
  *  stream.
  *  TODO: Generalize to all SMR objects.
  */
+@Slf4j
 public class CheckpointWriter<T extends Map> {
     /** Metadata to be stored in the CP's 'dict' map.
      */
@@ -77,11 +94,27 @@ public class CheckpointWriter<T extends Map> {
     @Setter
     boolean enablePutAll = false;
 
-    /** Batch size: number of SMREntry in a single CONTINUATION.
+    /** Batch size: maximum number of SMREntry in a single CONTINUATION.
+     *  Unbounded by default, so that records are bounded by batchBytes.
+     */
+    @Getter
+    @Setter
+    private int batchSize = Integer.MAX_VALUE;
+
+    /** Batch bytes: the serialized size of the SMREntries in a CONTINUATION
+     *  (of the keys and values, with enablePutAll) at which it is closed and
+     *  appended.
+     */
+    @Getter
+    @Setter
+    private int batchBytes;
+
+    /** Number of CONTINUATION records appended concurrently. The object's
+     *  state held in memory is bounded by one more batch than this.
      */
     @Getter
     @Setter
-    private int batchSize = 50;
+    private int pendingAppends;
 
     /** BiConsumer to run after every CheckpointEntry is appended to the stream.
      */
@@ -106,6 +139,32 @@ public class CheckpointWriter<T extends Map> {
     @Setter
     ISerializer serializer = Serializers.JSON;
 
+    /** Serialized bytes of SMREntries written to checkpoints, whose rate is the
+     *  checkpoint throughput.
+     */
+    private final Meter bytesWritten;
+
+    /** How long the threads of the appender pool are kept once idle. */
+    private static final long APPENDER_KEEP_ALIVE_SECONDS = 60L;
+
+    /** Appends CONTINUATION records concurrently, for all checkpoint writers. Each
+     *  writer keeps at most pendingAppends of them in flight, and the appends of
+     *  concurrent writers queue up once all the threads are busy. Its threads expire
+     *  once idle, so it isn't shut down.
+     */
+    private static final ExecutorService APPENDER = buildAppender();
+
+    private static ExecutorService buildAppender() {
+        final int numThreads = Runtime.getRuntime().availableProcessors() * 2;
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+                APPENDER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setDaemon(true)
+                        .setNameFormat("checkpoint-appender-%d")
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /** Constructor for Checkpoint Writer for Corfu Maps.
      * @param rt object's runtime
      * @param streamId unique identifier of stream to checkpoint
@@ -120,6 +179,11 @@ public class CheckpointWriter<T extends Map> {
         checkpointId = UUID.randomUUID();
         checkpointStreamID = CorfuRuntime.getCheckpointStreamIdFromId(streamId);
         sv = rt.getStreamsView();
+        batchBytes = rt.getParameters().getCheckpointBatchBytes();
+        pendingAppends = rt.getParameters().getCheckpointPendingAppends();
+        MetricRegistry metrics = rt.getMetrics() != null
+                ? rt.getMetrics() : CorfuRuntime.getDefaultMetrics();
+        bytesWritten = metrics.meter(CorfuComponent.CHECKPOINT_WRITER + "bytes-written");
     }
 
     /** Static method for all steps necessary to append checkpoint
@@ -193,24 +257,24 @@ public class CheckpointWriter<T extends Map> {
     /** Append zero or more CONTINUATION records to this
      *  object's stream.  Each will contain a fraction of
      *  the state of the object that we're checkpointing
-     *  (up to batchSize items at a time).
+     *  (up to batchBytes of serialized SMREntries, and
+     *  up to batchSize items, at a time).
      *
      *  <p>Corfu client transaction management, if desired, is the
      *  caller's responsibility.</p>
      *
-     *  <p>The Iterators class appears to preserve the laziness
-     *  of Stream processing; we don't wish to use more
-     *  memory than strictly necessary to generate the
-     *  checkpoint.  NOTE: It would be even more useful if
-     *  the map had a lazy iterator: the eagerness of
-     *  map.keySet().stream() is not ideal, but at least
-     *  it should be much smaller than the entire map.</p>
+     *  <p>Up to pendingAppends records are appended concurrently
+     *  while the next one is filled, so we don't hold more than
+     *  pendingAppends + 1 batches of the object in memory.  The
+     *  records of a checkpoint may then be written out of order,
+     *  which is harmless since each key appears in only one of them.</p>
      *
      *  <p>NOTE: The postAppendFunc lambda is executed in the
      *  current thread context, i.e., inside of a Corfu
      *  transaction, and that transaction will be *aborted*
      *  at the end of this function.  Any Corfu data
-     *  modifying ops will be undone by the TXAbort().</p>
+     *  modifying ops will be undone by the TXAbort().
+     *  It is run for each record in order, once it is appended.</p>
      *
      * @return Stream of global log addresses of the CONTINUATION records written.
      */
@@ -218,68 +282,119 @@ public class CheckpointWriter<T extends Map> {
         ImmutableMap<CheckpointEntry.CheckpointDictKey,String> mdkv =
                 ImmutableMap.copyOf(this.mdkv);
         List<Long> continuationAddresses = new ArrayList<>();
+        Deque<PendingAppend> inFlight = new ArrayDeque<>();
+        ByteBuf sizer = enablePutAll ? Unpooled.buffer() : null;
+        final long bytesBefore = numBytes;
+        final long startNanos = System.nanoTime();
 
-        Class underlyingObjectType = ((CorfuCompileProxy<Map>)
-                ((ICorfuSMR<T>) map).getCorfuSMRProxy())
-                .getObjectType();
-
-        if (enablePutAll) {
-            Iterable<List<Map.Entry>> partitions = Iterables.partition(map.entrySet(), batchSize);
-
-            for (List<Map.Entry> partition : partitions) {
-                Map tmp = new HashMap();
-                for (Map.Entry entry : partition) {
-                    tmp.put(keyMutator.apply(entry.getKey()), valueMutator.apply(map.get(entry.getValue())));
+        try {
+            MultiSMREntry smrEntries = new MultiSMREntry();
+            Map putAllEntries = new HashMap();
+            int batchEntries = 0;
+            long batchSerializedBytes = 0;
+            for (Object o : map.entrySet()) {
+                Map.Entry entry = (Map.Entry) o;
+                Object key = keyMutator.apply(entry.getKey());
+                Object value = valueMutator.apply(entry.getValue());
+                if (enablePutAll) {
+                    // The map of a putAll is serialized as a whole, so its size
+                    // is estimated from the sizes of its keys and values.
+                    putAllEntries.put(key, value);
+                    batchSerializedBytes += serializedSize(serializer, sizer, key, value);
+                } else {
+                    batchSerializedBytes += smrEntries.addSerialized(
+                            new SMREntry("put", new Object[]{key, value}, serializer));
                 }
+                batchEntries++;
+
+                if (batchEntries >= batchSize || batchSerializedBytes >= batchBytes) {
+                    appendContinuation(smrEntries, putAllEntries, mdkv, inFlight,
+                            continuationAddresses);
+                    smrEntries = new MultiSMREntry();
+                    putAllEntries = new HashMap();
+                    batchEntries = 0;
+                    batchSerializedBytes = 0;
+                }
+            }
+            if (batchEntries > 0) {
+                appendContinuation(smrEntries, putAllEntries, mdkv, inFlight,
+                        continuationAddresses);
+            }
+            while (!inFlight.isEmpty()) {
+                completeContinuation(inFlight.remove(), continuationAddresses);
+            }
+        } finally {
+            if (sizer != null) {
+                sizer.release();
+            }
+        }
 
-                SMREntry smrEntry = new SMREntry("putAll", new Object[]{tmp}, serializer
-                );
-                MultiSMREntry smrEntries = new MultiSMREntry();
-                smrEntries.addTo(smrEntry);
-
-                CheckpointEntry cp = new CheckpointEntry(CheckpointEntry.CheckpointEntryType.CONTINUATION,
-                        author, checkpointId, streamId, mdkv, smrEntries);
-
-                long pos = nonCachedAppend(cp, checkpointStreamID);
-
-                postAppendFunc.accept(cp, pos);
-                continuationAddresses.add(pos);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final long bytes = numBytes - bytesBefore;
+        log.info("appendObjectState: wrote {} bytes in {} records of stream {} in {} ms, "
+                        + "{} bytes/s", bytes, continuationAddresses.size(),
+                Utils.toReadableId(streamId), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                (long) ((double) bytes * TimeUnit.SECONDS.toNanos(1)
+                        / Math.max(elapsedNanos, 1)));
+        return continuationAddresses;
+    }
 
-                numEntries++;
-                // CheckpointEntry::serialize() has a side-effect we use
-                // for an accurate count of serialized bytes of SRMEntries.
-                numBytes += cp.getSmrEntriesBytes();
-            }
-        } else {
+    /** A CONTINUATION record, and the address it will have been appended at.
+     */
+    @RequiredArgsConstructor
+    private static class PendingAppend {
+        final CheckpointEntry entry;
+        final CompletableFuture<Long> address;
+    }
 
-            Iterable<List<Map.Entry>> partitions = Iterables.partition(map.entrySet(), batchSize);
+    /** Append a CONTINUATION record of a batch of puts, or of a putAll of a batch
+     *  of keys and values, after waiting for earlier records until fewer than
+     *  pendingAppends are in flight.
+     */
+    private void appendContinuation(MultiSMREntry smrEntries, Map putAllEntries,
+                                    ImmutableMap<CheckpointEntry.CheckpointDictKey,String> mdkv,
+                                    Deque<PendingAppend> inFlight,
+                                    List<Long> continuationAddresses) {
+        while (inFlight.size() >= Math.max(pendingAppends, 1)) {
+            completeContinuation(inFlight.remove(), continuationAddresses);
+        }
 
-            for (List<Map.Entry> partition : partitions) {
-                MultiSMREntry smrEntries = new MultiSMREntry();
-                for (Map.Entry entry : partition) {
-                    smrEntries.addTo(new SMREntry("put",
-                            new Object[]{keyMutator.apply(entry.getKey()),
-                                    valueMutator.apply(entry.getValue())},
-                            serializer));
-                }
+        if (enablePutAll) {
+            smrEntries.addTo(new SMREntry("putAll", new Object[]{putAllEntries}, serializer));
+        }
 
-                CheckpointEntry cp = new CheckpointEntry(CheckpointEntry
-                        .CheckpointEntryType.CONTINUATION,
-                        author, checkpointId, streamId, mdkv, smrEntries);
-                long pos = nonCachedAppend(cp, checkpointStreamID);
+        CheckpointEntry cp = new CheckpointEntry(CheckpointEntry.CheckpointEntryType.CONTINUATION,
+                author, checkpointId, streamId, mdkv, smrEntries);
+        CompletableFuture<Long> address = pendingAppends <= 1
+                ? CompletableFuture.completedFuture(nonCachedAppend(cp, checkpointStreamID))
+                : CompletableFuture.supplyAsync(() -> nonCachedAppend(cp, checkpointStreamID),
+                        APPENDER);
+        inFlight.add(new PendingAppend(cp, address));
+    }
 
-                postAppendFunc.accept(cp, pos);
-                continuationAddresses.add(pos);
+    /** Wait for a CONTINUATION record to be appended, and account for it.
+     */
+    private void completeContinuation(PendingAppend pending, List<Long> continuationAddresses) {
+        long pos = CFUtils.getUninterruptibly(pending.address);
 
-                numEntries++;
-                // CheckpointEntry::serialize() has a side-effect we use
-                // for an accurate count of serialized bytes of SRMEntries.
-                numBytes += cp.getSmrEntriesBytes();
+        postAppendFunc.accept(pending.entry, pos);
+        continuationAddresses.add(pos);
 
-            }
-        }
+        numEntries++;
+        // CheckpointEntry::serialize() has a side-effect we use
+        // for an accurate count of serialized bytes of SRMEntries.
+        numBytes += pending.entry.getSmrEntriesBytes();
+        bytesWritten.mark(pending.entry.getSmrEntriesBytes());
+    }
 
-        return continuationAddresses;
+    /** The serialized size of a key and value of a putAll, which bounds the size of a batch.
+     */
+    private static int serializedSize(ISerializer serializer, ByteBuf sizer,
+                                      Object key, Object value) {
+        sizer.clear();
+        serializer.serialize(key, sizer);
+        serializer.serialize(value, sizer);
+        return sizer.writerIndex();
     }
 
     /** Append a checkpoint END record to this object's stream.
@@ -17,6 +17,7 @@ import lombok.ToString;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.comm.ChannelImplementation;
+import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.MsgHandlingFilter;
 import org.corfudb.protocols.wireprotocol.VersionInfo;
 import org.corfudb.recovery.FastObjectLoader;
@@ -88,6 +89,28 @@ public class CorfuRuntime {
         /** True, if optimistic undo logging is disabled. */
         @Default boolean optimisticUndoDisabled = false;
 
+        /**
+         * The number of snapshots each object retains at versions it is rolled back
+         * from, to serve snapshot reads at those versions. Each snapshot is a copy of
+         * the object, so none are retained by default.
+         */
+        @Default int objectSnapshots = 0;
+
+        /**
+         * True, if a CorfuTable replayed from the beginning of its stream, when it is
+         * opened or loaded by the Fast Loader, builds its secondary indexes once it has
+         * been replayed, rather than maintaining them through the replay.
+         */
+        @Default boolean deferIndexBuild = false;
+
+        /**
+         * True, if SMR entries record their method by its id within its object type
+         * rather than by its name. Entries which record ids can only be read by runtimes
+         * which know the ids, so this should be enabled only once every client has been
+         * upgraded. Entries which record names are read either way.
+         */
+        @Default boolean smrMethodIdsEnabled = false;
+
         /**
          * Max size for a write request.
          */
@@ -113,6 +136,25 @@ public class CorfuRuntime {
          *
          */
         @Default Duration fastLoaderTimeout = Duration.ofMinutes(30);
+
+        /** The number of bulk reads the Fast Loader keeps in flight. */
+        @Default int fastLoaderPendingReads = 1;
+
+        /**
+         * The number of threads the Fast Loader applies entries with, each to the
+         * streams of its own partition.
+         */
+        @Default int fastLoaderThreads = 1;
+
+        /**
+         * The size, in serialized bytes of keys and values, at which a checkpoint writer
+         * closes a CONTINUATION record. It should leave room under maxWriteSize for the
+         * record's metadata.
+         */
+        @Default int checkpointBatchBytes = 1 << 20;
+
+        /** The number of CONTINUATION records a checkpoint writer keeps in flight. */
+        @Default int checkpointPendingAppends = 1;
         // endregion
 
         // region Address Space Parameters
@@ -122,9 +164,24 @@ public class CorfuRuntime {
         /** Whether or not to disable the cache. */
         @Default boolean cacheDisabled = false;
 
-        /** The maximum size of the cache, in bytes. */
+        /** The maximum size of the cache, in entries. */
         @Default long numCacheEntries = 5000;
 
+        /**
+         * The maximum size of the cache, in bytes, as estimated by
+         * {@link ILogData#getSizeEstimate()}. If set, it bounds the cache instead of
+         * numCacheEntries.
+         */
+        @Default long maxCacheWeight = 0;
+
+        /**
+         * Whether to keep cached entries serialized off the heap, deserializing
+         * their payload on every read. Undo records are then not kept across reads,
+         * so rolling an object back resets and replays it instead. The payload of an
+         * entry is freed as soon as it is evicted.
+         */
+        @Default boolean cacheOffHeap = false;
+
         /** Sets expireAfterAccess and expireAfterWrite in seconds. */
         @Default long cacheExpiryTime = Long.MAX_VALUE;
 
@@ -134,6 +191,11 @@ public class CorfuRuntime {
         /** Sets the period of trimming the resolvedQueues in minutes. **/
         // FIXME: Remove this with the Stream Layer refactor.
         @Default Duration resolvedStreamTrimTimeout = Duration.ofMinutes(120);
+
+        /** The number of threads asynchronous reads and writes may block on, to send the
+         *  requests which follow a response, hole fill or recover. 0 means that we will use
+         *  2x the number of processors reported in the system. */
+        @Default int addressSpaceAsyncThreads = 0;
         // endregion
 
         // region Handshake Parameters
@@ -145,6 +207,29 @@ public class CorfuRuntime {
         /** Whether or not to disable backpointers. */
         @Default boolean backpointersDisabled = false;
 
+        /** Whether or not to disable resolving streams from the sequencer's address maps,
+         * and follow backpointers instead. */
+        @Default boolean streamAddressMapsDisabled = false;
+
+        /** Number of addresses to read ahead of the current address when following
+         * backpointers, or 0 to read one address at a time. The window is read without
+         * knowing which of its addresses belong to the stream, so on a log shared by many
+         * streams most of it is wasted; it is off unless backpointers are known to be
+         * dense. */
+        @Default int backpointerPrefetchWindow = 0;
+
+        /** Number of addresses of a stream to read ahead of a consumer reading it an entry
+         * at a time, or 0 to disable reading ahead. */
+        @Default int streamReadAheadSize = 32;
+
+        /** Minimum number of addresses left to read in a stream to read ahead. */
+        @Default int streamReadAheadThreshold = 4;
+
+        /** Maximum number of bytes read ahead of stream consumers at once, shared by all
+         * the streams of the runtime, and estimated from the size of the entries of each
+         * stream read so far. */
+        @Default long streamReadAheadBytes = 4 * 1024 * 1024;
+
         /** Whether or not hole filling should be disabled. */
         @Default boolean holeFillingDisabled = false;
 
@@ -918,7 +1003,10 @@ public class CorfuRuntime {
         if (parameters.isUseFastLoader()) {
             FastObjectLoader fastLoader = new FastObjectLoader(this)
                     .setBatchReadSize(parameters.getBulkReadSize())
-                    .setTimeoutInMinutesForLoading((int) parameters.fastLoaderTimeout.toMinutes());
+                    .setTimeoutInMinutesForLoading((int) parameters.fastLoaderTimeout.toMinutes())
+                    .setNumberOfPendingReads(parameters.getFastLoaderPendingReads())
+                    .setNumberOfThreads(parameters.getFastLoaderThreads())
+                    .setDeferIndexBuild(parameters.isDeferIndexBuild());
             fastLoader.loadMaps();
         }
         return this;
@@ -16,6 +16,8 @@ import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
+import org.corfudb.protocols.wireprotocol.MultipleWriteRequest;
+import org.corfudb.protocols.wireprotocol.MultipleWriteResponse;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
@@ -27,6 +29,9 @@ import org.corfudb.runtime.exceptions.WriteSizeException;
 import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.serializer.Serializers;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -293,6 +298,52 @@ public class LogUnitClient extends AbstractClient {
         });
     }
 
+    /**
+     * Asynchronously write several, possibly non-contiguous, addresses in a single request.
+     *
+     * @param entries entries to write, each with its global address set
+     * @return A CompletableFuture which will complete with the result of each address once
+     *     all the writes complete.
+     */
+    public CompletableFuture<MultipleWriteResponse> write(List<? extends ILogData> entries) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Can't write an empty batch");
+        }
+
+        Set<Long> addresses = new HashSet<>();
+        for (ILogData entry : entries) {
+            if (entry.getGlobalAddress() == null || !addresses.add(entry.getGlobalAddress())) {
+                throw new IllegalArgumentException("Each entry must have a distinct address!");
+            }
+            checkWriteSize(entry);
+        }
+
+        Timer.Context context = getTimerContext("writeMultiple");
+        CompletableFuture<MultipleWriteResponse> cf = sendMessageWithFuture(
+                CorfuMsgType.MULTIPLE_WRITE.payloadMsg(
+                        new MultipleWriteRequest(new ArrayList<>(entries))));
+        return cf.thenApply(x -> {
+            context.stop();
+            return x;
+        });
+    }
+
+    /**
+     * Fill holes at several, possibly non-contiguous, addresses in a single request.
+     *
+     * @param addresses The addresses to fill holes at.
+     * @return A CompletableFuture which will complete with the result of each address once
+     *     all the hole fills complete.
+     */
+    public CompletableFuture<MultipleWriteResponse> fillHoles(Collection<Long> addresses) {
+        List<ILogData> holes = new ArrayList<>(addresses.size());
+        for (Long address : addresses) {
+            holes.add(LogData.getHole(address));
+        }
+
+        return write(holes);
+    }
+
     /**
      * Sends a request to write a range of addresses.
      *
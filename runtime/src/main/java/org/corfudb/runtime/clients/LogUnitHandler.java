@@ -10,6 +10,7 @@ import lombok.Setter;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.MultipleWriteResponse;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.DataOutrankedException;
@@ -169,6 +170,19 @@ public class LogUnitHandler implements IClient, IHandler<LogUnitClient> {
         return msg.getPayload();
     }
 
+    /**
+     * Handle a MULTIPLE_WRITE_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.MULTIPLE_WRITE_RESPONSE)
+    private static Object handleMultipleWriteResponse(CorfuPayloadMsg<MultipleWriteResponse> msg,
+                                                      ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
     /**
      * Handle a ERROR_DATA_CORRUPTION message.
      *
@@ -8,6 +8,8 @@ import java.util.concurrent.CompletableFuture;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.protocols.wireprotocol.SequencerTailsRecoveryMsg;
+import org.corfudb.protocols.wireprotocol.StreamAddressRequest;
+import org.corfudb.protocols.wireprotocol.StreamAddressResponse;
 import org.corfudb.protocols.wireprotocol.TokenRequest;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
@@ -59,6 +61,20 @@ public class SequencerClient extends AbstractClient {
                 new TokenRequest(numTokens, streamIDs, conflictInfo)));
     }
 
+    /**
+     * Fetches the addresses the sequencer issued to a stream in a range of the log.
+     *
+     * @param streamId The stream to get the addresses of.
+     * @param start    The start of the range, exclusive.
+     * @param end      The end of the range, inclusive.
+     * @return A completable future with the addresses of the stream.
+     */
+    public CompletableFuture<StreamAddressResponse> getStreamAddresses(UUID streamId, long start,
+                                                                       long end) {
+        return sendMessageWithFuture(CorfuMsgType.STREAM_ADDRESS_REQUEST.payloadMsg(
+                new StreamAddressRequest(streamId, start, end)));
+    }
+
     public CompletableFuture<Void> trimCache(Long address) {
         return sendMessageWithFuture(CorfuMsgType.SEQUENCER_TRIM_REQ.payloadMsg(address));
     }
@@ -10,6 +10,7 @@ import lombok.Setter;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
+import org.corfudb.protocols.wireprotocol.StreamAddressResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 
 
@@ -49,4 +50,11 @@ public class SequencerHandler implements IClient, IHandler<SequencerClient> {
                                               ChannelHandlerContext ctx, IClientRouter r) {
         return msg.getPayload();
     }
+
+    @ClientHandler(type = CorfuMsgType.STREAM_ADDRESS_RESPONSE)
+    private static Object handleStreamAddressResponse(CorfuPayloadMsg<StreamAddressResponse> msg,
+                                                      ChannelHandlerContext ctx,
+                                                      IClientRouter r) {
+        return msg.getPayload();
+    }
 }
@@ -9,15 +9,24 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -25,6 +34,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nonnull;
 
@@ -38,6 +48,7 @@ import org.corfudb.annotations.DontInstrument;
 import org.corfudb.annotations.Mutator;
 import org.corfudb.annotations.MutatorAccessor;
 import org.corfudb.annotations.TransactionalMethod;
+import org.corfudb.runtime.object.ICorfuSMRBulkLoad;
 import org.corfudb.util.ImmuableListSetWrapper;
 
 /** The CorfuTable implements a simple key-value store.
@@ -59,7 +70,7 @@ import org.corfudb.util.ImmuableListSetWrapper;
  */
 @Slf4j
 @CorfuObject
-public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
+public class CorfuTable<K ,V> implements ICorfuMap<K, V>, ICorfuSMRBulkLoad {
 
     /**
      * Denotes a function that supplies the unique name of an index registered to
@@ -86,6 +97,20 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
             extends BiFunction<K, V, Iterable<I>> {
     }
 
+    /**
+     * The kinds of secondary index, which differ in the queries they support.
+     */
+    public enum IndexType {
+        /** Hashed by index value, which supports looking up a single index value. */
+        HASH,
+        /**
+         * Sorted by index value, which also supports range queries, ordered iteration
+         * and top-k queries. Index values must be mutually comparable, and null is
+         * sorted first.
+         */
+        SORTED
+    }
+
     /**
      * Descriptor of named indexing function entry. The indexing function can
      * be single indexer {@link CorfuTable.IndexFunction} mapping a value to single
@@ -101,22 +126,37 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
         private final CorfuTable.IndexFunction<K, V, I> indexFunction;
         private final CorfuTable.MultiValueIndexFunction<K, V, I> multiValueIndexFunction;
 
+        private final CorfuTable.IndexType type;
+
         // A flag representing whether a single indexer or a multi indexer
         private final boolean monoIndex;
 
         public Index(CorfuTable.IndexName name, CorfuTable.IndexFunction<K, V, I> indexFunction) {
+            this(name, indexFunction, IndexType.HASH);
+        }
+
+        public Index(CorfuTable.IndexName name, CorfuTable.IndexFunction<K, V, I> indexFunction,
+                     CorfuTable.IndexType type) {
             this.name = name;
             this.indexFunction = indexFunction;
             this.multiValueIndexFunction =
                     (k, v) -> Collections.singletonList(indexFunction.apply(k, v));
+            this.type = type;
             monoIndex = true;
         }
 
         public Index(CorfuTable.IndexName name,
                      CorfuTable.MultiValueIndexFunction<K, V, I> indexFunction) {
+            this(name, indexFunction, IndexType.HASH);
+        }
+
+        public Index(CorfuTable.IndexName name,
+                     CorfuTable.MultiValueIndexFunction<K, V, I> indexFunction,
+                     CorfuTable.IndexType type) {
             this.name = name;
             this.indexFunction = (k, v) -> indexFunction.apply(k, v).iterator().next();
             this.multiValueIndexFunction = indexFunction;
+            this.type = type;
             monoIndex = false;
         }
 
@@ -132,6 +172,10 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
             return multiValueIndexFunction;
         }
 
+        public CorfuTable.IndexType getType() {
+            return type;
+        }
+
         private boolean isMonoIndex() {
             return monoIndex;
         }
@@ -265,18 +309,75 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
         }
     }
 
+    /**
+     * A page of the results of a query, and the cursor to get the next page of
+     * results with.
+     *
+     * @param <E> The type of the results.
+     */
+    public static class Page<E> {
+        /** The results in this page. */
+        @Getter
+        private final List<E> results;
+
+        /** The cursor to get the next page with, or null if this is the last page. */
+        @Getter
+        private final Cursor cursor;
+
+        public Page(List<E> results, Cursor cursor) {
+            this.results = results;
+            this.cursor = cursor;
+        }
+
+        /** Return whether there may be another page of results after this one. */
+        public boolean hasNext() {
+            return cursor != null;
+        }
+    }
+
+    /**
+     * Where a page of results ends, and the next page starts: in the slot of a secondary
+     * index with the given index key, after the given number of its mappings. A page of
+     * a sorted index range resumes at the index key, without visiting the slots before.
+     * A page of all the mappings resumes in the same way, in the slot of the keys with
+     * the hash code of its index key.
+     */
+    public static class Cursor {
+        /** The cursor of the first page of results. */
+        public static final Cursor START = new Cursor(null, 0L);
+
+        /** The index key of the slot to resume in, or null for the first slot. */
+        @Getter
+        private final Comparable indexKey;
+
+        /** The number of mappings of the slot visited by the previous pages. */
+        @Getter
+        private final long offset;
+
+        public Cursor(Comparable indexKey, long offset) {
+            this.indexKey = indexKey;
+            this.offset = offset;
+        }
+    }
+
     /** The "main" map which contains the primary key-value mappings. */
     private final Map<K,V> mainMap = new HashMap<>();
+    /** The mappings of the main map, sorted by the hash code of their key, which pages
+     * of all the mappings resume in. */
+    private final NavigableMap<Comparable, Map<K, V>> mainMapByHash = new TreeMap<>();
     private Set<Index<K, V, ? extends Comparable>> indexSpec = new HashSet<>();
     private final Map<String, Map<Comparable, Map<K, V>>> secondaryIndexes = new HashMap<>();
 
     @Getter
     boolean indexGenerationFailed = false;
 
+    /** Whether secondary indexes are not maintained, until they are built by endBulkLoad. */
+    private boolean secondaryIndexesDeferred = false;
+
     /** Generate a table with the given set of indexes. */
     public CorfuTable(IndexRegistry<K, V> indices) {
         indices.forEach(index -> {
-            secondaryIndexes.put(index.getName().get(), new HashMap<>());
+            secondaryIndexes.put(index.getName().get(), newSecondaryIndex(index));
             indexSpec.add(index);
         });
         log.info("CorfuTable: creating CorfuTable with {} as indexRegistry", indices);
@@ -353,6 +454,350 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
                 new HashSet<>(res.entrySet());
     }
 
+    /**
+     * Get the mappings whose index key, in a sorted index, is in the given range, in
+     * the order of their index keys.
+     *
+     * @param indexName Name of the sorted secondary index to query.
+     * @param from      The lowest index key to return, inclusive, or null for no bound.
+     * @param to        The highest index key to return, exclusive, or null for no bound.
+     * @return A list of Map.Entry<K, V>, ordered by index key.
+     */
+    @Accessor
+    public @Nonnull
+    <I extends Comparable<I>>
+    List<Entry<K, V>> getByIndexRange(@Nonnull IndexName indexName, I from, I to) {
+        return getByIndexRange(indexName, from, to, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get at most limit mappings whose index key, in a sorted index, is in the given
+     * range, in the order of their index keys.
+     *
+     * @param indexName Name of the sorted secondary index to query.
+     * @param from      The lowest index key to return, inclusive, or null for no bound.
+     * @param to        The highest index key to return, exclusive, or null for no bound.
+     * @param limit     The maximum number of mappings to return.
+     * @return A list of Map.Entry<K, V>, ordered by index key.
+     */
+    @Accessor
+    public @Nonnull
+    <I extends Comparable<I>>
+    List<Entry<K, V>> getByIndexRange(@Nonnull IndexName indexName, I from, I to, int limit) {
+        return copyEntries(getSortedIndex(secondaryIndexes, indexName, from, to).values(),
+                limit);
+    }
+
+    /**
+     * Get the limit mappings with the highest index keys in a sorted index, in
+     * descending order of their index keys.
+     *
+     * @param indexName Name of the sorted secondary index to query.
+     * @param limit     The maximum number of mappings to return.
+     * @return A list of Map.Entry<K, V>, ordered by descending index key.
+     */
+    @Accessor
+    public @Nonnull
+    List<Entry<K, V>> getTopByIndex(@Nonnull IndexName indexName, int limit) {
+        return copyEntries(getSortedIndex(secondaryIndexes, indexName).descendingMap().values(),
+                limit);
+    }
+
+    /**
+     * Get a page of the mappings which match a predicate.
+     *
+     * <p>Mappings are visited in the order of the hash codes of their keys, and a page
+     * resumes at the hash code of the cursor, so it only visits the mappings of the
+     * previous pages with the same hash code again. Pages of an object which is updated
+     * in between may skip or repeat mappings with that hash code. Pages read within a
+     * transaction are consistent with each other.
+     *
+     * @param entryPredicate The predicate to filter with.
+     * @param cursor         Cursor.START for the first page, or the cursor of the
+     *                       previous page.
+     * @param limit          The maximum number of mappings in the page.
+     * @return A page of Map.Entry<K, V>.
+     */
+    @Accessor
+    public @Nonnull
+    Page<Entry<K, V>> scanAndFilterByEntry(@Nonnull Predicate<? super Entry<K, V>> entryPredicate,
+                                           @Nonnull Cursor cursor, int limit) {
+        return page(cursor.getIndexKey() == null ? mainMapByHash
+                        : mainMapByHash.tailMap(cursor.getIndexKey(), true),
+                entryPredicate, cursor, limit);
+    }
+
+    /**
+     * Get the mappings of the given keys which match a predicate.
+     *
+     * @param keys           The keys to get the mappings of.
+     * @param entryPredicate The predicate to filter with.
+     * @return A list of immutable Map.Entry<K, V>, in the order of the keys.
+     */
+    @Accessor
+    public @Nonnull
+    List<Entry<K, V>> getEntries(@Nonnull Collection<K> keys,
+                                 @Nonnull Predicate<? super Entry<K, V>> entryPredicate) {
+        List<Entry<K, V>> results = new ArrayList<>();
+        for (K key : keys) {
+            V value = mainMap.get(key);
+            if (value != null || mainMap.containsKey(key)) {
+                Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>(key, value);
+                if (entryPredicate.test(entry)) {
+                    results.add(entry);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get a page of the mappings with the given index key.
+     *
+     * <p>The cursor counts the mappings of the slot visited in iteration order, so
+     * pages of an object which is updated in between may skip or repeat mappings.
+     * Pages read within a transaction are consistent with each other.
+     *
+     * @param indexName Name of the the secondary index to query.
+     * @param indexKey  The index key used to query the secondary index.
+     * @param cursor    Cursor.START for the first page, or the cursor of the previous page.
+     * @param limit     The maximum number of mappings in the page.
+     * @return A page of Map.Entry<K, V>.
+     */
+    @Accessor
+    public @Nonnull
+    <I extends Comparable<I>>
+    Page<Entry<K, V>> getByIndex(@Nonnull IndexName indexName, I indexKey,
+                                 @Nonnull Cursor cursor, int limit) {
+        Map<K, V> slot = secondaryIndexes.get(indexName.get()).get(indexKey);
+        return page(slot == null ? Collections.emptyMap()
+                        : Collections.singletonMap((Comparable) indexKey, slot),
+                e -> true, cursor, limit);
+    }
+
+    /**
+     * Get a page of the mappings whose index key, in a sorted index, is in the given
+     * range, in the order of their index keys.
+     *
+     * <p>A page resumes at the index key of the cursor, so it only visits the mappings
+     * of the previous pages with the same index key again.
+     *
+     * @param indexName Name of the sorted secondary index to query.
+     * @param from      The lowest index key to return, inclusive, or null for no bound.
+     * @param to        The highest index key to return, exclusive, or null for no bound.
+     * @param cursor    Cursor.START for the first page, or the cursor of the previous page.
+     * @param limit     The maximum number of mappings in the page.
+     * @return A page of Map.Entry<K, V>, ordered by index key.
+     * @see #getByIndex(IndexName, Comparable, Cursor, int)
+     */
+    @Accessor
+    public @Nonnull
+    <I extends Comparable<I>>
+    Page<Entry<K, V>> getByIndexRange(@Nonnull IndexName indexName, I from, I to,
+                                      @Nonnull Cursor cursor, int limit) {
+        NavigableMap<Comparable, Map<K, V>> slots =
+                getSortedIndex(secondaryIndexes, indexName, from, to);
+        return page(cursor.getIndexKey() == null ? slots
+                        : slots.tailMap(cursor.getIndexKey(), true),
+                e -> true, cursor, limit);
+    }
+
+    /**
+     * Stream the mappings which match a predicate, reading them a page at a time, as
+     * the stream is consumed, rather than copying them all at once.
+     *
+     * @param entryPredicate The predicate to filter with.
+     * @param pageSize       The number of mappings to read at a time.
+     * @return A lazy stream of Map.Entry<K, V>.
+     * @see #scanAndFilterByEntry(Predicate, Cursor, int)
+     */
+    @DontInstrument
+    public @Nonnull
+    Stream<Entry<K, V>> streamByEntry(@Nonnull Predicate<? super Entry<K, V>> entryPredicate,
+                                      int pageSize) {
+        return pagedStream(cursor -> scanAndFilterByEntry(entryPredicate, cursor, pageSize));
+    }
+
+    /**
+     * Stream the mappings with the given index key, reading them a page at a time.
+     *
+     * @param indexName Name of the the secondary index to query.
+     * @param indexKey  The index key used to query the secondary index.
+     * @param pageSize  The number of mappings to read at a time.
+     * @return A lazy stream of Map.Entry<K, V>.
+     * @see #getByIndex(IndexName, Comparable, Cursor, int)
+     */
+    @DontInstrument
+    public @Nonnull
+    <I extends Comparable<I>>
+    Stream<Entry<K, V>> streamByIndex(@Nonnull IndexName indexName, I indexKey, int pageSize) {
+        return pagedStream(cursor -> getByIndex(indexName, indexKey, cursor, pageSize));
+    }
+
+    /**
+     * Stream the mappings whose index key, in a sorted index, is in the given range, in
+     * the order of their index keys, reading them a page at a time.
+     *
+     * @param indexName Name of the sorted secondary index to query.
+     * @param from      The lowest index key to return, inclusive, or null for no bound.
+     * @param to        The highest index key to return, exclusive, or null for no bound.
+     * @param pageSize  The number of mappings to read at a time.
+     * @return A lazy stream of Map.Entry<K, V>, ordered by index key.
+     * @see #getByIndexRange(IndexName, Comparable, Comparable, Cursor, int)
+     */
+    @DontInstrument
+    public @Nonnull
+    <I extends Comparable<I>>
+    Stream<Entry<K, V>> streamByIndexRange(@Nonnull IndexName indexName, I from, I to,
+                                           int pageSize) {
+        return pagedStream(cursor -> getByIndexRange(indexName, from, to, cursor, pageSize));
+    }
+
+    /**
+     * Get a page of the mappings in the given slots which match a predicate.
+     *
+     * @param slots          The slots to page through by index key, in order, starting
+     *                       with the slot of the cursor, if it still exists.
+     * @param entryPredicate The predicate to filter with.
+     * @param cursor         Where the previous page ended.
+     * @param limit          The maximum number of mappings in the page.
+     * @return A page of immutable Map.Entry<K, V>.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    private static <K, V> Page<Entry<K, V>> page(Map<Comparable, Map<K, V>> slots,
+                                                 Predicate<? super Entry<K, V>> entryPredicate,
+                                                 Cursor cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        List<Entry<K, V>> results = new ArrayList<>();
+        boolean first = true;
+        for (Map.Entry<Comparable, Map<K, V>> slot : slots.entrySet()) {
+            // Skip the mappings the previous pages visited, in the slot they ended in.
+            final long skip = first && Objects.equals(slot.getKey(), cursor.getIndexKey())
+                    ? cursor.getOffset() : 0L;
+            first = false;
+            long position = 0;
+            for (Map.Entry<K, V> entry : slot.getValue().entrySet()) {
+                if (position < skip) {
+                    position++;
+                    continue;
+                }
+                if (results.size() >= limit) {
+                    return new Page<>(results, new Cursor(slot.getKey(), position));
+                }
+                position++;
+                if (entryPredicate.test(entry)) {
+                    results.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(),
+                            entry.getValue()));
+                }
+            }
+        }
+        return new Page<>(results, null);
+    }
+
+    /**
+     * Generate a lazy stream of results which gets a page of results each time the
+     * results of the previous page have been consumed.
+     *
+     * @param nextPage A function which gets the page of results at a cursor.
+     * @return A lazy stream of the results of all pages.
+     */
+    private static <E> Stream<E> pagedStream(Function<Cursor, Page<E>> nextPage) {
+        Iterator<E> iterator = new Iterator<E>() {
+            private Page<E> page;
+            private Iterator<E> results = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!results.hasNext()) {
+                    if (page != null && !page.hasNext()) {
+                        return false;
+                    }
+                    page = nextPage.apply(page == null ? Cursor.START : page.getCursor());
+                    results = page.getResults().iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return results.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Get the secondary index with the given name, which must be sorted.
+     *
+     * @param secondaryIndexes The secondary indexes of a table.
+     * @param indexName        Name of the secondary index.
+     * @return The sorted secondary index.
+     * @throws IllegalArgumentException If there is no sorted index with that name.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> NavigableMap<Comparable, Map<K, V>> getSortedIndex(
+            Map<String, Map<Comparable, Map<K, V>>> secondaryIndexes, IndexName indexName) {
+        Map<Comparable, Map<K, V>> secondaryIndex = secondaryIndexes.get(indexName.get());
+        if (!(secondaryIndex instanceof NavigableMap)) {
+            throw new IllegalArgumentException("No sorted index " + indexName.get());
+        }
+        return (NavigableMap<Comparable, Map<K, V>>) secondaryIndex;
+    }
+
+    /**
+     * Get the slots of a sorted secondary index whose index key is in the given range.
+     *
+     * @param secondaryIndexes The secondary indexes of a table.
+     * @param indexName        Name of the secondary index.
+     * @param from             The lowest index key, inclusive, or null for no bound.
+     * @param to               The highest index key, exclusive, or null for no bound.
+     * @return A view of the slots of the sorted secondary index in the range.
+     * @throws IllegalArgumentException If there is no sorted index with that name.
+     */
+    private static <K, V, I extends Comparable<I>> NavigableMap<Comparable, Map<K, V>>
+        getSortedIndex(Map<String, Map<Comparable, Map<K, V>>> secondaryIndexes,
+                       IndexName indexName, I from, I to) {
+        NavigableMap<Comparable, Map<K, V>> secondaryIndex =
+                getSortedIndex(secondaryIndexes, indexName);
+        if (from != null && to != null) {
+            return from.compareTo(to) < 0
+                    ? secondaryIndex.subMap(from, true, to, false)
+                    : Collections.emptyNavigableMap();
+        } else if (from != null) {
+            return secondaryIndex.tailMap(from, true);
+        } else if (to != null) {
+            return secondaryIndex.headMap(to, false);
+        }
+        return secondaryIndex;
+    }
+
+    /**
+     * Copy at most limit mappings out of the given slots of a secondary index.
+     *
+     * @param slots The slots to copy the mappings of, in order.
+     * @param limit The maximum number of mappings to copy.
+     * @return A list of immutable Map.Entry<K, V>, in the order of the slots.
+     */
+    private static <K, V> List<Entry<K, V>> copyEntries(Collection<Map<K, V>> slots, int limit) {
+        List<Entry<K, V>> copy = new ArrayList<>();
+        for (Map<K, V> slot : slots) {
+            for (Map.Entry<K, V> entry : slot.entrySet()) {
+                if (copy.size() >= limit) {
+                    return copy;
+                }
+                copy.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(),
+                        entry.getValue()));
+            }
+        }
+        return copy;
+    }
+
     /**
      * Scan and filter using the specified index function and projection.
      *
@@ -399,7 +844,7 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     @Override
     @MutatorAccessor(name = "put", undoFunction = "undoPut", undoRecordFunction = "undoPutRecord")
     public V put(@ConflictParameter K key, V value) {
-        V previous = mainMap.put(key, value);
+        V previous = mapKey(key, value);
         // If we have index functions, update the secondary indexes.
         if (!secondaryIndexes.isEmpty()) {
             unmapSecondaryIndexes(key, previous);
@@ -473,7 +918,7 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     @Override
     @Mutator(name = "put", noUpcall = true)
     public void insert(@ConflictParameter K key, V value) {
-        V previous = mainMap.put(key, value);
+        V previous = mapKey(key, value);
         // If we have index functions, update the secondary indexes.
         if (!secondaryIndexes.isEmpty()) {
             unmapSecondaryIndexes(key, previous);
@@ -512,7 +957,7 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
                                 undoRecordFunction = "undoRemoveRecord")
     @SuppressWarnings("unchecked")
     public V remove(@ConflictParameter Object key) {
-        V previous =  mainMap.remove(key);
+        V previous =  unmapKey(key);
         unmapSecondaryIndexes((K) key, previous);
         return previous;
     }
@@ -525,10 +970,10 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     @DontInstrument
     protected void undoRemove(CorfuTable<K, V> table, V undoRecord, K key) {
         if (undoRecord == null) {
-            V previous =  table.mainMap.remove(key);
+            V previous =  table.unmapKey(key);
             table.unmapSecondaryIndexes(key, previous);
         } else {
-            V previous = table.mainMap.put(key, undoRecord);
+            V previous = table.mapKey(key, undoRecord);
             if (!table.secondaryIndexes.isEmpty()) {
                 table.unmapSecondaryIndexes(key, previous);
                 table.mapSecondaryIndexes(key, undoRecord);
@@ -540,7 +985,7 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     @Override
     @Mutator(name = "remove", noUpcall = true)
     public void delete(@ConflictParameter K key) {
-        V previous =  mainMap.remove(key);
+        V previous =  unmapKey(key);
         unmapSecondaryIndexes(key, previous);
     }
 
@@ -553,13 +998,13 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     public void putAll(@Nonnull Map<? extends K, ? extends V> m) {
         // If we have no index functions, then just directly put all
         if (secondaryIndexes.isEmpty()) {
-            mainMap.putAll(m);
+            m.forEach(this::mapKey);
         } else {
             // Otherwise we must update all secondary indexes
             // TODO: Do this in parallel (need to acquire update locks, potentially)
             m.entrySet().stream()
                     .forEach(e -> {
-                        V previous = mainMap.put(e.getKey(), e.getValue());
+                        V previous = mapKey(e.getKey(), e.getValue());
                         unmapSecondaryIndexes(e.getKey(), previous);
                         mapSecondaryIndexes(e.getKey(), e.getValue());
                     });
@@ -571,9 +1016,38 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     @Mutator(name = "clear", reset = true)
     public void clear() {
         mainMap.clear();
+        mainMapByHash.clear();
         secondaryIndexes.values().forEach(Map::clear);
     }
 
+    /**
+     * Map a key to a value in the main map, and in the slot of its hash code.
+     *
+     * @return The value the key was mapped to.
+     */
+    protected V mapKey(K key, V value) {
+        mainMapByHash.computeIfAbsent(Objects.hashCode(key), h -> new HashMap<>(1))
+                .put(key, value);
+        return mainMap.put(key, value);
+    }
+
+    /**
+     * Unmap a key from the main map, and from the slot of its hash code.
+     *
+     * @return The value the key was mapped to.
+     */
+    protected V unmapKey(Object key) {
+        Integer hash = Objects.hashCode(key);
+        Map<K, V> slot = mainMapByHash.get(hash);
+        if (slot != null) {
+            slot.remove(key);
+            if (slot.isEmpty()) {
+                mainMapByHash.remove(hash);
+            }
+        }
+        return mainMap.remove(key);
+    }
+
     /** {@inheritDoc} */
     @Override
     @Accessor
@@ -738,6 +1212,72 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
         return newValue;
     }
 
+    /**
+     * Stop maintaining the secondary indexes as entries are updated, until they are
+     * built from the whole map by {@link #endBulkLoad()}.
+     */
+    @Override
+    @DontInstrument
+    public void beginBulkLoad() {
+        if (!secondaryIndexes.isEmpty()) {
+            secondaryIndexesDeferred = true;
+        }
+    }
+
+    /**
+     * Build the secondary indexes deferred by {@link #beginBulkLoad()}, each by its own
+     * fork-join task, and resume maintaining them.
+     */
+    @Override
+    @DontInstrument
+    public void endBulkLoad() {
+        if (secondaryIndexesDeferred) {
+            secondaryIndexesDeferred = false;
+            buildSecondaryIndexes();
+        }
+    }
+
+    /**
+     * Build every secondary index from the main map, in parallel, logging the time
+     * each index took to build.
+     */
+    @DontInstrument
+    protected void buildSecondaryIndexes() {
+        final Map<Index<K, V, ? extends Comparable>, ForkJoinTask<Map<Comparable, Map<K, V>>>>
+                builds = new HashMap<>();
+        indexSpec.forEach(index -> builds.put(index, ForkJoinPool.commonPool().submit(() -> {
+            final long start = System.nanoTime();
+            final Map<Comparable, Map<K, V>> secondaryIndex = newSecondaryIndex(index);
+            mainMap.forEach((key, value) -> mapSecondaryIndex(index, secondaryIndex, key, value));
+            log.info("buildSecondaryIndexes: built index {} of {} entries in {} ms",
+                    index.getName().get(), mainMap.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return secondaryIndex;
+        })));
+        try {
+            builds.forEach((index, build) ->
+                    secondaryIndexes.put(index.getName().get(), build.join()));
+        } catch (Exception e) {
+            indexSpec.clear();
+            secondaryIndexes.clear();
+            indexGenerationFailed = true;
+            log.error("buildSecondaryIndexes: Exception building indexes,"
+                    + " UNMAPPING ALL INDEXES, indexing is disabled", e);
+        }
+    }
+
+    /**
+     * Generate an empty secondary index of the type of the given index.
+     *
+     * @param index The index to generate a secondary index for.
+     * @return An empty secondary index.
+     */
+    private static <K, V> Map<Comparable, Map<K, V>> newSecondaryIndex(Index<K, V, ?> index) {
+        return index.getType() == IndexType.SORTED
+                ? new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()))
+                : new HashMap<>();
+    }
+
     /**
      * Unmaps the secondary indexes for a given key value pair.
      *
@@ -747,24 +1287,18 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     @SuppressWarnings("unchecked")
     protected void unmapSecondaryIndexes(K key, V value) {
         try {
-            if (value != null) {
+            if (value != null && !secondaryIndexesDeferred) {
                 // Map entry into secondary indexes
                 for (Index<K, V, ? extends Comparable> index : indexSpec) {
                     String indexName = index.getName().get();
                     Map<Comparable, Map<K, V>> secondaryIndex = secondaryIndexes.get(indexName);
                     if (index.isMonoIndex()) {
                         Comparable indexKey = index.indexFunction.apply(key, value);
-                        Map<K, V> slot = secondaryIndex.get(indexKey);
-                        if (slot != null) {
-                            slot.remove(key, value);
-                        }
+                        unmapSlot(secondaryIndex, indexKey, key, value);
                     } else {
                         for (Comparable<?> indexKey
                                 : index.getMultiValueIndexFunction().apply(key, value)) {
-                            Map<K, V> slot = secondaryIndex.get(indexKey);
-                            if (slot != null) {
-                                slot.remove(key, value);
-                            }
+                            unmapSlot(secondaryIndex, indexKey, key, value);
                         }
                     }
                 }
@@ -779,6 +1313,26 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
         }
     }
 
+    /**
+     * Removes a mapping from the slot of an index key, and the slot from the index
+     * if it is left empty, so that range queries do not visit empty slots.
+     *
+     * @param secondaryIndex The secondary index.
+     * @param indexKey       The index key of the slot.
+     * @param key            The primary key of the mapping.
+     * @param value          The value of the mapping.
+     */
+    private static <K, V> void unmapSlot(Map<Comparable, Map<K, V>> secondaryIndex,
+                                         Comparable indexKey, K key, V value) {
+        Map<K, V> slot = secondaryIndex.get(indexKey);
+        if (slot != null) {
+            slot.remove(key, value);
+            if (slot.isEmpty()) {
+                secondaryIndex.remove(indexKey);
+            }
+        }
+    }
+
     /**
      * Maps the secondary indexes for a given key value pair.
      *
@@ -788,23 +1342,11 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
     @SuppressWarnings("unchecked")
     protected void mapSecondaryIndexes(K key, V value) {
         try {
-            if (value != null) {
+            if (value != null && !secondaryIndexesDeferred) {
                 // Map entry into secondary indexes
                 for (Index<K, V, ? extends Comparable> index : indexSpec) {
-                    String indexName = index.getName().get();
-                    Map<Comparable, Map<K, V>> secondaryIndex = secondaryIndexes.get(indexName);
-                    if (index.isMonoIndex()) {
-                        Comparable indexKey = index.getIndexFunction().apply(key, value);
-                        Map<K, V> slot = secondaryIndex.computeIfAbsent(indexKey, k -> new HashMap<>());
-                        slot.put(key, value);
-                    } else {
-                        for (Comparable<?> indexKey
-                                : index.getMultiValueIndexFunction().apply(key, value)) {
-                            Map<K, V> slot = secondaryIndex
-                                    .computeIfAbsent(indexKey, k -> new HashMap<>());
-                            slot.put(key, value);
-                        }
-                    }
+                    mapSecondaryIndex(index, secondaryIndexes.get(index.getName().get()),
+                            key, value);
                 }
             }
         } catch (Exception e) {
@@ -816,4 +1358,30 @@ public class CorfuTable<K ,V> implements ICorfuMap<K, V> {
         }
     }
 
+    /**
+     * Maps a key value pair into a secondary index.
+     *
+     * @param index          The index.
+     * @param secondaryIndex The secondary index of the index.
+     * @param key            the primary key associated with the indexing.
+     * @param value          the value to map.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> void mapSecondaryIndex(Index<K, V, ? extends Comparable> index,
+                                                 Map<Comparable, Map<K, V>> secondaryIndex,
+                                                 K key, V value) {
+        if (index.isMonoIndex()) {
+            Comparable indexKey = index.getIndexFunction().apply(key, value);
+            Map<K, V> slot = secondaryIndex.computeIfAbsent(indexKey, k -> new HashMap<>());
+            slot.put(key, value);
+        } else {
+            for (Comparable<?> indexKey
+                    : index.getMultiValueIndexFunction().apply(key, value)) {
+                Map<K, V> slot = secondaryIndex
+                        .computeIfAbsent(indexKey, k -> new HashMap<>());
+                slot.put(key, value);
+            }
+        }
+    }
+
 }
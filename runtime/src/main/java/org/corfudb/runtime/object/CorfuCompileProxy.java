@@ -24,6 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -96,6 +98,12 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
      */
     final Object[] args;
 
+    /**
+     * The ids of the SMR methods of the object, by name, which entries record
+     * if {@link CorfuRuntime.CorfuRuntimeParameters#smrMethodIdsEnabled} is set.
+     */
+    private final Map<String, Integer> methodIds = new HashMap<>();
+
     private final MetricRegistry metrics;
     /**
      * Metrics: meter (counter), histogram.
@@ -127,6 +135,7 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
      * @param undoTargetMap       undoTargetMap
      * @param undoRecordTargetMap undoRecordTargetMap
      * @param resetSet            resetSet
+     * @param methods             The names of the SMR methods.
      */
     @Deprecated // TODO: Add replacement method that conforms to style
     @SuppressWarnings("checkstyle:abbreviation") // Due to deprecation
@@ -135,7 +144,8 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
                              Map<String, ICorfuSMRUpcallTarget<T>> upcallTargetMap,
                              Map<String, IUndoFunction<T>> undoTargetMap,
                              Map<String, IUndoRecordFunction<T>> undoRecordTargetMap,
-                             Set<String> resetSet
+                             Set<String> resetSet,
+                             List<String> methods
     ) {
         this.rt = rt;
         this.streamID = streamID;
@@ -143,10 +153,16 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
         this.args = args;
         this.serializer = serializer;
 
+        if (rt.getParameters().isSmrMethodIdsEnabled()) {
+            for (String method : methods) {
+                methodIds.put(method, SmrMethods.idOf(method));
+            }
+        }
+
         underlyingObject = new VersionLockedObject<T>(this::getNewInstance,
                 new StreamViewSMRAdapter(rt, rt.getStreamsView().get(streamID)),
                 upcallTargetMap, undoRecordTargetMap,
-                undoTargetMap, resetSet);
+                undoTargetMap, resetSet, methods);
 
         metrics = rt.getMetrics() != null ? rt.getMetrics() : CorfuRuntime.getDefaultMetrics();
         mpObj = CorfuComponent.OBJECT.toString();
@@ -158,6 +174,15 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
         counterAccessLocked = metrics.counter(mpObj + "access-locked");
         counterTxnRetry1 = metrics.counter(mpObj + "txn-first-retry");
         counterTxnRetryN = metrics.counter(mpObj + "txn-extra-retries");
+
+        underlyingObject.setBulkLoadReplays(rt.getParameters().isDeferIndexBuild());
+
+        if (rt.getParameters().getObjectSnapshots() > 0) {
+            underlyingObject.retainSnapshots(rt.getParameters().getObjectSnapshots(),
+                    o -> (T) serializer.clone(o, rt),
+                    metrics.counter(mpObj + "snapshot-hit"),
+                    metrics.counter(mpObj + "snapshot-miss"));
+        }
     }
 
     /**
@@ -228,7 +253,7 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
         if (TransactionalContext.isInTransaction()) {
             try {
                 // We generate an entry to avoid exposing the serializer to the tx context.
-                SMREntry entry = new SMREntry(smrUpdateFunction, args, serializer);
+                SMREntry entry = newEntry(smrUpdateFunction, args);
                 return TransactionalContext.getCurrentContext()
                         .logUpdate(this, entry, conflictObject);
             } catch (Exception e) {
@@ -239,7 +264,7 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
 
         // If we aren't in a transaction, we can just write the modification.
         // We need to add the acquired token into the pending upcall list.
-        SMREntry smrEntry = new SMREntry(smrUpdateFunction, args, serializer);
+        SMREntry smrEntry = newEntry(smrUpdateFunction, args);
         long address = underlyingObject.logUpdate(smrEntry, keepUpcallResult);
         log.trace("Update[{}] {}@{} ({}) conflictObj={}",
                 this, smrUpdateFunction, address, args, conflictObject);
@@ -247,6 +272,19 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
         return address;
     }
 
+    /**
+     * Create an entry for an update, which records the id of its method if ids are enabled.
+     *
+     * @param smrUpdateFunction The name of the method.
+     * @param args              The arguments to the method.
+     * @return The entry.
+     */
+    private SMREntry newEntry(String smrUpdateFunction, Object[] args) {
+        return new SMREntry(smrUpdateFunction,
+                methodIds.getOrDefault(smrUpdateFunction, SMREntry.NO_METHOD_ID),
+                args, serializer);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,21 @@
+package org.corfudb.runtime.object;
+
+/**
+ * An SMR object which can apply a long run of updates, such as the replay of its stream
+ * from the beginning, faster by deferring work until the whole run has been applied.
+ *
+ * <p>Both methods are called on the underlying object, under the write lock of its
+ * version locked object. The object must not be accessed between them.
+ */
+public interface ICorfuSMRBulkLoad {
+
+    /**
+     * Start deferring work while updates are applied.
+     */
+    void beginBulkLoad();
+
+    /**
+     * Do the work deferred since beginBulkLoad, so that the object can be accessed.
+     */
+    void endBulkLoad();
+}
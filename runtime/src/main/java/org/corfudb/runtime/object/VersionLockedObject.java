@@ -1,17 +1,26 @@
 package org.corfudb.runtime.object;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.codahale.metrics.Counter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.runtime.exceptions.NoRollbackException;
@@ -88,30 +97,113 @@ public class VersionLockedObject<T> {
     private WriteSetSMRStream optimisticStream;
 
     /**
-     * The upcall map for this object.
+     * Masks the id of an SMR method of this object into its slot, which no other
+     * method of this object has. The upcall, undo record, undo and reset of a method
+     * are at its slot in the arrays below.
      */
-    private final Map<String, ICorfuSMRUpcallTarget<T>> upcallTargetMap;
+    private final int slotMask;
 
     /**
-     * The undo record function map for this object.
+     * The ids of the SMR methods of this object, by slot, or NO_METHOD_ID.
      */
-    private final Map<String, IUndoRecordFunction<T>> undoRecordFunctionMap;
+    private final int[] methodIds;
 
     /**
-     * The undo target map for this object.
+     * The names of the SMR methods of this object, by slot.
      */
-    private final Map<String, IUndoFunction<T>> undoFunctionMap;
+    private final String[] methodNames;
 
     /**
-     * The reset set for this object.
+     * The slots of the SMR methods of this object, by name, for entries which
+     * record the name of their method.
      */
-    private final Set<String> resetSet;
+    private final Map<String, Integer> methodSlots;
+
+    /**
+     * The upcalls for this object.
+     */
+    private final ICorfuSMRUpcallTarget<T>[] upcallTargets;
+
+    /**
+     * The undo record functions for this object.
+     */
+    private final IUndoRecordFunction<T>[] undoRecordFunctions;
+
+    /**
+     * The undo functions for this object.
+     */
+    private final IUndoFunction<T>[] undoFunctions;
+
+    /**
+     * Whether each method resets this object.
+     */
+    private final boolean[] resetMethods;
 
     /**
      * A function that generates a new instance of this object.
      */
     private final Supplier<T> newObjectFn;
 
+    /**
+     * Copies of the object at recent versions, keyed by version. A copy is never
+     * modified once retained, so it is read without the lock.
+     */
+    private final NavigableMap<Long, Snapshot<T>> snapshots = new ConcurrentSkipListMap<>();
+
+    /**
+     * The versions in snapshots, in the order they were retained.
+     */
+    private final ConcurrentLinkedDeque<Long> snapshotVersions = new ConcurrentLinkedDeque<>();
+
+    /**
+     * The maximum number of snapshots to retain, or 0 if none are retained.
+     */
+    private volatile int maxSnapshots = 0;
+
+    /**
+     * A function that copies the object, to retain a snapshot of it.
+     */
+    private UnaryOperator<T> snapshotFunction;
+
+    /**
+     * Counts snapshot reads served from a retained snapshot.
+     */
+    private Counter snapshotHits;
+
+    /**
+     * Counts snapshot reads which had to move the object to their version.
+     */
+    private Counter snapshotMisses;
+
+    /**
+     * Whether the object was last moved to its version by rolling back, in which
+     * case it is likely that readers at its version will be back.
+     */
+    private boolean rolledBack = false;
+
+    /**
+     * The version of the object when it was last synced, see syncedTimestamp.
+     */
+    private volatile long syncedVersion = Address.NEVER_READ;
+
+    /**
+     * The highest timestamp the object was synced to at syncedVersion. The object
+     * at that version is the object at every timestamp from the version up to this
+     * one, since the stream has no updates in between.
+     */
+    private volatile long syncedTimestamp = Address.NEVER_READ;
+
+    /**
+     * Whether to apply a replay of the stream from its beginning as a bulk load, if
+     * the object supports it.
+     */
+    private volatile boolean bulkLoadReplays = false;
+
+    /**
+     * Whether the object is being bulk loaded.
+     */
+    private boolean bulkLoading = false;
+
     /**
      * Correctness Logging
      */
@@ -134,12 +226,68 @@ public class VersionLockedObject<T> {
                                Map<String, IUndoRecordFunction<T>> undoRecordTargets,
                                Map<String, IUndoFunction<T>> undoTargets,
                                Set<String> resetSet) {
+        this(newObjectFn, smrStream, upcallTargets, undoRecordTargets, undoTargets, resetSet,
+                Stream.of(upcallTargets.keySet(), undoRecordTargets.keySet(),
+                        undoTargets.keySet(), resetSet)
+                        .flatMap(Set::stream)
+                        .distinct()
+                        .sorted()
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * The VersionLockedObject maintains a versioned object which is backed by an ISMRStream,
+     * and is optionally backed by an additional optimistic update stream.
+     *
+     * @param newObjectFn       A function passed to instantiate a new instance of this object.
+     * @param smrStream         Stream View backing this object.
+     * @param upcallTargets     UpCall map for this object.
+     * @param undoRecordTargets Undo record function map for this object.
+     * @param undoTargets       Undo functions map.
+     * @param resetSet          Reset set for this object.
+     * @param methods           The names of the SMR methods of this object.
+     */
+    @SuppressWarnings("unchecked")
+    public VersionLockedObject(Supplier<T> newObjectFn,
+                               StreamViewSMRAdapter smrStream,
+                               Map<String, ICorfuSMRUpcallTarget<T>> upcallTargets,
+                               Map<String, IUndoRecordFunction<T>> undoRecordTargets,
+                               Map<String, IUndoFunction<T>> undoTargets,
+                               Set<String> resetSet,
+                               List<String> methods) {
         this.smrStream = smrStream;
 
-        this.upcallTargetMap = upcallTargets;
-        this.undoRecordFunctionMap = undoRecordTargets;
-        this.undoFunctionMap = undoTargets;
-        this.resetSet = resetSet;
+        // Index the methods by slot, so that applying an entry needs no lookup by name.
+        this.slotMask = slotMaskOf(methods);
+        this.methodIds = new int[slotMask + 1];
+        Arrays.fill(methodIds, SMREntry.NO_METHOD_ID);
+        this.methodNames = new String[slotMask + 1];
+        this.methodSlots = new HashMap<>();
+        for (String method : methods) {
+            final int id = SmrMethods.idOf(method);
+            methodIds[id & slotMask] = id;
+            methodNames[id & slotMask] = method;
+            methodSlots.put(method, id & slotMask);
+        }
+        Stream.of(upcallTargets.keySet(), undoRecordTargets.keySet(), undoTargets.keySet(),
+                resetSet).flatMap(Set::stream).forEach(method -> {
+                    if (!methodSlots.containsKey(method)) {
+                        throw new IllegalArgumentException("SMR method " + method
+                                + " has no id");
+                    }
+                });
+        this.upcallTargets = new ICorfuSMRUpcallTarget[methodNames.length];
+        this.undoRecordFunctions = new IUndoRecordFunction[methodNames.length];
+        this.undoFunctions = new IUndoFunction[methodNames.length];
+        this.resetMethods = new boolean[methodNames.length];
+        for (int slot = 0; slot < methodNames.length; slot++) {
+            if (methodNames[slot] != null) {
+                this.upcallTargets[slot] = upcallTargets.get(methodNames[slot]);
+                this.undoRecordFunctions[slot] = undoRecordTargets.get(methodNames[slot]);
+                this.undoFunctions[slot] = undoTargets.get(methodNames[slot]);
+                this.resetMethods[slot] = resetSet.contains(methodNames[slot]);
+            }
+        }
 
         this.newObjectFn = newObjectFn;
         this.object = newObjectFn.get();
@@ -240,6 +388,105 @@ public class VersionLockedObject<T> {
         }
     }
 
+    /**
+     * Access the object as of the given version, which is neither modified
+     * optimistically nor moved if a snapshot of the object at that version was
+     * retained. Otherwise, behaves as {@link #access(Function, Consumer, Function)},
+     * moving the object to the version with the updateFunction.
+     *
+     * @param version        The version to access the object at.
+     * @param updateFunction A function which brings the object to the version,
+     *                       executed under a write lock.
+     * @param accessFunction A function which accesses the object at the version.
+     * @param <R>            The type of the access function return.
+     * @return Returns the access function.
+     */
+    public <R> R accessSnapshot(long version, Consumer<VersionLockedObject<T>> updateFunction,
+                                Function<T, R> accessFunction) {
+        if (maxSnapshots > 0) {
+            Map.Entry<Long, Snapshot<T>> snapshot = snapshots.floorEntry(version);
+            if (snapshot != null && version <= snapshot.getValue().validUntil) {
+                log.trace("Access [{}] Snapshot access at {} from {}", this, version,
+                        snapshot.getKey());
+                snapshotHits.inc();
+                return accessFunction.apply(snapshot.getValue().object);
+            }
+        }
+        return access(o -> o.isAtTimestampUnsafe(version)
+                        && !o.isOptimisticallyModifiedUnsafe(),
+                o -> {
+                    if (maxSnapshots > 0) {
+                        snapshotMisses.inc();
+                    }
+                    updateFunction.accept(o);
+                },
+                accessFunction);
+    }
+
+    /**
+     * Retain up to the given number of snapshots of the object at versions it is
+     * moved away from, so that readers at those versions can be served without
+     * rolling the object back (or resetting it) and syncing it forward again.
+     *
+     * <p>A snapshot is retained before the object is rolled back, and when it leaves a
+     * version it was rolled back to. It serves reads at every timestamp the object was
+     * synced to at its version. The oldest snapshot is dropped first.
+     *
+     * @param maxSnapshots     The maximum number of snapshots to retain.
+     * @param snapshotFunction A function that copies the object.
+     * @param hits             Counts reads served from a snapshot.
+     * @param misses           Counts snapshot reads which had to move the object.
+     */
+    public void retainSnapshots(int maxSnapshots, UnaryOperator<T> snapshotFunction,
+                                Counter hits, Counter misses) {
+        update(o -> {
+            this.snapshotFunction = snapshotFunction;
+            this.snapshotHits = hits;
+            this.snapshotMisses = misses;
+            this.maxSnapshots = maxSnapshots;
+            trimSnapshotsUnsafe();
+            return null;
+        });
+    }
+
+    /**
+     * Set whether to apply a replay of the stream from its beginning, when the object
+     * is first accessed or after it is reset, as a bulk load, if the object implements
+     * {@link ICorfuSMRBulkLoad}.
+     *
+     * @param bulkLoadReplays True, to bulk load replays from the beginning.
+     */
+    public void setBulkLoadReplays(boolean bulkLoadReplays) {
+        this.bulkLoadReplays = bulkLoadReplays;
+    }
+
+    /**
+     * Start bulk loading the object, if it implements {@link ICorfuSMRBulkLoad}, until
+     * {@link #endBulkLoadUnsafe()} is called. The object must not be accessed meanwhile.
+     *
+     * <p>Unsafe, requires that the caller has acquired a write lock.
+     */
+    public void beginBulkLoadUnsafe() {
+        if (!bulkLoading && object instanceof ICorfuSMRBulkLoad) {
+            log.trace("BulkLoad[{}] started", this);
+            bulkLoading = true;
+            ((ICorfuSMRBulkLoad) object).beginBulkLoad();
+        }
+    }
+
+    /**
+     * Finish bulk loading the object, if it is being bulk loaded.
+     *
+     * <p>Unsafe, requires that the caller has acquired a write lock.
+     */
+    public void endBulkLoadUnsafe() {
+        if (bulkLoading) {
+            bulkLoading = false;
+            ((ICorfuSMRBulkLoad) object).endBulkLoad();
+            log.trace("BulkLoad[{}] completed", this);
+        }
+    }
+
     /**
      * Update the object under a write lock.
      *
@@ -300,6 +547,7 @@ public class VersionLockedObject<T> {
             if (optimisticStream.pos() == Address.NEVER_READ) {
                 final WriteSetSMRStream currentOptimisticStream =
                         optimisticStream;
+                retainSnapshotBeforeSyncUnsafe(timestamp);
                 // If we are too far ahead, roll back to the past
                 if (getVersionUnsafe() > timestamp) {
                     try {
@@ -311,6 +559,7 @@ public class VersionLockedObject<T> {
                 }
                 // Now sync the regular log
                 syncStreamUnsafe(smrStream, timestamp);
+                recordSyncedUnsafe(timestamp);
                 // It's possible that due to reset,
                 // the optimistic stream is no longer
                 // present. Restore it.
@@ -324,6 +573,7 @@ public class VersionLockedObject<T> {
                 optimisticRollbackUnsafe();
                 this.optimisticStream = null;
             }
+            retainSnapshotBeforeSyncUnsafe(timestamp);
             // If we are too far ahead, roll back to the past
             if (getVersionUnsafe() > timestamp) {
                 try {
@@ -331,6 +581,7 @@ public class VersionLockedObject<T> {
                     // Rollback successfully got us to the right
                     // version, we're done.
                     if (getVersionUnsafe() == timestamp) {
+                        recordSyncedUnsafe(timestamp);
                         return;
                     }
                 } catch (NoRollbackException nre) {
@@ -339,6 +590,87 @@ public class VersionLockedObject<T> {
                 }
             }
             syncStreamUnsafe(smrStream, timestamp);
+            recordSyncedUnsafe(timestamp);
+        }
+    }
+
+    /**
+     * Record that the object was synced to the given timestamp, so that it serves
+     * reads at any timestamp from its version up to that one.
+     *
+     * <p>Unsafe, requires that the caller has acquired a write lock.
+     *
+     * @param timestamp The timestamp the object was synced to.
+     */
+    private void recordSyncedUnsafe(long timestamp) {
+        final long version = getVersionUnsafe();
+        if (version != syncedVersion) {
+            syncedTimestamp = timestamp;
+            syncedVersion = version;
+        } else if (timestamp > syncedTimestamp) {
+            syncedTimestamp = timestamp;
+        }
+    }
+
+    /**
+     * Check whether the object is the object at the given timestamp, ignoring any
+     * optimistic modifications.
+     *
+     * @param timestamp The timestamp.
+     * @return True, if the object was synced to a timestamp no earlier than the given
+     *         one, and the stream has no updates between its version and the timestamp.
+     */
+    private boolean isAtTimestampUnsafe(long timestamp) {
+        final long version = getVersionUnsafe();
+        return version == timestamp || (version == syncedVersion
+                && version <= timestamp && timestamp <= syncedTimestamp);
+    }
+
+    /**
+     * Retain a snapshot of the object at its current version, if it is about to be
+     * rolled back from it, or to leave a version it was rolled back to.
+     *
+     * <p>Unsafe, requires that the caller has acquired a write lock, and that the
+     * object is not modified optimistically.
+     *
+     * @param timestamp The timestamp the object is about to be synced to.
+     */
+    private void retainSnapshotBeforeSyncUnsafe(long timestamp) {
+        final long version = getVersionUnsafe();
+        final boolean rollback = version > timestamp;
+        if (isAtTimestampUnsafe(timestamp)) {
+            return;
+        }
+        final long validUntil = version == syncedVersion ? syncedTimestamp : version;
+        final Snapshot<T> retained = snapshots.get(version);
+        if (retained != null && retained.validUntil < validUntil) {
+            // The object was synced further at this version since it was retained.
+            snapshots.put(version, new Snapshot<>(retained.object, validUntil));
+        } else if (maxSnapshots > 0 && Address.isAddress(version)
+                && (rollback || rolledBack) && retained == null) {
+            try {
+                snapshots.put(version, new Snapshot<>(snapshotFunction.apply(object),
+                        validUntil));
+                snapshotVersions.addLast(version);
+                trimSnapshotsUnsafe();
+                log.trace("Snapshot[{}] retained up to {}", this, validUntil);
+            } catch (RuntimeException e) {
+                log.warn("Snapshot[{}] could not be retained, no longer retaining snapshots",
+                        this, e);
+                maxSnapshots = 0;
+                snapshots.clear();
+                snapshotVersions.clear();
+            }
+        }
+        rolledBack = rollback;
+    }
+
+    /**
+     * Drop the oldest snapshots until at most maxSnapshots are retained.
+     */
+    private void trimSnapshotsUnsafe() {
+        while (snapshotVersions.size() > maxSnapshots) {
+            snapshots.remove(snapshotVersions.pollFirst());
         }
     }
 
@@ -430,7 +762,11 @@ public class VersionLockedObject<T> {
         log.debug("Reset[{}]", this);
         object = newObjectFn.get();
         smrStream.reset();
+        syncedVersion = Address.NEVER_READ;
+        syncedTimestamp = Address.NEVER_READ;
         optimisticStream = null;
+        rolledBack = false;
+        bulkLoading = false;
     }
 
     /**
@@ -463,23 +799,67 @@ public class VersionLockedObject<T> {
     }
 
 
+    /**
+     * Get the smallest mask which maps the ids of the given SMR methods to distinct
+     * slots.
+     *
+     * @param methods The names of the SMR methods, whose ids must be distinct.
+     * @return The mask.
+     */
+    private static int slotMaskOf(List<String> methods) {
+        int[] ids = methods.stream().distinct().mapToInt(SmrMethods::idOf).toArray();
+        if (Arrays.stream(ids).distinct().count() != ids.length) {
+            throw new IllegalArgumentException("SMR methods " + methods
+                    + " don't have distinct ids");
+        }
+        int mask = Integer.highestOneBit(Math.max(ids.length, 1) * 2 - 1) - 1;
+        while (!isCollisionFree(ids, mask)) {
+            mask = mask * 2 + 1;
+        }
+        return mask;
+    }
+
+    private static boolean isCollisionFree(int[] ids, int mask) {
+        return Arrays.stream(ids).map(id -> id & mask).distinct().count() == ids.length;
+    }
+
+    /**
+     * Get the slot of the SMR method of an entry, and set the name of the method of an
+     * entry which records its id only.
+     *
+     * @param entry The entry.
+     * @return The slot of the method, or -1 if this object has no such method.
+     */
+    private int methodOf(SMREntry entry) {
+        final int id = entry.getMethodId();
+        if (id == SMREntry.NO_METHOD_ID) {
+            return methodSlots.getOrDefault(entry.getSMRMethod(), -1);
+        }
+        final int slot = id & slotMask;
+        if (methodIds[slot] == id) {
+            entry.resolveSMRMethod(methodNames[slot]);
+            return slot;
+        }
+        return -1;
+    }
+
     /**
      * Given a SMR entry with an undo record, undo the update.
      *
      * @param record The record to undo.
      */
     protected void applyUndoRecordUnsafe(SMREntry record) {
+        final int method = methodOf(record);
         log.trace("Undo[{}] of {}@{} ({})", this, record.getSMRMethod(),
                 record.getEntry() != null ? record.getEntry().getGlobalAddress() : "OPT",
                 record.getUndoRecord());
-        IUndoFunction<T> undoFunction =
-                undoFunctionMap.get(record.getSMRMethod());
+        IUndoFunction<T> undoFunction = method < 0 ? null : undoFunctions[method];
         // If the undo function exists, apply it.
         if (undoFunction != null) {
             undoFunction.doUndo(object, record.getUndoRecord(),
                     record.getSMRArguments());
             return;
-        } else if (resetSet.contains(record.getSMRMethod())) {
+        } else if (method >= 0 && resetMethods[method]) {
             // If this is a reset, undo by restoring the
             // previous state.
             object = (T) record.getUndoRecord();
@@ -502,13 +882,15 @@ public class VersionLockedObject<T> {
      * @param entry The entry to apply.
      */
     public Object applyUpdateUnsafe(SMREntry entry) {
+        final int method = methodOf(entry);
         log.trace("Apply[{}] of {}@{} ({})", this, entry.getSMRMethod(),
                 entry.getEntry() != null ? entry.getEntry().getGlobalAddress() : "OPT",
                 entry.getSMRArguments());
 
-        ICorfuSMRUpcallTarget<T> target = upcallTargetMap.get(entry.getSMRMethod());
+        ICorfuSMRUpcallTarget<T> target = method < 0 ? null : upcallTargets[method];
         if (target == null) {
-            throw new RuntimeException("Unknown upcall " + entry.getSMRMethod());
+            throw new RuntimeException("Unknown upcall " + entry.getSMRMethod()
+                    + " (" + entry.getMethodId() + ")");
         }
 
         // No undo record is present
@@ -520,21 +902,26 @@ public class VersionLockedObject<T> {
         // is the case without snapshot isolation
         if (!entry.isUndoable() || entry.getEntry() == null) {
             // Can we generate an undo record?
-            IUndoRecordFunction<T> undoRecordTarget =
-                    undoRecordFunctionMap
-                            .get(entry.getSMRMethod());
+            IUndoRecordFunction<T> undoRecordTarget = undoRecordFunctions[method];
             // If there was no previously calculated undo entry
             if (undoRecordTarget != null) {
                 // calculate the undo record
                 entry.setUndoRecord(undoRecordTarget
                         .getUndoRecord(object, entry.getSMRArguments()));
                 log.trace("Apply[{}] Undo->{}", this, entry.getUndoRecord());
-            } else if (resetSet.contains(entry.getSMRMethod())) {
+            } else if (resetMethods[method]) {
                 // This entry actually resets the object. So here
                 // we can safely get a new instance, and add the
                 // previous instance to the undo log.
+                if (bulkLoading) {
+                    // The previous instance may be restored by undo.
+                    ((ICorfuSMRBulkLoad) object).endBulkLoad();
+                }
                 entry.setUndoRecord(object);
                 object = newObjectFn.get();
+                if (bulkLoading) {
+                    ((ICorfuSMRBulkLoad) object).beginBulkLoad();
+                }
                 log.trace("Apply[{}] Undo->RESET", this);
             }
         }
@@ -605,6 +992,28 @@ public class VersionLockedObject<T> {
         log.trace("Sync[{}] {}", this, (timestamp == Address.OPTIMISTIC)
                 ? "Optimistic" : "to " + timestamp);
         long syncTo = (timestamp == Address.OPTIMISTIC) ? Address.MAX : timestamp;
+        final boolean bulkLoad = bulkLoadReplays && stream == smrStream
+                && stream.pos() == Address.NEVER_READ;
+        if (bulkLoad) {
+            beginBulkLoadUnsafe();
+        }
+        try {
+            syncStreamEntriesUnsafe(stream, syncTo, timestamp);
+        } finally {
+            if (bulkLoad) {
+                endBulkLoadUnsafe();
+            }
+        }
+    }
+
+    /**
+     * Apply the updates in a stream up to the given address.
+     *
+     * @param stream    The stream to sync forward
+     * @param syncTo    The address to apply updates up to.
+     * @param timestamp The timestamp to sync up to, which may be Address.OPTIMISTIC.
+     */
+    private void syncStreamEntriesUnsafe(ISMRStream stream, long syncTo, long timestamp) {
         stream.streamUpTo(syncTo)
                 .forEachOrdered(entry -> {
                     try {
@@ -652,4 +1061,16 @@ public class VersionLockedObject<T> {
         seek(globalAddress + 1);
     }
 
+    /**
+     * A copy of the object at a version, and the last timestamp it is the object at.
+     */
+    private static class Snapshot<T> {
+        final T object;
+        final long validUntil;
+
+        Snapshot(T object, long validUntil) {
+            this.object = object;
+            this.validUntil = validUntil;
+        }
+    }
 }
@@ -2,23 +2,36 @@ package org.corfudb.runtime.view;
 
 import static org.corfudb.util.LambdaUtils.runSansThrow;
 import static org.corfudb.util.Utils.getMaxGlobalTail;
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -29,6 +42,7 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IToken;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.OffHeapLogData;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.LogUnitClient;
 import org.corfudb.runtime.exceptions.OverwriteCause;
@@ -58,25 +72,108 @@ public class AddressSpaceView extends AbstractView {
                     .setNameFormat("SyncTrimMark")
                     .build());
 
+    /**
+     * How long the threads of the async executor are kept once idle.
+     */
+    private static final long ASYNC_THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * Executor for the parts of asynchronous reads and writes which may block, and for
+     * sending the requests which follow a response. It is bounded, so that a burst of
+     * asynchronous operations queues up instead of spawning a thread each. Its threads
+     * expire once idle, so it isn't shut down, and the futures still in flight on
+     * shutdown complete.
+     */
+    private final ThreadPoolExecutor asyncExecutor = buildAsyncExecutor();
+
+    /**
+     * The number of bytes which may be read ahead of stream consumers at once, shared by
+     * all the streams of the runtime. It is sized on first use, so that the runtime
+     * parameters may still be changed once the runtime is built.
+     */
+    private final Supplier<Integer> readAheadBudgetBytes = Suppliers.memoize(() ->
+            Ints.saturatedCast(Long.max(1L, runtime.getParameters().getStreamReadAheadBytes())));
+
+    private final Supplier<Semaphore> readAheadBudget = Suppliers.memoize(() ->
+            new Semaphore(readAheadBudgetBytes.get()));
+
     /**
      * A cache for read results.
      */
-    final LoadingCache<Long, ILogData> readCache = Caffeine.<Long, ILogData>newBuilder()
-            .maximumSize(runtime.getParameters().getNumCacheEntries())
-            .expireAfterAccess(runtime.getParameters().getCacheExpiryTime(), TimeUnit.SECONDS)
-            .expireAfterWrite(runtime.getParameters().getCacheExpiryTime(), TimeUnit.SECONDS)
-            .recordStats()
-            .build(new CacheLoader<Long, ILogData>() {
-                @Override
-                public ILogData load(Long value) throws Exception {
-                    return cacheFetch(value);
-                }
+    final LoadingCache<Long, ILogData> readCache = buildReadCache();
 
-                @Override
-                public Map<Long, ILogData> loadAll(Iterable<? extends Long> keys) throws Exception {
-                    return cacheFetch((Iterable<Long>) keys);
-                }
-            });
+    /**
+     * The number of prefetched entries which were then read, and which were not.
+     */
+    private final Counter prefetchHits;
+
+    private final Counter prefetchWasted;
+
+    private ThreadPoolExecutor buildAsyncExecutor() {
+        final int numThreads = runtime.getParameters().getAddressSpaceAsyncThreads() == 0
+                ? Runtime.getRuntime().availableProcessors() * 2
+                : runtime.getParameters().getAddressSpaceAsyncThreads();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+                ASYNC_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setDaemon(true)
+                        .setNameFormat("AddressSpaceAsync-%d")
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Build the read cache, bounded either by the number of entries, or by their size
+     * estimate if a maximum cache weight is set.
+     */
+    private LoadingCache<Long, ILogData> buildReadCache() {
+        final CacheLoader<Long, ILogData> loader = new CacheLoader<Long, ILogData>() {
+            @Override
+            public ILogData load(Long value) throws Exception {
+                return cacheable(cacheFetch(value));
+            }
+
+            @Override
+            public Map<Long, ILogData> loadAll(Iterable<? extends Long> keys) throws Exception {
+                return cacheable(cacheFetch((Iterable<Long>) keys));
+            }
+        };
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterAccess(runtime.getParameters().getCacheExpiryTime(), TimeUnit.SECONDS)
+                .expireAfterWrite(runtime.getParameters().getCacheExpiryTime(), TimeUnit.SECONDS)
+                .recordStats();
+        if (runtime.getParameters().getMaxCacheWeight() > 0) {
+            return builder.maximumWeight(runtime.getParameters().getMaxCacheWeight())
+                    .weigher((Long address, ILogData data) -> data.getSizeEstimate())
+                    .build(loader);
+        }
+        return builder.maximumSize(runtime.getParameters().getNumCacheEntries())
+                .build(loader);
+    }
+
+    /**
+     * Return the form in which an entry is cached, which is a copy off the heap
+     * for the data entries, if the cache is configured so.
+     *
+     * @param data The entry to cache.
+     * @return The entry to put in the cache.
+     */
+    private ILogData cacheable(ILogData data) {
+        if (runtime.getParameters().isCacheOffHeap() && data instanceof LogData
+                && !(data instanceof OffHeapLogData) && data.getType() == DataType.DATA) {
+            return new OffHeapLogData((LogData) data);
+        }
+        return data;
+    }
+
+    private Map<Long, ILogData> cacheable(Map<Long, ILogData> data) {
+        if (!runtime.getParameters().isCacheOffHeap()) {
+            return data;
+        }
+        Map<Long, ILogData> result = new HashMap<>();
+        data.forEach((address, ld) -> result.put(address, cacheable(ld)));
+        return result;
+    }
 
     /**
      * Constructor for the Address Space View.
@@ -91,6 +188,16 @@ public class AddressSpaceView extends AbstractView {
         metrics.register(pfx + "hit-rate", (Gauge<Double>) () -> readCache.stats().hitRate());
         metrics.register(pfx + "hits", (Gauge<Long>) () -> readCache.stats().hitCount());
         metrics.register(pfx + "misses", (Gauge<Long>) () -> readCache.stats().missCount());
+        metrics.register(pfx + "eviction-weight",
+                (Gauge<Long>) () -> readCache.stats().evictionWeight());
+        metrics.register(pfx + "weighted-size", (Gauge<Long>) () -> readCache.policy().eviction()
+                .map(e -> e.weightedSize().orElse(0L)).orElse(0L));
+        prefetchHits = metrics.counter(pfx + "prefetch-hits");
+        prefetchWasted = metrics.counter(pfx + "prefetch-wasted");
+        metrics.register(pfx + "prefetch-hit-ratio", (Gauge<Double>) () -> {
+            long prefetched = prefetchHits.getCount() + prefetchWasted.getCount();
+            return prefetched == 0 ? 0.0 : (double) prefetchHits.getCount() / prefetched;
+        });
 
         scheduler.scheduleWithFixedDelay(() -> runSansThrow(TrimMarkSyncTask::new),
                 runtime.getParameters().getTrimMarkSyncPeriod().toMillis(),
@@ -182,31 +289,102 @@ public class AddressSpaceView extends AbstractView {
                 l.getReplicationMode(token.getTokenValue())
                         .getReplicationProtocol(runtime)
                         .write(e, ld);
-            } catch (OverwriteException ex) {
-                if (ex.getOverWriteCause() == OverwriteCause.SAME_DATA){
-                    // If we have an overwrite exception with the SAME_DATA cause, it means that the
-                    // server suspects our data has already been written, in this case we need to
-                    // validate the state of the write.
-                    validateStateOfWrittenEntry(token.getTokenValue(), ld);
-                } else {
-                    // If we have an Overwrite exception with a different cause than SAME_DATA
-                    // we do not need to validate the state of the write, as we know we have been
-                    // certainly overwritten either by other data, by a hole or the address was trimmed.
-                    // Large writes are also rejected right away.
-                    throw ex;
-                }
-            } catch (WriteSizeException we) {
-                throw we;
             } catch (RuntimeException re) {
-                validateStateOfWrittenEntry(token.getTokenValue(), ld);
+                resolveFailedWrite(token.getTokenValue(), ld, re);
             }
             return null;
         }, true);
 
-        // Cache the successful write
+        cacheWrite(token, ld, cacheOption);
+    }
+
+    /**
+     * Determine the outcome of a write which failed, either rethrowing the failure or
+     * returning normally if the write turns out to have been committed.
+     *
+     * @param address   The address of the write.
+     * @param ld        The data written.
+     * @param failure   The failure of the write.
+     */
+    private void resolveFailedWrite(long address, ILogData ld, Throwable failure) {
+        if (failure instanceof OverwriteException) {
+            OverwriteException ex = (OverwriteException) failure;
+            if (ex.getOverWriteCause() == OverwriteCause.SAME_DATA) {
+                // If we have an overwrite exception with the SAME_DATA cause, it means that the
+                // server suspects our data has already been written, in this case we need to
+                // validate the state of the write.
+                validateStateOfWrittenEntry(address, ld);
+            } else {
+                // If we have an Overwrite exception with a different cause than SAME_DATA
+                // we do not need to validate the state of the write, as we know we have been
+                // certainly overwritten either by other data, by a hole or the address was trimmed.
+                // Large writes are also rejected right away.
+                throw ex;
+            }
+        } else if (failure instanceof WriteSizeException) {
+            throw (WriteSizeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else {
+            validateStateOfWrittenEntry(address, ld);
+        }
+    }
+
+    /** Cache a successful write, according to its cache option. */
+    private void cacheWrite(IToken token, ILogData ld, CacheOption cacheOption) {
         if (!runtime.getParameters().isCacheDisabled() && cacheOption == CacheOption.WRITE_THROUGH) {
-            readCache.put(token.getTokenValue(), ld);
+            readCache.put(token.getTokenValue(), cacheable(ld));
+        }
+    }
+
+    /** Write the given log data using a token, without blocking the caller.
+     *
+     * <p>This method functions exactly like a write, except that it returns a future
+     * which completes once the write is committed, or completes exceptionally with the
+     * exception the write would have thrown. Unlike a write, it doesn't retry when the
+     * layout changes, the token would be stale anyway.
+     *
+     * @param token        The token to use for the write.
+     * @param data         The data to write.
+     * @param cacheOption  The caching behaviour for this write
+     * @return A future completed once the write is committed.
+     */
+    public CompletableFuture<Void> writeAsync(@Nonnull IToken token, @Nonnull Object data,
+                                              @Nonnull CacheOption cacheOption) {
+        final ILogData ld = new LogData(DataType.DATA, data);
+        final RuntimeLayout runtimeLayout = layoutHelper(e -> e);
+        final Layout l = runtimeLayout.getLayout();
+
+        // Check if the token issued is in the same epoch as the layout we
+        // are about to write to.
+        if (token.getEpoch() != l.getEpoch()) {
+            CompletableFuture<Void> stale = new CompletableFuture<>();
+            stale.completeExceptionally(new StaleTokenException(l.getEpoch()));
+            return stale;
         }
+
+        ld.useToken(token);
+        ld.setId(runtime.getParameters().getClientId());
+
+        return l.getReplicationMode(token.getTokenValue())
+                .getReplicationProtocol(runtime)
+                .writeAsync(runtimeLayout, ld, asyncExecutor)
+                .handle((x, ex) -> ex == null
+                        ? CompletableFuture.<Void>completedFuture(null)
+                        : CompletableFuture.runAsync(() -> resolveFailedWrite(
+                                token.getTokenValue(), ld, CFUtils.unwrap(ex)), asyncExecutor))
+                .thenCompose(Function.identity())
+                .thenRun(() -> cacheWrite(token, ld, cacheOption));
+    }
+
+    /**
+     * Write the given log data without blocking the caller, and then add it to the address
+     * space cache (i.e. WRITE_THROUGH option)
+     *
+     * @see AddressSpaceView#writeAsync(IToken, Object, CacheOption)
+     */
+    public CompletableFuture<Void> writeAsync(IToken token, Object data) {
+        return writeAsync(token, data, CacheOption.WRITE_THROUGH);
     }
 
     /**
@@ -254,6 +432,112 @@ public class AddressSpaceView extends AbstractView {
         return fetch(address);
     }
 
+    /**
+     * Read the given object from an address, without blocking the caller.
+     *
+     * <p>This method functions exactly like a read, except that it returns a future of
+     * the data, which completes exceptionally with a TrimmedException if the address was
+     * trimmed. If the read fails otherwise, for instance because the layout changed, it
+     * is retried as a blocking read, off the caller's thread.
+     *
+     * @param address An address to read from.
+     * @return A future of the result, which will be cached.
+     */
+    public CompletableFuture<ILogData> readAsync(long address) {
+        if (!runtime.getParameters().isCacheDisabled()) {
+            ILogData data = readCache.getIfPresent(address);
+            if (data != null) {
+                return CompletableFuture.completedFuture(data).thenApply(this::checkTrimmed);
+            }
+        }
+
+        final RuntimeLayout runtimeLayout = layoutHelper(e -> e);
+        return withFallback(runtimeLayout.getLayout().getReplicationMode(address)
+                        .getReplicationProtocol(runtime)
+                        .readAsync(runtimeLayout, address, asyncExecutor),
+                () -> fetch(address))
+                .thenApply(data -> {
+                    if (!runtime.getParameters().isCacheDisabled()) {
+                        readCache.put(address, cacheable(data));
+                    }
+                    return checkTrimmed(data);
+                });
+    }
+
+    /**
+     * Read the given object from a list of addresses, without blocking the caller.
+     *
+     * <p>This method functions exactly like a read of several addresses, except that it
+     * returns a future of the data. The addresses which aren't cached are read in batches
+     * of the bulk read size, all at once.
+     *
+     * @param addresses The addresses to read from.
+     * @return A future of the results, which will be cached.
+     */
+    public CompletableFuture<Map<Long, ILogData>> readAllAsync(List<Long> addresses) {
+        final boolean cacheEnabled = !runtime.getParameters().isCacheDisabled();
+        final Map<Long, ILogData> cached = cacheEnabled
+                ? readCache.getAllPresent(addresses) : Collections.emptyMap();
+        final List<Long> toRead = addresses.stream()
+                .filter(a -> !cached.containsKey(a))
+                .collect(Collectors.toList());
+        if (toRead.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>(cached))
+                    .thenApply(this::checkTrimmed);
+        }
+
+        final RuntimeLayout runtimeLayout = layoutHelper(e -> e);
+        final List<CompletableFuture<Map<Long, ILogData>>> batches =
+                Lists.partition(toRead, runtime.getParameters().getBulkReadSize()).stream()
+                        .map(batch -> withFallback(runtimeLayout.getLayout()
+                                        .getReplicationMode(batch.get(0))
+                                        .getReplicationProtocol(runtime)
+                                        .readAllAsync(runtimeLayout, batch, asyncExecutor),
+                                () -> cacheFetch(batch)))
+                        .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[batches.size()]))
+                .thenApply(x -> {
+                    Map<Long, ILogData> result = new HashMap<>(cached);
+                    for (CompletableFuture<Map<Long, ILogData>> batch : batches) {
+                        Map<Long, ILogData> read = batch.join();
+                        if (cacheEnabled) {
+                            readCache.putAll(cacheable(read));
+                        }
+                        result.putAll(read);
+                    }
+                    return checkTrimmed(result);
+                });
+    }
+
+    /**
+     * Complete with the result of an asynchronous read, or if it fails, with the result
+     * of the equivalent blocking read run on the async executor, which retries on
+     * layout changes.
+     */
+    private <T> CompletableFuture<T> withFallback(CompletableFuture<T> future,
+                                                  Supplier<T> fallback) {
+        return future.handle((value, ex) -> {
+            if (ex == null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            log.debug("withFallback: retrying asynchronous read", CFUtils.unwrap(ex));
+            return CompletableFuture.supplyAsync(fallback, asyncExecutor);
+        }).thenCompose(Function.identity());
+    }
+
+    private ILogData checkTrimmed(ILogData data) {
+        if (data.isTrimmed()) {
+            throw new TrimmedException();
+        }
+        return data;
+    }
+
+    private Map<Long, ILogData> checkTrimmed(Map<Long, ILogData> data) {
+        data.values().forEach(this::checkTrimmed);
+        return data;
+    }
+
     /**
      * Read the given object from a range of addresses.
      *
@@ -277,6 +561,123 @@ public class AddressSpaceView extends AbstractView {
         return addressesMap;
     }
 
+    /**
+     * Asynchronously read the given addresses into the cache, ahead of a stream consumer.
+     *
+     * <p>Like a prefetch, addresses which have no committed data yet are not hole filled,
+     * and a failure is only logged: the addresses are read, hole filled and the failure
+     * reported when the consumer actually reads them. The bytes being read ahead are
+     * bounded by a budget shared by all the streams of the runtime, and nothing is read
+     * if the addresses don't fit what is left of it.
+     *
+     * @param addresses     The addresses to read ahead.
+     * @param sizeEstimate  The estimated size of the entries to read ahead, in bytes.
+     * @return A future completed once the addresses are cached, or the read failed,
+     *         or null if the read ahead budget is used up.
+     */
+    @Nullable
+    public CompletableFuture<Void> readAhead(List<Long> addresses, long sizeEstimate) {
+        final Set<Long> toRead = addresses.stream()
+                .filter(a -> !readCache.asMap().containsKey(a))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (toRead.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final Semaphore budget = readAheadBudget.get();
+        final int permits = (int) Long.max(1L,
+                Long.min(sizeEstimate, readAheadBudgetBytes.get()));
+        if (!budget.tryAcquire(permits)) {
+            return null;
+        }
+
+        final CompletableFuture<Void> readAhead;
+        try {
+            final RuntimeLayout runtimeLayout = layoutHelper(e -> e);
+            readAhead = runtimeLayout.getLayout()
+                    .getReplicationMode(toRead.iterator().next())
+                    .getReplicationProtocol(runtime)
+                    .peekAllAsync(runtimeLayout, toRead, asyncExecutor)
+                    .<Void>thenApply(read -> {
+                        readCache.putAll(cacheable(read));
+                        return null;
+                    });
+        } catch (RuntimeException e) {
+            budget.release(permits);
+            log.debug("readAhead[{}]: failed", addresses, e);
+            return CompletableFuture.completedFuture(null);
+        }
+        return readAhead.exceptionally(e -> {
+            log.debug("readAhead[{}]: failed", addresses, e);
+            return null;
+        }).whenComplete((x, e) -> budget.release(permits));
+    }
+
+    /**
+     * Wait for all the reads ahead of stream consumers in flight to complete.
+     */
+    @VisibleForTesting
+    void awaitReadAheads() {
+        final int permits = readAheadBudgetBytes.get();
+        readAheadBudget.get().acquireUninterruptibly(permits);
+        readAheadBudget.get().release(permits);
+    }
+
+    /**
+     * Speculatively read the given addresses into the cache, ahead of reading them.
+     *
+     * <p>Unlike a read, addresses which have no committed data yet are not hole filled,
+     * they are left to be read, and hole filled if need be, when they are actually read.
+     * Addresses which are already cached aren't read again, and nothing is prefetched
+     * if any of the addresses was trimmed.
+     *
+     * @param addresses The addresses to prefetch.
+     * @return The addresses which were read into the cache.
+     */
+    public Set<Long> prefetch(Iterable<Long> addresses) {
+        if (runtime.getParameters().isCacheDisabled()) {
+            return Collections.emptySet();
+        }
+
+        Set<Long> toFetch = new TreeSet<>();
+        for (Long address : addresses) {
+            if (!readCache.asMap().containsKey(address)) {
+                toFetch.add(address);
+            }
+        }
+        if (toFetch.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        log.trace("Prefetch[{}]", toFetch);
+        final Map<Long, ILogData> prefetched;
+        try {
+            prefetched = layoutHelper(e -> e.getLayout()
+                    .getReplicationMode(toFetch.iterator().next())
+                    .getReplicationProtocol(runtime)
+                    .peekAll(e, toFetch));
+        } catch (TrimmedException te) {
+            // Some replication protocols fail the peek of a trimmed address, leave
+            // it to the read of the address to report it.
+            log.trace("Prefetch[{}]: trimmed", toFetch);
+            return Collections.emptySet();
+        }
+        readCache.putAll(cacheable(prefetched));
+        return prefetched.keySet();
+    }
+
+    /**
+     * Record how many prefetched entries were then read, and how many were not, to
+     * report the prefetch-hit-ratio metric.
+     *
+     * @param hits      The number of prefetched entries which were read.
+     * @param wasted    The number of prefetched entries which were not read.
+     */
+    public void recordPrefetch(long hits, long wasted) {
+        prefetchHits.inc(hits);
+        prefetchWasted.inc(wasted);
+    }
+
     /**
      * Get the first address in the address space.
      */
@@ -26,6 +26,7 @@ import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.QuorumUnreachableException;
 import org.corfudb.runtime.view.ClusterStatusReport.ClusterStatus;
 import org.corfudb.runtime.view.replication.ChainReplicationProtocol;
+import org.corfudb.runtime.view.replication.FanOutChainReplicationProtocol;
 import org.corfudb.runtime.view.replication.IReplicationProtocol;
 import org.corfudb.runtime.view.replication.NeverHoleFillPolicy;
 import org.corfudb.runtime.view.replication.QuorumReplicationProtocol;
@@ -363,6 +364,46 @@ public class Layout {
                         ? ClusterStatus.UNAVAILABLE : ClusterStatus.STABLE;
             }
         },
+        /**
+         * Chain replication, except that once the head of the chain accepted a write,
+         * the units in the middle of the chain are written in parallel, then the tail.
+         */
+        FANOUT_CHAIN_REPLICATION {
+            @Override
+            public void validateSegmentSeal(LayoutSegment layoutSegment,
+                                            Map<String, CompletableFuture<Boolean>>
+                                                    completableFutureMap)
+                    throws QuorumUnreachableException {
+                CHAIN_REPLICATION.validateSegmentSeal(layoutSegment, completableFutureMap);
+            }
+
+            @Override
+            public int getMinReplicationFactor(Layout layout, LayoutStripe stripe) {
+                return CHAIN_REPLICATION.getMinReplicationFactor(layout, stripe);
+            }
+
+            @Override
+            public IStreamView  getStreamView(CorfuRuntime r, UUID streamId, StreamOptions options) {
+                return CHAIN_REPLICATION.getStreamView(r, streamId, options);
+            }
+
+            @Override
+            public IReplicationProtocol getReplicationProtocol(CorfuRuntime r) {
+                if (r.getParameters().isHoleFillingDisabled()) {
+                    return new FanOutChainReplicationProtocol(new NeverHoleFillPolicy(100));
+                } else {
+                    return new FanOutChainReplicationProtocol(new ReadWaitHoleFillPolicy(100,
+                            r.getParameters().getHoleFillRetry()));
+                }
+            }
+
+            @Override
+            public ClusterStatus getClusterHealthForSegment(LayoutSegment layoutSegment,
+                                                            Set<String> responsiveNodes) {
+                return CHAIN_REPLICATION.getClusterHealthForSegment(layoutSegment,
+                        responsiveNodes);
+            }
+        },
         QUORUM_REPLICATION {
             @Override
             public void validateSegmentSeal(LayoutSegment layoutSegment,
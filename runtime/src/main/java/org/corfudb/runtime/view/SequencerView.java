@@ -6,6 +6,7 @@ import java.util.Set;
 import java.util.UUID;
 
 import com.google.common.collect.Lists;
+import org.corfudb.protocols.wireprotocol.StreamAddressResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 import org.corfudb.runtime.CorfuRuntime;
@@ -87,6 +88,19 @@ public class SequencerView extends AbstractView {
                 .nextToken(Lists.newArrayList(streamIDs), numTokens, conflictInfo)));
     }
 
+    /**
+     * Return the addresses the sequencer issued to a stream in a range of the log.
+     *
+     * @param streamId the stream to get the addresses of
+     * @param start    the start of the range, exclusive
+     * @param end      the end of the range, inclusive
+     * @return the addresses of the stream, and from where they are complete
+     */
+    public StreamAddressResponse getStreamAddresses(UUID streamId, long start, long end) {
+        return layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
+                .getStreamAddresses(streamId, start, end)));
+    }
+
     public void trimCache(long address) {
         runtime.getLayoutView().getRuntimeLayout().getPrimarySequencerClient().trimCache(address);
     }
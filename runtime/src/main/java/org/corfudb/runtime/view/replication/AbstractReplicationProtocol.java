@@ -1,5 +1,11 @@
 package org.corfudb.runtime.view.replication;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 import lombok.extern.slf4j.Slf4j;
@@ -47,6 +53,73 @@ public abstract class AbstractReplicationProtocol implements IReplicationProtoco
         }
     }
 
+    /** Read several addresses, applying the hole filling policy to all of them
+     * at once and hole filling the addresses that still have no data together.
+     *
+     * @param runtimeLayout     The RuntimeLayout to use for the read.
+     * @param globalAddresses   The addresses to read.
+     * @return                  The committed data of every address.
+     */
+    @Nonnull
+    protected Map<Long, ILogData> readAllWithHoleFill(RuntimeLayout runtimeLayout,
+                                                      List<Long> globalAddresses) {
+        Map<Long, ILogData> result = new HashMap<>(holeFillPolicy
+                .peekAllUntilHoleFillRequired(globalAddresses, a -> peekAll(runtimeLayout, a)));
+
+        List<Long> holes = globalAddresses.stream()
+                .filter(a -> !result.containsKey(a))
+                .collect(Collectors.toList());
+        if (!holes.isEmpty()) {
+            log.debug("HoleFill{} required after batched peek", holes);
+            holeFillAll(runtimeLayout, holes);
+            result.putAll(peekAll(runtimeLayout, holes));
+        }
+        return result;
+    }
+
+    /** {@inheritDoc}
+     *
+     * <p>In the base implementation, only the addresses which have committed data
+     * are returned, as with {@link #peekAll(RuntimeLayout, List)}.
+     */
+    @Nonnull
+    @Override
+    public Map<Long, ILogData> peekAll(RuntimeLayout runtimeLayout,
+                                       Set<Long> globalAddresses) {
+        return peekAll(runtimeLayout, new ArrayList<>(globalAddresses));
+    }
+
+    /** Peek several addresses. The base implementation peeks each address in turn.
+     *
+     * @param runtimeLayout     The RuntimeLayout to use for the peek.
+     * @param globalAddresses   The addresses to peek.
+     * @return                  The committed data of the addresses that have any.
+     */
+    @Nonnull
+    protected Map<Long, ILogData> peekAll(RuntimeLayout runtimeLayout,
+                                          List<Long> globalAddresses) {
+        Map<Long, ILogData> result = new HashMap<>();
+        for (Long address : globalAddresses) {
+            ILogData data = peek(runtimeLayout, address);
+            if (data != null) {
+                result.put(address, data);
+            }
+        }
+        return result;
+    }
+
+    /** Hole fill several addresses. The base implementation hole fills each
+     * address in turn.
+     *
+     * @param runtimeLayout     The RuntimeLayout to use for the hole fill.
+     * @param globalAddresses   The addresses to hole fill.
+     */
+    protected void holeFillAll(RuntimeLayout runtimeLayout, List<Long> globalAddresses) {
+        for (Long address : globalAddresses) {
+            holeFill(runtimeLayout, address);
+        }
+    }
+
     /**
      * Write a special hole filling entry using the
      * given address. When this call returns, either
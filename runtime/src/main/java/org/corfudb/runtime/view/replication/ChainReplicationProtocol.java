@@ -2,18 +2,30 @@ package org.corfudb.runtime.view.replication;
 
 import com.google.common.collect.Range;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.WriteResult;
+import org.corfudb.runtime.clients.LogUnitClient;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.RecoveryException;
 import org.corfudb.runtime.view.RuntimeLayout;
 import org.corfudb.runtime.view.Layout;
+import org.corfudb.runtime.view.Layout.LayoutStripe;
 import org.corfudb.util.CFUtils;
 
 
@@ -58,6 +70,56 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The write is sent to the head of the chain, and each unit of the chain
+     * is written as soon as the previous one acknowledged the write, without
+     * blocking a thread in between. Only the recovery of an overwritten write
+     * runs on the executor.
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> writeAsync(RuntimeLayout runtimeLayout, ILogData data,
+                                              Executor executor) {
+        final long globalAddress = data.getGlobalAddress();
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+
+        final ILogData.SerializationHandle sh = data.getSerializedForm();
+        log.trace("WriteAsync[{}]: chain head {}/{}", globalAddress, 1, numUnits);
+        // Requests are sent from the executor rather than from the thread
+        // completing the previous one, which may be a network thread: sending
+        // blocks until the connection to the next unit is established. This
+        // hop, and recovery, are the only parts run on the executor.
+        CompletableFuture<Void> write = runtimeLayout.getLogUnitClient(globalAddress, 0)
+                .write(sh.getSerialized())
+                .thenComposeAsync(x -> propagateAsync(runtimeLayout, globalAddress,
+                        sh.getSerialized(), executor), executor);
+
+        // Only the head of the chain can fail the write with an overwrite, since
+        // overwrites further down the chain are ignored as in propagate.
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        write.whenComplete((x, ex) -> {
+            sh.close();
+            final Throwable cause = ex == null ? null : CFUtils.unwrap(ex);
+            if (cause == null) {
+                result.complete(null);
+            } else if (cause instanceof OverwriteException) {
+                executor.execute(() -> {
+                    try {
+                        recover(runtimeLayout, globalAddress);
+                        result.completeExceptionally(cause);
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+                });
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -75,6 +137,62 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
         return ret == null || ret.isEmpty() ? null : ret;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The address is read from the tail of the chain. Only if it has no committed
+     * data yet, the read is retried and hole filled if need be on the executor.
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<ILogData> readAsync(RuntimeLayout runtimeLayout,
+                                                 long globalAddress, Executor executor) {
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        log.trace("ReadAsync[{}]: chain {}/{}", globalAddress, numUnits, numUnits);
+        return runtimeLayout.getLogUnitClient(globalAddress, numUnits - 1)
+                .read(globalAddress)
+                .thenCompose(response -> {
+                    ILogData ret = response.getAddresses().get(globalAddress);
+                    if (ret != null && !ret.isEmpty()) {
+                        return CompletableFuture.completedFuture(ret);
+                    }
+                    return CompletableFuture.supplyAsync(
+                            () -> read(runtimeLayout, globalAddress), executor);
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The addresses are read from the tail of the chain with a single request. Only
+     * if some of them have no committed data yet, they are retried and hole filled if
+     * need be on the executor.
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<Map<Long, ILogData>> readAllAsync(RuntimeLayout runtimeLayout,
+                                                               List<Long> globalAddresses,
+                                                               Executor executor) {
+        long startAddress = globalAddresses.iterator().next();
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(startAddress);
+        log.trace("readAllAsync[{}]: chain {}/{}", globalAddresses, numUnits, numUnits);
+        return runtimeLayout.getLogUnitClient(startAddress, numUnits - 1)
+                .read(globalAddresses)
+                .thenCompose(response -> {
+                    Map<Long, LogData> logResult = response.getAddresses();
+                    boolean complete = globalAddresses.stream().allMatch(a -> {
+                        ILogData ld = logResult.get(a);
+                        return ld != null && !ld.isEmpty();
+                    });
+                    if (complete) {
+                        return CompletableFuture.completedFuture(
+                                new TreeMap<Long, ILogData>(logResult));
+                    }
+                    return CompletableFuture.supplyAsync(
+                            () -> fillEmptyEntries(runtimeLayout, logResult), executor);
+                });
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -89,18 +207,7 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
                         .getLogUnitClient(startAddress, numUnits - 1)
                         .read(globalAddresses)).getAddresses();
 
-        //in case of a hole, do a normal read and use its hole fill policy
-        Map<Long, ILogData> returnResult = new TreeMap<>();
-        for (Map.Entry<Long, LogData> entry : logResult.entrySet()) {
-            ILogData value = entry.getValue();
-            if (value == null || value.isEmpty()) {
-                value = read(runtimeLayout, entry.getKey());
-            }
-
-            returnResult.put(entry.getKey(), value);
-        }
-
-        return returnResult;
+        return fillEmptyEntries(runtimeLayout, logResult);
     }
 
     @Override
@@ -116,20 +223,162 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
                         .getLogUnitClient(startAddress, numUnits - 1)
                         .read(range)).getAddresses();
 
-        //in case of a hole, do a normal read and use its hole fill policy
+        return fillEmptyEntries(runtimeLayout, logResult);
+    }
+
+    /** Apply the hole fill policy to every empty entry of a read, filling
+     * all the holes together instead of one at a time.
+     *
+     * @param runtimeLayout The RuntimeLayout to use for the hole fills.
+     * @param logResult     The entries read from the tail of the chain.
+     * @return              The committed data of every address.
+     */
+    private Map<Long, ILogData> fillEmptyEntries(RuntimeLayout runtimeLayout,
+                                                 Map<Long, LogData> logResult) {
         Map<Long, ILogData> returnResult = new TreeMap<>();
+        List<Long> holes = new ArrayList<>();
         for (Map.Entry<Long, LogData> entry : logResult.entrySet()) {
             ILogData value = entry.getValue();
             if (value == null || value.isEmpty()) {
-                value = read(runtimeLayout, entry.getKey());
+                holes.add(entry.getKey());
+            } else {
+                returnResult.put(entry.getKey(), value);
             }
-
-            returnResult.put(entry.getKey(), value);
         }
 
+        if (!holes.isEmpty()) {
+            returnResult.putAll(readAllWithHoleFill(runtimeLayout, holes));
+        }
         return returnResult;
     }
 
+    /** Group addresses by the stripe, and hence the chain, they belong to.
+     *
+     * @param layout            The layout to map the addresses with.
+     * @param globalAddresses   The addresses to group.
+     * @return                  The addresses of each chain.
+     */
+    private Collection<List<Long>> groupByChain(Layout layout, List<Long> globalAddresses) {
+        Map<LayoutStripe, List<Long>> chains = new LinkedHashMap<>();
+        for (Long address : globalAddresses) {
+            chains.computeIfAbsent(layout.getStripe(address), s -> new ArrayList<>())
+                    .add(address);
+        }
+        return chains.values();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Addresses are read from the tail of their chain with a single request per chain.
+     */
+    @Nonnull
+    @Override
+    protected Map<Long, ILogData> peekAll(RuntimeLayout runtimeLayout,
+                                          List<Long> globalAddresses) {
+        Map<Long, ILogData> result = new HashMap<>();
+        for (List<Long> chain : groupByChain(runtimeLayout.getLayout(), globalAddresses)) {
+            long address = chain.get(0);
+            int numUnits = runtimeLayout.getLayout().getSegmentLength(address);
+            log.trace("PeekAll[{}]: chain {}/{}", chain, numUnits, numUnits);
+            CFUtils.getUninterruptibly(runtimeLayout
+                    .getLogUnitClient(address, numUnits - 1)
+                    .read(chain)).getAddresses()
+                    .forEach((a, ld) -> {
+                        if (ld != null && !ld.isEmpty()) {
+                            result.put(a, ld);
+                        }
+                    });
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Addresses are read from the tail of their chain with a single request per chain,
+     * and the requests are all sent at once.
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<Map<Long, ILogData>> peekAllAsync(RuntimeLayout runtimeLayout,
+                                                               Set<Long> globalAddresses,
+                                                               Executor executor) {
+        List<CompletableFuture<ReadResponse>> reads = new ArrayList<>();
+        for (List<Long> chain : groupByChain(runtimeLayout.getLayout(),
+                new ArrayList<>(globalAddresses))) {
+            long address = chain.get(0);
+            int numUnits = runtimeLayout.getLayout().getSegmentLength(address);
+            log.trace("PeekAllAsync[{}]: chain {}/{}", chain, numUnits, numUnits);
+            reads.add(runtimeLayout.getLogUnitClient(address, numUnits - 1).read(chain));
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[reads.size()]))
+                .thenApply(x -> {
+                    Map<Long, ILogData> result = new HashMap<>();
+                    reads.forEach(read -> read.join().getAddresses().forEach((a, ld) -> {
+                        if (ld != null && !ld.isEmpty()) {
+                            result.put(a, ld);
+                        }
+                    }));
+                    return result;
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The holes of each chain are filled with a single request to every unit
+     * of the chain. Addresses where the hole fill lost to another writer are
+     * recovered one at a time.
+     */
+    @Override
+    protected void holeFillAll(RuntimeLayout runtimeLayout, List<Long> globalAddresses) {
+        for (List<Long> chain : groupByChain(runtimeLayout.getLayout(), globalAddresses)) {
+            long address = chain.get(0);
+            int numUnits = runtimeLayout.getLayout().getSegmentLength(address);
+            log.trace("fillHoles[{}]: chain head {}/{}", chain, 1, numUnits);
+            Map<Long, WriteResult> results = CFUtils.getUninterruptibly(runtimeLayout
+                    .getLogUnitClient(address, 0)
+                    .fillHoles(chain)).getResults();
+
+            List<Long> filled = new ArrayList<>();
+            for (Long hole : chain) {
+                WriteResult result = results.get(hole);
+                if (result != null && result.isOk()) {
+                    filled.add(hole);
+                } else {
+                    // The hole-fill failed. We must ensure the other writer's
+                    // value is adopted before returning.
+                    recover(runtimeLayout, hole);
+                }
+            }
+
+            if (filled.isEmpty()) {
+                continue;
+            }
+            propagateHoles(runtimeLayout, address, filled);
+        }
+    }
+
+    /**
+     * Propagate hole fills down the chain. Holes already written by
+     * another writer are ignored. It is expected that the holes have
+     * already been filled at the head of the chain.
+     *
+     * @param runtimeLayout The RuntimeLayout to use for propagation.
+     * @param address       An address of the chain the holes belong to.
+     * @param holes         The addresses of the holes to propagate.
+     */
+    protected void propagateHoles(RuntimeLayout runtimeLayout, long address, List<Long> holes) {
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(address);
+        for (int i = 1; i < numUnits; i++) {
+            log.trace("Propogate[{}]: chain {}/{}", holes, i + 1, numUnits);
+            CFUtils.getUninterruptibly(runtimeLayout
+                    .getLogUnitClient(address, i)
+                    .fillHoles(holes));
+        }
+    }
+
     /**
      * Propagate a write down the chain, ignoring
      * any overwrite errors. It is expected that the
@@ -168,6 +417,55 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
         }
     }
 
+    /**
+     * Propagate a write down the chain without blocking, ignoring any
+     * overwrite errors. It is expected that the write has already
+     * successfully completed at the head of the chain.
+     *
+     * @param runtimeLayout The RuntimeLayout to use for propagation.
+     * @param globalAddress The global address of the write.
+     * @param data          The data to propagate.
+     * @param executor      The executor to send requests from.
+     * @return A future completed once every unit of the chain has the data.
+     */
+    protected CompletableFuture<Void> propagateAsync(RuntimeLayout runtimeLayout,
+                                                     long globalAddress,
+                                                     @Nonnull ILogData data,
+                                                     Executor executor) {
+        CompletableFuture<Void> propagation = CompletableFuture.completedFuture(null);
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        for (int i = 1; i < numUnits; i++) {
+            final int unit = i;
+            propagation = propagation.thenComposeAsync(x -> {
+                log.trace("PropagateAsync[{}]: chain {}/{}", globalAddress, unit + 1, numUnits);
+                return writeUnit(runtimeLayout, globalAddress, unit, data);
+            }, executor);
+        }
+        return propagation;
+    }
+
+    /**
+     * Write to a unit of the chain, ignoring any overwrite error.
+     *
+     * @param runtimeLayout The RuntimeLayout to use for the write.
+     * @param globalAddress The global address of the write.
+     * @param unit          The index of the unit in the chain.
+     * @param data          The data to write, or NULL, if it is to be a hole.
+     * @return A future completed once the unit has the data, or another value.
+     */
+    protected CompletableFuture<Void> writeUnit(RuntimeLayout runtimeLayout,
+                                                long globalAddress, int unit,
+                                                @Nullable ILogData data) {
+        LogUnitClient client = runtimeLayout.getLogUnitClient(globalAddress, unit);
+        return (data != null ? client.write(data) : client.fillHole(globalAddress))
+                .handle((r, ex) -> {
+                    if (ex != null && !(CFUtils.unwrap(ex) instanceof OverwriteException)) {
+                        throw new CompletionException(CFUtils.unwrap(ex));
+                    }
+                    return null;
+                });
+    }
+
     /** Recover a failed write at the given global address,
      * driving it to completion by invoking the recovery
      * protocol.
@@ -0,0 +1,117 @@
+package org.corfudb.runtime.view.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.runtime.view.RuntimeLayout;
+import org.corfudb.util.CFUtils;
+
+/**
+ * A chain replication protocol which, once the head of the chain has accepted
+ * a write, writes to all the units in the middle of the chain in parallel, rather
+ * than one after another, and then to the tail. Write latency is then three round
+ * trips, whatever the length of the chain.
+ *
+ * <p>As in chain replication, the head decides the value of an address, and
+ * reads are served by the tail. The tail is only written once every other unit
+ * has the value, so a value read from the tail is on every unit of the chain. A
+ * write which fails part way may leave any subset of the units in the middle of
+ * the chain without the value, but then the tail doesn't have it either: a reader
+ * finds the address empty, and its hole fill, which loses to the value at the
+ * head, recovers the write down the whole chain.
+ */
+@Slf4j
+public class FanOutChainReplicationProtocol extends ChainReplicationProtocol {
+
+    public FanOutChainReplicationProtocol(IHoleFillPolicy holeFillPolicy) {
+        super(holeFillPolicy);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The units in the middle of the chain are written at once, and the tail
+     * once they all have the value.
+     */
+    @Override
+    protected void propagate(RuntimeLayout runtimeLayout,
+                             long globalAddress,
+                             @Nullable ILogData data) {
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        if (numUnits < 2) {
+            return;
+        }
+        log.trace("Propagate[{}]: fan out to chain 2-{}/{}", globalAddress, numUnits - 1,
+                numUnits);
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 1; i < numUnits - 1; i++) {
+            writes.add(writeUnit(runtimeLayout, globalAddress, i, data));
+        }
+        writes.forEach(CFUtils::getUninterruptibly);
+
+        log.trace("Propagate[{}]: chain {}/{}", globalAddress, numUnits, numUnits);
+        CFUtils.getUninterruptibly(writeUnit(runtimeLayout, globalAddress, numUnits - 1, data));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The units in the middle of the chain are written at once, and the tail
+     * once they all have the value.
+     */
+    @Override
+    protected CompletableFuture<Void> propagateAsync(RuntimeLayout runtimeLayout,
+                                                     long globalAddress,
+                                                     @Nonnull ILogData data,
+                                                     Executor executor) {
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        if (numUnits < 2) {
+            return CompletableFuture.completedFuture(null);
+        }
+        log.trace("PropagateAsync[{}]: fan out to chain 2-{}/{}",
+                globalAddress, numUnits - 1, numUnits);
+
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[numUnits - 2];
+        for (int i = 1; i < numUnits - 1; i++) {
+            writes[i - 1] = writeUnit(runtimeLayout, globalAddress, i, data);
+        }
+        // As down the chain, the tail is written from the executor rather than
+        // from the thread completing the last write to the middle of the chain.
+        return CompletableFuture.allOf(writes).thenComposeAsync(x -> {
+            log.trace("PropagateAsync[{}]: chain {}/{}", globalAddress, numUnits, numUnits);
+            return writeUnit(runtimeLayout, globalAddress, numUnits - 1, data);
+        }, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The units in the middle of the chain are filled at once, and the tail
+     * once they all have the holes.
+     */
+    @Override
+    protected void propagateHoles(RuntimeLayout runtimeLayout, long address, List<Long> holes) {
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(address);
+        if (numUnits < 2) {
+            return;
+        }
+        log.trace("Propagate[{}]: fan out to chain 2-{}/{}", holes, numUnits - 1, numUnits);
+
+        List<CompletableFuture<?>> fills = new ArrayList<>();
+        for (int i = 1; i < numUnits - 1; i++) {
+            fills.add(runtimeLayout.getLogUnitClient(address, i).fillHoles(holes));
+        }
+        fills.forEach(CFUtils::getUninterruptibly);
+
+        log.trace("Propagate[{}]: chain {}/{}", holes, numUnits, numUnits);
+        CFUtils.getUninterruptibly(runtimeLayout
+                .getLogUnitClient(address, numUnits - 1)
+                .fillHoles(holes));
+    }
+}
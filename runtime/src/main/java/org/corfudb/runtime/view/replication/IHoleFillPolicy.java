@@ -1,5 +1,9 @@
 package org.corfudb.runtime.view.replication;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
 
@@ -27,4 +31,34 @@ public interface IHoleFillPolicy {
     ILogData peekUntilHoleFillRequired(long address,
                                        Function<Long, ILogData> peekFunction)
             throws HoleFillRequiredException;
+
+    /** Apply the given batched peek function to several addresses until every address
+     * has committed data or hole filling is required for the addresses that don't.
+     *
+     * <p>The default implementation applies the policy to each address in turn, policies
+     * that wait between peeks should override it to wait once for all the addresses.
+     *
+     * @param addresses                 The addresses to apply the function.
+     *
+     * @param peekFunction              The function to use to peek data from the log,
+     *                                  which returns only the addresses that have
+     *                                  committed data.
+     *
+     * @return                          The committed data of every address that
+     *                                  doesn't require a hole fill.
+     */
+    @Nonnull
+    default Map<Long, ILogData> peekAllUntilHoleFillRequired(List<Long> addresses,
+            Function<List<Long>, Map<Long, ILogData>> peekFunction) {
+        Map<Long, ILogData> result = new HashMap<>();
+        for (Long address : addresses) {
+            try {
+                result.put(address, peekUntilHoleFillRequired(address, a ->
+                        peekFunction.apply(Collections.singletonList(a)).get(a)));
+            } catch (HoleFillRequiredException e) {
+                // The caller fills every address missing from the result
+            }
+        }
+        return result;
+    }
 }
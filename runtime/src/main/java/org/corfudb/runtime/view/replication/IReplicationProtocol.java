@@ -4,6 +4,8 @@ import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
@@ -39,6 +41,26 @@ public interface IReplicationProtocol {
      */
     void write(RuntimeLayout runtimeLayout, ILogData data) throws OverwriteException;
 
+    /** Write data to the log at the given address, without blocking the caller.
+     *
+     * <p>This method functions exactly like a write, except that it returns a
+     * future which completes once the write is committed, or completes
+     * exceptionally with the exception the write would have thrown.
+     *
+     * <p>An implementation may issue its requests asynchronously, but the default
+     * implementation just performs the blocking write on the given executor, holding
+     * one of its threads for the whole write.
+     *
+     * @param runtimeLayout The RuntimeLayout stamped with layout to use for the write.
+     * @param data          The ILogData to write to the log.
+     * @param executor      The executor to run any blocking part of the write on.
+     * @return              A future completed once the write is committed.
+     */
+    default @Nonnull CompletableFuture<Void> writeAsync(RuntimeLayout runtimeLayout,
+                                                        ILogData data, Executor executor) {
+        return CompletableFuture.runAsync(() -> write(runtimeLayout, data), executor);
+    }
+
     /** Read data from a given address.
      *
      * <p>This function only returns committed data. If the
@@ -54,6 +76,28 @@ public interface IReplicationProtocol {
      */
     @Nonnull ILogData read(RuntimeLayout runtimeLayout, long globalAddress);
 
+    /** Read data from a given address, without blocking the caller.
+     *
+     * <p>This method functions exactly like a read, except that it returns a
+     * future of the committed data.
+     *
+     * <p>An implementation may issue its requests asynchronously, but the default
+     * implementation just performs the blocking read on the given executor, holding
+     * one of its threads for the whole read.
+     *
+     * @param runtimeLayout The RuntimeLayout stamped with layout to use for the read.
+     * @param globalAddress The global address to read the data from.
+     * @param executor      The executor to run any blocking part of the read on, such
+     *                      as waiting for the address to be written or hole filling it.
+     * @return              A future of the data committed at the given address.
+     */
+    default @Nonnull CompletableFuture<ILogData> readAsync(RuntimeLayout runtimeLayout,
+                                                           long globalAddress,
+                                                           Executor executor) {
+        return CompletableFuture.supplyAsync(() -> read(runtimeLayout, globalAddress),
+                executor);
+    }
+
     /** Read data from all the given addresses.
      *
      * <p>This method functions exactly like a read, except
@@ -75,6 +119,26 @@ public interface IReplicationProtocol {
                 .collect(Collectors.toMap(r -> r.getKey(), r -> r.getValue()));
     }
 
+    /** Read data from all the given addresses, without blocking the caller.
+     *
+     * <p>This method functions exactly like a readAll, except that it returns
+     * a future of the committed data.
+     *
+     * <p>An implementation may issue its requests asynchronously, but the default
+     * implementation just performs the blocking readAll on the given executor, holding
+     * one of its threads for the whole readAll.
+     *
+     * @param runtimeLayout     The RuntimeLayout stamped with layout to use for the readAll.
+     * @param globalAddresses   A list of addresses to read from.
+     * @param executor          The executor to run any blocking part of the read on.
+     * @return                  A future of the map of addresses to committed data.
+     */
+    default @Nonnull CompletableFuture<Map<Long, ILogData>> readAllAsync(
+            RuntimeLayout runtimeLayout, List<Long> globalAddresses, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> readAll(runtimeLayout, globalAddresses),
+                executor);
+    }
+
     /** Read data from a range.
      *
      * <p>This method functions exactly like a readAll, except
@@ -132,4 +196,25 @@ public interface IReplicationProtocol {
                 .collect(Collectors.toMap(r -> r.getKey(), r -> r.getValue()));
     }
 
+    /** Peek data from all the given addresses, without blocking the caller.
+     *
+     * <p>This method functions exactly like a peekAll, except that it returns
+     * a future of the committed data.
+     *
+     * <p>An implementation may issue its requests asynchronously, but the default
+     * implementation just performs the blocking peekAll on the given executor, holding
+     * one of its threads for the whole peekAll.
+     *
+     * @param runtimeLayout     The RuntimeLayout stamped with layout to use for the peekAll.
+     * @param globalAddresses   A set of addresses to read from.
+     * @param executor          The executor to run any blocking part of the peek on.
+     * @return                  A future of the map of addresses to committed data,
+     *                          without hole filling.
+     */
+    default @Nonnull CompletableFuture<Map<Long, ILogData>> peekAllAsync(
+            RuntimeLayout runtimeLayout, Set<Long> globalAddresses, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> peekAll(runtimeLayout, globalAddresses),
+                executor);
+    }
+
 }
@@ -41,7 +41,14 @@ import org.corfudb.util.retry.IRetry;
 import org.corfudb.util.retry.RetryNeededException;
 
 /**
- * Created by kspirov on 4/23/17.
+ * A replication protocol which writes every address to a quorum of the log units of
+ * the segment, recovering and adopting values with ranked writes.
+ *
+ * <p>The asynchronous reads and writes are the default ones: the blocking operation is
+ * run on the given executor, and holds one of its threads until it completes, retries
+ * and recoveries included.
+ *
+ * <p>Created by kspirov on 4/23/17.
  */
 @Slf4j
 public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
@@ -1,5 +1,9 @@
 package org.corfudb.runtime.view.replication;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
 
@@ -58,4 +62,32 @@ public class ReadWaitHoleFillPolicy implements IHoleFillPolicy {
 
         throw new HoleFillRequiredException("No data after " + tryNum + " retries");
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>All the addresses are retried together, so the total time waited doesn't grow
+     * with the number of addresses.
+     */
+    @Nonnull
+    @Override
+    public Map<Long, ILogData> peekAllUntilHoleFillRequired(List<Long> addresses,
+            Function<List<Long>, Map<Long, ILogData>> peekFunction) {
+        Map<Long, ILogData> result = new HashMap<>();
+        List<Long> remaining = new ArrayList<>(addresses);
+        int tryNum = 0;
+        do {
+            // If this is not the first try, sleep before trying again
+            if (tryNum != 0) {
+                Sleep.MILLISECONDS.sleepUninterruptibly(waitMs);
+            }
+            // Try the read, and only retry the addresses that had no data
+            Map<Long, ILogData> data = peekFunction.apply(remaining);
+            result.putAll(data);
+            remaining.removeIf(data::containsKey);
+            tryNum++;
+        } while (!remaining.isEmpty() && numRetries > tryNum);
+
+        return result;
+    }
 }
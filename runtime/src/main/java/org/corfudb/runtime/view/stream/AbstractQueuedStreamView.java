@@ -6,6 +6,7 @@ import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -105,17 +106,25 @@ public abstract class AbstractQueuedStreamView extends
             getFrom = context.readQueue;
         }
 
-        // If the lowest DATA element is greater than maxGlobal, there's nothing
-        // to return.
-        if (context.readCpQueue.isEmpty() && context.readQueue.first() > maxGlobal) {
-            return null;
-        }
-
         // Otherwise we remove entries one at a time from the read queue.
-        if (getFrom.size() > 0) {
+        while (getFrom.size() > 0) {
+            // If the lowest DATA element is greater than maxGlobal, there's nothing
+            // to return.
+            if (getFrom == context.readQueue && context.readQueue.first() > maxGlobal) {
+                return null;
+            }
+
             final long thisRead = getFrom.pollFirst();
+            if (getFrom == context.readQueue) {
+                readAhead(context, thisRead, maxGlobal);
+            }
             ILogData ld = read(thisRead);
             if (getFrom == context.readQueue) {
+                // Skip the addresses which didn't end up holding an entry of the
+                // stream, e.g. a token whose write was hole filled.
+                if (!ld.containsStream(context.id)) {
+                    continue;
+                }
                 addToResolvedQueue(context, thisRead, ld);
             }
             return ld;
@@ -126,6 +135,66 @@ public abstract class AbstractQueuedStreamView extends
         return null;
     }
 
+    /** Read ahead the addresses following an address of the read queue, so that a consumer
+     * reading the stream an entry at a time doesn't wait on a read for every entry.
+     *
+     * <p>The next batch of addresses is read ahead once the consumer gets to the previous
+     * one, if the read queue still holds enough addresses. A batch is bounded by the
+     * read ahead budget, estimated from the size of the entries of the stream resolved so
+     * far, so nothing is read ahead until the first entry is. The budget is shared by all
+     * the streams of the runtime, so a batch which doesn't fit it is not read ahead.
+     *
+     * <p>The consumer never waits for a batch: while the batch holding the address is
+     * still being read, it reads the address itself.
+     *
+     * @param context   The current stream context.
+     * @param address   The address about to be read.
+     * @param maxGlobal The maximum global address to read ahead to.
+     */
+    private void readAhead(final QueuedStreamContext context, final long address,
+                           final long maxGlobal) {
+        final CorfuRuntime.CorfuRuntimeParameters parameters = runtime.getParameters();
+        if (parameters.getStreamReadAheadSize() <= 0 || parameters.isCacheDisabled()) {
+            return;
+        }
+
+        // Only read the next batch ahead once the consumer got to the previous
+        // one, and the previous one was read.
+        if (address < context.readAheadFrom
+                || (address <= context.readAheadUpTo && !context.readAhead.isDone())) {
+            return;
+        }
+
+        final long readAheadFrom = Long.max(address, context.readAheadUpTo);
+        if (context.readQueue.size() < parameters.getStreamReadAheadThreshold()
+                || context.resolvedQueue.isEmpty() || readAheadFrom >= maxGlobal) {
+            return;
+        }
+        final long entrySize = Long.max(1L,
+                context.resolvedEstBytes / context.resolvedQueue.size());
+        final long batchSize = Long.min(parameters.getStreamReadAheadSize(),
+                Long.max(1L, parameters.getStreamReadAheadBytes() / entrySize));
+        final List<Long> batch = context.readQueue
+                .subSet(readAheadFrom, false, maxGlobal, true)
+                .stream()
+                .limit(batchSize)
+                .collect(Collectors.toList());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        final CompletableFuture<Void> readAhead = runtime.getAddressSpaceView()
+                .readAhead(batch, entrySize * batch.size());
+        if (readAhead == null) {
+            log.trace("readAhead[{}]: budget exhausted, not reading {}", this, batch);
+            return;
+        }
+        log.trace("readAhead[{}]: {}", this, batch);
+        context.readAheadFrom = batch.get(0);
+        context.readAheadUpTo = batch.get(batch.size() - 1);
+        context.readAhead = readAhead;
+    }
+
     /** {@inheritDoc}
      *
      * <p>In the queued implementation, we just read all entries in the read queue
@@ -402,6 +471,13 @@ public abstract class AbstractQueuedStreamView extends
          */
         long checkpointSnapshotAddress = Address.NEVER_READ;
 
+        /** The range of addresses of the last batch read ahead of the consumer,
+         * and the read of the batch.
+         */
+        long readAheadFrom = Address.NEVER_READ;
+        long readAheadUpTo = Address.NEVER_READ;
+        CompletableFuture<Void> readAhead = CompletableFuture.completedFuture(null);
+
         /** Create a new stream context with the given ID and maximum address
          * to read to.
          * @param id                  The ID of the stream to read from
@@ -431,6 +507,9 @@ public abstract class AbstractQueuedStreamView extends
             checkpointSuccessNumEntries = 0;
             checkpointSuccessBytes = 0;
             resolvedEstBytes = 0;
+            readAheadFrom = Address.NEVER_READ;
+            readAheadUpTo = Address.NEVER_READ;
+            readAhead = CompletableFuture.completedFuture(null);
         }
 
         /**
@@ -456,6 +535,9 @@ public abstract class AbstractQueuedStreamView extends
             // the read queue anything equal to or
             // greater than the global address
             readQueue.addAll(resolvedQueue.tailSet(globalAddress, true));
+            // read ahead again from the new position
+            readAheadFrom = Address.NEVER_READ;
+            readAheadUpTo = Address.NEVER_READ;
             super.seek(globalAddress);
         }
     }
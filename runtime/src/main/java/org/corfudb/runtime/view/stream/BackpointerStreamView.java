@@ -3,15 +3,18 @@ package org.corfudb.runtime.view.stream;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import javax.annotation.Nonnull;
 
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.protocols.wireprotocol.StreamAddressResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.AppendException;
@@ -216,6 +219,55 @@ public class BackpointerStreamView extends AbstractQueuedStreamView {
         return backpointerCount;
     }
 
+    private long prefetchHitCount = 0L;
+
+    private long prefetchWasteCount = 0L;
+
+    /** The number of entries read ahead while following backpointers which were then
+     * visited. */
+    public long getPrefetchHitCount() {
+        return prefetchHitCount;
+    }
+
+    /** The number of entries read ahead while following backpointers which were never
+     * visited, because a backpointer skipped them or the traversal stopped first. */
+    public long getPrefetchWasteCount() {
+        return prefetchWasteCount;
+    }
+
+    /** The number of addresses to read ahead while following backpointers, 0 if entries
+     * are read one at a time. Read ahead entries are kept in the cache, so it is only
+     * enabled with the cache. */
+    private int prefetchWindow() {
+        return runtime.getParameters().isCacheDisabled()
+                ? 0 : runtime.getParameters().getBackpointerPrefetchWindow();
+    }
+
+    /** Read ahead the addresses of the window ending at an address, no lower than a stop
+     * address.
+     *
+     * @param prefetched    The set to add the addresses read ahead to.
+     * @param address       The highest address to read ahead.
+     * @param stopAddress   The address to stop at, exclusive.
+     * @return The lowest address read ahead.
+     */
+    private long prefetch(final NavigableSet<Long> prefetched, final long address,
+                          final long stopAddress) {
+        final long windowStart = Long.max(stopAddress + 1,
+                Long.max(0L, address - prefetchWindow() + 1));
+        prefetched.addAll(runtime.getAddressSpaceView().prefetch(
+                () -> LongStream.rangeClosed(windowStart, address).boxed().iterator()));
+        return windowStart;
+    }
+
+    /** Account for the entries read ahead by a traversal, once it moves past them. */
+    private void recordPrefetch(final long hits, final NavigableSet<Long> wasted) {
+        prefetchHitCount += hits;
+        prefetchWasteCount += wasted.size();
+        runtime.getAddressSpaceView().recordPrefetch(hits, wasted.size());
+        wasted.clear();
+    }
+
     protected boolean followBackpointers(final UUID streamId,
                                       final NavigableSet<Long> queue,
                                       final long startAddress,
@@ -227,11 +279,28 @@ public class BackpointerStreamView extends AbstractQueuedStreamView {
         boolean entryAdded = false;
         // The current address which we are reading from.
         long currentAddress = startAddress;
+        // The addresses read ahead which weren't visited yet, the lowest address read
+        // ahead so far, and the number of addresses read ahead which were visited.
+        final NavigableSet<Long> prefetched = new TreeSet<>();
+        long prefetchedDownTo = Address.MAX;
+        long prefetchHits = 0L;
 
         // Loop until we have reached the stop address.
         while (currentAddress > stopAddress  && Address.isAddress(currentAddress)) {
             backpointerCount++;
 
+            // Rather than waiting on a read for every step, read the window of
+            // addresses preceding the current one ahead of the traversal once
+            // it gets past the previous window.
+            if (currentAddress < prefetchedDownTo && prefetchWindow() > 0) {
+                recordPrefetch(prefetchHits, prefetched);
+                prefetchHits = 0L;
+                prefetchedDownTo = prefetch(prefetched, currentAddress, stopAddress);
+            }
+            if (prefetched.remove(currentAddress)) {
+                prefetchHits++;
+            }
+
             // Read the current address
             ILogData d;
             try {
@@ -241,6 +310,7 @@ public class BackpointerStreamView extends AbstractQueuedStreamView {
                 if (options.ignoreTrimmed) {
                     log.warn("followBackpointers: Ignoring trimmed exception for address[{}]," +
                             " stream[{}]", currentAddress, id);
+                    recordPrefetch(prefetchHits, prefetched);
                     return entryAdded;
                 } else {
                     throw e;
@@ -260,6 +330,7 @@ public class BackpointerStreamView extends AbstractQueuedStreamView {
                     entryAdded = true;
                     // Check if we need to stop
                     if (op == BackpointerOp.INCLUDE_STOP) {
+                        recordPrefetch(prefetchHits, prefetched);
                         return entryAdded;
                     }
                 }
@@ -289,11 +360,48 @@ public class BackpointerStreamView extends AbstractQueuedStreamView {
                 currentAddress = currentAddress - 1;
             }
         }
+        recordPrefetch(prefetchHits, prefetched);
 
         return entryAdded;
 
     }
 
+    /**
+     * Fill a queue with the addresses the sequencer issued to a stream, instead of following
+     * backpointers. Some of the addresses may turn out to be holes, so the entries read from
+     * the queue still have to be checked for the stream.
+     *
+     * @param streamId      The stream to resolve.
+     * @param queue         The queue to fill.
+     * @param startAddress  The address to resolve down from, inclusive.
+     * @param stopAddress   The address to resolve down to, exclusive.
+     * @return True, if the sequencer knew all the addresses of the stream in the range,
+     *         False, if they have to be resolved by following backpointers.
+     */
+    protected boolean fillFromAddressMap(final UUID streamId,
+                                         final NavigableSet<Long> queue,
+                                         final long startAddress,
+                                         final long stopAddress) {
+        StreamAddressResponse response = runtime.getSequencerView()
+                .getStreamAddresses(streamId, stopAddress, startAddress);
+        if (!response.isCompleteFrom(stopAddress)) {
+            log.trace("fillFromAddressMap[{}]: addresses only known from {}, need {}", this,
+                    response.getTrackedFrom(), stopAddress);
+            return false;
+        }
+        response.getAddresses().forEach(queue::add);
+        return true;
+    }
+
+    /** Whether streams may be resolved from the sequencer's address maps. Backpointers are
+     * used instead when they are disabled, so that streams are resolved by scanning the log,
+     * and when trimmed entries are ignored, which only following them can tell. */
+    private boolean addressMapsEnabled() {
+        return !runtime.getParameters().isStreamAddressMapsDisabled()
+                && !runtime.getParameters().isBackpointersDisabled()
+                && !options.ignoreTrimmed;
+    }
+
     protected BackpointerOp resolveCheckpoint(final QueuedStreamContext context, ILogData data,
                                               long maxGlobal) {
         if (data.hasCheckpointMetadata()) {
@@ -427,17 +535,23 @@ public class BackpointerStreamView extends AbstractQueuedStreamView {
             return fillFromResolved(latestTokenValue, context);
         }
 
-        // Now we start traversing backpointers, if they are available. We
+        // Now we get the addresses of the stream from the sequencer, or
+        // start traversing backpointers, if they are available. We
         // start at the latest token and go backward, until we reach the
         // log pointer -or- the checkpoint snapshot address, because all
         // values from the beginning of the stream up to the snapshot address
         // should be reflected. For each address which is less than
         // maxGlobalAddress, we insert it into the read queue.
-
-        followBackpointers(context.id, context.readQueue,
-                latestTokenValue,
-                Long.max(context.globalPointer, context.checkpointSnapshotAddress),
-                d -> BackpointerOp.INCLUDE);
+        final long stopAddress =
+                Long.max(context.globalPointer, context.checkpointSnapshotAddress);
+
+        if (!addressMapsEnabled()
+                || !fillFromAddressMap(context.id, context.readQueue,
+                        latestTokenValue, stopAddress)) {
+            followBackpointers(context.id, context.readQueue,
+                    latestTokenValue, stopAddress,
+                    d -> BackpointerOp.INCLUDE);
+        }
 
         return ! context.readCpQueue.isEmpty() || !context.readQueue.isEmpty();
     }
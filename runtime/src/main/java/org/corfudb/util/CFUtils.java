@@ -4,6 +4,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -92,6 +93,22 @@ public class CFUtils {
                 RuntimeException.class, RuntimeException.class);
     }
 
+    /**
+     * Get the cause of the failure of a future, which may be wrapped in a
+     * CompletionException or an ExecutionException depending on how it was observed.
+     *
+     * @param throwable The failure of the future.
+     * @return          The cause of the failure.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
     /** A static timeout exception that we complete futures exceptionally with. */
     static final TimeoutException TIMEOUT_EXCEPTION = new TimeoutException();
 
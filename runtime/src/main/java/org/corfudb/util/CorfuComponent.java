@@ -12,9 +12,12 @@ public enum CorfuComponent {
     CLIENT_ROUTER("corfu.runtime.client-router."),
     LOG_UNIT_CLIENT("corfu.runtime.log-unit-client."),
     OBJECT("corfu.runtime.object."),
+    FAST_OBJECT_LOADER("corfu.runtime.fast-loader."),
+    CHECKPOINT_WRITER("corfu.runtime.checkpoint-writer."),
 
     // Infrastructure components
-    INFRA_MSG_HANDLER("corfu.infrastructure.message-handler.");
+    INFRA_MSG_HANDLER("corfu.infrastructure.message-handler."),
+    INFRA_BATCH_WRITER("corfu.infrastructure.batch-writer.");
 
     CorfuComponent(String value) {
         this.value = value;
@@ -468,7 +468,8 @@ public class Utils {
     /**
      * Fetches the max global log tail from the log unit cluster. This depends on the mode of
      * replication being used.
-     * CHAIN: Block on fetch of global log tail from the head log unit in every stripe.
+     * CHAIN, FANOUT_CHAIN: Block on fetch of global log tail from the head log unit in every
+     * stripe.
      * QUORUM: Block on fetch of global log tail from a majority in every stripe.
      *
      * @param layout  Latest layout to get clients to fetch tails.
@@ -479,7 +480,9 @@ public class Utils {
         Layout.LayoutSegment segment = layout.getLatestSegment();
 
         // Query the tail of the head log unit in every stripe.
-        if (segment.getReplicationMode().equals(Layout.ReplicationMode.CHAIN_REPLICATION)) {
+        if (segment.getReplicationMode().equals(Layout.ReplicationMode.CHAIN_REPLICATION)
+                || segment.getReplicationMode()
+                .equals(Layout.ReplicationMode.FANOUT_CHAIN_REPLICATION)) {
             for (Layout.LayoutStripe stripe : segment.getStripes()) {
                 maxTokenRequested = Math.max(maxTokenRequested,
                         CFUtils.getUninterruptibly(
@@ -0,0 +1,422 @@
+package org.corfudb.util.serializer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import net.openhft.hashing.LongHashFunction;
+
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.object.ICorfuSMR;
+import org.corfudb.util.Utils;
+
+/**
+ * A compact binary serializer for the keys and values of Corfu objects.
+ *
+ * <p>Rather than its name, the class of a value is written as an id, followed by the
+ * value as the codec of the class writes it. Integers, lengths and ids are written as
+ * variable length integers, so that small values take a single byte.
+ *
+ * <p>Common JDK types and Corfu objects have built-in ids. Any other class must be
+ * registered with an id and a codec before it is serialized or deserialized, with the
+ * same id by every client, for example:
+ * <pre>
+ *     BinarySerializer serializer = new BinarySerializer((byte) 42)
+ *             .register(100, Point.class,
+ *                 (p, b) -&gt; {
+ *                     BinarySerializer.writeVarInt(p.x, b);
+ *                     BinarySerializer.writeVarInt(p.y, b);
+ *                 },
+ *                 (b, rt) -&gt; new Point(BinarySerializer.readVarInt(b),
+ *                     BinarySerializer.readVarInt(b)));
+ *     Serializers.registerSerializer(serializer);
+ * </pre>
+ */
+@Slf4j
+public class BinarySerializer implements ISerializer {
+
+    /** The lowest id a registered class may have, lower ids are built-in. */
+    public static final int FIRST_CLASS_ID = 32;
+
+    private static final int NULL_ID = 0;
+    private static final int BOOLEAN_ID = 1;
+    private static final int BYTE_ID = 2;
+    private static final int SHORT_ID = 3;
+    private static final int INTEGER_ID = 4;
+    private static final int LONG_ID = 5;
+    private static final int FLOAT_ID = 6;
+    private static final int DOUBLE_ID = 7;
+    private static final int CHARACTER_ID = 8;
+    private static final int STRING_ID = 9;
+    private static final int BYTE_ARRAY_ID = 10;
+    private static final int UUID_ID = 11;
+    private static final int LIST_ID = 12;
+    private static final int SET_ID = 13;
+    private static final int MAP_ID = 14;
+    private static final int CORFU_OBJECT_ID = 15;
+
+    /** The bits of a varint byte which hold the value. */
+    private static final int VARINT_BITS = 7;
+
+    /** The bit of a varint byte which is set if more bytes follow. */
+    private static final int VARINT_MORE = 0x80;
+
+    /** Writes a value of a class.
+     * @param <T> The class of the value.
+     */
+    @FunctionalInterface
+    public interface Writer<T> {
+        void write(T value, ByteBuf b);
+    }
+
+    /** Reads a value of a class.
+     * @param <T> The class of the value.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(ByteBuf b, CorfuRuntime rt);
+    }
+
+    /** The id and codec of a class. */
+    @AllArgsConstructor
+    private static class Codec {
+        final int id;
+        final Writer<Object> writer;
+        final Reader<?> reader;
+    }
+
+    private final byte type;
+
+    /** The codec of each class, by class. */
+    private final Map<Class<?>, Codec> codecsByClass = new ConcurrentHashMap<>();
+
+    /** The codec of each class, by id. */
+    private final Map<Integer, Codec> codecsById = new ConcurrentHashMap<>();
+
+    /**
+     * Create a serializer, which knows the built-in classes only.
+     *
+     * @param type The type of the serializer, which must be registered with
+     *             {@link Serializers#registerSerializer(ISerializer)}.
+     */
+    public BinarySerializer(byte type) {
+        this.type = type;
+
+        putCodec(BOOLEAN_ID, Boolean.class, (o, b) -> b.writeBoolean(o),
+                (b, rt) -> b.readBoolean());
+        putCodec(BYTE_ID, Byte.class, (o, b) -> b.writeByte(o), (b, rt) -> b.readByte());
+        putCodec(SHORT_ID, Short.class, (o, b) -> writeVarInt(o, b),
+                (b, rt) -> (short) readVarInt(b));
+        putCodec(INTEGER_ID, Integer.class, BinarySerializer::writeVarInt,
+                (b, rt) -> readVarInt(b));
+        putCodec(LONG_ID, Long.class, BinarySerializer::writeVarLong,
+                (b, rt) -> readVarLong(b));
+        putCodec(FLOAT_ID, Float.class, (o, b) -> b.writeFloat(o), (b, rt) -> b.readFloat());
+        putCodec(DOUBLE_ID, Double.class, (o, b) -> b.writeDouble(o),
+                (b, rt) -> b.readDouble());
+        putCodec(CHARACTER_ID, Character.class, (o, b) -> b.writeChar(o),
+                (b, rt) -> b.readChar());
+        putCodec(STRING_ID, String.class, BinarySerializer::writeString,
+                (b, rt) -> readString(b));
+        putCodec(BYTE_ARRAY_ID, byte[].class, (o, b) -> {
+            writeVarInt(o.length, b);
+            b.writeBytes(o);
+        }, (b, rt) -> {
+            byte[] bytes = new byte[readVarInt(b)];
+            b.readBytes(bytes);
+            return bytes;
+        });
+        putCodec(UUID_ID, UUID.class, (o, b) -> {
+            b.writeLong(o.getMostSignificantBits());
+            b.writeLong(o.getLeastSignificantBits());
+        }, (b, rt) -> new UUID(b.readLong(), b.readLong()));
+        putCodec(LIST_ID, List.class, this::writeCollection,
+                (b, rt) -> readCollection(b, rt, new ArrayList<>()));
+        putCodec(SET_ID, Set.class, this::writeCollection,
+                (b, rt) -> readCollection(b, rt, new HashSet<>()));
+        putCodec(MAP_ID, Map.class, this::writeMap, this::readMap);
+        putCodec(CORFU_OBJECT_ID, ICorfuSMR.class, BinarySerializer::writeCorfuObject,
+                BinarySerializer::readCorfuObject);
+    }
+
+    @Override
+    public byte getType() {
+        return type;
+    }
+
+    /**
+     * Register a class with an id, and the codec to serialize its values with.
+     *
+     * <p>Subclasses of the class are serialized by the codec too, and are read
+     * back as whatever the codec reads.
+     *
+     * @param id     The id of the class, at least {@link #FIRST_CLASS_ID}.
+     * @param cls    The class to register.
+     * @param writer Writes a value of the class.
+     * @param reader Reads a value of the class.
+     * @param <T>    The class to register.
+     * @return This serializer.
+     */
+    public synchronized <T> BinarySerializer register(int id, Class<T> cls, Writer<T> writer,
+                                                      Reader<T> reader) {
+        if (id < FIRST_CLASS_ID) {
+            throw new IllegalArgumentException("Class id must be at least " + FIRST_CLASS_ID
+                    + ", got " + id + " for " + cls.getName());
+        } else if (codecsById.containsKey(id) || codecsByClass.containsKey(cls)) {
+            throw new IllegalArgumentException("Class " + cls.getName() + " or id " + id
+                    + " is already registered");
+        }
+        putCodec(id, cls, writer, reader);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void putCodec(int id, Class<T> cls, Writer<T> writer, Reader<T> reader) {
+        Codec codec = new Codec(id, (Writer<Object>) writer, reader);
+        codecsByClass.put(cls, codec);
+        codecsById.put(id, codec);
+    }
+
+    /**
+     * Get the codec of a class, or of its closest registered superclass or interface,
+     * which is then cached for the class.
+     */
+    private Codec getCodec(Class<?> cls) {
+        Codec codec = codecsByClass.get(cls);
+        if (codec == null) {
+            for (Class<?> c = cls; c != null && codec == null; c = c.getSuperclass()) {
+                codec = codecsByClass.get(c);
+                for (int i = 0; i < c.getInterfaces().length && codec == null; i++) {
+                    codec = codecsByClass.get(c.getInterfaces()[i]);
+                }
+            }
+            if (codec == null) {
+                throw new RuntimeException("Unsupported class for serialization: "
+                        + cls.getName() + ", register it with an id first");
+            }
+            codecsByClass.putIfAbsent(cls, codec);
+        }
+        return codec;
+    }
+
+    /**
+     * Deserialize an object from a given byte buffer.
+     *
+     * @param b The bytebuf to deserialize.
+     * @return The deserialized object.
+     */
+    @Override
+    public Object deserialize(ByteBuf b, CorfuRuntime rt) {
+        int id = readVarInt(b);
+        if (id == NULL_ID) {
+            return null;
+        }
+        Codec codec = codecsById.get(id);
+        if (codec == null) {
+            throw new RuntimeException("Unknown class id for deserialization: " + id);
+        }
+        return codec.reader.read(b, rt);
+    }
+
+    /**
+     * Serialize an object into a given byte buffer.
+     *
+     * @param o The object to serialize.
+     * @param b The bytebuf to serialize it into.
+     */
+    @Override
+    public void serialize(Object o, ByteBuf b) {
+        if (o == null) {
+            writeVarInt(NULL_ID, b);
+            return;
+        }
+        Codec codec = getCodec(o.getClass());
+        writeVarInt(codec.id, b);
+        codec.writer.write(o, b);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Values without a known hash are serialized to a pooled buffer.
+     */
+    @Override
+    public byte[] hash(Object o) {
+        if (hashConversionMap.containsKey(o.getClass())
+                || getCustomHasher(o.getClass()) != null
+                || o instanceof ICorfuHashable) {
+            return ISerializer.super.hash(o);
+        }
+        ByteBuf b = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            serialize(o, b);
+            return Utils.longToBigEndianByteArray(LongHashFunction.xx().hashBytes(b.nioBuffer()));
+        } finally {
+            b.release();
+        }
+    }
+
+    /**
+     * Write a signed integer as a variable length integer, in one byte if it is
+     * between -64 and 63.
+     *
+     * @param value The integer to write.
+     * @param b     The buffer to write it to.
+     */
+    public static void writeVarInt(int value, ByteBuf b) {
+        int zigZag = (value << 1) ^ (value >> (Integer.SIZE - 1));
+        while ((zigZag & ~(VARINT_MORE - 1)) != 0) {
+            b.writeByte((zigZag & (VARINT_MORE - 1)) | VARINT_MORE);
+            zigZag >>>= VARINT_BITS;
+        }
+        b.writeByte(zigZag);
+    }
+
+    /**
+     * Read a signed integer written by {@link #writeVarInt(int, ByteBuf)}.
+     *
+     * @param b The buffer to read from.
+     * @return The integer read.
+     */
+    public static int readVarInt(ByteBuf b) {
+        int zigZag = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = b.readByte();
+            zigZag |= (next & (VARINT_MORE - 1)) << shift;
+            shift += VARINT_BITS;
+        } while ((next & VARINT_MORE) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    /**
+     * Write a signed long as a variable length integer, in one byte if it is
+     * between -64 and 63.
+     *
+     * @param value The long to write.
+     * @param b     The buffer to write it to.
+     */
+    public static void writeVarLong(long value, ByteBuf b) {
+        long zigZag = (value << 1) ^ (value >> (Long.SIZE - 1));
+        while ((zigZag & ~(long) (VARINT_MORE - 1)) != 0) {
+            b.writeByte((int) (zigZag & (VARINT_MORE - 1)) | VARINT_MORE);
+            zigZag >>>= VARINT_BITS;
+        }
+        b.writeByte((int) zigZag);
+    }
+
+    /**
+     * Read a signed long written by {@link #writeVarLong(long, ByteBuf)}.
+     *
+     * @param b The buffer to read from.
+     * @return The long read.
+     */
+    public static long readVarLong(ByteBuf b) {
+        long zigZag = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = b.readByte();
+            zigZag |= (long) (next & (VARINT_MORE - 1)) << shift;
+            shift += VARINT_BITS;
+        } while ((next & VARINT_MORE) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    /**
+     * Write a string as its length and UTF-8 encoding.
+     *
+     * @param value The string to write.
+     * @param b     The buffer to write it to.
+     */
+    public static void writeString(String value, ByteBuf b) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length, b);
+        b.writeBytes(bytes);
+    }
+
+    /**
+     * Read a string written by {@link #writeString(String, ByteBuf)}.
+     *
+     * @param b The buffer to read from.
+     * @return The string read.
+     */
+    public static String readString(ByteBuf b) {
+        int length = readVarInt(b);
+        String value = b.toString(b.readerIndex(), length, StandardCharsets.UTF_8);
+        b.skipBytes(length);
+        return value;
+    }
+
+    private void writeCollection(Collection<?> collection, ByteBuf b) {
+        writeVarInt(collection.size(), b);
+        collection.forEach(o -> serialize(o, b));
+    }
+
+    private <C extends Collection<Object>> C readCollection(ByteBuf b, CorfuRuntime rt,
+                                                            C collection) {
+        int size = readVarInt(b);
+        for (int i = 0; i < size; i++) {
+            collection.add(deserialize(b, rt));
+        }
+        return collection;
+    }
+
+    private void writeMap(Map<?, ?> map, ByteBuf b) {
+        writeVarInt(map.size(), b);
+        map.forEach((k, v) -> {
+            serialize(k, b);
+            serialize(v, b);
+        });
+    }
+
+    private Map<?, ?> readMap(ByteBuf b, CorfuRuntime rt) {
+        int size = readVarInt(b);
+        Map<Object, Object> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(deserialize(b, rt), deserialize(b, rt));
+        }
+        return map;
+    }
+
+    /** Write a Corfu object as a pointer to its stream, like the other serializers do. */
+    private static void writeCorfuObject(ICorfuSMR<?> o, ByteBuf b) {
+        String className = o.getClass().getName();
+        String smrClass = className.substring(0,
+                className.length() - ICorfuSMR.CORFUSMR_SUFFIX.length());
+        UUID id = o.getCorfuStreamID();
+        log.trace("Serializing a CorfuObject of type {} as a stream pointer to {}",
+                smrClass, id);
+        writeString(smrClass, b);
+        b.writeLong(id.getMostSignificantBits());
+        b.writeLong(id.getLeastSignificantBits());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ICorfuSMR<?> readCorfuObject(ByteBuf b, CorfuRuntime rt) {
+        String smrClass = readString(b);
+        try {
+            return (ICorfuSMR<?>) rt.getObjectsView().build()
+                    .setStreamID(new UUID(b.readLong(), b.readLong()))
+                    .setType(Class.forName(smrClass))
+                    .open();
+        } catch (ClassNotFoundException cnfe) {
+            log.error("Exception during deserialization!", cnfe);
+            throw new RuntimeException(cnfe);
+        }
+    }
+}
@@ -85,6 +85,21 @@ public abstract class AbstractServerTest extends AbstractCorfuTest {
         router.sendServerMessage(message);
     }
 
+    /**
+     * Send a message and wait for the server to respond to it, for handlers
+     * which respond asynchronously (e.g. log unit writes).
+     *
+     * @param message The message to send.
+     * @return The response of the server.
+     */
+    public CorfuMsg sendRequest(CorfuMsg message) throws InterruptedException {
+        sendMessage(message);
+        CorfuMsg response = router.awaitResponse(message.getRequestID(),
+                PARAMETERS.TIMEOUT_NORMAL);
+        Assertions.assertThat(response).isNotNull();
+        return response;
+    }
+
     /**
      * A map of maps to endpoint->routers, mapped for each runtime instance captured
      */
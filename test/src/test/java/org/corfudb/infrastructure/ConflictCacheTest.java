@@ -0,0 +1,97 @@
+package org.corfudb.infrastructure;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.corfudb.AbstractCorfuTest;
+import org.corfudb.runtime.view.Address;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConflictCacheTest extends AbstractCorfuTest {
+
+    private static byte[] param(int i) {
+        return Integer.toString(i).getBytes();
+    }
+
+    @Test
+    public void keysAreDistinguishedByStreamAndParam() {
+        final long addressA0 = 1L;
+        final long addressB0 = 2L;
+        final long addressA1 = 3L;
+        final long updatedA0 = 4L;
+        final int numKeys = 3;
+        ConflictCache cache = new ConflictCache(ConflictCache.BUCKET_SIZE * 2, v -> { });
+        UUID streamA = UUID.randomUUID();
+        UUID streamB = UUID.randomUUID();
+
+        cache.put(streamA, param(0), addressA0);
+        cache.put(streamB, param(0), addressB0);
+        cache.put(streamA, param(1), addressA1);
+
+        assertThat(cache.get(streamA, param(0))).isEqualTo(addressA0);
+        assertThat(cache.get(streamB, param(0))).isEqualTo(addressB0);
+        assertThat(cache.get(streamA, param(1))).isEqualTo(addressA1);
+        assertThat(cache.get(streamB, param(1))).isEqualTo(Address.NOT_FOUND);
+        assertThat(cache.getSize()).isEqualTo(numKeys);
+
+        // Updating a key replaces its address, without evicting it
+        cache.put(streamA, param(0), updatedA0);
+        assertThat(cache.get(streamA, param(0))).isEqualTo(updatedA0);
+        assertThat(cache.getSize()).isEqualTo(numKeys);
+    }
+
+    @Test
+    public void evictionsRaiseTheWildcard() {
+        final int maxSize = ConflictCache.BUCKET_SIZE * 2;
+        final int numKeys = 1000;
+        AtomicLong wildcard = new AtomicLong(Address.NOT_FOUND);
+        ConflictCache cache = new ConflictCache(maxSize,
+                v -> wildcard.accumulateAndGet(v, Math::max));
+        UUID stream = UUID.randomUUID();
+
+        for (int i = 0; i < numKeys; i++) {
+            cache.put(stream, param(i), i);
+        }
+
+        // Every key is either still cached, or was evicted and is covered by the wildcard
+        assertThat(cache.getSize()).isEqualTo(maxSize);
+        int cached = 0;
+        for (int i = 0; i < numKeys; i++) {
+            long address = cache.get(stream, param(i));
+            if (address == Address.NOT_FOUND) {
+                assertThat(wildcard.get()).isGreaterThanOrEqualTo(i);
+            } else {
+                assertThat(address).isEqualTo(i);
+                cached++;
+            }
+        }
+        assertThat(cached).isEqualTo(maxSize);
+        assertThat(cache.get(stream, param(numKeys - 1))).isEqualTo(numKeys - 1);
+    }
+
+    @Test
+    public void invalidationsRaiseTheWildcard() {
+        final int numKeys = 100;
+        final int trimMark = 50;
+        AtomicLong wildcard = new AtomicLong(Address.NOT_FOUND);
+        ConflictCache cache = new ConflictCache(numKeys * ConflictCache.BUCKET_SIZE,
+                v -> wildcard.accumulateAndGet(v, Math::max));
+        UUID stream = UUID.randomUUID();
+
+        for (int i = 0; i < numKeys; i++) {
+            cache.put(stream, param(i), i);
+        }
+
+        assertThat(cache.invalidateUpTo(trimMark)).isEqualTo(trimMark);
+        assertThat(cache.getSize()).isEqualTo(numKeys - trimMark);
+        assertThat(cache.get(stream, param(trimMark - 1))).isEqualTo(Address.NOT_FOUND);
+        assertThat(cache.get(stream, param(trimMark))).isEqualTo(trimMark);
+        assertThat(wildcard.get()).isEqualTo(trimMark - 1);
+
+        cache.invalidateAll();
+        assertThat(cache.getSize()).isZero();
+        assertThat(wildcard.get()).isEqualTo(numKeys - 1);
+    }
+}
@@ -3,6 +3,7 @@ package org.corfudb.infrastructure;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.assertj.core.api.Assertions;
+import org.corfudb.infrastructure.log.StreamLog;
 import org.corfudb.infrastructure.log.StreamLogFiles;
 import org.corfudb.protocols.wireprotocol.*;
 import org.corfudb.runtime.CorfuRuntime;
@@ -20,9 +21,16 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 
 import static org.corfudb.infrastructure.LogUnitServerAssertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 
 /**
  * Created by mwei on 2/4/16.
@@ -60,7 +68,7 @@ public class LogUnitServerTest extends AbstractServerTest {
                 .build();
         m.setGlobalAddress(ADDRESS_0);
         m.setBackpointerMap(Collections.emptyMap());
-        sendMessage(CorfuMsgType.WRITE.payloadMsg(m));
+        sendRequest(CorfuMsgType.WRITE.payloadMsg(m));
 
         assertThat(s1)
                 .containsDataAtAddress(ADDRESS_0);
@@ -76,7 +84,7 @@ public class LogUnitServerTest extends AbstractServerTest {
         m2.setGlobalAddress(ADDRESS_0);
         m2.setBackpointerMap(Collections.emptyMap());
 
-        sendMessage(CorfuMsgType.WRITE.payloadMsg(m2));
+        sendRequest(CorfuMsgType.WRITE.payloadMsg(m2));
         Assertions.assertThat(getLastMessage().getMsgType())
                 .isEqualTo(CorfuMsgType.ERROR_OVERWRITE);
 
@@ -129,7 +137,80 @@ public class LogUnitServerTest extends AbstractServerTest {
                 .matchesDataAtAddress(HIGH_ADDRESS, high_payload.getBytes());
     }
 
-    protected void rawWrite(long addr, String s, String streamName) {
+    @Test
+    public void checkThatBatchesAreRecorded() throws Exception {
+        LogUnitServer s1 = new LogUnitServer(new ServerContextBuilder()
+                .setLogPath(PARAMETERS.TEST_TEMP_DIR)
+                .setMemory(false)
+                .build());
+
+        this.router.reset();
+        this.router.addServer(s1);
+
+        final long batches = ServerContext.metrics
+                .histogram(BatchWriter.BATCH_SIZE_METRIC).getCount();
+        final long syncs = ServerContext.metrics.timer(BatchWriter.FSYNC_METRIC).getCount();
+        final int numWrites = 10;
+
+        for (long address = 0; address < numWrites; address++) {
+            rawWrite(address, "payload", "a");
+        }
+
+        // Every write is acknowledged only after the batch it belongs to was synced
+        assertThat(s1).containsDataAtAddress(numWrites - 1);
+        final long recordedBatches = ServerContext.metrics
+                .histogram(BatchWriter.BATCH_SIZE_METRIC).getCount() - batches;
+        assertThat(recordedBatches).isBetween(1L, (long) numWrites);
+        assertThat(ServerContext.metrics.timer(BatchWriter.FSYNC_METRIC).getCount() - syncs)
+                .isEqualTo(recordedBatches);
+    }
+
+    @Test
+    public void failedSyncsFailOnlyTheirBatch() throws Exception {
+        StreamLog streamLog = mock(StreamLog.class);
+        doThrow(new IOException("sync failed")).doNothing().when(streamLog).sync(anyBoolean());
+
+        try (BatchWriter batchWriter = new BatchWriter(streamLog, 0L, true, 0L)) {
+            LogData failed = new LogData(DataType.DATA, Unpooled.wrappedBuffer("a".getBytes()));
+            failed.setEpoch(0L);
+            assertThatThrownBy(() -> batchWriter.asyncWrite(0L, failed).join())
+                    .hasCauseInstanceOf(IOException.class);
+
+            // The writer keeps processing operations after a failed sync
+            LogData written = new LogData(DataType.DATA, Unpooled.wrappedBuffer("b".getBytes()));
+            written.setEpoch(0L);
+            batchWriter.asyncWrite(1L, written).join();
+        }
+    }
+
+    @Test
+    public void writesArePendingUntilTheirBatchIsSynced() throws Exception {
+        CountDownLatch syncStarted = new CountDownLatch(1);
+        CountDownLatch allowSync = new CountDownLatch(1);
+        StreamLog streamLog = mock(StreamLog.class);
+        doAnswer(invocation -> {
+            syncStarted.countDown();
+            allowSync.await();
+            return null;
+        }).when(streamLog).sync(anyBoolean());
+
+        try (BatchWriter batchWriter = new BatchWriter(streamLog, 0L, true, 0L)) {
+            final long address = 0L;
+            LogData logData = new LogData(DataType.DATA, Unpooled.wrappedBuffer("a".getBytes()));
+            logData.setEpoch(0L);
+            CompletableFuture<Void> write = batchWriter.asyncWrite(address, logData);
+
+            // The entry is in the stream log, but must not be read until it is durable
+            syncStarted.await();
+            assertThat(batchWriter.isPending(address)).isTrue();
+
+            allowSync.countDown();
+            write.join();
+            assertThat(batchWriter.isPending(address)).isFalse();
+        }
+    }
+
+    protected void rawWrite(long addr, String s, String streamName) throws Exception {
         ByteBuf b = Unpooled.buffer();
         Serializers.CORFU.serialize(s.getBytes(), b);
         WriteRequest m = WriteRequest.builder()
@@ -139,7 +220,7 @@ public class LogUnitServerTest extends AbstractServerTest {
         m.setGlobalAddress(addr);
         m.setBackpointerMap(Collections.singletonMap(CorfuRuntime.getStreamID(streamName),
                 Address.NO_BACKPOINTER));
-        sendMessage(CorfuMsgType.WRITE.payloadMsg(m));
+        sendRequest(CorfuMsgType.WRITE.payloadMsg(m));
 
     }
 
@@ -236,7 +317,7 @@ public class LogUnitServerTest extends AbstractServerTest {
     }
 
     @Test
-    public void checkUnCachedWrites() {
+    public void checkUnCachedWrites() throws Exception {
         String serviceDir = PARAMETERS.TEST_TEMP_DIR;
 
         LogUnitServer s1 = new LogUnitServer(new ServerContextBuilder()
@@ -261,7 +342,7 @@ public class LogUnitServerTest extends AbstractServerTest {
         final Long address = 5L;
         uuidLongMap.put(uuid, address);
         m.setBackpointerMap(uuidLongMap);
-        sendMessage(CorfuMsgType.WRITE.payloadMsg(m));
+        sendRequest(CorfuMsgType.WRITE.payloadMsg(m));
 
         s1 = new LogUnitServer(new ServerContextBuilder()
                 .setLogPath(serviceDir)
@@ -350,7 +431,7 @@ public class LogUnitServerTest extends AbstractServerTest {
         m.setGlobalAddress(ADDRESS_0);
         m.setRank(new IMetadata.DataRank(0));
         m.setBackpointerMap(Collections.emptyMap());
-        sendMessage(CorfuMsgType.WRITE.payloadMsg(m));
+        sendRequest(CorfuMsgType.WRITE.payloadMsg(m));
 
         assertThat(s1)
                 .containsDataAtAddress(ADDRESS_0);
@@ -379,7 +460,7 @@ public class LogUnitServerTest extends AbstractServerTest {
         m2.setRank(new IMetadata.DataRank(1));
         m2.setBackpointerMap(Collections.emptyMap());
 
-        sendMessage(CorfuMsgType.WRITE.payloadMsg(m2));
+        sendRequest(CorfuMsgType.WRITE.payloadMsg(m2));
         Assertions.assertThat(getLastMessage().getMsgType())
                 .isEqualTo(CorfuMsgType.WRITE_OK);
 
@@ -405,6 +486,33 @@ public class LogUnitServerTest extends AbstractServerTest {
 
     }
 
+    /**
+     * Check that a decoded write copies its payload out of the frame it was received
+     * in, so that the frame can be released and reused while the entry is cached.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void decodedWritesDoNotAliasTheirFrame() throws Exception {
+        ByteBuf payload = Unpooled.buffer();
+        Serializers.CORFU.serialize("0".getBytes(), payload);
+        WriteRequest wr = new WriteRequest(WriteMode.NORMAL, null, payload);
+        wr.setGlobalAddress(0L);
+        wr.setBackpointerMap(Collections.emptyMap());
+
+        ByteBuf frame = Unpooled.buffer();
+        CorfuMsgType.WRITE.payloadMsg(wr).serialize(frame);
+        CorfuPayloadMsg<WriteRequest> msg =
+                (CorfuPayloadMsg<WriteRequest>) CorfuMsg.deserialize(frame);
+
+        LogData decoded = (LogData) msg.getPayload().getData();
+        assertThat(frame.refCnt()).isEqualTo(1);
+        frame.setZero(0, frame.capacity());
+        frame.release();
+
+        assertThat(decoded.getSizeEstimate()).isEqualTo(payload.readableBytes());
+        assertThat(decoded.getPayload(null)).isEqualTo("0".getBytes());
+    }
+
     @Test
     public void CheckCacheSizeIsCorrectRatio() throws Exception {
 
@@ -1,13 +1,20 @@
 package org.corfudb.infrastructure;
 
 import org.corfudb.protocols.wireprotocol.*;
+import org.corfudb.runtime.view.Address;
 import org.junit.Before;
 import org.junit.Test;
 
+import io.netty.channel.ChannelHandlerContext;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -229,4 +236,118 @@ public class SequencerServerTest extends AbstractServerTest {
                 new TokenRequest(0L, Collections.singletonList(streamC))));
         assertThat(getLastPayloadMessageAs(TokenResponse.class).getToken().getTokenValue()).isEqualTo(newTailC);
     }
+
+    /**
+     * Verifies that tokens served concurrently are unique, and that the backpointer of
+     * each token is the previous token issued on its stream.
+     */
+    @Test
+    public void concurrentTokensKeepBackpointers() throws Exception {
+        final UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        final UUID streamB = UUID.nameUUIDFromBytes("streamB".getBytes());
+        final List<List<UUID>> requestStreams = new ArrayList<>();
+        requestStreams.add(Collections.singletonList(streamA));
+        requestStreams.add(Collections.singletonList(streamB));
+        requestStreams.add(Collections.emptyList());
+
+        Queue<TokenResponse> responses = new ConcurrentLinkedQueue<>();
+        IServerRouter router = new IServerRouter() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void sendResponse(ChannelHandlerContext ctx, CorfuMsg inMsg,
+                                     CorfuMsg outMsg) {
+                responses.add(((CorfuPayloadMsg<TokenResponse>) outMsg).getPayload());
+            }
+
+            @Override
+            public long getServerEpoch() {
+                return 0L;
+            }
+
+            @Override
+            public void setServerEpoch(long newEpoch) {
+            }
+
+            @Override
+            public void addServer(AbstractServer server) {
+            }
+        };
+
+        scheduleConcurrently(PARAMETERS.CONCURRENCY_SOME, t -> {
+            for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+                List<UUID> streams = requestStreams.get((t + i) % requestStreams.size());
+                server.tokenRequest(new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                        new TokenRequest(1L, streams)), null, router);
+            }
+        });
+        executeScheduled(PARAMETERS.CONCURRENCY_SOME, PARAMETERS.TIMEOUT_NORMAL);
+
+        Map<Long, TokenResponse> byToken = new HashMap<>();
+        responses.forEach(r -> byToken.put(r.getToken().getTokenValue(), r));
+        assertThat(byToken).hasSize(PARAMETERS.CONCURRENCY_SOME * PARAMETERS.NUM_ITERATIONS_LOW);
+
+        Map<UUID, Long> lastTokens = new HashMap<>();
+        for (long token = 0; token < byToken.size(); token++) {
+            assertThat(byToken).containsKey(token);
+            for (Map.Entry<UUID, Long> bp : byToken.get(token).getBackpointerMap().entrySet()) {
+                assertThat(bp.getValue())
+                        .isEqualTo(lastTokens.getOrDefault(bp.getKey(), Address.NON_EXIST));
+                lastTokens.put(bp.getKey(), token);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the sequencer returns the addresses issued to a stream in a range,
+     * and only tracks them above the trim mark and since it was bootstrapped.
+     */
+    @Test
+    public void streamAddressesAreTracked() {
+        final UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        final UUID streamB = UUID.nameUUIDFromBytes("streamB".getBytes());
+        final long multiToken = 3L;
+        final long third = 3L;
+
+        // streamA gets 0, 2, 3 and 4, streamB gets 1
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(1L, Collections.singletonList(streamA))));
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(1L, Collections.singletonList(streamB))));
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.TOKEN_REQ,
+                new TokenRequest(multiToken, Collections.singletonList(streamA))));
+        final long tail = getLastPayloadMessageAs(TokenResponse.class).getTokenValue()
+                + multiToken - 1;
+
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.STREAM_ADDRESS_REQUEST,
+                new StreamAddressRequest(streamA, Address.NEVER_READ, tail)));
+        StreamAddressResponse response = getLastPayloadMessageAs(StreamAddressResponse.class);
+        assertThat(response.isCompleteFrom(Address.NEVER_READ)).isTrue();
+        assertThat(response.getAddresses().toArray()).containsExactly(0L, 2L, third, tail);
+
+        // The start of the range is exclusive and its end inclusive
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.STREAM_ADDRESS_REQUEST,
+                new StreamAddressRequest(streamA, 0L, tail - 1)));
+        assertThat(getLastPayloadMessageAs(StreamAddressResponse.class).getAddresses().toArray())
+                .containsExactly(2L, third);
+
+        // Addresses below the trim mark are no longer tracked
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.SEQUENCER_TRIM_REQ, 2L));
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.STREAM_ADDRESS_REQUEST,
+                new StreamAddressRequest(streamA, Address.NEVER_READ, tail)));
+        response = getLastPayloadMessageAs(StreamAddressResponse.class);
+        assertThat(response.isCompleteFrom(Address.NEVER_READ)).isFalse();
+        assertThat(response.isCompleteFrom(1L)).isTrue();
+        assertThat(response.getAddresses().toArray()).containsExactly(2L, third, tail);
+
+        // A reset sequencer doesn't know the addresses issued before it
+        server.setSequencerEpoch(-1L);
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.BOOTSTRAP_SEQUENCER,
+                new SequencerTailsRecoveryMsg(tail + 1, Collections.emptyMap(), 0L, false)));
+        sendMessage(new CorfuPayloadMsg<>(CorfuMsgType.STREAM_ADDRESS_REQUEST,
+                new StreamAddressRequest(streamA, Address.NEVER_READ, tail)));
+        response = getLastPayloadMessageAs(StreamAddressResponse.class);
+        assertThat(response.isCompleteFrom(tail)).isTrue();
+        assertThat(response.isCompleteFrom(tail - 1)).isFalse();
+        assertThat(response.getAddresses().isEmpty()).isTrue();
+    }
 }
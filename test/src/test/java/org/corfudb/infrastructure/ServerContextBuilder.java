@@ -21,6 +21,8 @@ public class ServerContextBuilder {
     String logPath = null;
     boolean noVerify = false;
     boolean noSync = false;
+    boolean mmapReads = false;
+    String maxFsyncDelay = "1000";
 
     boolean tlsEnabled = false;
     boolean tlsMutualAuthEnabled = false;
@@ -38,6 +40,7 @@ public class ServerContextBuilder {
     String address = "test";
     int port = 9000;
     String seqCache = "1000";
+    String sequencerThreads = "1";
     String batchSize = "100";
     String managementBootstrapEndpoint = null;
     IServerRouter serverRouter;
@@ -61,6 +64,7 @@ public class ServerContextBuilder {
                 .put("--Threads", numThreads)
                 .put("--HandshakeTimeout", handshakeTimeout)
                 .put("--sequencer-cache-size", seqCache)
+                .put("--sequencer-threads", sequencerThreads)
                 .put("--batch-size", batchSize);
         if (logPath != null) {
          builder.put("--log-path", logPath);
@@ -71,6 +75,8 @@ public class ServerContextBuilder {
          builder
                  .put("--no-verify", noVerify)
                  .put("--no-sync", noSync)
+                 .put("--mmap-reads", mmapReads)
+                 .put("--max-fsync-delay", maxFsyncDelay)
                  .put("--address", address)
                  .put("--cache-heap-ratio", cacheSizeHeapRatio)
                  .put("--enable-tls", tlsEnabled)
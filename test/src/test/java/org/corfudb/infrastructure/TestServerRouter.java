@@ -12,10 +12,13 @@ import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.runtime.clients.TestChannelContext;
 import org.corfudb.runtime.clients.TestRule;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -51,7 +54,7 @@ public class TestServerRouter implements IServerRouter {
     }
 
     public void reset() {
-        this.responseMessages = new ArrayList<>();
+        this.responseMessages = Collections.synchronizedList(new ArrayList<>());
         this.requestCounter = new AtomicLong();
         this.handlerMap = new ConcurrentHashMap<>();
         this.rules = new ArrayList<>();
@@ -67,7 +70,35 @@ public class TestServerRouter implements IServerRouter {
             if (ctx != null && ctx instanceof TestChannelContext) {
                 ctx.writeAndFlush(outMsg);
             } else {
-                this.responseMessages.add(outMsg);
+                synchronized (responseMessages) {
+                    responseMessages.add(outMsg);
+                    responseMessages.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for the response to a request, for handlers which respond asynchronously.
+     *
+     * @param requestId The id of the request.
+     * @param timeout   How long to wait for the response.
+     * @return The response, or null if the server didn't respond in time.
+     */
+    public CorfuMsg awaitResponse(long requestId, Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (responseMessages) {
+            while (true) {
+                for (CorfuMsg msg : responseMessages) {
+                    if (msg.getRequestID() == requestId) {
+                        return msg;
+                    }
+                }
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return null;
+                }
+                responseMessages.wait(remaining);
             }
         }
     }
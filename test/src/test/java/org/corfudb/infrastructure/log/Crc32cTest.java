@@ -0,0 +1,61 @@
+package org.corfudb.infrastructure.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.corfudb.AbstractCorfuTest;
+import org.corfudb.format.Types.LogEntry;
+import org.corfudb.format.Types.Metadata;
+import org.junit.Test;
+
+public class Crc32cTest extends AbstractCorfuTest {
+
+    private static final int MAX_LENGTH = 100;
+    private static final int OFFSET = 3;
+
+    @Test
+    public void matchesGuavaChecksum() {
+        Random random = new Random(0);
+        for (int length = 0; length < MAX_LENGTH; length++) {
+            byte[] bytes = new byte[length + OFFSET];
+            random.nextBytes(bytes);
+            int expected = Hashing.crc32c().hashBytes(bytes, OFFSET, length).asInt();
+
+            assertThat(Crc32c.checksum(bytes, OFFSET, length)).isEqualTo(expected);
+
+            ByteBuffer heap = ByteBuffer.wrap(bytes);
+            assertThat(Crc32c.checksum(heap, OFFSET, length)).isEqualTo(expected);
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes);
+            assertThat(Crc32c.checksum(direct, OFFSET, length)).isEqualTo(expected);
+            direct.order(ByteOrder.LITTLE_ENDIAN);
+            assertThat(Crc32c.checksum(direct, OFFSET, length)).isEqualTo(expected);
+            // The position of the buffer is left untouched
+            assertThat(direct.position()).isEqualTo(bytes.length);
+        }
+    }
+
+    @Test
+    public void recordChecksumMatchesMetadata() throws Exception {
+        byte[] payload = "payload".getBytes();
+        ByteBuffer record = StreamLogFiles.getByteBufferWithMetaData(LogEntry.newBuilder()
+                .setData(ByteString.copyFrom(payload))
+                .build());
+
+        Metadata metadata = Metadata.parseFrom(ByteString.copyFrom(record.array(), 0,
+                StreamLogFiles.METADATA_SIZE));
+        byte[] entry = new byte[record.limit() - StreamLogFiles.METADATA_SIZE];
+        System.arraycopy(record.array(), StreamLogFiles.METADATA_SIZE, entry, 0, entry.length);
+
+        assertThat(metadata.getLength()).isEqualTo(entry.length);
+        assertThat(metadata.getPayloadChecksum())
+                .isEqualTo(Hashing.crc32c().hashBytes(entry).asInt());
+    }
+}
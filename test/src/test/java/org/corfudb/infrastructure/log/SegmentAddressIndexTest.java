@@ -0,0 +1,73 @@
+package org.corfudb.infrastructure.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.corfudb.AbstractCorfuTest;
+import org.junit.Test;
+
+public class SegmentAddressIndexTest extends AbstractCorfuTest {
+
+    private static final int CAPACITY = 1000;
+    private static final long SEGMENT = 3;
+    private static final long FIRST_ADDRESS = SEGMENT * CAPACITY;
+
+    @Test
+    public void putAndGet() {
+        SegmentAddressIndex index = new SegmentAddressIndex(SEGMENT, CAPACITY);
+        final int checksum = 7;
+        final int length = 100;
+        final long offset = 4096L;
+
+        assertThat(index.get(FIRST_ADDRESS)).isNull();
+        index.put(FIRST_ADDRESS, new AddressMetaData(checksum, length, offset));
+
+        AddressMetaData metaData = index.get(FIRST_ADDRESS);
+        assertThat(metaData.checksum).isEqualTo(checksum);
+        assertThat(metaData.length).isEqualTo(length);
+        assertThat(metaData.offset).isEqualTo(offset);
+        assertThat(index.containsKey(FIRST_ADDRESS)).isTrue();
+        assertThat(index.size()).isEqualTo(1);
+
+        // Overwriting an address replaces its metadata without growing the index
+        index.put(FIRST_ADDRESS, new AddressMetaData(checksum, length, offset * 2));
+        assertThat(index.get(FIRST_ADDRESS).offset).isEqualTo(offset * 2);
+        assertThat(index.size()).isEqualTo(1);
+
+        // Addresses of other segments are never known
+        assertThat(index.get(FIRST_ADDRESS - 1)).isNull();
+        assertThat(index.containsKey(FIRST_ADDRESS + CAPACITY)).isFalse();
+        assertThatThrownBy(() -> index.put(FIRST_ADDRESS + CAPACITY,
+                new AddressMetaData(checksum, length, offset)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void addressSetOperations() {
+        SegmentAddressSet set = new SegmentAddressSet(SEGMENT, CAPACITY);
+        final int step = 3;
+        for (long address = FIRST_ADDRESS; address < FIRST_ADDRESS + CAPACITY; address += step) {
+            assertThat(set.add(address)).isTrue();
+        }
+        assertThat(set.add(FIRST_ADDRESS)).isFalse();
+        assertThat(set.size()).isEqualTo((CAPACITY + step - 1) / step);
+
+        List<Long> visited = new ArrayList<>();
+        set.forEach(visited::add);
+        assertThat(visited).hasSize(set.size()).isSorted();
+        assertThat(set.toArray()).hasSize(set.size());
+
+        SegmentAddressSet copy = set.copy();
+        SegmentAddressSet toRemove = new SegmentAddressSet(SEGMENT, CAPACITY);
+        toRemove.add(FIRST_ADDRESS);
+        toRemove.add(FIRST_ADDRESS + 1);
+        copy.removeAll(toRemove);
+
+        assertThat(copy.contains(FIRST_ADDRESS)).isFalse();
+        assertThat(copy.size()).isEqualTo(set.size() - 1);
+        assertThat(set.contains(FIRST_ADDRESS)).isTrue();
+    }
+}
@@ -93,6 +93,141 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         assertThat(writeEntries).isEqualTo(readEntries);
     }
 
+    @Test
+    public void testMappedReads() throws Exception {
+        StreamLogFiles log = new StreamLogFiles(getContext(), false, true);
+
+        // Write the first segment, except for its last address, and seal it
+        // by writing to the next segment
+        final long holeAddress = StreamLogFiles.RECORDS_PER_LOG_FILE - 1;
+        List<LogData> writeEntries = new ArrayList<>();
+        for (long x = 0; x < holeAddress; x++) {
+            writeEntries.add(getEntry(x));
+        }
+        log.append(writeEntries);
+        log.append(holeAddress + 1, getEntry(holeAddress + 1));
+
+        // Reads on the sealed segment are served from the mapped file
+        List<LogData> readEntries = readRange(0, holeAddress, log);
+        assertThat(readEntries).isEqualTo(writeEntries);
+        assertThat(log.read(0L).getPayload(null)).isEqualTo("Payload".getBytes());
+        assertThat(log.getSegmentHandleForAddress(0L).getMappedBuffer()).isNotNull();
+        assertThat(log.getSegmentHandleForAddress(holeAddress + 1).getMappedBuffer()).isNull();
+
+        // An entry appended to a sealed segment after it was mapped is still readable
+        log.append(holeAddress, getEntry(holeAddress));
+        assertThat(log.read(holeAddress)).isEqualTo(getEntry(holeAddress));
+        assertThat(log.read(holeAddress).getPayload(null)).isEqualTo("Payload".getBytes());
+    }
+
+    @Test
+    public void testMappedSegmentsUnmappedOnTrim() throws Exception {
+        StreamLogFiles log = new StreamLogFiles(getContext(), false, true);
+
+        // Write three segments, so that the first two are sealed
+        final int numSegments = 3;
+        for (long x = 0; x < StreamLogFiles.RECORDS_PER_LOG_FILE * numSegments; x++) {
+            log.append(x, getEntry(x));
+        }
+
+        // Read from the mapped first segment
+        LogData entry = log.read(0L);
+        SegmentHandle sh = log.getSegmentHandleForAddress(0L);
+        sh.release();
+        assertThat(sh.getMappedBuffer()).isNotNull();
+
+        // Trimming the segment unmaps it, entries read from it are still accessible
+        log.prefixTrim(StreamLogFiles.RECORDS_PER_LOG_FILE * 2);
+        log.compact();
+        assertThat(sh.getMappedBuffer()).isNull();
+        assertThat(sh.isUnmapped()).isTrue();
+        assertThat(entry.getPayload(null)).isEqualTo("Payload".getBytes());
+    }
+
+    @Test
+    public void testSegmentIndexStartup() throws Exception {
+        ServerContext sc = getContext();
+        String logDir = sc.getServerConfig().get("--log-path") + File.separator + "log";
+        String indexPath = StreamLogFiles.getIndexFilePath(logDir + File.separator + 0 + ".log");
+        StreamLogFiles log = new StreamLogFiles(sc, false);
+
+        // Write the first segment, except for one address, and seal it
+        final long holeAddress = StreamLogFiles.RECORDS_PER_LOG_FILE / 2;
+        final long tailAddress = StreamLogFiles.RECORDS_PER_LOG_FILE + 1;
+        List<LogData> writeEntries = new ArrayList<>();
+        for (long x = 0; x < StreamLogFiles.RECORDS_PER_LOG_FILE; x++) {
+            if (x != holeAddress) {
+                writeToLog(log, x);
+                writeEntries.add(getEntry(x));
+            }
+        }
+        writeToLog(log, tailAddress);
+        log.awaitIndexWrites();
+        assertThat(new File(indexPath)).exists();
+
+        // Fill the hole after the index was persisted, the record appended
+        // after the index has to be recovered by scanning the segment
+        writeToLog(log, holeAddress);
+        writeEntries.add((int) holeAddress, getEntry(holeAddress));
+        log.sync(true);
+
+        StreamLog log2 = new StreamLogFiles(sc, false);
+        assertThat(readRange(0, StreamLogFiles.RECORDS_PER_LOG_FILE, log2))
+                .isEqualTo(writeEntries);
+        assertThat(log2.getGlobalTail()).isEqualTo(tailAddress);
+        log2.close();
+
+        // A corrupted index is ignored and the segment is fully scanned
+        final int corruptedOffset = 100;
+        try (RandomAccessFile indexFile = new RandomAccessFile(indexPath, "rw")) {
+            indexFile.seek(corruptedOffset);
+            indexFile.writeInt(-1);
+        }
+
+        StreamLog log3 = new StreamLogFiles(sc, false);
+        assertThat(readRange(0, StreamLogFiles.RECORDS_PER_LOG_FILE, log3))
+                .isEqualTo(writeEntries);
+    }
+
+    @Test
+    public void testSegmentIndexRecordsVerifiedOnRead() throws Exception {
+        ServerContext sc = getContext();
+        String logDir = sc.getServerConfig().get("--log-path") + File.separator + "log";
+        String segmentPath = logDir + File.separator + 0 + ".log";
+        StreamLogFiles log = new StreamLogFiles(sc, false);
+
+        // Write and seal the first segment, so that its index is persisted
+        final long corruptedAddress = 1;
+        for (long x = 0; x <= StreamLogFiles.RECORDS_PER_LOG_FILE; x++) {
+            writeToLog(log, x);
+        }
+        log.awaitIndexWrites();
+        assertThat(new File(StreamLogFiles.getIndexFilePath(segmentPath))).exists();
+        log.close();
+
+        // Corrupt the last byte of the payload of a record, the segment
+        // isn't scanned on startup since its index is loaded instead
+        StreamLogFiles log2 = new StreamLogFiles(sc, false);
+        SegmentHandle sh = log2.getSegmentHandleForAddress(corruptedAddress);
+        AddressMetaData metaData = sh.getKnownAddresses().get(corruptedAddress);
+        sh.release();
+        assertThat(sh.getUnverifiedAddresses().contains(corruptedAddress)).isTrue();
+        log2.close();
+        try (RandomAccessFile segmentFile = new RandomAccessFile(segmentPath, "rw")) {
+            long offset = metaData.offset + metaData.length - 1;
+            segmentFile.seek(offset);
+            byte b = segmentFile.readByte();
+            segmentFile.seek(offset);
+            segmentFile.writeByte(~b);
+        }
+
+        // The corruption is detected when the record is first read
+        StreamLogFiles log3 = new StreamLogFiles(sc, false);
+        assertThat(log3.read(0L)).isEqualTo(getEntry(0L));
+        assertThatThrownBy(() -> log3.read(corruptedAddress))
+                .isInstanceOf(DataCorruptionException.class);
+    }
+
     @Test
     public void testRangeWriteTrim() throws Exception {
         StreamLog log = new StreamLogFiles(getContext(), false);
@@ -550,7 +685,9 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
 
         File logs = new File(logDir);
 
-        assertThat((long) logs.list().length).isEqualTo(numSegments * filesPerSegment);
+        // Every segment but the tail segment is sealed and has a persisted index
+        assertThat((long) logs.list().length)
+                .isEqualTo(numSegments * filesPerSegment + numSegments - 1);
 
         final long endSegment = 25;
         long trimAddress = endSegment * StreamLogFiles.RECORDS_PER_LOG_FILE + 1;
@@ -571,7 +708,8 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
 
         // Verify that first 25 segments have been deleted
         String[] afterTrimFiles = logs.list();
-        assertThat(afterTrimFiles).hasSize((int)((numSegments - endSegment + 1) * filesPerSegment));
+        assertThat(afterTrimFiles).hasSize((int)((numSegments - endSegment + 1) * filesPerSegment
+                + numSegments - endSegment));
 
         Set<String> fileNames = new HashSet(Arrays.asList(afterTrimFiles));
         for (long x = endSegment + 1; x < numSegments; x++) {
@@ -582,6 +720,9 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
             assertThat(fileNames).contains(logFile);
             assertThat(fileNames).contains(trimmedLogFile);
             assertThat(fileNames).contains(pendingLogFile);
+            if (x < numSegments - 1) {
+                assertThat(fileNames).contains(StreamLogFiles.getIndexFilePath(logFile));
+            }
         }
 
         // Try to trim an address that is less than the new starting address
@@ -642,7 +783,8 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         log.compact();
 
         File logs = new File(logDir);
-        final int lastTwoSegmentsFiles = 3 * 2;
+        // The second to last segment is sealed and has a persisted index
+        final int lastTwoSegmentsFiles = 3 * 2 + 1;
         assertThat(logs.list()).hasSize(lastTwoSegmentsFiles);
     }
 
@@ -665,7 +807,8 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
 
         File logsDir = new File(logDir);
 
-        final int expectedFilesBeforeReset = (int) ((numSegments - filesToBeTrimmed) * 3);
+        final int expectedFilesBeforeReset = (int) ((numSegments - filesToBeTrimmed) * 3
+                + numSegments - filesToBeTrimmed - 1);
         final long globalTailBeforeReset = (RECORDS_PER_LOG_FILE * numSegments) - 1;
         final long trimMarkBeforeReset = (RECORDS_PER_LOG_FILE * (filesToBeTrimmed + 1)) + 1;
         assertThat(logsDir.list()).hasSize(expectedFilesBeforeReset);
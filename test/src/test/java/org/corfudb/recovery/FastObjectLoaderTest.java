@@ -243,6 +243,34 @@ public class FastObjectLoaderTest extends AbstractViewTest {
         assertThatObjectCacheIsTheSameSize(getDefaultRuntime(), rt2);
     }
 
+    /**
+     * Load with several bulk reads in flight and several threads applying entries,
+     * including multi-object entries, which are split between the partitions.
+     */
+    @Test
+    public void canLoadInParallel() throws Exception {
+        populateMaps(MORE, getDefaultRuntime(), CorfuTable.class, true, SOME);
+        for (int i = 0; i < SOME; i++) {
+            getDefaultRuntime().getObjectsView().TXBegin();
+            populateMapWithNextKey(maps.get("Map0"));
+            populateMapWithNextKey(maps.get("Map" + (i + 1)));
+            getDefaultRuntime().getObjectsView().TXEnd();
+        }
+        populateMaps(MORE, getDefaultRuntime(), CorfuTable.class, false, SOME);
+
+        CorfuRuntime rt2 = getNewRuntime(getDefaultNode())
+                .connect();
+        FastObjectLoader fsm = new FastObjectLoader(rt2)
+                .setBatchReadSize(2)
+                .setNumberOfPendingReads(SOME)
+                .setNumberOfThreads(SOME)
+                .setDefaultObjectsType(CorfuTable.class);
+        fsm.loadMaps();
+
+        assertThatMapsAreBuilt(rt2);
+        assertThatObjectCacheIsTheSameSize(getDefaultRuntime(), rt2);
+    }
+
     @Test
     public void canReadCheckpointWithoutTrim() throws Exception {
         populateMaps(1, getDefaultRuntime(), CorfuTable.class, true, MORE);
@@ -801,6 +829,55 @@ public class FastObjectLoaderTest extends AbstractViewTest {
         recreatedTable.getByIndex(StringIndexer.BY_FIRST_LETTER, "a");
     }
 
+    /**
+     * The FastLoader and a replay from the beginning of the stream can defer building
+     * the indexes of a table until all its entries are applied.
+     */
+    @Test
+    public void canRecreateCorfuTableWithDeferredIndex() throws Exception {
+        CorfuRuntime originalRuntime = getDefaultRuntime();
+
+        CorfuTable originalTable = originalRuntime.getObjectsView().build()
+                .setType(CorfuTable.class)
+                .setArguments(new StringIndexer())
+                .setStreamName("test")
+                .open();
+
+        originalTable.put("k1", "a");
+        originalTable.put("k2", "ab");
+        originalTable.put("k3", "ba");
+        originalTable.put("k2", "bb");
+        originalTable.remove("k3");
+
+        CorfuRuntime recreatedRuntime = getNewRuntime(getDefaultNode());
+        recreatedRuntime.getParameters().setDeferIndexBuild(true);
+        recreatedRuntime.connect();
+
+        FastObjectLoader fsmr = new FastObjectLoader(recreatedRuntime)
+                .setDeferIndexBuild(true);
+        fsmr.addIndexerToCorfuTableStream("test", new StringIndexer());
+        fsmr.setDefaultObjectsType(CorfuTable.class);
+        fsmr.loadMaps();
+
+        CorfuTable recreatedTable = recreatedRuntime.getObjectsView().build()
+                .setType(CorfuTable.class)
+                .setArguments(new StringIndexer())
+                .setStreamName("test")
+                .open();
+
+        assertThat(recreatedTable.getByIndex(StringIndexer.BY_FIRST_LETTER, "a"))
+                .containsExactlyInAnyOrder(MapEntry.entry("k1", "a"));
+        assertThat(recreatedTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, "b", null))
+                .containsExactly(MapEntry.entry("k2", "bb"));
+
+        Helpers.getVersionLockedObject(recreatedRuntime, "test", CorfuTable.class).resetUnsafe();
+
+        assertThat(recreatedTable.getByIndex(StringIndexer.BY_FIRST_LETTER, "a"))
+                .containsExactlyInAnyOrder(MapEntry.entry("k1", "a"));
+        assertThat(recreatedTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, "b", null))
+                .containsExactly(MapEntry.entry("k2", "bb"));
+    }
+
     @Test
     public void canRecreateMixOfMaps() throws Exception {
         CorfuRuntime originalRuntime = getDefaultRuntime();
@@ -270,6 +270,66 @@ public class CheckpointSmokeTest extends AbstractViewTest {
         }
     }
 
+    /** Test the CheckpointWriter class with CONTINUATION records bounded
+     *  by bytes, several of which are appended concurrently.
+     */
+    @Test
+    public void checkpointWriterPipelinedTest() throws Exception {
+        checkpointWriterPipelinedTestInner("mystream5", false);
+        checkpointWriterPipelinedTestInner("mystream6", true);
+    }
+
+    private void checkpointWriterPipelinedTestInner(String streamName, boolean enablePutAll)
+            throws Exception {
+        final UUID streamId = CorfuRuntime.getStreamID(streamName);
+        final String keyPrefix = "a-prefix";
+        final int numKeys = 40;
+        final String author = "Me, myself, and I";
+        final Long fudgeFactor = 75L;
+        final int batchBytes = 200;
+        final int pendingAppends = 4;
+
+        Map<String, Long> m = instantiateMap(streamName);
+        for (int i = 0; i < numKeys; i++) {
+            m.put(keyPrefix + Integer.toString(i), (long) i);
+        }
+        m.put("just one more", 0L);
+
+        CheckpointWriter<SMRMap> cpw = new CheckpointWriter(getRuntime(), streamId, author, (SMRMap) m);
+        cpw.setSerializer(serializer);
+        cpw.setValueMutator((l) -> (Long) l + fudgeFactor);
+        cpw.setEnablePutAll(enablePutAll);
+        cpw.setBatchBytes(batchBytes);
+        cpw.setPendingAppends(pendingAppends);
+        List<Long> continuationAddrs = new ArrayList<>();
+        cpw.setPostAppendFunc((cp, pos) -> {
+            if (cp.getCpType() == CheckpointEntry.CheckpointEntryType.CONTINUATION) {
+                continuationAddrs.add(pos);
+            }
+        });
+
+        List<Long> addresses = cpw.appendCheckpoint();
+        long startAddress = addresses.get(0);
+        long endAddress = addresses.get(addresses.size() - 1);
+
+        // The map doesn't fit in one record, and the records are written,
+        // in any order, between the START and END records.
+        assertThat(continuationAddrs.size()).isGreaterThan(1).isLessThan(numKeys);
+        assertThat(addresses.subList(1, addresses.size() - 1))
+                .containsExactlyElementsOf(continuationAddrs);
+        for (long address : continuationAddrs) {
+            assertThat(address).isGreaterThan(startAddress).isLessThan(endAddress);
+        }
+
+        // Every key is restored from the checkpoint.
+        setRuntime();
+        Map<String, Long> m2 = instantiateMap(streamName);
+        for (int i = 0; i < numKeys; i++) {
+            assertThat(m2.get(keyPrefix + Integer.toString(i))).describedAs("get " + i)
+                    .isEqualTo(i + fudgeFactor);
+        }
+    }
+
     static long middleTracker;
 
     /** Test the CheckpointWriter class, part 2.  We write data to a
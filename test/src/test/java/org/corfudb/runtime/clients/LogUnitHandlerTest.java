@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.corfudb.infrastructure.log.StreamLogFiles.METADATA_SIZE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
@@ -32,7 +33,9 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.MultipleWriteResponse;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.WriteResult;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
@@ -40,6 +43,7 @@ import org.corfudb.runtime.exceptions.DataOutrankedException;
 import org.corfudb.runtime.exceptions.OverwriteCause;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.ValueAdoptedException;
+import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.Test;
 
@@ -344,6 +348,86 @@ public class LogUnitHandlerTest extends AbstractClientTest {
                 .has(conditionOverwrite);
     }
 
+    @Test
+    public void multipleWritesReportEachAddress() throws Exception {
+        byte[] testString = "hello world".getBytes();
+        final long written = 0;
+        final long holeFilled = 1;
+        final long fresh = 2;
+        client.write(written, Collections.<UUID>emptySet(), null, testString,
+                Collections.emptyMap()).get();
+        client.fillHole(holeFilled).get();
+
+        List<LogData> entries = new ArrayList<>();
+        for (long address = written; address <= fresh; address++) {
+            LogData ld = getLogDataWithoutId(address);
+            entries.add(ld);
+        }
+
+        MultipleWriteResponse resp = client.write(entries).get();
+        assertThat(resp.getResults()).hasSize(entries.size());
+        assertThat(resp.getResults().get(written).getOverwriteCause())
+                .isEqualTo(OverwriteCause.DIFF_DATA);
+        assertThat(resp.getResults().get(holeFilled).getOverwriteCause())
+                .isEqualTo(OverwriteCause.HOLE);
+        assertThat(resp.getResults().get(fresh).isOk()).isTrue();
+        assertThat(resp.getResults().get(written).getException())
+                .isInstanceOf(OverwriteException.class);
+
+        assertThat(client.read(fresh).get().getAddresses().get(fresh).getType())
+                .isEqualTo(DataType.DATA);
+    }
+
+    @Test
+    public void multipleHolesCanBeFilled() throws Exception {
+        final List<Long> holes = ImmutableList.of(1L, 5L, 3L);
+        MultipleWriteResponse resp = client.fillHoles(holes).get();
+        assertThat(resp.getResults().values()).allMatch(WriteResult::isOk);
+
+        ReadResponse read = client.read(holes).get();
+        for (Long hole : holes) {
+            assertThat(read.getAddresses().get(hole).getType()).isEqualTo(DataType.HOLE);
+        }
+
+        // Filling the same holes again is reported per address
+        resp = client.fillHoles(holes).get();
+        assertThat(resp.getResults().values())
+                .allMatch(result -> result.getOverwriteCause() == OverwriteCause.HOLE);
+
+        assertThatThrownBy(() -> client.fillHoles(ImmutableList.of(1L, 1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void multipleWriteResultsSerializeCause() throws Exception {
+        final long adopted = 0;
+        final long staleEpoch = 1;
+        final long failed = 2;
+        final long correctEpoch = 5;
+
+        ReadResponse adoptedValue = new ReadResponse();
+        adoptedValue.put(adopted, getLogDataWithoutId(adopted));
+
+        MultipleWriteResponse resp = new MultipleWriteResponse();
+        resp.put(adopted, WriteResult.valueAdopted(adoptedValue));
+        resp.put(staleEpoch, WriteResult.wrongEpoch(correctEpoch));
+        resp.put(failed, WriteResult.SERVER_ERROR);
+
+        ByteBuf buf = Unpooled.buffer();
+        resp.doSerialize(buf);
+        MultipleWriteResponse deserialized = new MultipleWriteResponse(buf);
+
+        assertThat(deserialized.getResults().get(adopted).getException())
+                .isInstanceOf(ValueAdoptedException.class);
+        assertThat(((ValueAdoptedException) deserialized.getResults().get(adopted)
+                .getException()).getReadResponse().getAddresses()).containsKey(adopted);
+        assertThat(deserialized.getResults().get(staleEpoch).getException())
+                .isInstanceOf(WrongEpochException.class);
+        assertThat(((WrongEpochException) deserialized.getResults().get(staleEpoch)
+                .getException()).getCorrectEpoch()).isEqualTo(correctEpoch);
+        assertThat(deserialized.getResults().get(failed).isOk()).isFalse();
+    }
+
     @Test
     public void multiReadTest() throws Exception {
         byte[] payload = "payload".getBytes();
@@ -440,7 +524,7 @@ public class LogUnitHandlerTest extends AbstractClientTest {
         LogData ld = getLogDataWithoutId(address);
 
         ld.setId(clientId1);
-        client.write(ld);
+        client.write(ld).get();
 
         LogData ldPrime = client.read(address).get().getAddresses().get(address);
 
@@ -465,7 +549,7 @@ public class LogUnitHandlerTest extends AbstractClientTest {
 
         // Set clientId from another thread
         t1(() -> ldOtherThread.setId(clientId1));
-        client.write(ldOtherThread);
+        client.write(ldOtherThread).get();
 
         LogData ldPrime = client.read(address).get().getAddresses().get(address);
         assertThat(ldThisThread).isNotEqualTo(ldPrime);
@@ -487,7 +571,7 @@ public class LogUnitHandlerTest extends AbstractClientTest {
         ldOne.setId(clientId1);
         ldTwo.setId(clientId2);
 
-        client.write(ldOne);
+        client.write(ldOne).get();
 
         LogData ldRead = client.read(address).get().getAddresses().get(address);
         assertThat(ldRead).isEqualTo(ldOne);
@@ -2,15 +2,19 @@ package org.corfudb.runtime.collections;
 
 import com.google.common.reflect.TypeToken;
 import org.assertj.core.data.MapEntry;
+import org.corfudb.runtime.object.transactions.TransactionType;
 import org.corfudb.runtime.view.AbstractViewTest;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class CorfuTableTest extends AbstractViewTest {
 
@@ -144,4 +148,147 @@ public class CorfuTableTest extends AbstractViewTest {
                 .containsExactly("a");
     }
 
+    /**
+     * Range and top-k queries on a sorted index return entries in index order, and
+     * see the index as of the version of the table, including after undo.
+     */
+    @Test
+    public void canQuerySortedIndexByRange() {
+        CorfuTable<String, String>
+                corfuTable = getDefaultRuntime().getObjectsView().build()
+                .setTypeToken(CorfuTable.<String, String>getTableType())
+                .setArguments(new StringIndexer())
+                .setStreamName("test")
+                .open();
+
+        corfuTable.put("k1", "c");
+        corfuTable.put("k2", "a");
+        corfuTable.put("k3", "ba");
+        corfuTable.put("k4", "b");
+
+        assertThat(project(corfuTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, "b", "c")))
+                .containsExactly("b", "ba");
+        assertThat(project(corfuTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, null, "b")))
+                .containsExactly("a");
+        assertThat(project(corfuTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, "b", null, 2)))
+                .containsExactly("b", "ba");
+        assertThat(project(corfuTable.getTopByIndex(StringIndexer.SORTED_BY_VALUE, 2)))
+                .containsExactly("c", "ba");
+        assertThat(project(corfuTable.getByIndex(StringIndexer.SORTED_BY_VALUE, "ba")))
+                .containsExactly("ba");
+
+        corfuTable.put("k1", "aa");
+        corfuTable.remove("k3");
+        assertThat(project(corfuTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, null, null)))
+                .containsExactly("a", "aa", "b");
+
+        // Rolling the table back restores the index.
+        final long beforeUpdates = 3L;
+        getDefaultRuntime().getObjectsView().TXBuild()
+                .setType(TransactionType.SNAPSHOT)
+                .setSnapshot(beforeUpdates)
+                .begin();
+        assertThat(project(corfuTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, null, null)))
+                .containsExactly("a", "b", "ba", "c");
+        getDefaultRuntime().getObjectsView().TXEnd();
+
+        assertThatThrownBy(() -> corfuTable.getTopByIndex(StringIndexer.BY_VALUE, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Queries can be paged through with a cursor, or streamed a page at a time.
+     */
+    @Test
+    public void canPageThroughQueries() {
+        CorfuTable<String, String>
+                corfuTable = getDefaultRuntime().getObjectsView().build()
+                .setTypeToken(CorfuTable.<String, String>getTableType())
+                .setArguments(new StringIndexer())
+                .setStreamName("test")
+                .open();
+
+        final int numEntries = 10;
+        final int pageSize = 3;
+        for (int i = 0; i < numEntries; i++) {
+            corfuTable.put("k" + i, "v" + i);
+        }
+
+        List<String> paged = new ArrayList<>();
+        CorfuTable.Page<Map.Entry<String, String>> page =
+                new CorfuTable.Page<>(Collections.emptyList(), CorfuTable.Cursor.START);
+        int pages = 0;
+        while (page.hasNext()) {
+            page = corfuTable.scanAndFilterByEntry(e -> true, page.getCursor(), pageSize);
+            assertThat(page.getResults().size()).isLessThanOrEqualTo(pageSize);
+            paged.addAll(project(page.getResults()));
+            pages++;
+        }
+        assertThat(paged).containsExactlyInAnyOrder(corfuTable.values().toArray(new String[0]));
+        assertThat(pages).isEqualTo((numEntries + pageSize - 1) / pageSize);
+
+        // Pages are in the order of the hash codes of the keys, and removing the mappings
+        // of a previous page doesn't make the next page skip mappings.
+        page = corfuTable.scanAndFilterByEntry(e -> true, CorfuTable.Cursor.START, pageSize);
+        assertThat(project(page.getResults())).containsExactly("v0", "v1", "v2");
+        corfuTable.remove("k0");
+        corfuTable.remove("k1");
+        page = corfuTable.scanAndFilterByEntry(e -> true, page.getCursor(), pageSize);
+        assertThat(project(page.getResults())).containsExactly("v3", "v4", "v5");
+        corfuTable.put("k0", "v0");
+        corfuTable.put("k1", "v1");
+
+        // Only the pages a stream needs are read.
+        assertThat(corfuTable.streamByEntry(e -> e.getValue().compareTo("v5") < 0, pageSize)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toSet()))
+                .containsExactlyInAnyOrder("v0", "v1", "v2", "v3", "v4");
+        assertThat(corfuTable.streamByIndexRange(StringIndexer.SORTED_BY_VALUE, "v2", null, pageSize)
+                .limit(pageSize + 1)
+                .map(Map.Entry::getValue))
+                .containsExactly("v2", "v3", "v4", "v5");
+        assertThat(corfuTable.streamByIndex(StringIndexer.BY_FIRST_LETTER, "v", pageSize)
+                .count()).isEqualTo(numEntries);
+
+        assertThatThrownBy(() -> corfuTable.scanAndFilterByEntry(e -> true,
+                CorfuTable.Cursor.START, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Pages of a sorted index range resume at the index key and offset in its slot
+     * where the previous page ended.
+     */
+    @Test
+    public void indexRangePagesResumeAtTheirIndexKey() {
+        CorfuTable<String, String>
+                corfuTable = getDefaultRuntime().getObjectsView().build()
+                .setTypeToken(CorfuTable.<String, String>getTableType())
+                .setArguments(new StringIndexer())
+                .setStreamName("test")
+                .open();
+
+        final int numEntries = 5;
+        final int pageSize = 2;
+        corfuTable.put("a", "v");
+        for (int i = 0; i < numEntries; i++) {
+            corfuTable.put("k" + i, "w");
+        }
+        corfuTable.put("z", "x");
+
+        List<String> paged = new ArrayList<>();
+        CorfuTable.Page<Map.Entry<String, String>> page = corfuTable.getByIndexRange(
+                StringIndexer.SORTED_BY_VALUE, "w", null, CorfuTable.Cursor.START, pageSize);
+        paged.addAll(page.getResults().stream().map(Map.Entry::getKey)
+                .collect(Collectors.toList()));
+        assertThat(page.getCursor().getIndexKey()).isEqualTo("w");
+        assertThat(page.getCursor().getOffset()).isEqualTo(pageSize);
+        while (page.hasNext()) {
+            page = corfuTable.getByIndexRange(StringIndexer.SORTED_BY_VALUE, "w", null,
+                    page.getCursor(), pageSize);
+            paged.addAll(page.getResults().stream().map(Map.Entry::getKey)
+                    .collect(Collectors.toList()));
+        }
+        assertThat(paged).containsExactlyInAnyOrder("k0", "k1", "k2", "k3", "k4", "z");
+    }
 }
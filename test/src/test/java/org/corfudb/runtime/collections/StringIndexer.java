@@ -8,6 +8,7 @@ public class StringIndexer implements CorfuTable.IndexRegistry<String, String> {
 
     public static final CorfuTable.IndexName BY_VALUE = () -> "BY_VALUE";
     public static final CorfuTable.IndexName BY_FIRST_LETTER = () -> "BY_FIRST_LETTER";
+    public static final CorfuTable.IndexName SORTED_BY_VALUE = () -> "SORTED_BY_VALUE";
 
     private static final CorfuTable.Index<String, String, ? extends Comparable<?>> BY_VALUE_INDEX =
             new CorfuTable.Index<>(
@@ -20,9 +21,15 @@ public class StringIndexer implements CorfuTable.IndexRegistry<String, String> {
                                    (CorfuTable.IndexFunction<String, String, String>) (key, val) ->
                                            Character.toString(val.charAt(0)));
 
+    private static final CorfuTable.Index<String, String, ? extends Comparable<?>> SORTED_BY_VALUE_INDEX =
+            new CorfuTable.Index<>(
+                                   SORTED_BY_VALUE,
+                                   (CorfuTable.IndexFunction<String, String, String>) (key, val) -> val,
+                                   CorfuTable.IndexType.SORTED);
+
     @Override
     public Iterator<CorfuTable.Index<String, String, ? extends Comparable<?>>> iterator() {
-        return Stream.of(BY_VALUE_INDEX, BY_FIRST_LETTER_INDEX).iterator();
+        return Stream.of(BY_VALUE_INDEX, BY_FIRST_LETTER_INDEX, SORTED_BY_VALUE_INDEX).iterator();
     }
 
     @Override
@@ -34,6 +41,8 @@ public class StringIndexer implements CorfuTable.IndexRegistry<String, String> {
 
         } else if (BY_FIRST_LETTER.get().equals(indexName)) {
             return Optional.of(BY_FIRST_LETTER_INDEX);
+        } else if (SORTED_BY_VALUE.get().equals(indexName)) {
+            return Optional.of(SORTED_BY_VALUE_INDEX);
         } else {
             return Optional.empty();
         }
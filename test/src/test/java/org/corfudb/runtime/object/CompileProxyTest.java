@@ -1,6 +1,9 @@
 package org.corfudb.runtime.object;
 
 import com.google.common.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.SMRMap;
 import org.corfudb.runtime.exceptions.TrimmedException;
@@ -40,6 +43,48 @@ public class CompileProxyTest extends AbstractViewTest {
                 .containsEntry("hell", "world");
     }
 
+    /** Check that entries record their SMR method by name unless ids are enabled,
+     * and that a runtime which enables ids replays entries of either kind.
+     */
+    @Test
+    public void entriesRecordMethodIdsIfEnabled() throws Exception {
+        CorfuRuntime rt = getDefaultRuntime();
+        final String streamName = "ids";
+        // The length of the name and the name, or the id encoded as a negative length.
+        final int nameSize = Short.BYTES + "put".length();
+        final int idSize = Short.BYTES;
+
+        Map<String, String> byName = rt.getObjectsView().build()
+                .setStreamName(streamName)
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        byName.put("k1", "v1");
+
+        CorfuRuntime idRuntime = getNewRuntime(getDefaultNode()).connect();
+        idRuntime.getParameters().setSmrMethodIdsEnabled(true);
+        Map<String, String> byId = idRuntime.getObjectsView().build()
+                .setStreamName(streamName)
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        byId.put("k2", "v2");
+        assertThat(byId).containsEntry("k1", "v1").containsEntry("k2", "v2");
+
+        SMREntry first = (SMREntry) rt.getAddressSpaceView().read(0L).getPayload(rt);
+        assertThat(first.getSMRMethod()).isEqualTo("put");
+        assertThat(first.getMethodId()).isEqualTo(SMREntry.NO_METHOD_ID);
+        SMREntry second = (SMREntry) rt.getAddressSpaceView().read(1L).getPayload(rt);
+        // The id of a method doesn't depend on the other methods of the type
+        assertThat(second.getMethodId()).isEqualTo(SmrMethods.idOf("put"));
+        ByteBuf firstBuf = Unpooled.buffer();
+        first.serialize(firstBuf);
+        ByteBuf secondBuf = Unpooled.buffer();
+        second.serialize(secondBuf);
+        assertThat(firstBuf.readableBytes() - secondBuf.readableBytes())
+                .isEqualTo(nameSize - idSize);
+
+        assertThat(byName).containsEntry("k2", "v2");
+    }
+
     @Test
     public void testTrimmedObject() throws Exception {
         CorfuRuntime rt = getDefaultRuntime();
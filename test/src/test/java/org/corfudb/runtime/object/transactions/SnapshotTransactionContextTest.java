@@ -1,9 +1,16 @@
 package org.corfudb.runtime.object.transactions;
 
+import com.codahale.metrics.Counter;
 import com.google.common.reflect.TypeToken;
+import java.util.Map;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.CorfuTable;
 import org.corfudb.runtime.collections.SMRMap;
+import org.corfudb.util.CorfuComponent;
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Created by mwei on 11/22/16.
  */
@@ -89,4 +96,105 @@ public class SnapshotTransactionContextTest extends AbstractTransactionContextTe
         t(0, this::TXEnd);
 
     }
+
+    /** Check that snapshot reads alternating between versions are served from the
+     * snapshots the object retains, rather than by moving the object back and forth.
+     */
+    @Test
+    public void snapshotReadsServedFromRetainedSnapshots() {
+        final int snapshots = 2;
+        final long first = 1L;
+        final long second = 2L;
+        final long third = 3L;
+        CorfuRuntime rt = getNewRuntime(getDefaultNode());
+        rt.getParameters().setObjectSnapshots(snapshots);
+        rt.connect();
+
+        Map<String, String> table = rt.getObjectsView().build()
+                .setType(CorfuTable.class)
+                .setStreamName("test")
+                .open();
+        table.put("k", "v0");
+        table.put("k", "v1");
+        table.put("k", "v2");
+        table.put("k", "v3");
+
+        final String prefix = CorfuComponent.OBJECT.toString();
+        final Counter hits = rt.getMetrics().counter(prefix + "snapshot-hit");
+        final Counter misses = rt.getMetrics().counter(prefix + "snapshot-miss");
+        final long hitsBefore = hits.getCount();
+        final long missesBefore = misses.getCount();
+
+        // The puts synced the table to the third version, rolling back retains it.
+        assertThat(readAt(rt, table, first)).isEqualTo("v1");
+        assertThat(readAt(rt, table, third)).isEqualTo("v3");
+        assertThat(readAt(rt, table, first)).isEqualTo("v1");
+        assertThat(readAt(rt, table, third)).isEqualTo("v3");
+        // Leaving the first version, which was rolled back to, retains it.
+        assertThat(readAt(rt, table, second)).isEqualTo("v2");
+        assertThat(readAt(rt, table, first)).isEqualTo("v1");
+        assertThat(readAt(rt, table, third)).isEqualTo("v3");
+
+        final long expectedHits = 4;
+        final long expectedMisses = 2;
+        assertThat(hits.getCount() - hitsBefore).isEqualTo(expectedHits);
+        assertThat(misses.getCount() - missesBefore).isEqualTo(expectedMisses);
+    }
+
+    /** Check that a retained snapshot serves reads at timestamps after its version, up
+     * to the timestamp the object was synced to, at which the stream has no updates.
+     */
+    @Test
+    public void snapshotsServeReadsUpToTheirSyncedTimestamp() {
+        final int snapshots = 2;
+        final long first = 0L;
+        final long second = 2L;
+        final long tail = 3L;
+        CorfuRuntime rt = getNewRuntime(getDefaultNode());
+        rt.getParameters().setObjectSnapshots(snapshots);
+        rt.connect();
+
+        Map<String, String> table = rt.getObjectsView().build()
+                .setType(CorfuTable.class)
+                .setStreamName("test")
+                .open();
+        Map<String, String> other = rt.getObjectsView().build()
+                .setType(CorfuTable.class)
+                .setStreamName("other")
+                .open();
+        table.put("k", "v0");
+        other.put("k", "o1");
+        table.put("k", "v2");
+        other.put("k", "o3");
+
+        final String prefix = CorfuComponent.OBJECT.toString();
+        final Counter hits = rt.getMetrics().counter(prefix + "snapshot-hit");
+        final Counter misses = rt.getMetrics().counter(prefix + "snapshot-miss");
+        final long hitsBefore = hits.getCount();
+        final long missesBefore = misses.getCount();
+
+        // Sync the table to the tail, past its last update, then roll it back.
+        assertThat(readAt(rt, table, tail)).isEqualTo("v2");
+        assertThat(readAt(rt, table, first)).isEqualTo("v0");
+        // The snapshot at the second version serves the tail.
+        assertThat(readAt(rt, table, tail)).isEqualTo("v2");
+        assertThat(readAt(rt, table, second)).isEqualTo("v2");
+
+        final long expectedHits = 2;
+        final long expectedMisses = 2;
+        assertThat(hits.getCount() - hitsBefore).isEqualTo(expectedHits);
+        assertThat(misses.getCount() - missesBefore).isEqualTo(expectedMisses);
+    }
+
+    private String readAt(CorfuRuntime rt, Map<String, String> table, long version) {
+        rt.getObjectsView().TXBuild()
+                .setType(TransactionType.SNAPSHOT)
+                .setSnapshot(version)
+                .begin();
+        try {
+            return table.get("k");
+        } finally {
+            rt.getObjectsView().TXEnd();
+        }
+    }
 }
@@ -8,12 +8,17 @@ import org.corfudb.infrastructure.LogUnitServerAssertions;
 import org.corfudb.infrastructure.TestLayoutBuilder;
 import org.corfudb.protocols.wireprotocol.*;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
+import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.exceptions.StaleTokenException;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Created by mwei on 2/1/16.
@@ -235,4 +240,140 @@ public class AddressSpaceViewTest extends AbstractViewTest {
         assertThat(m.get(ADDRESS_1).isHole());
         assertThat(m.get(ADDRESS_2).isHole());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void writeReadAsync()
+            throws Exception {
+        CorfuRuntime r = getRuntime().connect();
+        final int numEntries = 12;
+        final long epoch = r.getLayoutView().getLayout().getEpoch();
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            writes.add(r.getAddressSpaceView().writeAsync(new Token(i, epoch),
+                    Integer.toString(i).getBytes(), CacheOption.WRITE_AROUND));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[numEntries])).join();
+
+        assertThat(r.getAddressSpaceView().readAsync(0L).join().getPayload(r))
+                .isEqualTo("0".getBytes());
+
+        List<Long> addresses = new ArrayList<>();
+        for (long i = 0; i < numEntries; i++) {
+            addresses.add(i);
+        }
+        Map<Long, ILogData> m = r.getAddressSpaceView().readAllAsync(addresses).join();
+        for (int i = 0; i < numEntries; i++) {
+            assertThat(m.get((long) i).getPayload(r))
+                    .isEqualTo(Integer.toString(i).getBytes());
+        }
+        assertThat(r.getAddressSpaceView().getReadCache().asMap()).containsKeys(addresses
+                .toArray(new Long[numEntries]));
+
+        // An overwrite fails, and a stale token is rejected
+        assertThatThrownBy(() -> r.getAddressSpaceView()
+                .writeAsync(new Token(0, epoch), "overwrite".getBytes()).join())
+                .hasCauseInstanceOf(OverwriteException.class);
+        assertThatThrownBy(() -> r.getAddressSpaceView()
+                .writeAsync(new Token(numEntries, epoch - 1), "x".getBytes()).join())
+                .hasCauseInstanceOf(StaleTokenException.class);
+    }
+
+    /**
+     * Tests that asynchronous reads which have to hole fill, and so block, still all
+     * complete when they outnumber the threads of the async executor.
+     */
+    @Test
+    public void asyncHoleFillsQueueOnBoundedExecutor() {
+        CorfuRuntime r = getNewRuntime(CorfuRuntimeParameters.builder()
+                .addressSpaceAsyncThreads(1)
+                .build());
+        r.parseConfigurationString(getDefaultNode().getHost() + ":"
+                + getDefaultNode().getPort()).connect();
+        final int numHoles = 8;
+
+        List<CompletableFuture<ILogData>> reads = new ArrayList<>();
+        for (long i = 0; i < numHoles; i++) {
+            reads.add(r.getAddressSpaceView().readAsync(i));
+        }
+        assertThat(reads).allMatch(read -> read.join().isHole());
+    }
+
+    @Test
+    public void cacheIsBoundedByWeight() {
+        final int payloadSize = 1000;
+        final int numEntries = 100;
+        final int maxEntries = 10;
+        final long maxWeight = (long) payloadSize * maxEntries;
+        CorfuRuntime r = getNewRuntime(CorfuRuntime.CorfuRuntimeParameters.builder()
+                .maxCacheWeight(maxWeight)
+                .build())
+                .parseConfigurationString(getDefaultConfigurationString())
+                .connect();
+        final long epoch = r.getLayoutView().getLayout().getEpoch();
+
+        for (int i = 0; i < numEntries; i++) {
+            r.getAddressSpaceView().write(new Token(i, epoch), new byte[payloadSize],
+                    CacheOption.WRITE_AROUND);
+            r.getAddressSpaceView().read(i);
+        }
+
+        LoadingCache<Long, ILogData> cache = r.getAddressSpaceView().getReadCache();
+        cache.cleanUp();
+        assertThat(cache.policy().eviction().get().weightedSize().getAsLong())
+                .isLessThanOrEqualTo(maxWeight);
+        assertThat(cache.estimatedSize()).isLessThan(maxEntries);
+        assertThat(cache.stats().evictionWeight()).isGreaterThan(0L);
+    }
+
+    @Test
+    public void offHeapCacheDeserializesOnRead() {
+        CorfuRuntime r = getNewRuntime(CorfuRuntime.CorfuRuntimeParameters.builder()
+                .cacheOffHeap(true)
+                .build())
+                .parseConfigurationString(getDefaultConfigurationString())
+                .connect();
+        final long epoch = r.getLayoutView().getLayout().getEpoch();
+
+        r.getAddressSpaceView().write(new Token(0, epoch), "written".getBytes());
+        r.getAddressSpaceView().write(new Token(1, epoch), "read".getBytes(),
+                CacheOption.WRITE_AROUND);
+
+        for (long address = 0; address < 2; address++) {
+            ILogData first = r.getAddressSpaceView().read(address);
+            ILogData second = r.getAddressSpaceView().read(address);
+            assertThat(first).isInstanceOf(OffHeapLogData.class);
+            assertThat(first.getPayload(r)).isEqualTo(second.getPayload(r));
+            assertThat(first.getPayload(r)).isNotSameAs(second.getPayload(r));
+        }
+        assertThat(r.getAddressSpaceView().read(0L).getPayload(r))
+                .isEqualTo("written".getBytes());
+        assertThat(r.getAddressSpaceView().read(1L).getPayload(r))
+                .isEqualTo("read".getBytes());
+    }
+
+    @Test
+    public void offHeapEntriesOutliveEviction() {
+        CorfuRuntime r = getNewRuntime(CorfuRuntime.CorfuRuntimeParameters.builder()
+                .cacheOffHeap(true)
+                .numCacheEntries(1)
+                .build())
+                .parseConfigurationString(getDefaultConfigurationString())
+                .connect();
+        final long epoch = r.getLayoutView().getLayout().getEpoch();
+        final int numEntries = 3;
+
+        List<ILogData> entries = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            r.getAddressSpaceView().write(new Token(i, epoch), Integer.toString(i).getBytes());
+            entries.add(r.getAddressSpaceView().read((long) i));
+        }
+        r.getAddressSpaceView().getReadCache().cleanUp();
+
+        // Entries read before they were evicted can still be read
+        assertThat(r.getAddressSpaceView().getReadCache().estimatedSize()).isEqualTo(1);
+        for (int i = 0; i < numEntries; i++) {
+            assertThat(entries.get(i).getPayload(r)).isEqualTo(Integer.toString(i).getBytes());
+        }
+    }
+}
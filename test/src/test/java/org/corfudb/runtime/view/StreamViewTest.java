@@ -11,6 +11,8 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -382,4 +384,100 @@ public class StreamViewTest extends AbstractViewTest {
         assertThatThrownBy(() -> sv.next())
                 .isInstanceOf(TrimmedException.class);
     }
+
+    /**
+     * Tests that the entries of a stream read an entry at a time are read ahead of the
+     * consumer, once the size of its entries is known.
+     */
+    @Test
+    public void entriesAreReadAhead() {
+        // Entries are read ahead into the cache
+        r.getParameters().setCacheDisabled(false);
+        UUID streamA = CorfuRuntime.getStreamID("stream A");
+        IStreamView sv = r.getStreamsView().get(streamA);
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            sv.append(String.valueOf(i).getBytes());
+        }
+        r.getAddressSpaceView().invalidateClientCache();
+
+        final int readEntries = 3;
+        IStreamView reader = r.getStreamsView().get(streamA);
+        for (int i = 0; i < readEntries; i++) {
+            assertThat(reader.next().getPayload(r)).isEqualTo(String.valueOf(i).getBytes());
+        }
+        // The second entry read, read ahead the entries following it
+        r.getAddressSpaceView().awaitReadAheads();
+        final long readAheadUpTo = Long.min(PARAMETERS.NUM_ITERATIONS_LOW - 1,
+                1 + r.getParameters().getStreamReadAheadSize());
+        assertThat(r.getAddressSpaceView().getReadCache().asMap().keySet())
+                .containsAll(LongStream.rangeClosed(0, readAheadUpTo).boxed()
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Tests that the entries read ahead of a consumer are bounded by the read ahead budget,
+     * and that the stream is still read entirely.
+     */
+    @Test
+    public void readAheadIsBoundedByBudget() {
+        r.getParameters().setCacheDisabled(false);
+        r.getParameters().setStreamReadAheadBytes(1L);
+        UUID streamA = CorfuRuntime.getStreamID("stream A");
+        IStreamView sv = r.getStreamsView().get(streamA);
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            sv.append(String.valueOf(i).getBytes());
+        }
+        r.getAddressSpaceView().invalidateClientCache();
+
+        // Each entry read reads the next one ahead, a single entry fits the budget
+        final int readEntries = 3;
+        IStreamView reader = r.getStreamsView().get(streamA);
+        for (int i = 0; i < readEntries; i++) {
+            assertThat(reader.next().getPayload(r)).isEqualTo(String.valueOf(i).getBytes());
+        }
+        assertThat(r.getAddressSpaceView().getReadCache().asMap().keySet())
+                .allMatch(address -> address <= readEntries);
+
+        for (int i = readEntries; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            assertThat(reader.next().getPayload(r)).isEqualTo(String.valueOf(i).getBytes());
+        }
+        assertThat(reader.next()).isNull();
+    }
+
+    /**
+     * Tests that an address of a stream which was never written is not hole filled when
+     * it is read ahead, but only once the consumer gets to it.
+     */
+    @Test
+    public void readAheadDoesNotHoleFill() {
+        r.getParameters().setCacheDisabled(false);
+        UUID streamA = CorfuRuntime.getStreamID("stream A");
+        IStreamView sv = r.getStreamsView().get(streamA);
+        final int entries = 4;
+        for (int i = 0; i < entries; i++) {
+            sv.append(String.valueOf(i).getBytes());
+        }
+        final long unwritten = r.getSequencerView().next(streamA).getToken().getTokenValue();
+        for (int i = entries; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            sv.append(String.valueOf(i).getBytes());
+        }
+        r.getAddressSpaceView().invalidateClientCache();
+
+        final int readEntries = 2;
+        IStreamView reader = r.getStreamsView().get(streamA);
+        for (int i = 0; i < readEntries; i++) {
+            assertThat(reader.next().getPayload(r)).isEqualTo(String.valueOf(i).getBytes());
+        }
+        r.getAddressSpaceView().awaitReadAheads();
+        assertThat(r.getAddressSpaceView().getReadCache().asMap())
+                .doesNotContainKey(unwritten)
+                .containsKey(unwritten + 1);
+
+        // The consumer hole fills the address, and skips it
+        for (int i = readEntries; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            assertThat(reader.next().getPayload(r)).isEqualTo(String.valueOf(i).getBytes());
+        }
+        assertThat(reader.next()).isNull();
+        assertThat(r.getAddressSpaceView().read(unwritten).isHole()).isTrue();
+    }
 }
@@ -12,6 +12,15 @@ import org.corfudb.runtime.view.RuntimeLayout;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -109,4 +118,60 @@ public abstract class AbstractReplicationProtocolTest extends AbstractViewTest {
         assertThatThrownBy(() -> rp.write(runtimeLayout, d2))
                 .isInstanceOf(OverwriteException.class);
     }
+
+    /** Check that entries written asynchronously can be read
+     * back asynchronously, one at a time and all at once.
+     */
+    @Test
+    public void canWriteReadAsync()
+            throws Exception {
+        setupNodes();
+
+        //begin tests
+        final CorfuRuntime r = getDefaultRuntime();
+        final IReplicationProtocol rp = getProtocol();
+        final RuntimeLayout runtimeLayout = r.getLayoutView().getRuntimeLayout();
+        final int numEntries = 10;
+        final Executor executor = ForkJoinPool.commonPool();
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            writes.add(rp.writeAsync(runtimeLayout,
+                    getLogData(i, Integer.toString(i).getBytes()), executor));
+        }
+        writes.forEach(CompletableFuture::join);
+
+        ILogData read = rp.readAsync(runtimeLayout, 0, executor).join();
+        assertThat(read.getPayload(r))
+                .isEqualTo("0".getBytes());
+
+        List<Long> addresses = LongStream.range(0, numEntries).boxed()
+                .collect(Collectors.toList());
+        Map<Long, ILogData> reads = rp.readAllAsync(runtimeLayout, addresses, executor).join();
+        for (int i = 0; i < numEntries; i++) {
+            assertThat(reads.get((long) i).getPayload(r))
+                    .isEqualTo(Integer.toString(i).getBytes());
+        }
+    }
+
+    /** Check that an asynchronous write of a previously
+     * written entry fails with an OverwriteException.
+     */
+    @Test
+    public void overwriteAsyncFails()
+            throws Exception {
+        setupNodes();
+
+        //begin tests
+        final CorfuRuntime r = getDefaultRuntime();
+        final IReplicationProtocol rp = getProtocol();
+        final RuntimeLayout runtimeLayout = r.getLayoutView().getRuntimeLayout();
+        final Executor executor = ForkJoinPool.commonPool();
+
+        rp.writeAsync(runtimeLayout, getLogData(0, "1".getBytes()), executor).join();
+        CompletableFuture<Void> overwrite =
+                rp.writeAsync(runtimeLayout, getLogData(0, "2".getBytes()), executor);
+        assertThatThrownBy(overwrite::join)
+                .hasCauseInstanceOf(OverwriteException.class);
+    }
 }
@@ -1,6 +1,11 @@
 package org.corfudb.runtime.view.replication;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import org.corfudb.infrastructure.TestLayoutBuilder;
+import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.runtime.CorfuRuntime;
@@ -106,6 +111,34 @@ public class ChainReplicationProtocolTest extends AbstractReplicationProtocolTes
                 .isEqualTo("incomplete".getBytes());
     }
 
+    /** Check that reading several unwritten addresses fills
+     * holes at every unit of the chain.
+     */
+    @Test
+    public void readAllFillsHolesOnWholeChain() throws Exception {
+        setupNodes();
+        final CorfuRuntime r = getDefaultRuntime();
+        final IReplicationProtocol rp = getProtocol();
+        final RuntimeLayout runtimeLayout = r.getLayoutView().getRuntimeLayout();
+        final List<Long> addresses = Arrays.asList(0L, 1L, 2L);
+
+        rp.write(runtimeLayout, getLogData(1, "written".getBytes()));
+
+        Map<Long, ILogData> readResult = rp.readAll(runtimeLayout, addresses);
+        assertThat(readResult.get(0L).getType()).isEqualTo(DataType.HOLE);
+        assertThat(readResult.get(1L).getPayload(r)).isEqualTo("written".getBytes());
+        assertThat(readResult.get(2L).getType()).isEqualTo(DataType.HOLE);
+
+        for (String endpoint : Arrays.asList(SERVERS.ENDPOINT_0, SERVERS.ENDPOINT_1,
+                SERVERS.ENDPOINT_2)) {
+            Map<Long, LogData> unitData = runtimeLayout.getLogUnitClient(endpoint)
+                    .read(addresses).get().getAddresses();
+            assertThat(unitData.get(0L).getType()).isEqualTo(DataType.HOLE);
+            assertThat(unitData.get(1L).getType()).isEqualTo(DataType.DATA);
+            assertThat(unitData.get(2L).getType()).isEqualTo(DataType.HOLE);
+        }
+    }
+
     private void removeLogunit(Layout currentLayout, String endpoint) throws Exception {
         CorfuRuntime corfuRuntime = getRuntime(currentLayout).connect();
         Layout layout = new Layout(corfuRuntime.getLayoutView().getLayout());
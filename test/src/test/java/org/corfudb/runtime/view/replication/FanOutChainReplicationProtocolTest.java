@@ -0,0 +1,73 @@
+package org.corfudb.runtime.view.replication;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.corfudb.infrastructure.TestLayoutBuilder;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.view.Layout;
+import org.corfudb.runtime.view.RuntimeLayout;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test the fan-out chain replication protocol, which must
+ * meet every property of chain replication.
+ */
+public class FanOutChainReplicationProtocolTest extends ChainReplicationProtocolTest {
+
+    /** {@inheritDoc} */
+    @Override
+    IReplicationProtocol getProtocol() {
+        return new FanOutChainReplicationProtocol(new AlwaysHoleFillPolicy());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    void setupNodes() {
+        addServer(SERVERS.PORT_0);
+        addServer(SERVERS.PORT_1);
+        addServer(SERVERS.PORT_2);
+
+        bootstrapAllServers(new TestLayoutBuilder()
+                .addLayoutServer(SERVERS.PORT_0)
+                .addSequencer(SERVERS.PORT_0)
+                .buildSegment()
+                .setReplicationMode(Layout.ReplicationMode.FANOUT_CHAIN_REPLICATION)
+                .buildStripe()
+                .addLogUnit(SERVERS.PORT_0)
+                .addLogUnit(SERVERS.PORT_1)
+                .addLogUnit(SERVERS.PORT_2)
+                .addToSegment()
+                .addToLayout()
+                .build());
+    }
+
+    /** Check that the layout selects the fan-out protocol,
+     * and that writes reach every unit of the chain.
+     */
+    @Test
+    public void writesReachEveryUnit() throws Exception {
+        setupNodes();
+        final CorfuRuntime r = getDefaultRuntime();
+        final RuntimeLayout runtimeLayout = r.getLayoutView().getRuntimeLayout();
+        final IReplicationProtocol rp = runtimeLayout.getLayout()
+                .getReplicationMode(0L).getReplicationProtocol(r);
+        assertThat(rp).isInstanceOf(FanOutChainReplicationProtocol.class);
+
+        rp.write(runtimeLayout, getLogData(0, "sync".getBytes()));
+        rp.writeAsync(runtimeLayout, getLogData(1, "async".getBytes()),
+                ForkJoinPool.commonPool()).join();
+
+        for (String endpoint : Arrays.asList(SERVERS.ENDPOINT_0, SERVERS.ENDPOINT_1,
+                SERVERS.ENDPOINT_2)) {
+            ILogData sync = runtimeLayout.getLogUnitClient(endpoint).read(0L).get()
+                    .getAddresses().get(0L);
+            ILogData async = runtimeLayout.getLogUnitClient(endpoint).read(1L).get()
+                    .getAddresses().get(1L);
+            assertThat(sync.getPayload(r)).isEqualTo("sync".getBytes());
+            assertThat(async.getPayload(r)).isEqualTo("async".getBytes());
+        }
+    }
+}
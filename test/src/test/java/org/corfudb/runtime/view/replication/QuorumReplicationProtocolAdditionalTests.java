@@ -296,12 +296,15 @@ public class QuorumReplicationProtocolAdditionalTests extends AbstractViewTest {
 
 
 
-    public void sendMessage(LogUnitServer s, CorfuMsg message) {
+    public void sendMessage(LogUnitServer s, CorfuMsg message) throws InterruptedException {
         TestServerRouter router = new TestServerRouter();
         router.addServer(s);
         message.setClientID(testClientId);
         message.setRequestID(requestCounter.getAndIncrement());
         router.sendServerMessage(message);
+        // Log unit writes are acknowledged asynchronously
+        assertThat(router.awaitResponse(message.getRequestID(), PARAMETERS.TIMEOUT_NORMAL))
+                .isNotNull();
     }
 
     private AtomicInteger requestCounter = new AtomicInteger(0);
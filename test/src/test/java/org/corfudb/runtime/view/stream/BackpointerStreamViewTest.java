@@ -1,7 +1,12 @@
 package org.corfudb.runtime.view.stream;
 
+import java.util.List;
+import java.util.UUID;
+
+import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.view.AbstractViewTest;
+import org.corfudb.runtime.view.Address;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -145,6 +150,7 @@ public class BackpointerStreamViewTest extends AbstractViewTest {
 
         final int totalEntries = PARAMETERS.NUM_ITERATIONS_LOW + 1;
         CorfuRuntime runtime = getDefaultRuntime();
+        runtime.getParameters().setStreamAddressMapsDisabled(true);
 
         // Create StreamA (100 entries)
         IStreamView svA = runtime.getStreamsView().get(CorfuRuntime.getStreamID("streamA"));
@@ -161,4 +167,91 @@ public class BackpointerStreamViewTest extends AbstractViewTest {
         assertThat(((BackpointerStreamView) svB).getBackpointerCount()).isEqualTo(1L);
     }
 
+    /**
+     * Tests that a stream interleaved with another one is resolved from the address map
+     * of the sequencer, without following any backpointer.
+     */
+    @Test
+    public void streamResolvedFromAddressMap() {
+        CorfuRuntime runtime = getDefaultRuntime();
+        IStreamView svA = runtime.getStreamsView().get(CorfuRuntime.getStreamID("streamA"));
+        IStreamView svB = runtime.getStreamsView().get(CorfuRuntime.getStreamID("streamB"));
+
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            svA.append(String.valueOf(i).getBytes());
+            svB.append(String.valueOf(i).getBytes());
+        }
+
+        List<ILogData> entries = svB.remainingUpTo(Address.MAX);
+        assertThat(entries).hasSize(PARAMETERS.NUM_ITERATIONS_LOW);
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            assertThat((byte[]) entries.get(i).getPayload(runtime))
+                    .isEqualTo(String.valueOf(i).getBytes());
+        }
+        assertThat(((BackpointerStreamView) svB).getBackpointerCount()).isZero();
+
+        // Appends after the stream was read are resolved from the address map as well
+        svB.append(String.valueOf(PARAMETERS.NUM_ITERATIONS_LOW).getBytes());
+        assertThat((byte[]) svB.next().getPayload(runtime))
+                .isEqualTo(String.valueOf(PARAMETERS.NUM_ITERATIONS_LOW).getBytes());
+        assertThat(svB.next()).isNull();
+        assertThat(((BackpointerStreamView) svB).getBackpointerCount()).isZero();
+    }
+
+    /**
+     * Tests that following backpointers reads ahead the addresses preceding the current one,
+     * and accounts for the entries read ahead which the traversal skipped.
+     */
+    @Test
+    public void backpointersArePrefetched() {
+        final int prefetchWindow = 16;
+        CorfuRuntime runtime = getDefaultRuntime();
+        runtime.getParameters().setStreamAddressMapsDisabled(true);
+        runtime.getParameters().setBackpointerPrefetchWindow(prefetchWindow);
+        final UUID streamA = CorfuRuntime.getStreamID("streamA");
+        final UUID streamB = CorfuRuntime.getStreamID("streamB");
+
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            runtime.getStreamsView().get(streamA).append(String.valueOf(i).getBytes());
+            runtime.getStreamsView().get(streamB).append(String.valueOf(i).getBytes());
+        }
+        runtime.getAddressSpaceView().invalidateClientCache();
+
+        // Every address of streamA was read ahead, and so was every address of streamB
+        // below its tail, which the backpointers of streamA skipped
+        BackpointerStreamView svA = (BackpointerStreamView) runtime.getStreamsView().get(streamA);
+        assertThat(svA.remainingUpTo(Address.MAX)).hasSize(PARAMETERS.NUM_ITERATIONS_LOW);
+        assertThat(svA.getBackpointerCount()).isEqualTo(PARAMETERS.NUM_ITERATIONS_LOW);
+        assertThat(svA.getPrefetchHitCount()).isEqualTo(PARAMETERS.NUM_ITERATIONS_LOW);
+        assertThat(svA.getPrefetchWasteCount()).isEqualTo(PARAMETERS.NUM_ITERATIONS_LOW - 1);
+
+        // The entries of streamB are now cached, so they are not read again
+        BackpointerStreamView svB = (BackpointerStreamView) runtime.getStreamsView().get(streamB);
+        assertThat(svB.remainingUpTo(Address.MAX)).hasSize(PARAMETERS.NUM_ITERATIONS_LOW);
+        assertThat(svB.getPrefetchHitCount()).isEqualTo(1L);
+        assertThat(svB.getPrefetchWasteCount()).isZero();
+    }
+
+    /**
+     * Tests that backpointers are followed one address at a time unless prefetching
+     * was enabled.
+     */
+    @Test
+    public void backpointersAreNotPrefetchedByDefault() {
+        CorfuRuntime runtime = getDefaultRuntime();
+        runtime.getParameters().setStreamAddressMapsDisabled(true);
+        final UUID streamA = CorfuRuntime.getStreamID("streamA");
+        final UUID streamB = CorfuRuntime.getStreamID("streamB");
+
+        for (int i = 0; i < PARAMETERS.NUM_ITERATIONS_LOW; i++) {
+            runtime.getStreamsView().get(streamA).append(String.valueOf(i).getBytes());
+            runtime.getStreamsView().get(streamB).append(String.valueOf(i).getBytes());
+        }
+        runtime.getAddressSpaceView().invalidateClientCache();
+
+        BackpointerStreamView svA = (BackpointerStreamView) runtime.getStreamsView().get(streamA);
+        assertThat(svA.remainingUpTo(Address.MAX)).hasSize(PARAMETERS.NUM_ITERATIONS_LOW);
+        assertThat(svA.getPrefetchHitCount()).isZero();
+        assertThat(svA.getPrefetchWasteCount()).isZero();
+    }
 }
@@ -0,0 +1,132 @@
+package org.corfudb.util.serializer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.Value;
+
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.CorfuTable;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the binary serializer.
+ */
+public class BinarySerializerTest extends AbstractViewTest {
+
+    private static final byte SERIALIZER_TYPE = (byte) 40;
+
+    private static final int POINT_ID = BinarySerializer.FIRST_CLASS_ID;
+
+    @Value
+    static class Point {
+        int x;
+        int y;
+    }
+
+    private static BinarySerializer newSerializer() {
+        return new BinarySerializer(SERIALIZER_TYPE)
+                .register(POINT_ID, Point.class,
+                    (p, b) -> {
+                        BinarySerializer.writeVarInt(p.getX(), b);
+                        BinarySerializer.writeVarInt(p.getY(), b);
+                    },
+                    (b, rt) -> new Point(BinarySerializer.readVarInt(b),
+                            BinarySerializer.readVarInt(b)));
+    }
+
+    private static Object roundTrip(ISerializer serializer, Object o) {
+        ByteBuf b = Unpooled.buffer();
+        serializer.serialize(o, b);
+        return serializer.deserialize(b, null);
+    }
+
+    @Test
+    public void roundTripsBuiltInClasses() {
+        final BinarySerializer serializer = newSerializer();
+        final float aFloat = 1.5f;
+        final double aDouble = -2.5d;
+        final Map<String, Object> map = Collections.singletonMap("k", Long.MIN_VALUE);
+
+        for (Object o : Arrays.asList(null, true, (byte) 1, (short) -1, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, Long.MAX_VALUE, aFloat, aDouble, 'c', "\u00ff string",
+                UUID.randomUUID(), Arrays.asList("a", 1, null), Collections.singleton(1L),
+                map, new Point(1, -1))) {
+            assertThat(roundTrip(serializer, o)).isEqualTo(o);
+        }
+        assertThat(roundTrip(serializer, "bytes".getBytes())).isEqualTo("bytes".getBytes());
+    }
+
+    @Test
+    public void smallValuesTakeOneByte() {
+        final int smallInt = 63;
+        final int largeInt = 64;
+        ByteBuf b = Unpooled.buffer();
+        BinarySerializer.writeVarInt(smallInt, b);
+        BinarySerializer.writeVarInt(-smallInt - 1, b);
+        assertThat(b.readableBytes()).isEqualTo(2);
+
+        b.clear();
+        BinarySerializer.writeVarLong(largeInt, b);
+        assertThat(b.readableBytes()).isEqualTo(2);
+
+        // Both the class id and the value of a small integer fit in a byte.
+        b.clear();
+        newSerializer().serialize(smallInt, b);
+        assertThat(b.readableBytes()).isEqualTo(2);
+    }
+
+    @Test
+    public void classesMustBeRegistered() {
+        final BinarySerializer serializer = newSerializer();
+        final int otherId = POINT_ID + 1;
+
+        assertThatThrownBy(() -> serializer.serialize(new Object(), Unpooled.buffer()))
+                .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> serializer.register(otherId, Point.class,
+                (p, b) -> { }, (b, rt) -> null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> serializer.register(POINT_ID, Object.class,
+                (p, b) -> { }, (b, rt) -> null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> serializer.register(1, Object.class,
+                (p, b) -> { }, (b, rt) -> null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Check that a table using the serializer is rebuilt from the log by another runtime.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void canBackCorfuTable() {
+        final BinarySerializer serializer = newSerializer();
+        Serializers.registerSerializer(serializer);
+
+        Map<String, Point> table = getDefaultRuntime().getObjectsView().build()
+                .setType(CorfuTable.class)
+                .setStreamName("test")
+                .setSerializer(serializer)
+                .open();
+        table.put("a", new Point(1, 2));
+        table.put("b", new Point(-1, 1));
+
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        Map<String, Point> other = rt.getObjectsView().build()
+                .setType(CorfuTable.class)
+                .setStreamName("test")
+                .setSerializer(serializer)
+                .open();
+        assertThat(other).containsEntry("a", new Point(1, 2))
+                .containsEntry("b", new Point(-1, 1));
+    }
+}